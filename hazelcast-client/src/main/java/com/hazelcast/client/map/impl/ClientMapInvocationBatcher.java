@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map.impl;
+
+import com.hazelcast.cache.impl.JCacheDetector;
+import com.hazelcast.client.impl.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.protocol.ClientExceptionFactory;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.ErrorCodec;
+import com.hazelcast.client.impl.protocol.codec.MapBatchCodec;
+import com.hazelcast.client.spi.ClientExecutionService;
+import com.hazelcast.client.spi.ClientPartitionService;
+import com.hazelcast.client.spi.impl.ClientInvocation;
+import com.hazelcast.client.spi.impl.ClientInvocationFuture;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.util.ConcurrencyUtil;
+import com.hazelcast.util.ConstructorFunction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.client.spi.properties.ClientProperty.MAP_BATCHING_MAX_DELAY_MICROS;
+import static com.hazelcast.client.spi.properties.ClientProperty.MAP_BATCHING_MAX_SIZE;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Coalesces concurrent single-key map invocations which target the same member into {@link MapBatchCodec} messages.
+ * It also sends the per-partition invocations of bulk operations, see {@link #invokeOnPartitionOwners(Map)}.
+ * <p/>
+ * An invocation waits at most {@link com.hazelcast.client.spi.properties.ClientProperty#MAP_BATCHING_MAX_DELAY_MICROS}
+ * for other invocations to the same member, a batch is sent right away when it reaches
+ * {@link com.hazelcast.client.spi.properties.ClientProperty#MAP_BATCHING_MAX_SIZE} invocations. The response of a batch
+ * is demultiplexed to the {@link ClientInvocationFuture}s of the batched invocations. If the batch itself fails, every
+ * batched invocation handles the failure as if it had been sent alone, so retryable invocations are retried one by one.
+ * <p/>
+ * Invocations whose partition owner is unknown or not connected are not batched.
+ */
+public final class ClientMapInvocationBatcher {
+
+    private final ConcurrentMap<Address, Batch> batches = new ConcurrentHashMap<Address, Batch>();
+    private final ConstructorFunction<Address, Batch> batchConstructor = new ConstructorFunction<Address, Batch>() {
+        @Override
+        public Batch createNew(Address target) {
+            return new Batch(target);
+        }
+    };
+
+    private final HazelcastClientInstanceImpl client;
+    private final ClientExecutionService executionService;
+    private final ClientExceptionFactory exceptionFactory;
+    private final long maxDelayNanos;
+    private final int maxBatchSize;
+
+    public ClientMapInvocationBatcher(HazelcastClientInstanceImpl client) {
+        this.client = client;
+        this.executionService = client.getClientExecutionService();
+        boolean jcacheAvailable = JCacheDetector.isJcacheAvailable(client.getClientConfig().getClassLoader());
+        this.exceptionFactory = new ClientExceptionFactory(jcacheAvailable);
+        HazelcastProperties properties = client.getProperties();
+        this.maxDelayNanos = properties.getNanos(MAP_BATCHING_MAX_DELAY_MICROS);
+        this.maxBatchSize = Math.max(1, properties.getInteger(MAP_BATCHING_MAX_SIZE));
+    }
+
+    /**
+     * Invokes the given single-key request on the owner of the given partition, batched with other requests
+     * to the same member.
+     *
+     * @param request     the request, which needs to be supported by the {@link MapBatchCodec} message task
+     * @param partitionId the partition of the key of the request
+     * @return the future of the invocation of the request
+     */
+    public ClientInvocationFuture invoke(ClientMessage request, int partitionId) {
+        ClientInvocation invocation = new ClientInvocation(client, request, partitionId);
+        Address owner = client.getClientPartitionService().getPartitionOwner(partitionId);
+        if (owner == null) {
+            return invocation.invoke();
+        }
+        ConcurrencyUtil.getOrPutIfAbsent(batches, owner, batchConstructor).add(invocation);
+        return invocation.getClientInvocationFuture();
+    }
+
+    /**
+     * Invokes the given requests right away, each on the owner of its partition. The requests which target the same
+     * member are sent in batches of at most
+     * {@link com.hazelcast.client.spi.properties.ClientProperty#MAP_BATCHING_MAX_SIZE} requests.
+     *
+     * @param requests the requests by partition id, which need to be supported by the {@link MapBatchCodec} message task
+     * @return the futures of the invocations of the requests
+     */
+    public List<ClientInvocationFuture> invokeOnPartitionOwners(Map<Integer, ClientMessage> requests) {
+        List<ClientInvocationFuture> futures = new ArrayList<ClientInvocationFuture>(requests.size());
+        Map<Address, List<ClientInvocation>> invocationsByOwner = new HashMap<Address, List<ClientInvocation>>();
+        ClientPartitionService partitionService = client.getClientPartitionService();
+        for (Map.Entry<Integer, ClientMessage> entry : requests.entrySet()) {
+            int partitionId = entry.getKey();
+            ClientInvocation invocation = new ClientInvocation(client, entry.getValue(), partitionId);
+            Address owner = partitionService.getPartitionOwner(partitionId);
+            if (owner == null) {
+                futures.add(invocation.invoke());
+                continue;
+            }
+            List<ClientInvocation> invocations = invocationsByOwner.get(owner);
+            if (invocations == null) {
+                invocations = new ArrayList<ClientInvocation>();
+                invocationsByOwner.put(owner, invocations);
+            }
+            invocations.add(invocation);
+            futures.add(invocation.getClientInvocationFuture());
+        }
+        for (Map.Entry<Address, List<ClientInvocation>> entry : invocationsByOwner.entrySet()) {
+            List<ClientInvocation> invocations = entry.getValue();
+            for (int i = 0; i < invocations.size(); i += maxBatchSize) {
+                send(entry.getKey(), invocations.subList(i, Math.min(i + maxBatchSize, invocations.size())));
+            }
+        }
+        return futures;
+    }
+
+    private void send(Address target, List<ClientInvocation> invocations) {
+        if (invocations.isEmpty()) {
+            return;
+        }
+        Connection connection = client.getConnectionManager().getConnection(target);
+        if (invocations.size() == 1 || connection == null) {
+            for (ClientInvocation invocation : invocations) {
+                invocation.run();
+            }
+            return;
+        }
+
+        List<ClientMessage> requests = new ArrayList<ClientMessage>(invocations.size());
+        for (ClientInvocation invocation : invocations) {
+            requests.add(invocation.getClientMessage());
+        }
+        try {
+            ClientMessage request = MapBatchCodec.encodeRequest(requests);
+            // bound to the connection, so a failed batch is not retried as a whole but per invocation
+            new ClientInvocation(client, request, connection).invoke().andThen(new BatchCallback(invocations));
+        } catch (Throwable t) {
+            for (ClientInvocation invocation : invocations) {
+                invocation.notifyException(t);
+            }
+        }
+    }
+
+    /**
+     * The pending invocations to a single member. Only one thread at a time sends the invocations of a batch, so
+     * they are sent in the order they were added.
+     */
+    private final class Batch implements Runnable {
+
+        private final Address target;
+        private final Queue<ClientInvocation> pending = new ConcurrentLinkedQueue<ClientInvocation>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Batch(Address target) {
+            this.target = target;
+        }
+
+        void add(ClientInvocation invocation) {
+            pending.offer(invocation);
+            if (pendingCount.incrementAndGet() >= maxBatchSize) {
+                flush(false);
+            } else {
+                scheduleFlush();
+            }
+        }
+
+        @Override
+        public void run() {
+            // the flush clears the flag before it drains, so every pending invocation is covered by a flush
+            flushScheduled.set(false);
+            flush(true);
+        }
+
+        /**
+         * Sends the full batches, or all pending invocations if {@code all} is set. If another thread is already
+         * sending, nothing is sent; that thread checks for full batches when it is done and every thread makes sure a
+         * flush is scheduled for the rest.
+         */
+        private void flush(boolean all) {
+            while (sending.compareAndSet(false, true)) {
+                try {
+                    while (pendingCount.get() >= maxBatchSize || (all && pendingCount.get() > 0)) {
+                        send(target, drain());
+                    }
+                } finally {
+                    sending.set(false);
+                }
+                // the invocations added while the flag was set weren't sent by their callers
+                if (pendingCount.get() < maxBatchSize) {
+                    break;
+                }
+                all = false;
+            }
+            scheduleFlush();
+        }
+
+        private void scheduleFlush() {
+            if (pendingCount.get() > 0 && flushScheduled.compareAndSet(false, true)) {
+                try {
+                    executionService.schedule(this, maxDelayNanos, NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    run();
+                }
+            }
+        }
+
+        private List<ClientInvocation> drain() {
+            List<ClientInvocation> invocations = new ArrayList<ClientInvocation>(Math.min(pendingCount.get(), maxBatchSize));
+            ClientInvocation invocation;
+            while (invocations.size() < maxBatchSize && (invocation = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                invocations.add(invocation);
+            }
+            return invocations;
+        }
+    }
+
+    private final class BatchCallback implements ExecutionCallback<ClientMessage> {
+
+        private final List<ClientInvocation> invocations;
+
+        private BatchCallback(List<ClientInvocation> invocations) {
+            this.invocations = invocations;
+        }
+
+        @Override
+        public void onResponse(ClientMessage response) {
+            List<ClientMessage> responses = MapBatchCodec.decodeResponse(response).response;
+            for (int i = 0; i < invocations.size(); i++) {
+                ClientMessage invocationResponse = responses.get(i);
+                if (invocationResponse.getMessageType() == ErrorCodec.TYPE) {
+                    invocations.get(i).notifyException(exceptionFactory.createException(invocationResponse));
+                } else {
+                    invocations.get(i).notify(invocationResponse);
+                }
+            }
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            for (ClientInvocation invocation : invocations) {
+                invocation.notifyException(t);
+            }
+        }
+    }
+}
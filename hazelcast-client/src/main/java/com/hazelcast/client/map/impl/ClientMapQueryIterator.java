@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map.impl;
+
+import com.hazelcast.client.impl.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapQueryPartitionPageCodec;
+import com.hazelcast.client.spi.impl.ClientInvocation;
+import com.hazelcast.map.impl.LazyMapEntry;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.util.ExceptionUtil;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the entries of a map matching a predicate by querying the partitions one after the other,
+ * a page of at most {@code pageSize} entries at a time. Only the current page is held in memory.
+ * <p/>
+ * The cursor of the iteration is the partition id and the table index returned with the previous page; the members
+ * keep no state in between two pages. Because of that the iteration is weakly consistent: entries which are added,
+ * removed, or moved by a resize of the partition's table or a migration while iterating may or may not be returned.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class ClientMapQueryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+
+    private final HazelcastClientInstanceImpl client;
+    private final SerializationService serializationService;
+    private final String name;
+    private final Data predicate;
+    private final int pageSize;
+    private final int partitionCount;
+
+    private int partitionId;
+    private int tableIndex = Integer.MAX_VALUE;
+    private List<Map.Entry<Data, Data>> page = Collections.emptyList();
+    private int index;
+
+    public ClientMapQueryIterator(HazelcastClientInstanceImpl client, String name, Data predicate, int pageSize) {
+        this.client = client;
+        this.serializationService = client.getSerializationService();
+        this.name = name;
+        this.predicate = predicate;
+        this.pageSize = pageSize;
+        this.partitionCount = client.getClientPartitionService().getPartitionCount();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (index == page.size()) {
+            if (!fetchPage()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map.Entry<Data, Data> entry = page.get(index++);
+        return new LazyMapEntry(entry.getKey(), entry.getValue(), serializationService);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removing entries is not supported by the query iterator");
+    }
+
+    private boolean fetchPage() {
+        if (partitionId == partitionCount) {
+            return false;
+        }
+        ClientMessage request = MapQueryPartitionPageCodec.encodeRequest(name, predicate, tableIndex, pageSize);
+        MapQueryPartitionPageCodec.ResponseParameters response;
+        try {
+            ClientMessage responseMessage = new ClientInvocation(client, request, partitionId).invoke().get();
+            response = MapQueryPartitionPageCodec.decodeResponse(responseMessage);
+        } catch (Exception e) {
+            throw ExceptionUtil.rethrow(e);
+        }
+        page = response.entries;
+        index = 0;
+        if (response.nextTableIndex < 0) {
+            partitionId++;
+            tableIndex = Integer.MAX_VALUE;
+        } else {
+            tableIndex = response.nextTableIndex;
+        }
+        return true;
+    }
+}
@@ -22,18 +22,22 @@ import com.hazelcast.client.spi.impl.ClientExecutionServiceImpl;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.eviction.EvictableEntryView;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.eviction.EvictionPolicyComparator;
+import com.hazelcast.internal.eviction.EvictionPolicyEvaluator;
+import com.hazelcast.internal.eviction.EvictionStrategy;
+import com.hazelcast.internal.eviction.impl.comparator.LFUEvictionPolicyComparator;
+import com.hazelcast.internal.eviction.impl.comparator.LRUEvictionPolicyComparator;
+import com.hazelcast.internal.eviction.impl.evaluator.DefaultEvictionPolicyEvaluator;
+import com.hazelcast.internal.eviction.impl.strategy.sampling.SamplingBasedEvictionStrategy;
 import com.hazelcast.map.impl.nearcache.NearCacheRecord;
 import com.hazelcast.monitor.impl.NearCacheStatsImpl;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.Clock;
 import com.hazelcast.util.ExceptionUtil;
 
-import java.util.Comparator;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -41,23 +45,21 @@ import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * Implementation of the {@link NearCache}.
  * <p/>
- * todo: improve javadoc.
+ * When the near cache is full, every put evicts a single record chosen by the eviction policy among a few randomly
+ * sampled records, see {@link SamplingBasedEvictionStrategy}.
  *
  * @param <K>
  */
 public class ClientHeapNearCache<K>
         implements NearCache<K, Object> {
 
-    /**
-     * Eviction factor
-     */
-    private static final double EVICTION_FACTOR = 0.2;
-
     /**
      * TTL Clean up interval
      */
     private static final int TTL_CLEANUP_INTERVAL_MILLS = 5000;
 
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
     private final int maxSize;
     private final long maxIdleMillis;
     private final long timeToLiveMillis;
@@ -67,10 +69,11 @@ public class ClientHeapNearCache<K>
     private final String mapName;
     private final ClientContext context;
     private final AtomicBoolean canCleanUp;
-    private final AtomicBoolean canEvict;
-    private final ConcurrentMap<K, NearCacheRecord> cache;
+    private final ClientNearCacheRecordMap<K> cache;
     private final NearCacheStatsImpl stats;
-    private final Comparator<NearCacheRecord> selectedComparator;
+    private final EvictionPolicyEvaluator<K, NearCacheRecord> evictionPolicyEvaluator;
+    private final EvictionStrategy<K, NearCacheRecord, ClientNearCacheRecordMap<K>> evictionStrategy;
+    private final EvictionChecker evictionChecker;
 
     private volatile long lastCleanup;
 
@@ -87,10 +90,12 @@ public class ClientHeapNearCache<K>
         timeToLiveMillis = TimeUnit.SECONDS.toMillis(nearCacheConfig.getTimeToLiveSeconds());
         invalidateOnChange = nearCacheConfig.isInvalidateOnChange();
         evictionPolicy = EvictionPolicy.valueOf(nearCacheConfig.getEvictionPolicy());
-        selectedComparator = NearCacheRecord.getComparator(evictionPolicy);
-        cache = new ConcurrentHashMap<K, NearCacheRecord>();
+        evictionPolicyEvaluator = new DefaultEvictionPolicyEvaluator<K, NearCacheRecord>(
+                createEvictionPolicyComparator(evictionPolicy));
+        evictionStrategy = new SamplingBasedEvictionStrategy<K, NearCacheRecord, ClientNearCacheRecordMap<K>>();
+        evictionChecker = new MaxSizeEvictionChecker();
+        cache = new ClientNearCacheRecordMap<K>(DEFAULT_INITIAL_CAPACITY);
         canCleanUp = new AtomicBoolean(true);
-        canEvict = new AtomicBoolean(true);
         lastCleanup = Clock.currentTimeMillis();
         stats = new NearCacheStatsImpl();
     }
@@ -101,8 +106,8 @@ public class ClientHeapNearCache<K>
         if (evictionPolicy == EvictionPolicy.NONE && cache.size() >= maxSize) {
             return;
         }
-        if (evictionPolicy != EvictionPolicy.NONE && cache.size() >= maxSize) {
-            fireEvictCache();
+        if (evictionPolicy != EvictionPolicy.NONE) {
+            evictionStrategy.evict(cache, evictionPolicyEvaluator, evictionChecker, null);
         }
         Object value = null;
         if (object != null) {
@@ -119,43 +124,6 @@ public class ClientHeapNearCache<K>
         cache.put(key, new NearCacheRecord(key, value));
     }
 
-    private void fireEvictCache() {
-        if (canEvict.compareAndSet(true, false)) {
-            try {
-                final ClientExecutionServiceImpl executionService = (ClientExecutionServiceImpl) context.getExecutionService();
-                executionService.executeInternal(new Runnable() {
-                    public void run() {
-                        try {
-                            Set<NearCacheRecord> records = new TreeSet<NearCacheRecord>(selectedComparator);
-                            records.addAll(cache.values());
-                            int evictSize = (int) (cache.size() * EVICTION_FACTOR);
-                            int i = 0;
-                            for (NearCacheRecord record : records) {
-                                cache.remove(record.getKey());
-                                if (++i > evictSize) {
-                                    break;
-                                }
-                            }
-                        } finally {
-                            canEvict.set(true);
-                        }
-                        if (cache.size() >= maxSize && canEvict.compareAndSet(true, false)) {
-                            try {
-                                executionService.executeInternal(this);
-                            } catch (RejectedExecutionException e) {
-                                canEvict.set(true);
-                            }
-                        }
-                    }
-                });
-            } catch (RejectedExecutionException e) {
-                canEvict.set(true);
-            } catch (Exception e) {
-                throw ExceptionUtil.rethrow(e);
-            }
-        }
-    }
-
     private void fireTtlCleanup() {
         if (Clock.currentTimeMillis() < (lastCleanup + TTL_CLEANUP_INTERVAL_MILLS)) {
             return;
@@ -186,6 +154,18 @@ public class ClientHeapNearCache<K>
         }
     }
 
+    private static EvictionPolicyComparator createEvictionPolicyComparator(EvictionPolicy evictionPolicy) {
+        switch (evictionPolicy) {
+            case LRU:
+                return new LRUEvictionPolicyComparator();
+            case LFU:
+                return new LFUEvictionPolicyComparator();
+            default:
+                // the samples are random, so evicting any of them is a random eviction
+                return new RandomEvictionPolicyComparator();
+        }
+    }
+
     @Override
     public String getName() {
         return mapName;
@@ -263,4 +243,19 @@ public class ClientHeapNearCache<K>
         return inMemoryFormat;
     }
 
+    private class MaxSizeEvictionChecker implements EvictionChecker {
+
+        @Override
+        public boolean isEvictionRequired() {
+            return cache.size() >= maxSize;
+        }
+    }
+
+    private static class RandomEvictionPolicyComparator extends EvictionPolicyComparator {
+
+        @Override
+        public int compare(EvictableEntryView e1, EvictableEntryView e2) {
+            return BOTH_OF_ENTRIES_HAVE_SAME_PRIORITY_TO_BE_EVICTED;
+        }
+    }
 }
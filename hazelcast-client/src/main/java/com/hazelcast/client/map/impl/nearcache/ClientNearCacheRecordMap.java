@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map.impl.nearcache;
+
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.eviction.EvictionListener;
+import com.hazelcast.internal.eviction.impl.strategy.sampling.SampleableEvictableStore;
+import com.hazelcast.map.impl.nearcache.NearCacheRecord;
+import com.hazelcast.util.SampleableConcurrentHashMap;
+
+/**
+ * Record map of the {@link ClientHeapNearCache}, which samples its records for eviction.
+ *
+ * @param <K> the type of the keys
+ */
+public class ClientNearCacheRecordMap<K>
+        extends SampleableConcurrentHashMap<K, NearCacheRecord>
+        implements SampleableEvictableStore<K, NearCacheRecord> {
+
+    private static final float LOAD_FACTOR = 0.75f;
+    // the near cache is accessed by all user threads of the client
+    private static final int CONCURRENCY_LEVEL = 16;
+
+    public ClientNearCacheRecordMap(int initialCapacity) {
+        super(initialCapacity, LOAD_FACTOR, CONCURRENCY_LEVEL, ReferenceType.STRONG, ReferenceType.STRONG, null);
+    }
+
+    public class NearCacheEvictableSamplingEntry
+            extends SamplingEntry<K, NearCacheRecord>
+            implements EvictionCandidate<K, NearCacheRecord> {
+
+        public NearCacheEvictableSamplingEntry(K key, NearCacheRecord value) {
+            super(key, value);
+        }
+
+        @Override
+        public K getAccessor() {
+            return key;
+        }
+
+        @Override
+        public NearCacheRecord getEvictable() {
+            return value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value.getValue();
+        }
+
+        @Override
+        public long getCreationTime() {
+            return value.getCreationTime();
+        }
+
+        @Override
+        public long getLastAccessTime() {
+            return value.getLastAccessTime();
+        }
+
+        @Override
+        public long getAccessHit() {
+            return value.getAccessHit();
+        }
+    }
+
+    @Override
+    protected <E extends SamplingEntry> E createSamplingEntry(K key, NearCacheRecord value) {
+        return (E) new NearCacheEvictableSamplingEntry(key, value);
+    }
+
+    @Override
+    public <C extends EvictionCandidate<K, NearCacheRecord>> int evict(Iterable<C> evictionCandidates,
+                                                                       EvictionListener<K, NearCacheRecord> evictionListener) {
+        if (evictionCandidates == null) {
+            return 0;
+        }
+        int actualEvictedCount = 0;
+        for (EvictionCandidate<K, NearCacheRecord> evictionCandidate : evictionCandidates) {
+            if (remove(evictionCandidate.getAccessor(), evictionCandidate.getEvictable())) {
+                actualEvictedCount++;
+                if (evictionListener != null) {
+                    evictionListener.onEvict(evictionCandidate.getAccessor(), evictionCandidate.getEvictable());
+                }
+            }
+        }
+        return actualEvictedCount;
+    }
+
+    @Override
+    public Iterable<NearCacheEvictableSamplingEntry> sample(int sampleCount) {
+        return super.getRandomSamples(sampleCount);
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.client.proxy;
 
+import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.client.impl.ClientMessageDecoder;
 import com.hazelcast.client.impl.protocol.ClientMessage;
 import com.hazelcast.client.impl.protocol.codec.MapAddEntryListenerCodec;
@@ -25,6 +26,7 @@ import com.hazelcast.client.impl.protocol.codec.MapAddEntryListenerWithPredicate
 import com.hazelcast.client.impl.protocol.codec.MapAddIndexCodec;
 import com.hazelcast.client.impl.protocol.codec.MapAddInterceptorCodec;
 import com.hazelcast.client.impl.protocol.codec.MapAddPartitionLostListenerCodec;
+import com.hazelcast.client.impl.protocol.codec.MapAggregateCodec;
 import com.hazelcast.client.impl.protocol.codec.MapClearCodec;
 import com.hazelcast.client.impl.protocol.codec.MapClearNearCacheCodec;
 import com.hazelcast.client.impl.protocol.codec.MapContainsKeyCodec;
@@ -52,6 +54,7 @@ import com.hazelcast.client.impl.protocol.codec.MapKeySetWithPredicateCodec;
 import com.hazelcast.client.impl.protocol.codec.MapLoadAllCodec;
 import com.hazelcast.client.impl.protocol.codec.MapLoadGivenKeysCodec;
 import com.hazelcast.client.impl.protocol.codec.MapLockCodec;
+import com.hazelcast.client.impl.protocol.codec.MapProjectCodec;
 import com.hazelcast.client.impl.protocol.codec.MapPutAllCodec;
 import com.hazelcast.client.impl.protocol.codec.MapPutCodec;
 import com.hazelcast.client.impl.protocol.codec.MapPutIfAbsentCodec;
@@ -73,6 +76,10 @@ import com.hazelcast.client.impl.protocol.codec.MapUnlockCodec;
 import com.hazelcast.client.impl.protocol.codec.MapValuesCodec;
 import com.hazelcast.client.impl.protocol.codec.MapValuesWithPagingPredicateCodec;
 import com.hazelcast.client.impl.protocol.codec.MapValuesWithPredicateCodec;
+import com.hazelcast.client.map.impl.ClientMapInvocationBatcher;
+import com.hazelcast.client.map.impl.ClientMapQueryIterator;
+import com.hazelcast.client.reactive.ReactiveMap;
+import com.hazelcast.client.reactive.impl.ClientReactiveMap;
 import com.hazelcast.client.spi.ClientClusterService;
 import com.hazelcast.client.spi.ClientPartitionService;
 import com.hazelcast.client.spi.ClientProxy;
@@ -116,9 +123,12 @@ import com.hazelcast.mapreduce.aggregation.Supplier;
 import com.hazelcast.monitor.LocalMapStats;
 import com.hazelcast.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.TruePredicate;
 import com.hazelcast.spi.impl.UnmodifiableLazyList;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.CollectionUtil;
 import com.hazelcast.util.ExceptionUtil;
@@ -132,17 +142,22 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import static com.hazelcast.client.spi.properties.ClientProperty.MAP_BATCHING_ENABLED;
+import static com.hazelcast.client.spi.properties.ClientProperty.MAP_BULK_BATCHING_ENABLED;
 import static com.hazelcast.cluster.memberselector.MemberSelectors.LITE_MEMBER_SELECTOR;
 import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
 import static com.hazelcast.map.impl.MapListenerFlagOperator.setAndGetListenerFlags;
 import static com.hazelcast.util.CollectionUtil.objectToDataCollection;
 import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
 import static com.hazelcast.util.SortingUtil.getSortedQueryResultSet;
 import static java.util.Collections.emptyMap;
 
@@ -158,6 +173,8 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
     protected static final String NULL_VALUE_IS_NOT_ALLOWED = "Null value is not allowed!";
     protected static final String NULL_LISTENER_IS_NOT_ALLOWED = "Null listener is not allowed!";
     protected static final String NULL_PREDICATE_IS_NOT_ALLOWED = "Predicate should not be null!";
+    protected static final String NULL_AGGREGATOR_IS_NOT_ALLOWED = "Aggregator should not be null!";
+    protected static final String NULL_PROJECTION_IS_NOT_ALLOWED = "Projection should not be null!";
 
 
     private static final ClientMessageDecoder GET_ASYNC_RESPONSE_DECODER = new ClientMessageDecoder() {
@@ -195,10 +212,45 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
         }
     };
 
+    private ClientMapInvocationBatcher invocationBatcher;
+    private boolean singleKeyBatching;
+    private boolean bulkBatching;
+
     public ClientMapProxy(String serviceName, String name) {
         super(serviceName, name);
     }
 
+    @Override
+    protected void onInitialize() {
+        super.onInitialize();
+
+        HazelcastProperties properties = getClient().getProperties();
+        singleKeyBatching = properties.getBoolean(MAP_BATCHING_ENABLED);
+        bulkBatching = properties.getBoolean(MAP_BULK_BATCHING_ENABLED);
+        if (singleKeyBatching || bulkBatching) {
+            invocationBatcher = new ClientMapInvocationBatcher(getClient());
+        }
+    }
+
+    /**
+     * Returns a non-blocking view of this map whose subscribers are called on the async executor of the client.
+     *
+     * @return the reactive view of this map
+     */
+    public ReactiveMap<K, V> reactive() {
+        return reactive(getContext().getExecutionService().getAsyncExecutor());
+    }
+
+    /**
+     * Returns a non-blocking view of this map whose subscribers are called on the given executor.
+     *
+     * @param executor the executor to call the subscribers on
+     * @return the reactive view of this map
+     */
+    public ReactiveMap<K, V> reactive(Executor executor) {
+        return new ClientReactiveMap<K, V>(name, getClient(), executor);
+    }
+
     @Override
     public boolean containsKey(Object key) {
         checkNotNull(key, NULL_KEY_IS_NOT_ALLOWED);
@@ -235,7 +287,7 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
 
     protected V getInternal(Data keyData) {
         ClientMessage request = MapGetCodec.encodeRequest(name, keyData, ThreadUtil.getThreadId());
-        ClientMessage response = invoke(request, keyData);
+        ClientMessage response = invokeBatchable(request, keyData);
         MapGetCodec.ResponseParameters resultParameters = MapGetCodec.decodeResponse(response);
         V result = toObject(resultParameters.response);
         return result;
@@ -316,7 +368,7 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
 
         ClientMessage request = MapGetCodec.encodeRequest(name, keyData, ThreadUtil.getThreadId());
         try {
-            ClientInvocationFuture future = invokeOnKeyOwner(request, keyData);
+            ClientInvocationFuture future = invokeBatchableOnKeyOwner(request, keyData);
             return new ClientDelegatingFuture<V>(future, serializationService, GET_ASYNC_RESPONSE_DECODER);
 
         } catch (Exception e) {
@@ -330,6 +382,25 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
         return clientInvocation.invoke();
     }
 
+    private ClientInvocationFuture invokeBatchableOnKeyOwner(ClientMessage request, Data keyData) {
+        if (!singleKeyBatching) {
+            return invokeOnKeyOwner(request, keyData);
+        }
+        int partitionId = getContext().getPartitionService().getPartitionId(keyData);
+        return invocationBatcher.invoke(request, partitionId);
+    }
+
+    private ClientMessage invokeBatchable(ClientMessage request, Data keyData) {
+        if (!singleKeyBatching) {
+            return invoke(request, keyData);
+        }
+        try {
+            return invokeBatchableOnKeyOwner(request, keyData).get();
+        } catch (Exception e) {
+            throw ExceptionUtil.rethrow(e);
+        }
+    }
+
     @Override
     public ICompletableFuture<V> putAsync(final K key, final V value) {
         return putAsync(key, value, -1, TimeUnit.MILLISECONDS);
@@ -349,7 +420,7 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
         ClientMessage request = MapPutCodec.encodeRequest(name, keyData,
                 valueData, ThreadUtil.getThreadId(), getTimeInMillis(ttl, timeunit));
         try {
-            ClientInvocationFuture future = invokeOnKeyOwner(request, keyData);
+            ClientInvocationFuture future = invokeBatchableOnKeyOwner(request, keyData);
             return new ClientDelegatingFuture<V>(future, getContext().getSerializationService(),
                     PUT_ASYNC_RESPONSE_DECODER);
         } catch (Exception e) {
@@ -376,7 +447,7 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
         ClientMessage request = MapSetCodec.encodeRequest(name, keyData,
                 valueData, ThreadUtil.getThreadId(), getTimeInMillis(ttl, timeunit));
         try {
-            ClientInvocationFuture future = invokeOnKeyOwner(request, keyData);
+            ClientInvocationFuture future = invokeBatchableOnKeyOwner(request, keyData);
             return new ClientDelegatingFuture<Void>(future, getContext().getSerializationService(),
                     SET_ASYNC_RESPONSE_DECODER);
         } catch (Exception e) {
@@ -448,7 +519,7 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
     protected V putInternal(long ttl, TimeUnit timeunit, Data keyData, Data valueData) {
         ClientMessage request = MapPutCodec.encodeRequest(name, keyData, valueData,
                 ThreadUtil.getThreadId(), getTimeInMillis(ttl, timeunit));
-        ClientMessage response = invoke(request, keyData);
+        ClientMessage response = invokeBatchable(request, keyData);
         MapPutCodec.ResponseParameters resultParameters = MapPutCodec.decodeResponse(response);
         return toObject(resultParameters.response);
     }
@@ -548,7 +619,7 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
         ClientMessage request = MapSetCodec.encodeRequest(name, keyData, valueData,
                 ThreadUtil.getThreadId(), getTimeInMillis(ttl, timeunit));
 
-        invoke(request, keyData);
+        invokeBatchable(request, keyData);
     }
 
     @Override
@@ -1024,18 +1095,17 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
     protected List<MapGetAllCodec.ResponseParameters> getAllInternal(
             Map<Integer, List<Data>> partitionToKeyData, Map<K, V> result) {
 
-        List<Future<ClientMessage>> futures = new ArrayList<Future<ClientMessage>>(partitionToKeyData.size());
+        Map<Integer, ClientMessage> requests = new HashMap<Integer, ClientMessage>(partitionToKeyData.size());
         List<MapGetAllCodec.ResponseParameters> responses =
                 new ArrayList<MapGetAllCodec.ResponseParameters>(partitionToKeyData.size());
 
         for (final Map.Entry<Integer, List<Data>> entry : partitionToKeyData.entrySet()) {
-            int partitionId = entry.getKey();
             List<Data> keyList = entry.getValue();
             if (!keyList.isEmpty()) {
-                ClientMessage request = MapGetAllCodec.encodeRequest(name, keyList);
-                futures.add(new ClientInvocation(getClient(), request, partitionId).invoke());
+                requests.put(entry.getKey(), MapGetAllCodec.encodeRequest(name, keyList));
             }
         }
+        List<? extends Future<ClientMessage>> futures = invokeOnPartitions(requests);
 
         for (Future<ClientMessage> future : futures) {
             try {
@@ -1056,6 +1126,20 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
         return responses;
     }
 
+    /**
+     * Invokes the per-partition requests of a bulk operation, batched per partition owner if enabled.
+     */
+    private List<ClientInvocationFuture> invokeOnPartitions(Map<Integer, ClientMessage> requests) {
+        if (bulkBatching) {
+            return invocationBatcher.invokeOnPartitionOwners(requests);
+        }
+        List<ClientInvocationFuture> futures = new ArrayList<ClientInvocationFuture>(requests.size());
+        for (Map.Entry<Integer, ClientMessage> entry : requests.entrySet()) {
+            futures.add(new ClientInvocation(getClient(), entry.getValue(), entry.getKey()).invoke());
+        }
+        return futures;
+    }
+
     @Override
     public Collection<V> values() {
         ClientMessage request = MapValuesCodec.encodeRequest(name);
@@ -1137,6 +1221,26 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
 
     }
 
+    /**
+     * Returns an iterator over the entries matching the predicate which queries the partitions lazily, a page of
+     * at most {@code pageSize} entries at a time, so huge results are never materialized on the client or a member.
+     * <p/>
+     * The members keep no state in between two pages, so the iteration is weakly consistent: entries which are
+     * changed while iterating may or may not be returned. Paging predicates are not supported.
+     *
+     * @param pageSize  the maximum number of entries fetched at once
+     * @param predicate the predicate the returned entries have to match
+     * @return the iterator over the matching entries
+     */
+    public Iterator<Entry<K, V>> iterator(int pageSize, Predicate predicate) {
+        checkPositive(pageSize, "Page size should be positive");
+        checkNotNull(predicate, "Predicate should not be null");
+        if (predicate instanceof PagingPredicate) {
+            throw new IllegalArgumentException("PagingPredicate is not supported by the query iterator");
+        }
+        return new ClientMapQueryIterator<K, V>(getClient(), name, toData(predicate), pageSize);
+    }
+
     public Set<Entry<K, V>> entrySetWithPagingPredicate(PagingPredicate pagingPredicate) {
         pagingPredicate.setIterationType(IterationType.ENTRY);
 
@@ -1295,6 +1399,46 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
         return prepareResult(resultParameters.response);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> R aggregate(Aggregator<? super Map.Entry<K, V>, R> aggregator) {
+        return aggregate(aggregator, (Predicate<K, V>) TruePredicate.INSTANCE);
+    }
+
+    @Override
+    public <R> R aggregate(Aggregator<? super Map.Entry<K, V>, R> aggregator, Predicate<K, V> predicate) {
+        checkNotNull(aggregator, NULL_AGGREGATOR_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        if (predicate instanceof PagingPredicate) {
+            throw new IllegalArgumentException("Predicate should not be a paging predicate");
+        }
+
+        ClientMessage request = MapAggregateCodec.encodeRequest(name, toData(aggregator), toData(predicate));
+        ClientMessage response = invoke(request);
+        MapAggregateCodec.ResponseParameters resultParameters = MapAggregateCodec.decodeResponse(response);
+        return toObject(resultParameters.response);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> Collection<R> project(Projection<? super Map.Entry<K, V>, R> projection) {
+        return project(projection, (Predicate<K, V>) TruePredicate.INSTANCE);
+    }
+
+    @Override
+    public <R> Collection<R> project(Projection<? super Map.Entry<K, V>, R> projection, Predicate<K, V> predicate) {
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        if (predicate instanceof PagingPredicate) {
+            throw new IllegalArgumentException("Predicate should not be a paging predicate");
+        }
+
+        ClientMessage request = MapProjectCodec.encodeRequest(name, toData(projection), toData(predicate));
+        ClientMessage response = invoke(request);
+        MapProjectCodec.ResponseParameters resultParameters = MapProjectCodec.decodeResponse(response);
+        return new UnmodifiableLazyList<R>(resultParameters.response, getSerializationService());
+    }
+
     @Override
     public <SuppliedValue, Result> Result aggregate(Supplier<K, V, SuppliedValue> supplier,
                                                     Aggregation<K, SuppliedValue, Result> aggregation) {
@@ -1395,14 +1539,13 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
     }
 
     protected void putAllInternal(Map<Integer, List<Map.Entry<Data, Data>>> entryMap) {
-        List<Future<?>> futures = new ArrayList<Future<?>>(entryMap.size());
+        Map<Integer, ClientMessage> requests = new HashMap<Integer, ClientMessage>(entryMap.size());
         for (final Entry<Integer, List<Map.Entry<Data, Data>>> entry : entryMap.entrySet()) {
-            final Integer partitionId = entry.getKey();
             //If there is only one entry, consider how we can use MapPutRequest
             //without having to get back the return value.
-            ClientMessage request = MapPutAllCodec.encodeRequest(name, entry.getValue());
-            futures.add(new ClientInvocation(getClient(), request, partitionId).invoke());
+            requests.put(entry.getKey(), MapPutAllCodec.encodeRequest(name, entry.getValue()));
         }
+        List<? extends Future<?>> futures = invokeOnPartitions(requests);
 
         try {
             for (Future<?> future : futures) {
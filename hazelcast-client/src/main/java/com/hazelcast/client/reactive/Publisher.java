@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.reactive;
+
+/**
+ * A provider of a potentially unbounded number of items which are published to a {@link Subscriber} according to
+ * the demand received from it.
+ * <p/>
+ * Mirrors the {@code Publisher} of the reactive streams specification without depending on it.
+ *
+ * @param <T> the type of the published items
+ */
+public interface Publisher<T> {
+
+    /**
+     * Requests the publisher to start publishing to the given subscriber. Nothing is published, and nothing is
+     * requested from the cluster, until the subscriber signals demand through its {@link Subscription}.
+     *
+     * @param subscriber the subscriber which will receive the items
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.reactive;
+
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.query.Predicate;
+
+import java.util.Map;
+
+/**
+ * A non-blocking view of an {@link com.hazelcast.core.IMap} on the client.
+ * <p/>
+ * Every method returns a cold {@link Publisher}: the request is sent to the cluster only when a subscriber
+ * requests items, and every subscription sends its own requests. No thread is blocked while waiting for a
+ * member, the subscribers are called on the executor of the view.
+ * <p/>
+ * The entry set methods query one partition at a time and only after the items of the previous partitions
+ * have been requested, so at most the matching entries of a single partition are buffered on the client.
+ * {@link #executeOnEntries(EntryProcessor, Predicate)} is the exception, see there.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public interface ReactiveMap<K, V> {
+
+    /**
+     * Publishes the value of the given key, or completes without an item if there is no value.
+     *
+     * @param key the key
+     * @return the publisher of the value
+     * @see com.hazelcast.core.IMap#get(Object)
+     */
+    Publisher<V> get(K key);
+
+    /**
+     * Puts the given entry and publishes the previous value, or completes without an item if there was none.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the publisher of the previous value
+     * @see com.hazelcast.core.IMap#put(Object, Object)
+     */
+    Publisher<V> put(K key, V value);
+
+    /**
+     * Publishes all entries of the map.
+     *
+     * @return the publisher of the entries
+     */
+    Publisher<Map.Entry<K, V>> entrySet();
+
+    /**
+     * Publishes the entries matching the given predicate.
+     *
+     * @param predicate the predicate to filter the entries with
+     * @return the publisher of the matching entries
+     * @see com.hazelcast.core.IMap#entrySet(Predicate)
+     */
+    Publisher<Map.Entry<K, V>> entrySet(Predicate<K, V> predicate);
+
+    /**
+     * Executes the entry processor on the entries matching the given predicate and publishes the results per key.
+     * <p/>
+     * Once the first result is requested, the entry processor is applied to all partitions, also when the subscriber
+     * stops requesting or cancels the subscription: the map is never left partially processed. The demand only paces
+     * the delivery of the results, so the results that have not been requested yet are buffered on the client; after
+     * a cancellation they are dropped.
+     *
+     * @param entryProcessor the entry processor
+     * @param predicate      the predicate to select the entries with
+     * @param <R>            the type of the results of the entry processor
+     * @return the publisher of the results
+     * @see com.hazelcast.core.IMap#executeOnEntries(EntryProcessor, Predicate)
+     */
+    <R> Publisher<Map.Entry<K, R>> executeOnEntries(EntryProcessor entryProcessor, Predicate<K, V> predicate);
+}
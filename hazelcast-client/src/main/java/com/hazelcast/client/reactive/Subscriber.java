@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.reactive;
+
+/**
+ * Receives the items of a {@link Publisher} after requesting them through its {@link Subscription}.
+ * <p/>
+ * The methods of a subscriber are never called concurrently. After {@link #onError(Throwable)} or
+ * {@link #onComplete()} no more signals are received.
+ *
+ * @param <T> the type of the received items
+ */
+public interface Subscriber<T> {
+
+    /**
+     * Called once after {@link Publisher#subscribe(Subscriber)}, before any other signal.
+     *
+     * @param subscription the subscription to request items with
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * Called with the next item, at most as many times as items have been requested.
+     *
+     * @param item the item, never {@code null}
+     */
+    void onNext(T item);
+
+    /**
+     * Called when the publisher failed. No more items are received.
+     *
+     * @param throwable the failure
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * Called when all items have been published.
+     */
+    void onComplete();
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.reactive;
+
+/**
+ * The link between a {@link Publisher} and one of its {@link Subscriber}s, used to signal demand.
+ */
+public interface Subscription {
+
+    /**
+     * Adds the given number of items to the demand of the subscriber. A non-positive number fails the
+     * subscription with an {@link IllegalArgumentException}.
+     *
+     * @param n the number of additional items the subscriber is able to receive
+     */
+    void request(long n);
+
+    /**
+     * Stops the publishing of items. Requests already sent to the cluster are not cancelled but their results
+     * are dropped.
+     */
+    void cancel();
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.reactive.impl;
+
+import com.hazelcast.client.impl.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapExecuteWithPredicateOnPartitionCodec;
+import com.hazelcast.client.impl.protocol.codec.MapGetCodec;
+import com.hazelcast.client.impl.protocol.codec.MapPutCodec;
+import com.hazelcast.client.impl.protocol.codec.MapQueryPartitionCodec;
+import com.hazelcast.client.reactive.Publisher;
+import com.hazelcast.client.reactive.ReactiveMap;
+import com.hazelcast.client.spi.impl.ClientInvocation;
+import com.hazelcast.client.spi.impl.ClientInvocationFuture;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.util.ThreadUtil;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+
+/**
+ * Client implementation of {@link ReactiveMap}, built on {@link ClientInvocation} callbacks.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class ClientReactiveMap<K, V> implements ReactiveMap<K, V> {
+
+    private static final String NULL_KEY_IS_NOT_ALLOWED = "Null key is not allowed!";
+    private static final String NULL_VALUE_IS_NOT_ALLOWED = "Null value is not allowed!";
+    private static final String NULL_PREDICATE_IS_NOT_ALLOWED = "Predicate should not be null!";
+
+    private final String name;
+    private final HazelcastClientInstanceImpl client;
+    private final SerializationService serializationService;
+    private final Executor executor;
+
+    public ClientReactiveMap(String name, HazelcastClientInstanceImpl client, Executor executor) {
+        this.name = name;
+        this.client = client;
+        this.serializationService = client.getSerializationService();
+        this.executor = checkNotNull(executor, "Executor should not be null!");
+    }
+
+    @Override
+    public Publisher<V> get(K key) {
+        checkNotNull(key, NULL_KEY_IS_NOT_ALLOWED);
+
+        final Data keyData = serializationService.toData(key);
+        final long threadId = ThreadUtil.getThreadId();
+        return new InvocationPublisher<V>(executor) {
+            @Override
+            protected ClientInvocationFuture invoke() {
+                ClientMessage request = MapGetCodec.encodeRequest(name, keyData, threadId);
+                return invokeOnKeyOwner(request, keyData);
+            }
+
+            @Override
+            protected V decode(ClientMessage response) {
+                return serializationService.toObject(MapGetCodec.decodeResponse(response).response);
+            }
+        };
+    }
+
+    @Override
+    public Publisher<V> put(K key, V value) {
+        checkNotNull(key, NULL_KEY_IS_NOT_ALLOWED);
+        checkNotNull(value, NULL_VALUE_IS_NOT_ALLOWED);
+
+        final Data keyData = serializationService.toData(key);
+        final Data valueData = serializationService.toData(value);
+        final long threadId = ThreadUtil.getThreadId();
+        return new InvocationPublisher<V>(executor) {
+            @Override
+            protected ClientInvocationFuture invoke() {
+                ClientMessage request = MapPutCodec.encodeRequest(name, keyData, valueData, threadId, -1);
+                return invokeOnKeyOwner(request, keyData);
+            }
+
+            @Override
+            protected V decode(ClientMessage response) {
+                return serializationService.toObject(MapPutCodec.decodeResponse(response).response);
+            }
+        };
+    }
+
+    @Override
+    public Publisher<Map.Entry<K, V>> entrySet() {
+        return entrySet(TruePredicate.INSTANCE);
+    }
+
+    @Override
+    public Publisher<Map.Entry<K, V>> entrySet(Predicate<K, V> predicate) {
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+
+        final Data predicateData = serializationService.toData(predicate);
+        return new EntryStreamPublisher<V>(false) {
+            @Override
+            protected ClientInvocationFuture invoke(int partitionId) {
+                ClientMessage request = MapQueryPartitionCodec.encodeRequest(name, predicateData);
+                return new ClientInvocation(client, request, partitionId).invoke();
+            }
+
+            @Override
+            protected Collection<Map.Entry<Data, Data>> decode(ClientMessage response) {
+                return MapQueryPartitionCodec.decodeResponse(response).response;
+            }
+        };
+    }
+
+    @Override
+    public <R> Publisher<Map.Entry<K, R>> executeOnEntries(EntryProcessor entryProcessor, Predicate<K, V> predicate) {
+        checkNotNull(entryProcessor, "Entry processor should not be null!");
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+
+        final Data entryProcessorData = serializationService.toData(entryProcessor);
+        final Data predicateData = serializationService.toData(predicate);
+        // the entry processor has to be applied to all partitions, also if the subscription is cancelled or stalls
+        return new EntryStreamPublisher<R>(true) {
+            @Override
+            protected ClientInvocationFuture invoke(int partitionId) {
+                ClientMessage request = MapExecuteWithPredicateOnPartitionCodec.encodeRequest(name, entryProcessorData,
+                        predicateData);
+                return new ClientInvocation(client, request, partitionId).invoke();
+            }
+
+            @Override
+            protected Collection<Map.Entry<Data, Data>> decode(ClientMessage response) {
+                return MapExecuteWithPredicateOnPartitionCodec.decodeResponse(response).response;
+            }
+        };
+    }
+
+    private ClientInvocationFuture invokeOnKeyOwner(ClientMessage request, Data keyData) {
+        int partitionId = client.getClientPartitionService().getPartitionId(keyData);
+        return new ClientInvocation(client, request, partitionId).invoke();
+    }
+
+    private abstract class EntryStreamPublisher<R> extends PartitionStreamPublisher<Map.Entry<K, R>> {
+
+        EntryStreamPublisher(boolean invokeAll) {
+            super(executor, client.getClientPartitionService().getPartitionCount(), invokeAll);
+        }
+
+        @Override
+        protected Map.Entry<K, R> toItem(Map.Entry<Data, Data> entry) {
+            K key = serializationService.toObject(entry.getKey());
+            R value = serializationService.toObject(entry.getValue());
+            return new AbstractMap.SimpleImmutableEntry<K, R>(key, value);
+        }
+    }
+}
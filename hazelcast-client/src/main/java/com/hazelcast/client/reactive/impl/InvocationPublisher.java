@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.reactive.impl;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.reactive.Publisher;
+import com.hazelcast.client.reactive.Subscriber;
+import com.hazelcast.client.reactive.Subscription;
+import com.hazelcast.client.spi.impl.ClientInvocationFuture;
+import com.hazelcast.core.ExecutionCallback;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes the result of a single invocation. The invocation is sent on the first request of a subscription,
+ * its result is published from the invocation callback so no thread waits for the response.
+ *
+ * @param <T> the type of the published item
+ */
+abstract class InvocationPublisher<T> implements Publisher<T> {
+
+    private final Executor executor;
+
+    InvocationPublisher(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sends the request of this publisher.
+     *
+     * @return the future of the invocation
+     */
+    protected abstract ClientInvocationFuture invoke();
+
+    /**
+     * Decodes the item from the response.
+     *
+     * @param response the response of the invocation
+     * @return the item, or {@code null} to complete without an item
+     */
+    protected abstract T decode(ClientMessage response);
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new InvocationSubscription(subscriber));
+    }
+
+    private final class InvocationSubscription implements Subscription, ExecutionCallback<ClientMessage> {
+
+        private final Subscriber<? super T> subscriber;
+        private final AtomicBoolean requested = new AtomicBoolean();
+        private final AtomicBoolean terminated = new AtomicBoolean();
+
+        private InvocationSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                onFailure(new IllegalArgumentException("Requested item count must be positive but was " + n));
+                return;
+            }
+            if (!requested.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                invoke().andThen(this, executor);
+            } catch (Throwable t) {
+                onFailure(t);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            terminated.set(true);
+        }
+
+        @Override
+        public void onResponse(ClientMessage response) {
+            if (!terminated.compareAndSet(false, true)) {
+                return;
+            }
+            T item;
+            try {
+                item = decode(response);
+            } catch (Throwable t) {
+                subscriber.onError(t);
+                return;
+            }
+            if (item != null) {
+                subscriber.onNext(item);
+            }
+            subscriber.onComplete();
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            if (terminated.compareAndSet(false, true)) {
+                subscriber.onError(ReactiveUtil.unwrapFailure(t));
+            }
+        }
+    }
+}
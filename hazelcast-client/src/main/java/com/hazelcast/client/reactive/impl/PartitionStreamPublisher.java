@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.reactive.impl;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.reactive.Publisher;
+import com.hazelcast.client.reactive.Subscriber;
+import com.hazelcast.client.reactive.Subscription;
+import com.hazelcast.client.spi.impl.ClientInvocationFuture;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the entries returned by one invocation per partition.
+ * <p/>
+ * By default the partitions are invoked one after the other, and the next partition is invoked only when the entries
+ * of the previous one have been published and there is outstanding demand. So the client buffers at most the entries
+ * of a single partition, and a subscriber that stops requesting stops the traffic to the cluster.
+ * <p/>
+ * That is not acceptable for requests with side effects, such as entry processors: a subscription that is cancelled
+ * or stalls would leave only a part of the partitions processed. Such a publisher is created with {@code invokeAll}:
+ * once the first item is requested, all partitions are invoked, at most {@link #MAX_CONCURRENT_INVOCATIONS} at a time,
+ * whatever the demand and also after the subscription is cancelled or failed. The demand only paces the delivery of
+ * the buffered entries.
+ * <p/>
+ * All signals to the subscriber are sent from {@link StreamSubscription#drain()}, which is entered by a single
+ * thread at a time.
+ *
+ * @param <T> the type of the published items
+ */
+abstract class PartitionStreamPublisher<T> implements Publisher<T> {
+
+    static final int MAX_CONCURRENT_INVOCATIONS = 8;
+
+    private final Executor executor;
+    private final int partitionCount;
+    private final boolean invokeAll;
+
+    PartitionStreamPublisher(Executor executor, int partitionCount, boolean invokeAll) {
+        this.executor = executor;
+        this.partitionCount = partitionCount;
+        this.invokeAll = invokeAll;
+    }
+
+    /**
+     * Sends the request of this publisher to the given partition.
+     *
+     * @param partitionId the partition to send the request to
+     * @return the future of the invocation
+     */
+    protected abstract ClientInvocationFuture invoke(int partitionId);
+
+    /**
+     * Decodes the entries from the response of a partition.
+     *
+     * @param response the response of the invocation
+     * @return the entries of the partition
+     */
+    protected abstract Collection<Map.Entry<Data, Data>> decode(ClientMessage response);
+
+    /**
+     * Converts an entry to the published item.
+     *
+     * @param entry the entry as returned from the partition
+     * @return the item
+     */
+    protected abstract T toItem(Map.Entry<Data, Data> entry);
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new StreamSubscription(subscriber));
+    }
+
+    private final class StreamSubscription implements Subscription, ExecutionCallback<ClientMessage> {
+
+        private final Subscriber<? super T> subscriber;
+        private final Queue<Map.Entry<Data, Data>> buffer = new ConcurrentLinkedQueue<Map.Entry<Data, Data>>();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger drainCount = new AtomicInteger();
+        private final AtomicInteger invocationsInFlight = new AtomicInteger();
+
+        private volatile boolean requested;
+        private volatile boolean cancelled;
+        private volatile Throwable failure;
+        // only accessed from drain()
+        private int nextPartitionId;
+        private boolean terminated;
+
+        private StreamSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("Requested item count must be positive but was " + n);
+            } else {
+                addDemand(n);
+                requested = true;
+            }
+            drain();
+        }
+
+        private void addDemand(long n) {
+            for (;;) {
+                long current = demand.get();
+                long updated = current + n;
+                if (updated < 0) {
+                    updated = Long.MAX_VALUE;
+                }
+                if (demand.compareAndSet(current, updated)) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        @Override
+        public void onResponse(ClientMessage response) {
+            try {
+                buffer.addAll(decode(response));
+            } catch (Throwable t) {
+                failure = t;
+            }
+            invocationsInFlight.decrementAndGet();
+            drain();
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            failure = ReactiveUtil.unwrapFailure(t);
+            invocationsInFlight.decrementAndGet();
+            drain();
+        }
+
+        private void drain() {
+            if (drainCount.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                drainLoop();
+                missed = drainCount.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainLoop() {
+            if (invokeAll && requested) {
+                while (nextPartitionId < partitionCount && invocationsInFlight.get() < MAX_CONCURRENT_INVOCATIONS) {
+                    fetch(nextPartitionId++);
+                }
+            }
+            if (terminated) {
+                // the results of the partitions that are still invoked are not delivered anymore
+                buffer.clear();
+                return;
+            }
+            while (!cancelled && failure == null && demand.get() > 0 && !buffer.isEmpty()) {
+                T item;
+                try {
+                    item = toItem(buffer.poll());
+                } catch (Throwable t) {
+                    failure = t;
+                    break;
+                }
+                demand.decrementAndGet();
+                subscriber.onNext(item);
+            }
+            if (cancelled) {
+                terminated = true;
+                buffer.clear();
+            } else if (failure != null) {
+                terminated = true;
+                buffer.clear();
+                subscriber.onError(failure);
+            } else if (invocationsInFlight.get() == 0 && buffer.isEmpty()) {
+                if (nextPartitionId == partitionCount) {
+                    terminated = true;
+                    subscriber.onComplete();
+                } else if (!invokeAll && demand.get() > 0) {
+                    fetch(nextPartitionId++);
+                }
+            }
+        }
+
+        private void fetch(int partitionId) {
+            invocationsInFlight.incrementAndGet();
+            try {
+                invoke(partitionId).andThen(this, executor);
+            } catch (Throwable t) {
+                invocationsInFlight.decrementAndGet();
+                failure = t;
+                // picked up by the next pass of the drain loop
+                drainCount.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.reactive.impl;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Utility methods for the reactive publishers.
+ */
+final class ReactiveUtil {
+
+    private ReactiveUtil() {
+    }
+
+    /**
+     * Returns the cause of the failures of invocation callbacks, which are wrapped into an
+     * {@link ExecutionException} by the client invocation future.
+     *
+     * @param t the failure passed to the invocation callback
+     * @return the failure to signal to the subscriber
+     */
+    static Throwable unwrapFailure(Throwable t) {
+        if (t instanceof ExecutionException && t.getCause() != null) {
+            return t.getCause();
+        }
+        return t;
+    }
+}
@@ -18,6 +18,7 @@ package com.hazelcast.client.spi.properties;
 
 import com.hazelcast.spi.properties.HazelcastProperty;
 
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -86,6 +87,43 @@ public final class ClientProperty {
     public static final HazelcastProperty DISCOVERY_SPI_ENABLED
             = new HazelcastProperty("hazelcast.discovery.enabled", false);
 
+    /**
+     * Enables coalescing of concurrent {@code IMap} get, put and set calls which target the same member into
+     * a single batch message. This reduces the per message overhead on the network and on the members when many
+     * threads share the client, at the cost of up to {@link #MAP_BATCHING_MAX_DELAY_MICROS} extra latency.
+     * <p/>
+     * Batching is disabled by default.
+     */
+    public static final HazelcastProperty MAP_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.client.map.batching.enabled", false);
+
+    /**
+     * The maximum time in microseconds a batchable map operation waits for other operations to the same member
+     * before its batch is sent.
+     */
+    public static final HazelcastProperty MAP_BATCHING_MAX_DELAY_MICROS
+            = new HazelcastProperty("hazelcast.client.map.batching.max.delay.micros", 100, MICROSECONDS);
+
+    /**
+     * The maximum number of map operations in a single batch. A batch is sent as soon as it is full.
+     * <p/>
+     * This also limits the number of partitions in a single {@code getAll} or {@code putAll} batch, see
+     * {@link #MAP_BULK_BATCHING_ENABLED}.
+     */
+    public static final HazelcastProperty MAP_BATCHING_MAX_SIZE
+            = new HazelcastProperty("hazelcast.client.map.batching.max.size", 64);
+
+    /**
+     * Enables sending the per-partition requests of {@code IMap.getAll} and {@code IMap.putAll} which target the same
+     * member in batch messages of up to {@link #MAP_BATCHING_MAX_SIZE} partitions, instead of one message per partition.
+     * The member invokes the requests on its partitions locally. The responses of the batches are processed while the
+     * remaining batches are still in flight.
+     * <p/>
+     * All members need to support the batch message, so bulk batching is disabled by default.
+     */
+    public static final HazelcastProperty MAP_BULK_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.client.map.bulk.batching.enabled", false);
+
     private ClientProperty() {
     }
 }
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.spi.properties.ClientProperty;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.MapInterceptor;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMapBatchingTest extends HazelcastTestSupport {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int KEY_COUNT_PER_THREAD = 200;
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    private HazelcastInstance client;
+
+    @Before
+    public void setup() {
+        hazelcastFactory.newHazelcastInstance();
+        hazelcastFactory.newHazelcastInstance();
+
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setProperty(ClientProperty.MAP_BATCHING_ENABLED.getName(), "true");
+        clientConfig.setProperty(ClientProperty.MAP_BATCHING_MAX_DELAY_MICROS.getName(), "5000");
+        clientConfig.setProperty(ClientProperty.MAP_BATCHING_MAX_SIZE.getName(), "4");
+        client = hazelcastFactory.newHazelcastClient(clientConfig);
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testConcurrentPutGetSet() throws Exception {
+        final IMap<Integer, Integer> map = client.getMap(randomMapName());
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        final CountDownLatch latch = new CountDownLatch(THREAD_COUNT);
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            final int offset = t * KEY_COUNT_PER_THREAD;
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int key = offset; key < offset + KEY_COUNT_PER_THREAD; key++) {
+                            assertNull(map.put(key, key));
+                            assertEquals(key, (int) map.get(key));
+                            map.set(key, key + 1);
+                            assertEquals(key + 1, (int) map.put(key, key + 2));
+                        }
+                    } catch (Throwable t) {
+                        error.compareAndSet(null, t);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            }.start();
+        }
+        assertOpenEventually(latch);
+
+        if (error.get() != null) {
+            throw new AssertionError(error.get());
+        }
+        assertEquals(THREAD_COUNT * KEY_COUNT_PER_THREAD, map.size());
+        for (int key = 0; key < THREAD_COUNT * KEY_COUNT_PER_THREAD; key++) {
+            assertEquals(key + 2, (int) map.get(key));
+        }
+    }
+
+    @Test
+    public void testAsyncOperations() throws Exception {
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+        int keyCount = 100;
+
+        List<ICompletableFuture<Integer>> putFutures = new ArrayList<ICompletableFuture<Integer>>(keyCount);
+        for (int key = 0; key < keyCount; key++) {
+            putFutures.add(map.putAsync(key, key));
+        }
+        for (ICompletableFuture<Integer> future : putFutures) {
+            assertNull(future.get());
+        }
+
+        List<ICompletableFuture<Void>> setFutures = new ArrayList<ICompletableFuture<Void>>(keyCount);
+        for (int key = 0; key < keyCount; key++) {
+            setFutures.add(map.setAsync(key, key * 2));
+        }
+        for (ICompletableFuture<Void> future : setFutures) {
+            future.get();
+        }
+
+        List<ICompletableFuture<Integer>> getFutures = new ArrayList<ICompletableFuture<Integer>>(keyCount);
+        for (int key = 0; key < keyCount; key++) {
+            getFutures.add(map.getAsync(key));
+        }
+        for (int key = 0; key < keyCount; key++) {
+            assertEquals(key * 2, (int) getFutures.get(key).get());
+        }
+    }
+
+    @Test
+    public void testAsyncOperationsOnSingleKey_areExecutedInOrder() throws Exception {
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+        int putCount = 10000;
+        // the invocations are only batched once the owner of the partition is known
+        map.put(1, -1);
+
+        List<ICompletableFuture<Integer>> futures = new ArrayList<ICompletableFuture<Integer>>(putCount);
+        for (int value = 0; value < putCount; value++) {
+            futures.add(map.putAsync(1, value));
+        }
+
+        for (int value = 0; value < putCount; value++) {
+            assertEquals("put of " + value + " overtook a previous put", value - 1, (int) futures.get(value).get());
+        }
+        assertEquals(putCount - 1, (int) map.get(1));
+    }
+
+    @Test
+    public void testFailureOfSingleOperation_isReportedToItsCallerOnly() throws Exception {
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+        for (int key = 0; key < 10; key++) {
+            map.put(key, key);
+        }
+        map.addInterceptor(new FailingGetInterceptor(5));
+
+        List<ICompletableFuture<Integer>> futures = new ArrayList<ICompletableFuture<Integer>>();
+        for (int key = 0; key < 10; key++) {
+            futures.add(map.getAsync(key));
+        }
+
+        for (int key = 0; key < 10; key++) {
+            if (key == 5) {
+                try {
+                    futures.get(key).get();
+                    fail("the get of the intercepted key should fail");
+                } catch (ExecutionException expected) {
+                    assertEquals(IllegalStateException.class, expected.getCause().getClass());
+                }
+            } else {
+                assertEquals(key, (int) futures.get(key).get());
+            }
+        }
+    }
+
+    private static class FailingGetInterceptor implements MapInterceptor, Serializable {
+
+        private final int failingKey;
+
+        FailingGetInterceptor(int failingKey) {
+            this.failingKey = failingKey;
+        }
+
+        @Override
+        public Object interceptGet(Object value) {
+            if (value != null && (Integer) value == failingKey) {
+                throw new IllegalStateException("interceptGet of " + failingKey);
+            }
+            return null;
+        }
+
+        @Override
+        public void afterGet(Object value) {
+        }
+
+        @Override
+        public Object interceptPut(Object oldValue, Object newValue) {
+            return null;
+        }
+
+        @Override
+        public void afterPut(Object value) {
+        }
+
+        @Override
+        public Object interceptRemove(Object removedValue) {
+            return null;
+        }
+
+        @Override
+        public void afterRemove(Object value) {
+        }
+    }
+}
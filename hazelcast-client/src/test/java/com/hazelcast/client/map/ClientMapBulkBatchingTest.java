@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.spi.properties.ClientProperty;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMapBulkBatchingTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 10000;
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    private HazelcastInstance client;
+
+    @Before
+    public void setup() {
+        hazelcastFactory.newHazelcastInstance();
+        hazelcastFactory.newHazelcastInstance();
+
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setProperty(ClientProperty.MAP_BULK_BATCHING_ENABLED.getName(), "true");
+        clientConfig.setProperty(ClientProperty.MAP_BATCHING_MAX_SIZE.getName(), "16");
+        clientConfig.addNearCacheConfig(new NearCacheConfig("nearCached*"));
+        client = hazelcastFactory.newHazelcastClient(clientConfig);
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testPutAllAndGetAll() {
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+
+        map.putAll(createEntries(KEY_COUNT));
+
+        assertEquals(KEY_COUNT, map.size());
+        Map<Integer, Integer> result = map.getAll(createKeys(KEY_COUNT));
+        assertEquals(KEY_COUNT, result.size());
+        for (int key = 0; key < KEY_COUNT; key++) {
+            assertEquals(key, (int) result.get(key));
+        }
+    }
+
+    @Test
+    public void testGetAll_withMissingKeys() {
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+        map.putAll(createEntries(100));
+
+        Map<Integer, Integer> result = map.getAll(createKeys(1000));
+
+        assertEquals(100, result.size());
+        for (int key = 0; key < 100; key++) {
+            assertEquals(key, (int) result.get(key));
+        }
+    }
+
+    @Test
+    public void testPutAllAndGetAll_withNearCache() {
+        IMap<Integer, Integer> map = client.getMap("nearCached" + randomMapName());
+        map.putAll(createEntries(KEY_COUNT));
+
+        // the first getAll populates the near cache, the second one is partially served by it
+        assertEquals(KEY_COUNT / 2, map.getAll(createKeys(KEY_COUNT / 2)).size());
+        Map<Integer, Integer> result = map.getAll(createKeys(KEY_COUNT));
+
+        assertEquals(KEY_COUNT, result.size());
+        for (int key = 0; key < KEY_COUNT; key++) {
+            assertEquals(key, (int) result.get(key));
+        }
+    }
+
+    private static Map<Integer, Integer> createEntries(int count) {
+        Map<Integer, Integer> entries = new HashMap<Integer, Integer>();
+        for (int key = 0; key < count; key++) {
+            entries.put(key, key);
+        }
+        return entries;
+    }
+
+    private static Set<Integer> createKeys(int count) {
+        Set<Integer> keys = new HashSet<Integer>();
+        for (int key = 0; key < count; key++) {
+            keys.add(key);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMapProjectionTest extends HazelcastTestSupport {
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    private IMap<Integer, Person> map;
+
+    @Before
+    public void setup() {
+        hazelcastFactory.newHazelcastInstance();
+        hazelcastFactory.newHazelcastInstance();
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient();
+
+        map = client.getMap(randomName());
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testProject() {
+        for (int i = 0; i < 100; i++) {
+            map.put(i, new Person("name" + i, i));
+        }
+
+        Collection<String> result = map.project(Projections.<Map.Entry<Integer, Person>, String>singleAttribute("name"),
+                new SqlPredicate("age >= 97"));
+
+        assertEquals(new HashSet<String>(asList("name97", "name98", "name99")), new HashSet<String>(result));
+        assertEquals(100, map.project(Projections.singleAttribute("age")).size());
+    }
+
+    @Test
+    public void testProject_whenNullProjected() {
+        map.put(1, new Person("name1", 1));
+
+        Collection<Object> result = map.project(new NullProjection());
+
+        assertEquals(1, result.size());
+        assertNull(result.iterator().next());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testProject_whenProjectionNull() {
+        map.project(null);
+    }
+
+    public static class Person implements Serializable {
+
+        private String name;
+        private int age;
+
+        public Person(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+    }
+
+    private static class NullProjection extends Projection<Map.Entry<Integer, Person>, Object> {
+        @Override
+        public Object transform(Map.Entry<Integer, Person> input) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.proxy.ClientMapProxy;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMapQueryIteratorTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    private ClientMapProxy<Integer, Integer> map;
+
+    @Before
+    public void setup() {
+        hazelcastFactory.newHazelcastInstance();
+        hazelcastFactory.newHazelcastInstance();
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient();
+
+        IMap<Integer, Integer> clientMap = client.getMap(randomMapName());
+        map = (ClientMapProxy<Integer, Integer>) clientMap;
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testIterator_returnsAllEntries() {
+        fillMap();
+
+        Map<Integer, Integer> result = drain(map.iterator(7, TruePredicate.INSTANCE));
+
+        assertEquals(ENTRY_COUNT, result.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) result.get(i));
+        }
+    }
+
+    @Test
+    public void testIterator_withPredicate() {
+        fillMap();
+
+        Map<Integer, Integer> result = drain(map.iterator(10, new SqlPredicate("this >= 900")));
+
+        assertEquals(100, result.size());
+        for (int i = 900; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) result.get(i));
+        }
+    }
+
+    @Test
+    public void testIterator_whenMapEmpty() {
+        Iterator<Map.Entry<Integer, Integer>> iterator = map.iterator(10, TruePredicate.INSTANCE);
+
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNext_whenExhausted() {
+        map.put(1, 1);
+        Iterator<Map.Entry<Integer, Integer>> iterator = map.iterator(10, TruePredicate.INSTANCE);
+
+        assertTrue(iterator.hasNext());
+        iterator.next();
+        iterator.next();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIterator_withPagingPredicate() {
+        map.iterator(10, new PagingPredicate(10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIterator_withNonPositivePageSize() {
+        map.iterator(0, TruePredicate.INSTANCE);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemove() {
+        map.put(1, 1);
+        Iterator<Map.Entry<Integer, Integer>> iterator = map.iterator(10, TruePredicate.INSTANCE);
+
+        iterator.next();
+        iterator.remove();
+    }
+
+    private void fillMap() {
+        Map<Integer, Integer> entries = new HashMap<Integer, Integer>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            entries.put(i, i);
+        }
+        map.putAll(entries);
+    }
+
+    private static Map<Integer, Integer> drain(Iterator<Map.Entry<Integer, Integer>> iterator) {
+        Map<Integer, Integer> result = new HashMap<Integer, Integer>();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Integer> entry = iterator.next();
+            assertNull(result.put(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+}
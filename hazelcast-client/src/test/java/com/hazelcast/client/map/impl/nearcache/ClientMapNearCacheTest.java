@@ -830,16 +830,22 @@ public class ClientMapNearCacheTest {
 
     @Test
     public void testNearCacheMaxSize() {
-        final IMap<Integer, Integer> map = getNearCachedMapFromClient(newMaxSizeNearCacheConfig());
+        assertNearCacheSize_whenMaxSizeExceeded(newMaxSizeNearCacheConfig());
+    }
 
-        populateNearCache(map, MAX_CACHE_SIZE + 1);
+    @Test
+    public void testNearCacheMaxSize_WithLRU() {
+        assertNearCacheSize_whenMaxSizeExceeded(newLRUMaxSizeConfig());
+    }
 
-        assertTrueEventually(new AssertTask() {
-            @Override
-            public void run() throws Exception {
-                assertThatOwnedEntryCountIsSmallerThan(map, MAX_CACHE_SIZE);
-            }
-        });
+    @Test
+    public void testNearCacheMaxSize_WithLFU() {
+        assertNearCacheSize_whenMaxSizeExceeded(newLFUMaxSizeNearCacheConfig());
+    }
+
+    @Test
+    public void testNearCacheMaxSize_WithRandom() {
+        assertNearCacheSize_whenMaxSizeExceeded(newRandomNearCacheConfig());
     }
 
     @Test
@@ -1272,6 +1278,22 @@ public class ClientMapNearCacheTest {
         });
     }
 
+    protected void assertNearCacheSize_whenMaxSizeExceeded(NearCacheConfig config) {
+        final IMap<Integer, Integer> map = getNearCachedMapFromClient(config);
+        populateNearCache(map, MAX_CACHE_SIZE * 3);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                // refill the entries removed by invalidations, a full near cache evicts a single entry per put
+                for (int i = 0; i < MAX_CACHE_SIZE * 3; i++) {
+                    map.get(i);
+                }
+                assertThatOwnedEntryCountEquals(map, MAX_CACHE_SIZE);
+            }
+        });
+    }
+
     public static class IncrementEntryProcessor extends AbstractEntryProcessor {
         @Override
         public Object process(Map.Entry entry) {
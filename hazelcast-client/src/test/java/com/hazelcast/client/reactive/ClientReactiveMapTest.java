@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.reactive;
+
+import com.hazelcast.client.proxy.ClientMapProxy;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.AbstractEntryProcessor;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientReactiveMapTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    private IMap<Integer, Integer> map;
+    private ReactiveMap<Integer, Integer> reactiveMap;
+
+    @Before
+    public void setup() {
+        hazelcastFactory.newHazelcastInstance();
+        hazelcastFactory.newHazelcastInstance();
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient();
+
+        map = client.getMap(randomMapName());
+        reactiveMap = ((ClientMapProxy<Integer, Integer>) map).reactive();
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testGet() {
+        map.put(1, 10);
+
+        TestSubscriber<Integer> subscriber = subscribe(reactiveMap.get(1), 1);
+
+        subscriber.assertCompleted();
+        assertEquals(1, subscriber.items.size());
+        assertEquals(10, (int) subscriber.items.get(0));
+    }
+
+    @Test
+    public void testGet_whenMissing_thenCompletesWithoutItem() {
+        TestSubscriber<Integer> subscriber = subscribe(reactiveMap.get(1), 1);
+
+        subscriber.assertCompleted();
+        assertEquals(0, subscriber.items.size());
+    }
+
+    @Test
+    public void testPut() {
+        TestSubscriber<Integer> first = subscribe(reactiveMap.put(1, 10), 1);
+        first.assertCompleted();
+        assertEquals(0, first.items.size());
+
+        TestSubscriber<Integer> second = subscribe(reactiveMap.put(1, 20), 1);
+        second.assertCompleted();
+        assertEquals(10, (int) second.items.get(0));
+        assertEquals(20, (int) map.get(1));
+    }
+
+    @Test
+    public void testPut_isNotSentBeforeRequest() {
+        TestSubscriber<Integer> subscriber = new TestSubscriber<Integer>();
+        reactiveMap.put(1, 10).subscribe(subscriber);
+        sleepMillis(100);
+        assertNull(map.get(1));
+
+        subscriber.subscription.request(1);
+        subscriber.assertCompleted();
+        assertEquals(10, (int) map.get(1));
+    }
+
+    @Test
+    public void testEntrySet() {
+        populateMap();
+
+        TestSubscriber<Map.Entry<Integer, Integer>> subscriber = subscribe(reactiveMap.entrySet(), Long.MAX_VALUE);
+
+        subscriber.assertCompleted();
+        assertEquals(ENTRY_COUNT, subscriber.items.size());
+        for (Map.Entry<Integer, Integer> entry : subscriber.items) {
+            assertEquals(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Test
+    public void testEntrySet_withPredicate() {
+        populateMap();
+        Predicate predicate = new SqlPredicate("this < 100");
+
+        TestSubscriber<Map.Entry<Integer, Integer>> subscriber = subscribe(reactiveMap.entrySet(predicate), Long.MAX_VALUE);
+
+        subscriber.assertCompleted();
+        assertEquals(100, subscriber.items.size());
+    }
+
+    @Test
+    public void testEntrySet_publishesNoMoreThanRequested() {
+        populateMap();
+
+        final TestSubscriber<Map.Entry<Integer, Integer>> subscriber = subscribe(reactiveMap.entrySet(), 10);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(10, subscriber.items.size());
+            }
+        });
+        sleepMillis(100);
+        assertEquals(10, subscriber.items.size());
+        assertFalse(subscriber.completed.getCount() == 0);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.assertCompleted();
+        assertEquals(ENTRY_COUNT, subscriber.items.size());
+    }
+
+    @Test
+    public void testEntrySet_whenCancelled_thenNoMoreItems() {
+        populateMap();
+
+        final TestSubscriber<Map.Entry<Integer, Integer>> subscriber = subscribe(reactiveMap.entrySet(), 10);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(10, subscriber.items.size());
+            }
+        });
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+        sleepMillis(100);
+
+        assertEquals(10, subscriber.items.size());
+        assertFalse(subscriber.completed.getCount() == 0);
+    }
+
+    @Test
+    public void testExecuteOnEntries() {
+        populateMap();
+        Predicate predicate = new SqlPredicate("this < 100");
+
+        TestSubscriber<Map.Entry<Integer, Integer>> subscriber
+                = subscribe(reactiveMap.<Integer>executeOnEntries(new IncrementEntryProcessor(), predicate), Long.MAX_VALUE);
+
+        subscriber.assertCompleted();
+        assertEquals(100, subscriber.items.size());
+        for (Map.Entry<Integer, Integer> entry : subscriber.items) {
+            assertEquals(entry.getKey() + 1, (int) entry.getValue());
+            assertEquals(entry.getKey() + 1, (int) map.get(entry.getKey()));
+        }
+        assertEquals(100, (int) map.get(100));
+    }
+
+    @Test
+    public void testExecuteOnEntries_whenNotRequested_thenNotExecuted() {
+        populateMap();
+
+        TestSubscriber<Map.Entry<Integer, Integer>> subscriber = new TestSubscriber<Map.Entry<Integer, Integer>>();
+        reactiveMap.<Integer>executeOnEntries(new IncrementEntryProcessor(), TruePredicate.INSTANCE).subscribe(subscriber);
+        sleepMillis(100);
+
+        assertEquals(0, (int) map.get(0));
+    }
+
+    @Test
+    public void testExecuteOnEntries_whenStalled_thenAllEntriesProcessed() {
+        populateMap();
+
+        final TestSubscriber<Map.Entry<Integer, Integer>> subscriber
+                = subscribe(reactiveMap.<Integer>executeOnEntries(new IncrementEntryProcessor(), TruePredicate.INSTANCE), 1);
+
+        assertAllEntriesIncrementedEventually();
+        assertEquals(1, subscriber.items.size());
+        assertFalse(subscriber.completed.getCount() == 0);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.assertCompleted();
+        assertEquals(ENTRY_COUNT, subscriber.items.size());
+    }
+
+    @Test
+    public void testExecuteOnEntries_whenCancelled_thenAllEntriesProcessed() {
+        populateMap();
+
+        final TestSubscriber<Map.Entry<Integer, Integer>> subscriber
+                = subscribe(reactiveMap.<Integer>executeOnEntries(new IncrementEntryProcessor(), TruePredicate.INSTANCE), 1);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(1, subscriber.items.size());
+            }
+        });
+        subscriber.subscription.cancel();
+
+        assertAllEntriesIncrementedEventually();
+        subscriber.subscription.request(10);
+        sleepMillis(100);
+        assertEquals(1, subscriber.items.size());
+    }
+
+    @Test
+    public void testExecuteOnEntries_whenEntryProcessorFails_thenError() {
+        populateMap();
+        Predicate predicate = new SqlPredicate("this >= 0");
+
+        TestSubscriber<Map.Entry<Integer, Object>> subscriber
+                = subscribe(reactiveMap.executeOnEntries(new FailingEntryProcessor(), predicate), Long.MAX_VALUE);
+
+        assertOpenEventually(subscriber.completed);
+        assertTrue(subscriber.error instanceof IllegalStateException);
+    }
+
+    private void assertAllEntriesIncrementedEventually() {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                for (int i = 0; i < ENTRY_COUNT; i++) {
+                    assertEquals(i + 1, (int) map.get(i));
+                }
+            }
+        });
+    }
+
+    private void populateMap() {
+        Map<Integer, Integer> entries = new HashMap<Integer, Integer>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            entries.put(i, i);
+        }
+        map.putAll(entries);
+    }
+
+    private static <T> TestSubscriber<T> subscribe(Publisher<T> publisher, long request) {
+        TestSubscriber<T> subscriber = new TestSubscriber<T>();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(request);
+        return subscriber;
+    }
+
+    private static class TestSubscriber<T> implements Subscriber<T> {
+
+        final List<T> items = new CopyOnWriteArrayList<T>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile Subscription subscription;
+        volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+
+        void assertCompleted() {
+            assertOpenEventually(completed);
+            assertNull(error);
+        }
+    }
+
+    private static class IncrementEntryProcessor extends AbstractEntryProcessor<Integer, Integer> {
+
+        @Override
+        public Object process(Map.Entry<Integer, Integer> entry) {
+            entry.setValue(entry.getValue() + 1);
+            return entry.getValue();
+        }
+    }
+
+    private static class FailingEntryProcessor extends AbstractEntryProcessor<Integer, Integer> {
+
+        @Override
+        public Object process(Map.Entry<Integer, Integer> entry) {
+            throw new IllegalStateException("failing entry processor");
+        }
+    }
+}
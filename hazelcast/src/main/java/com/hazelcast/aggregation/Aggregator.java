@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation;
+
+import java.io.Serializable;
+
+/**
+ * Defines a contract for all aggregators. Exposes API for accumulation and combination.
+ * <p/>
+ * An aggregator is executed next to the data: every member accumulates the entries of its local
+ * partitions into its own aggregator instance. The caller then combines all the per-member aggregators
+ * into a single one and calls {@link #aggregate()} to get the result.
+ * <p/>
+ * Since the aggregator is sent over the wire it has to be serializable. Implementing
+ * {@link com.hazelcast.nio.serialization.IdentifiedDataSerializable} is recommended for best performance.
+ * A single aggregator instance is never accessed concurrently.
+ *
+ * @param <I> input type
+ * @param <R> aggregation result type
+ * @since 3.7
+ */
+public abstract class Aggregator<I, R> implements Serializable {
+
+    /**
+     * Accumulates the given entry.
+     *
+     * @param input input to accumulate.
+     */
+    public abstract void accumulate(I input);
+
+    /**
+     * Incorporates the intermediary result of the given aggregator into this aggregator.
+     * <p/>
+     * The given aggregator is always an instance of the same class as this aggregator.
+     *
+     * @param aggregator aggregator providing intermediary results to be combined into the results of this aggregator.
+     */
+    public abstract void combine(Aggregator aggregator);
+
+    /**
+     * Returns the result of the aggregation. Called once all the partial results have been combined.
+     *
+     * @return the result of the aggregation.
+     */
+    public abstract R aggregate();
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.aggregation.impl.ComparableMaxAggregator;
+import com.hazelcast.aggregation.impl.ComparableMinAggregator;
+import com.hazelcast.aggregation.impl.CountAggregator;
+import com.hazelcast.aggregation.impl.DoubleSumAggregator;
+import com.hazelcast.aggregation.impl.LongSumAggregator;
+import com.hazelcast.aggregation.impl.NumberAverageAggregator;
+
+/**
+ * A utility class to create the built-in {@link Aggregator} instances to be used with
+ * {@link com.hazelcast.core.IMap#aggregate(Aggregator)}.
+ * <p/>
+ * The methods without an attribute path aggregate the entry values, the ones taking an attribute path
+ * extract the attribute the same way the query engine does (including custom extractors and
+ * {@code [any]} collection paths). {@code null} values are ignored by all the aggregators.
+ *
+ * @since 3.7
+ */
+public final class Aggregators {
+
+    private Aggregators() {
+    }
+
+    public static <I> Aggregator<I, Long> count() {
+        return new CountAggregator<I>();
+    }
+
+    public static <I> Aggregator<I, Long> count(String attributePath) {
+        return new CountAggregator<I>(attributePath);
+    }
+
+    public static <I> Aggregator<I, Long> longSum() {
+        return new LongSumAggregator<I>();
+    }
+
+    public static <I> Aggregator<I, Long> longSum(String attributePath) {
+        return new LongSumAggregator<I>(attributePath);
+    }
+
+    public static <I> Aggregator<I, Double> doubleSum() {
+        return new DoubleSumAggregator<I>();
+    }
+
+    public static <I> Aggregator<I, Double> doubleSum(String attributePath) {
+        return new DoubleSumAggregator<I>(attributePath);
+    }
+
+    public static <I> Aggregator<I, Double> numberAvg() {
+        return new NumberAverageAggregator<I>();
+    }
+
+    public static <I> Aggregator<I, Double> numberAvg(String attributePath) {
+        return new NumberAverageAggregator<I>(attributePath);
+    }
+
+    public static <I, R extends Comparable> Aggregator<I, R> comparableMin() {
+        return new ComparableMinAggregator<I, R>();
+    }
+
+    public static <I, R extends Comparable> Aggregator<I, R> comparableMin(String attributePath) {
+        return new ComparableMinAggregator<I, R>(attributePath);
+    }
+
+    public static <I, R extends Comparable> Aggregator<I, R> comparableMax() {
+        return new ComparableMaxAggregator<I, R>();
+    }
+
+    public static <I, R extends Comparable> Aggregator<I, R> comparableMax(String attributePath) {
+        return new ComparableMaxAggregator<I, R>(attributePath);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.Extractable;
+import com.hazelcast.query.impl.getters.MultiResult;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Base class for the built-in aggregators.
+ * <p/>
+ * Extracts the value to accumulate either from the given attribute path (using the regular query
+ * attribute extraction, so custom extractors and {@code [any]} paths are supported) or, if no attribute
+ * path is given, takes the value of the entry. A {@link MultiResult} is unfolded and each of its values
+ * is accumulated separately.
+ *
+ * @param <I> input type
+ * @param <R> aggregation result type
+ */
+public abstract class AbstractAggregator<I, R> extends Aggregator<I, R> implements IdentifiedDataSerializable {
+
+    protected String attributePath;
+
+    public AbstractAggregator() {
+        this(null);
+    }
+
+    public AbstractAggregator(String attributePath) {
+        this.attributePath = attributePath;
+    }
+
+    public String getAttributePath() {
+        return attributePath;
+    }
+
+    @Override
+    public final void accumulate(I entry) {
+        Object extractedValue = isExtractionRequired() ? extract(entry) : null;
+        if (extractedValue instanceof MultiResult) {
+            for (Object value : ((MultiResult) extractedValue).getResults()) {
+                accumulateExtracted(value);
+            }
+        } else {
+            accumulateExtracted(extractedValue);
+        }
+    }
+
+    /**
+     * Accumulates a single value extracted from the input.
+     *
+     * @param value extracted value, may be {@code null}.
+     */
+    protected abstract void accumulateExtracted(Object value);
+
+    /**
+     * Tells if the accumulated values are looked at. Aggregators which only need the number of entries
+     * return {@code false}, so the entry values are never extracted or deserialized.
+     */
+    protected boolean isExtractionRequired() {
+        return true;
+    }
+
+    private Object extract(I input) {
+        if (attributePath == null) {
+            if (input instanceof Map.Entry) {
+                return ((Map.Entry) input).getValue();
+            }
+            return input;
+        }
+        if (input instanceof Extractable) {
+            return ((Extractable) input).getAttributeValue(attributePath);
+        }
+        throw new IllegalArgumentException("Can't extract attribute '" + attributePath + "' from " + input);
+    }
+
+    @Override
+    public int getFactoryId() {
+        return AggregatorDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeUTF(attributePath);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        attributePath = in.readUTF();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+
+/**
+ * Finds the smallest {@link Comparable} value; {@code null} values are ignored.
+ * Returns {@code null} if there were no values.
+ *
+ * @param <I> input type
+ * @param <R> type of the compared values
+ */
+public final class ComparableMinAggregator<I, R extends Comparable> extends AbstractAggregator<I, R> {
+
+    private R min;
+
+    public ComparableMinAggregator() {
+    }
+
+    public ComparableMinAggregator(String attributePath) {
+        super(attributePath);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void accumulateExtracted(Object value) {
+        accumulateValue((R) value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void combine(Aggregator aggregator) {
+        accumulateValue(((ComparableMinAggregator<I, R>) aggregator).min);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void accumulateValue(R value) {
+        if (value != null && (min == null || value.compareTo(min) < 0)) {
+            min = value;
+        }
+    }
+
+    @Override
+    public R aggregate() {
+        return min;
+    }
+
+    @Override
+    public int getId() {
+        return AggregatorDataSerializerHook.COMPARABLE_MIN;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        super.writeData(out);
+        out.writeObject(min);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        super.readData(in);
+        min = in.readObject();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+
+/**
+ * Counts the entries. If an attribute path is given, only the non-null attribute values are counted.
+ *
+ * @param <I> input type
+ */
+public final class CountAggregator<I> extends AbstractAggregator<I, Long> {
+
+    private long count;
+
+    public CountAggregator() {
+    }
+
+    public CountAggregator(String attributePath) {
+        super(attributePath);
+    }
+
+    @Override
+    protected boolean isExtractionRequired() {
+        return attributePath != null;
+    }
+
+    @Override
+    protected void accumulateExtracted(Object value) {
+        if (attributePath == null || value != null) {
+            count++;
+        }
+    }
+
+    @Override
+    public void combine(Aggregator aggregator) {
+        count += ((CountAggregator) aggregator).count;
+    }
+
+    @Override
+    public Long aggregate() {
+        return count;
+    }
+
+    @Override
+    public int getId() {
+        return AggregatorDataSerializerHook.COUNT;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        super.writeData(out);
+        out.writeLong(count);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        super.readData(in);
+        count = in.readLong();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+
+/**
+ * Calculates the average of the {@link Number#doubleValue()} of the values; {@code null} values are ignored.
+ * Returns {@code null} if there was nothing to average.
+ *
+ * @param <I> input type
+ */
+public final class NumberAverageAggregator<I> extends AbstractAggregator<I, Double> {
+
+    private double sum;
+    private long count;
+
+    public NumberAverageAggregator() {
+    }
+
+    public NumberAverageAggregator(String attributePath) {
+        super(attributePath);
+    }
+
+    @Override
+    protected void accumulateExtracted(Object value) {
+        if (value != null) {
+            sum += ((Number) value).doubleValue();
+            count++;
+        }
+    }
+
+    @Override
+    public void combine(Aggregator aggregator) {
+        NumberAverageAggregator other = (NumberAverageAggregator) aggregator;
+        sum += other.sum;
+        count += other.count;
+    }
+
+    @Override
+    public Double aggregate() {
+        if (count == 0) {
+            return null;
+        }
+        return sum / count;
+    }
+
+    @Override
+    public int getId() {
+        return AggregatorDataSerializerHook.NUMBER_AVG;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        super.writeData(out);
+        out.writeDouble(sum);
+        out.writeLong(count);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        super.readData(in);
+        sum = in.readDouble();
+        count = in.readLong();
+    }
+}
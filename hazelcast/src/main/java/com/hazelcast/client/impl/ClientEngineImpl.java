@@ -29,6 +29,7 @@ import com.hazelcast.client.impl.protocol.ClientExceptionFactory;
 import com.hazelcast.client.impl.protocol.ClientMessage;
 import com.hazelcast.client.impl.protocol.MessageTaskFactory;
 import com.hazelcast.client.impl.protocol.task.MessageTask;
+import com.hazelcast.client.impl.protocol.task.map.MapBatchMessageTask;
 import com.hazelcast.config.Config;
 import com.hazelcast.core.Client;
 import com.hazelcast.core.ClientListener;
@@ -163,7 +164,11 @@ public class ClientEngineImpl implements ClientEngine, CoreService, PostJoinAwar
     public void handleClientMessage(ClientMessage clientMessage, Connection connection) {
         int partitionId = clientMessage.getPartitionId();
         final MessageTask messageTask = messageTaskFactory.create(clientMessage, connection);
-        if (partitionId < 0) {
+        if (messageTask instanceof MapBatchMessageTask) {
+            // the batch only invokes its requests on their partitions; running it in the calling io thread keeps the
+            // order of the requests of subsequent batches sent over the same connection
+            messageTask.run();
+        } else if (partitionId < 0) {
             executor.execute(messageTask);
         } else {
             InternalOperationService operationService = nodeEngine.getOperationService();
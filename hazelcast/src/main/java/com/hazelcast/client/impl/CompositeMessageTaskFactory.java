@@ -18,6 +18,7 @@ package com.hazelcast.client.impl;
 
 import com.hazelcast.client.impl.protocol.ClientMessage;
 import com.hazelcast.client.impl.protocol.DefaultMessageTaskFactoryProvider;
+import com.hazelcast.client.impl.protocol.ExtendedMessageTaskFactoryProvider;
 import com.hazelcast.client.impl.protocol.MessageTaskFactory;
 import com.hazelcast.client.impl.protocol.MessageTaskFactoryProvider;
 import com.hazelcast.client.impl.protocol.task.MessageTask;
@@ -43,6 +44,7 @@ public class CompositeMessageTaskFactory implements MessageTaskFactory {
         this.nodeEngine = nodeEngine;
         this.node = ((NodeEngineImpl) nodeEngine).getNode();
         loadProvider(new DefaultMessageTaskFactoryProvider(this.nodeEngine));
+        loadProvider(new ExtendedMessageTaskFactoryProvider(this.nodeEngine));
         loadServices();
     }
 
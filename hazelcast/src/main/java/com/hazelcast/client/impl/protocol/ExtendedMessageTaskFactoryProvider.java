@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol;
+
+import com.hazelcast.client.impl.protocol.codec.MapAggregateCodec;
+import com.hazelcast.client.impl.protocol.codec.MapBatchCodec;
+import com.hazelcast.client.impl.protocol.codec.MapExecuteWithPredicateOnPartitionCodec;
+import com.hazelcast.client.impl.protocol.codec.MapProjectCodec;
+import com.hazelcast.client.impl.protocol.codec.MapQueryPartitionCodec;
+import com.hazelcast.client.impl.protocol.codec.MapQueryPartitionPageCodec;
+import com.hazelcast.client.impl.protocol.task.MessageTask;
+import com.hazelcast.client.impl.protocol.task.map.MapAggregateMessageTask;
+import com.hazelcast.client.impl.protocol.task.map.MapBatchMessageTask;
+import com.hazelcast.client.impl.protocol.task.map.MapExecuteWithPredicateOnPartitionMessageTask;
+import com.hazelcast.client.impl.protocol.task.map.MapProjectMessageTask;
+import com.hazelcast.client.impl.protocol.task.map.MapQueryPartitionMessageTask;
+import com.hazelcast.client.impl.protocol.task.map.MapQueryPartitionPageMessageTask;
+import com.hazelcast.instance.Node;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+
+/**
+ * Registers the message tasks of the hand written codecs which are not part of the generated client protocol.
+ * Unlike {@link DefaultMessageTaskFactoryProvider} this class is maintained manually.
+ */
+public class ExtendedMessageTaskFactoryProvider implements MessageTaskFactoryProvider {
+
+    private final MessageTaskFactory[] factories = new MessageTaskFactory[Short.MAX_VALUE];
+
+    private final Node node;
+
+    public ExtendedMessageTaskFactoryProvider(NodeEngine nodeEngine) {
+        this.node = ((NodeEngineImpl) nodeEngine).getNode();
+        initFactories();
+    }
+
+    private void initFactories() {
+        factories[MapAggregateCodec.RequestParameters.TYPE.id()] = new MessageTaskFactory() {
+            public MessageTask create(ClientMessage clientMessage, Connection connection) {
+                return new MapAggregateMessageTask(clientMessage, node, connection);
+            }
+        };
+        factories[MapProjectCodec.RequestParameters.TYPE.id()] = new MessageTaskFactory() {
+            public MessageTask create(ClientMessage clientMessage, Connection connection) {
+                return new MapProjectMessageTask(clientMessage, node, connection);
+            }
+        };
+        factories[MapBatchCodec.RequestParameters.TYPE.id()] = new MessageTaskFactory() {
+            public MessageTask create(ClientMessage clientMessage, Connection connection) {
+                return new MapBatchMessageTask(clientMessage, node, connection);
+            }
+        };
+        factories[MapQueryPartitionCodec.RequestParameters.TYPE.id()] = new MessageTaskFactory() {
+            public MessageTask create(ClientMessage clientMessage, Connection connection) {
+                return new MapQueryPartitionMessageTask(clientMessage, node, connection);
+            }
+        };
+        factories[MapExecuteWithPredicateOnPartitionCodec.RequestParameters.TYPE.id()] = new MessageTaskFactory() {
+            public MessageTask create(ClientMessage clientMessage, Connection connection) {
+                return new MapExecuteWithPredicateOnPartitionMessageTask(clientMessage, node, connection);
+            }
+        };
+        factories[MapQueryPartitionPageCodec.RequestParameters.TYPE.id()] = new MessageTaskFactory() {
+            public MessageTask create(ClientMessage clientMessage, Connection connection) {
+                return new MapQueryPartitionPageMessageTask(clientMessage, node, connection);
+            }
+        };
+    }
+
+    @edu.umd.cs.findbugs.annotations.SuppressWarnings({"MS_EXPOSE_REP", "EI_EXPOSE_REP"})
+    @Override
+    public MessageTaskFactory[] getFactories() {
+        return factories;
+    }
+}
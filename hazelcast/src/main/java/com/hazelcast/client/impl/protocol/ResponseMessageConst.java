@@ -45,6 +45,8 @@ public final class ResponseMessageConst {
     public static final int READ_RESULT_SET = 115;
     public static final int CACHE_KEY_ITERATOR_RESULT = 116;
     public static final int LIST_ENTRY = 117;
+    public static final int LIST_CLIENT_MESSAGE = 118;
+    public static final int QUERY_RESULT_PAGE = 119;
 
     private ResponseMessageConst() {
     }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol.codec;
+
+/**
+ * Message types of the map protocol messages which are not part of the generated client protocol (yet).
+ * <p/>
+ * The ids continue after the last id of {@link MapMessageType}.
+ */
+public enum ExtendedMapMessageType {
+
+    MAP_AGGREGATE(0x013c),
+    MAP_PROJECT(0x013d),
+    MAP_BATCH(0x013e),
+    MAP_QUERY_PARTITION(0x013f),
+    MAP_EXECUTE_WITH_PREDICATE_ON_PARTITION(0x0140),
+    MAP_QUERY_PARTITION_PAGE(0x0141);
+
+    private final int id;
+
+    ExtendedMapMessageType(int messageType) {
+        this.id = messageType;
+    }
+
+    public int id() {
+        return id;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol.codec;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.ResponseMessageConst;
+import com.hazelcast.nio.Bits;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Codec for a batch of single-key map messages which are sent to the same member as one message.
+ * <p/>
+ * Request: the complete frames of the batched request messages. Response: the complete frames of the
+ * response messages in the same order as the requests, a frame is an {@link ErrorCodec} message if its
+ * request failed.
+ * <p/>
+ * The frames are copied from and wrapped in place at the current index, which relies on the messages
+ * starting at offset 0 of their buffers, as all messages created by {@link ClientMessage#createForEncode(int)}
+ * or read from a connection do.
+ */
+public final class MapBatchCodec {
+
+    public static final ExtendedMapMessageType REQUEST_TYPE = ExtendedMapMessageType.MAP_BATCH;
+    public static final int RESPONSE_TYPE = ResponseMessageConst.LIST_CLIENT_MESSAGE;
+    public static final boolean RETRYABLE = false;
+
+    private MapBatchCodec() {
+    }
+
+    public static class RequestParameters {
+        public static final ExtendedMapMessageType TYPE = REQUEST_TYPE;
+        public List<ClientMessage> requests;
+
+        public static int calculateDataSize(Collection<ClientMessage> requests) {
+            return ClientMessage.HEADER_SIZE + calculateFramesSize(requests);
+        }
+    }
+
+    public static ClientMessage encodeRequest(Collection<ClientMessage> requests) {
+        int requiredDataSize = RequestParameters.calculateDataSize(requests);
+        ClientMessage clientMessage = ClientMessage.createForEncode(requiredDataSize);
+        clientMessage.setMessageType(REQUEST_TYPE.id());
+        clientMessage.setRetryable(RETRYABLE);
+        setFrames(clientMessage, requests);
+        clientMessage.updateFrameLength();
+        return clientMessage;
+    }
+
+    public static RequestParameters decodeRequest(ClientMessage clientMessage) {
+        RequestParameters parameters = new RequestParameters();
+        parameters.requests = getFrames(clientMessage);
+        return parameters;
+    }
+
+    public static class ResponseParameters {
+        public List<ClientMessage> response;
+
+        public static int calculateDataSize(Collection<ClientMessage> response) {
+            return ClientMessage.HEADER_SIZE + calculateFramesSize(response);
+        }
+    }
+
+    public static ClientMessage encodeResponse(Collection<ClientMessage> response) {
+        int requiredDataSize = ResponseParameters.calculateDataSize(response);
+        ClientMessage clientMessage = ClientMessage.createForEncode(requiredDataSize);
+        clientMessage.setMessageType(RESPONSE_TYPE);
+        setFrames(clientMessage, response);
+        clientMessage.updateFrameLength();
+        return clientMessage;
+    }
+
+    public static ResponseParameters decodeResponse(ClientMessage clientMessage) {
+        ResponseParameters parameters = new ResponseParameters();
+        parameters.response = getFrames(clientMessage);
+        return parameters;
+    }
+
+    private static int calculateFramesSize(Collection<ClientMessage> frames) {
+        int dataSize = Bits.INT_SIZE_IN_BYTES;
+        for (ClientMessage frame : frames) {
+            dataSize += Bits.INT_SIZE_IN_BYTES + frame.getFrameLength();
+        }
+        return dataSize;
+    }
+
+    private static void setFrames(ClientMessage clientMessage, Collection<ClientMessage> frames) {
+        clientMessage.set(frames.size());
+        for (ClientMessage frame : frames) {
+            int frameLength = frame.getFrameLength();
+            clientMessage.set(frameLength);
+            clientMessage.buffer().putBytes(clientMessage.index(), frame.buffer().byteArray(), 0, frameLength);
+            clientMessage.index(clientMessage.index() + frameLength);
+        }
+    }
+
+    private static List<ClientMessage> getFrames(ClientMessage clientMessage) {
+        int size = clientMessage.getInt();
+        List<ClientMessage> frames = new ArrayList<ClientMessage>(size);
+        for (int i = 0; i < size; i++) {
+            int frameLength = clientMessage.getInt();
+            frames.add(ClientMessage.createForDecode(clientMessage.buffer(), clientMessage.index()));
+            clientMessage.index(clientMessage.index() + frameLength);
+        }
+        return frames;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol.codec;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.ResponseMessageConst;
+import com.hazelcast.client.impl.protocol.util.ParameterUtil;
+import com.hazelcast.nio.Bits;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codec for querying the entries of a single partition, the partition is the partition id of the message.
+ * <p/>
+ * Request: name, predicate. Response: the matching entries of the partition.
+ */
+public final class MapQueryPartitionCodec {
+
+    public static final ExtendedMapMessageType REQUEST_TYPE = ExtendedMapMessageType.MAP_QUERY_PARTITION;
+    public static final int RESPONSE_TYPE = ResponseMessageConst.LIST_ENTRY;
+    public static final boolean RETRYABLE = true;
+
+    private MapQueryPartitionCodec() {
+    }
+
+    public static class RequestParameters {
+        public static final ExtendedMapMessageType TYPE = REQUEST_TYPE;
+        public String name;
+        public Data predicate;
+
+        public static int calculateDataSize(String name, Data predicate) {
+            int dataSize = ClientMessage.HEADER_SIZE;
+            dataSize += ParameterUtil.calculateDataSize(name);
+            dataSize += ParameterUtil.calculateDataSize(predicate);
+            return dataSize;
+        }
+    }
+
+    public static ClientMessage encodeRequest(String name, Data predicate) {
+        int requiredDataSize = RequestParameters.calculateDataSize(name, predicate);
+        ClientMessage clientMessage = ClientMessage.createForEncode(requiredDataSize);
+        clientMessage.setMessageType(REQUEST_TYPE.id());
+        clientMessage.setRetryable(RETRYABLE);
+        clientMessage.set(name);
+        clientMessage.set(predicate);
+        clientMessage.updateFrameLength();
+        return clientMessage;
+    }
+
+    public static RequestParameters decodeRequest(ClientMessage clientMessage) {
+        RequestParameters parameters = new RequestParameters();
+        parameters.name = clientMessage.getStringUtf8();
+        parameters.predicate = clientMessage.getData();
+        return parameters;
+    }
+
+    public static class ResponseParameters {
+        public List<Map.Entry<Data, Data>> response;
+
+        public static int calculateDataSize(Collection<Map.Entry<Data, Data>> response) {
+            int dataSize = ClientMessage.HEADER_SIZE;
+            dataSize += Bits.INT_SIZE_IN_BYTES;
+            for (Map.Entry<Data, Data> entry : response) {
+                dataSize += ParameterUtil.calculateDataSize(entry);
+            }
+            return dataSize;
+        }
+    }
+
+    public static ClientMessage encodeResponse(Collection<Map.Entry<Data, Data>> response) {
+        int requiredDataSize = ResponseParameters.calculateDataSize(response);
+        ClientMessage clientMessage = ClientMessage.createForEncode(requiredDataSize);
+        clientMessage.setMessageType(RESPONSE_TYPE);
+        clientMessage.set(response.size());
+        for (Map.Entry<Data, Data> entry : response) {
+            clientMessage.set(entry);
+        }
+        clientMessage.updateFrameLength();
+        return clientMessage;
+    }
+
+    public static ResponseParameters decodeResponse(ClientMessage clientMessage) {
+        ResponseParameters parameters = new ResponseParameters();
+        int size = clientMessage.getInt();
+        List<Map.Entry<Data, Data>> response = new ArrayList<Map.Entry<Data, Data>>(size);
+        for (int i = 0; i < size; i++) {
+            Data key = clientMessage.getData();
+            Data value = clientMessage.getData();
+            response.add(new AbstractMap.SimpleImmutableEntry<Data, Data>(key, value));
+        }
+        parameters.response = response;
+        return parameters;
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol.task.map;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapBatchCodec;
+import com.hazelcast.client.impl.protocol.codec.MapGetAllCodec;
+import com.hazelcast.client.impl.protocol.codec.MapGetCodec;
+import com.hazelcast.client.impl.protocol.codec.MapPutAllCodec;
+import com.hazelcast.client.impl.protocol.codec.MapPutCodec;
+import com.hazelcast.client.impl.protocol.codec.MapSetCodec;
+import com.hazelcast.client.impl.protocol.task.AbstractMessageTask;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.instance.Node;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapEntries;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.operation.GetAllOperation;
+import com.hazelcast.map.impl.operation.MapOperation;
+import com.hazelcast.map.impl.operation.MapOperationProvider;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.security.SecurityContext;
+import com.hazelcast.security.permission.ActionConstants;
+import com.hazelcast.security.permission.MapPermission;
+import com.hazelcast.util.ExceptionUtil;
+
+import java.security.Permission;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Executes a batch of map requests which were coalesced by the client into one message: single-key requests
+ * and the per-partition requests of {@code getAll} and {@code putAll}.
+ * <p/>
+ * Every request is invoked on its partition independently. The batch response is sent when all of them
+ * have completed and contains a response or an exception message for each request, in request order.
+ * Permissions are checked per request since a batch can span several maps.
+ */
+public class MapBatchMessageTask extends AbstractMessageTask<MapBatchCodec.RequestParameters> {
+
+    private AtomicReferenceArray<ClientMessage> responses;
+    private AtomicInteger pendingResponseCount;
+
+    public MapBatchMessageTask(ClientMessage clientMessage, Node node, Connection connection) {
+        super(clientMessage, node, connection);
+    }
+
+    @Override
+    protected void processMessage() {
+        List<ClientMessage> requests = parameters.requests;
+        responses = new AtomicReferenceArray<ClientMessage>(requests.size());
+        pendingResponseCount = new AtomicInteger(requests.size());
+        if (requests.isEmpty()) {
+            sendResponse(new ArrayList<ClientMessage>(0));
+            return;
+        }
+
+        for (int i = 0; i < requests.size(); i++) {
+            ClientMessage request = requests.get(i);
+            try {
+                MapOperation op = prepareOperation(request);
+                op.setCallerUuid(endpoint.getUuid());
+                nodeEngine.getOperationService()
+                        .createInvocationBuilder(getServiceName(), op, op.getPartitionId())
+                        .setResultDeserialized(false)
+                        .invoke()
+                        .andThen(new RequestCallback(i, request.getMessageType(), op.getName()));
+            } catch (Throwable t) {
+                onRequestCompleted(i, createExceptionMessage(t));
+            }
+        }
+    }
+
+    private MapOperation prepareOperation(ClientMessage request) {
+        int messageType = request.getMessageType();
+        MapOperation op;
+        Data key;
+        if (messageType == MapGetCodec.REQUEST_TYPE.id()) {
+            MapGetCodec.RequestParameters get = MapGetCodec.decodeRequest(request);
+            checkPermission(get.name, ActionConstants.ACTION_READ);
+            op = getMapOperationProvider(get.name).createGetOperation(get.name, get.key);
+            op.setThreadId(get.threadId);
+            key = get.key;
+        } else if (messageType == MapPutCodec.REQUEST_TYPE.id()) {
+            MapPutCodec.RequestParameters put = MapPutCodec.decodeRequest(request);
+            checkPermission(put.name, ActionConstants.ACTION_PUT);
+            op = getMapOperationProvider(put.name).createPutOperation(put.name, put.key, put.value, put.ttl);
+            op.setThreadId(put.threadId);
+            key = put.key;
+        } else if (messageType == MapSetCodec.REQUEST_TYPE.id()) {
+            MapSetCodec.RequestParameters set = MapSetCodec.decodeRequest(request);
+            checkPermission(set.name, ActionConstants.ACTION_PUT);
+            op = getMapOperationProvider(set.name).createSetOperation(set.name, set.key, set.value, set.ttl);
+            op.setThreadId(set.threadId);
+            key = set.key;
+        } else if (messageType == MapGetAllCodec.REQUEST_TYPE.id()) {
+            MapGetAllCodec.RequestParameters getAll = MapGetAllCodec.decodeRequest(request);
+            checkPermission(getAll.name, ActionConstants.ACTION_READ);
+            op = new GetAllOperation(getAll.name, getAll.keys);
+            // the client sends the keys of a single partition
+            key = getAll.keys.get(0);
+        } else if (messageType == MapPutAllCodec.REQUEST_TYPE.id()) {
+            MapPutAllCodec.RequestParameters putAll = MapPutAllCodec.decodeRequest(request);
+            checkPermission(putAll.name, ActionConstants.ACTION_PUT);
+            MapEntries mapEntries = new MapEntries();
+            for (Map.Entry<Data, Data> entry : putAll.entries) {
+                mapEntries.add(entry.getKey(), entry.getValue());
+            }
+            op = getMapOperationProvider(putAll.name).createPutAllOperation(putAll.name, mapEntries);
+            key = putAll.entries.get(0).getKey();
+        } else {
+            throw new UnsupportedOperationException("Message type 0x" + Integer.toHexString(messageType)
+                    + " can not be batched");
+        }
+        op.setPartitionId(nodeEngine.getPartitionService().getPartitionId(key));
+        return op;
+    }
+
+    private void checkPermission(String mapName, String action) {
+        SecurityContext securityContext = clientEngine.getSecurityContext();
+        if (securityContext != null) {
+            securityContext.checkPermission(endpoint.getSubject(), new MapPermission(mapName, action));
+        }
+    }
+
+    private MapOperationProvider getMapOperationProvider(String mapName) {
+        return getMapServiceContext().getMapOperationProvider(mapName);
+    }
+
+    private MapServiceContext getMapServiceContext() {
+        MapService mapService = getService(MapService.SERVICE_NAME);
+        return mapService.getMapServiceContext();
+    }
+
+    private ClientMessage createExceptionMessage(Throwable throwable) {
+        return clientEngine.getClientExceptionFactory().createExceptionMessage(ExceptionUtil.peel(throwable));
+    }
+
+    private void onRequestCompleted(int index, ClientMessage response) {
+        responses.set(index, response);
+        if (pendingResponseCount.decrementAndGet() == 0) {
+            List<ClientMessage> batchResponse = new ArrayList<ClientMessage>(responses.length());
+            for (int i = 0; i < responses.length(); i++) {
+                batchResponse.add(responses.get(i));
+            }
+            sendResponse(batchResponse);
+        }
+    }
+
+    @Override
+    protected MapBatchCodec.RequestParameters decodeClientMessage(ClientMessage clientMessage) {
+        return MapBatchCodec.decodeRequest(clientMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected ClientMessage encodeResponse(Object response) {
+        return MapBatchCodec.encodeResponse((List<ClientMessage>) response);
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return null;
+    }
+
+    @Override
+    public String getDistributedObjectName() {
+        return null;
+    }
+
+    @Override
+    public String getMethodName() {
+        return null;
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return null;
+    }
+
+    private final class RequestCallback implements ExecutionCallback<Object> {
+
+        private final int index;
+        private final int messageType;
+        private final String mapName;
+        private final long startTime = System.currentTimeMillis();
+
+        private RequestCallback(int index, int messageType, String mapName) {
+            this.index = index;
+            this.messageType = messageType;
+            this.mapName = mapName;
+        }
+
+        @Override
+        public void onResponse(Object response) {
+            updateStatistics();
+            ClientMessage responseMessage;
+            if (messageType == MapGetCodec.REQUEST_TYPE.id()) {
+                responseMessage = MapGetCodec.encodeResponse(serializationService.toData(response));
+            } else if (messageType == MapPutCodec.REQUEST_TYPE.id()) {
+                responseMessage = MapPutCodec.encodeResponse(serializationService.toData(response));
+            } else if (messageType == MapGetAllCodec.REQUEST_TYPE.id()) {
+                MapEntries entries = serializationService.toObject(response);
+                responseMessage = MapGetAllCodec.encodeResponse(entries.entries());
+            } else if (messageType == MapPutAllCodec.REQUEST_TYPE.id()) {
+                responseMessage = MapPutAllCodec.encodeResponse();
+            } else {
+                responseMessage = MapSetCodec.encodeResponse();
+            }
+            onRequestCompleted(index, responseMessage);
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            updateStatistics();
+            onRequestCompleted(index, createExceptionMessage(t));
+        }
+
+        private void updateStatistics() {
+            // like their partition message tasks, getAll and putAll don't update the statistics
+            if (messageType == MapGetAllCodec.REQUEST_TYPE.id() || messageType == MapPutAllCodec.REQUEST_TYPE.id()) {
+                return;
+            }
+            MapServiceContext mapServiceContext = getMapServiceContext();
+            if (!mapServiceContext.getMapContainer(mapName).getMapConfig().isStatisticsEnabled()) {
+                return;
+            }
+            long latency = System.currentTimeMillis() - startTime;
+            if (messageType == MapGetCodec.REQUEST_TYPE.id()) {
+                mapServiceContext.getLocalMapStatsProvider().getLocalMapStatsImpl(mapName).incrementGets(latency);
+            } else {
+                mapServiceContext.getLocalMapStatsProvider().getLocalMapStatsImpl(mapName).incrementPuts(latency);
+            }
+        }
+    }
+}
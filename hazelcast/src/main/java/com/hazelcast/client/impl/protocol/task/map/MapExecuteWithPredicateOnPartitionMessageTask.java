@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol.task.map;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapExecuteWithPredicateOnPartitionCodec;
+import com.hazelcast.instance.Node;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.impl.MapEntries;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.operation.MapOperationProvider;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.security.permission.ActionConstants;
+import com.hazelcast.security.permission.MapPermission;
+import com.hazelcast.spi.Operation;
+
+import java.security.Permission;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class MapExecuteWithPredicateOnPartitionMessageTask
+        extends AbstractMapPartitionMessageTask<MapExecuteWithPredicateOnPartitionCodec.RequestParameters> {
+
+    public MapExecuteWithPredicateOnPartitionMessageTask(ClientMessage clientMessage, Node node, Connection connection) {
+        super(clientMessage, node, connection);
+    }
+
+    @Override
+    protected Operation prepareOperation() {
+        MapOperationProvider operationProvider = getMapOperationProvider(parameters.name);
+        EntryProcessor entryProcessor = serializationService.toObject(parameters.entryProcessor);
+        Predicate predicate = serializationService.toObject(parameters.predicate);
+        return operationProvider.createPartitionWideEntryWithPredicateOperationFactory(parameters.name, entryProcessor,
+                predicate).createOperation();
+    }
+
+    @Override
+    protected MapExecuteWithPredicateOnPartitionCodec.RequestParameters decodeClientMessage(ClientMessage clientMessage) {
+        return MapExecuteWithPredicateOnPartitionCodec.decodeRequest(clientMessage);
+    }
+
+    @Override
+    protected ClientMessage encodeResponse(Object response) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<Map.Entry<Data, Data>>();
+        MapEntries mapEntries = serializationService.toObject(response);
+        if (mapEntries != null) {
+            for (Map.Entry<Data, Data> entry : mapEntries) {
+                entries.add(entry);
+            }
+        }
+        return MapExecuteWithPredicateOnPartitionCodec.encodeResponse(entries);
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return new MapPermission(parameters.name, ActionConstants.ACTION_PUT, ActionConstants.ACTION_REMOVE);
+    }
+
+    @Override
+    public String getDistributedObjectName() {
+        return parameters.name;
+    }
+
+    @Override
+    public String getMethodName() {
+        return "executeOnEntries";
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return new Object[]{parameters.entryProcessor, parameters.predicate};
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol.task.map;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapQueryPartitionPageCodec;
+import com.hazelcast.instance.Node;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.query.QueryPartitionPageOperation;
+import com.hazelcast.map.impl.query.QueryResultPage;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.security.permission.ActionConstants;
+import com.hazelcast.security.permission.MapPermission;
+import com.hazelcast.spi.Operation;
+
+import java.security.Permission;
+
+public class MapQueryPartitionPageMessageTask
+        extends AbstractMapPartitionMessageTask<MapQueryPartitionPageCodec.RequestParameters> {
+
+    public MapQueryPartitionPageMessageTask(ClientMessage clientMessage, Node node, Connection connection) {
+        super(clientMessage, node, connection);
+    }
+
+    @Override
+    protected Operation prepareOperation() {
+        Predicate predicate = serializationService.toObject(parameters.predicate);
+        return new QueryPartitionPageOperation(parameters.name, predicate, parameters.tableIndex, parameters.pageSize);
+    }
+
+    @Override
+    protected MapQueryPartitionPageCodec.RequestParameters decodeClientMessage(ClientMessage clientMessage) {
+        return MapQueryPartitionPageCodec.decodeRequest(clientMessage);
+    }
+
+    @Override
+    protected ClientMessage encodeResponse(Object response) {
+        QueryResultPage page = serializationService.toObject(response);
+        return MapQueryPartitionPageCodec.encodeResponse(page.getNextTableIndex(), page.getRows());
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return new MapPermission(parameters.name, ActionConstants.ACTION_READ);
+    }
+
+    @Override
+    public String getDistributedObjectName() {
+        return parameters.name;
+    }
+
+    @Override
+    public String getMethodName() {
+        return "entrySet";
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return new Object[]{parameters.predicate};
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.core;
 
+import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.MapInterceptor;
 import com.hazelcast.map.QueryResultSizeExceededException;
@@ -26,6 +27,7 @@ import com.hazelcast.mapreduce.JobTracker;
 import com.hazelcast.mapreduce.aggregation.Aggregation;
 import com.hazelcast.mapreduce.aggregation.Supplier;
 import com.hazelcast.monitor.LocalMapStats;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.spi.properties.GroupProperty;
 
@@ -1592,6 +1594,61 @@ public interface IMap<K, V> extends ConcurrentMap<K, V>, LegacyAsyncMap<K, V> {
      */
     Map<K, Object> executeOnEntries(EntryProcessor entryProcessor, Predicate predicate);
 
+    /**
+     * Applies the aggregation logic on all map entries and returns the result.
+     * <p/>
+     * The aggregation is executed next to the data: every member accumulates the entries of its local
+     * partitions and only the partial results are sent back to the caller, where they are combined.
+     * Unlike {@link #aggregate(Supplier, Aggregation)} it does not go through the MapReduce framework.
+     * A predefined set of aggregators can be found in {@link com.hazelcast.aggregation.Aggregators}.
+     *
+     * @param aggregator aggregator to aggregate the entries with
+     * @param <R>        type of the result
+     * @return the result of the given type
+     * @since 3.7
+     */
+    <R> R aggregate(Aggregator<? super Map.Entry<K, V>, R> aggregator);
+
+    /**
+     * Applies the aggregation logic on map entries filtered with the Predicate and returns the result.
+     * <p/>
+     * See {@link #aggregate(Aggregator)}. Paging predicates are not supported.
+     *
+     * @param aggregator aggregator to aggregate the entries with
+     * @param predicate  predicate to filter the entries with
+     * @param <R>        type of the result
+     * @return the result of the given type
+     * @since 3.7
+     */
+    <R> R aggregate(Aggregator<? super Map.Entry<K, V>, R> aggregator, Predicate<K, V> predicate);
+
+    /**
+     * Applies the projection logic on all map entries and returns the result.
+     * <p/>
+     * The projection is executed on the members owning the entries, so only the projected values are sent
+     * back to the caller instead of the whole values. A predefined set of projections can be found in
+     * {@link com.hazelcast.projection.Projections}.
+     *
+     * @param projection projection to transform the entries with. May return null.
+     * @param <R>        type of the result
+     * @return the result of the given type
+     * @since 3.7
+     */
+    <R> Collection<R> project(Projection<? super Map.Entry<K, V>, R> projection);
+
+    /**
+     * Applies the projection logic on map entries filtered with the Predicate and returns the result.
+     * <p/>
+     * See {@link #project(Projection)}. Paging predicates are not supported.
+     *
+     * @param projection projection to transform the entries with. May return null.
+     * @param predicate  predicate to filter the entries with
+     * @param <R>        type of the result
+     * @return the result of the given type
+     * @since 3.7
+     */
+    <R> Collection<R> project(Projection<? super Map.Entry<K, V>, R> projection, Predicate<K, V> predicate);
+
     /**
      * Executes a predefined aggregation on the maps data set. The {@link com.hazelcast.mapreduce.aggregation.Supplier}
      * is used to either select or to select and extract a (sub-)value. A predefined set of aggregations can be found in
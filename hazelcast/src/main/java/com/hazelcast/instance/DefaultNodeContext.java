@@ -24,6 +24,8 @@ import com.hazelcast.nio.tcp.TcpIpConnectionManager;
 import com.hazelcast.nio.tcp.nonblocking.NonBlockingIOThreadingModel;
 import com.hazelcast.nio.tcp.spinning.SpinningIOThreadingModel;
 import com.hazelcast.spi.annotation.PrivateApi;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
 
 import java.nio.channels.ServerSocketChannel;
 
@@ -67,11 +69,14 @@ public class DefaultNodeContext implements NodeContext {
                     node.nodeEngine.getMetricsRegistry(),
                     node.getHazelcastThreadGroup());
         } else {
+            OperationServiceImpl operationService = (OperationServiceImpl) node.nodeEngine.getOperationService();
+            OperationExecutorImpl operationExecutor = (OperationExecutorImpl) operationService.getOperationExecutor();
             return new NonBlockingIOThreadingModel(
                     ioService,
                     node.loggingService,
                     node.nodeEngine.getMetricsRegistry(),
-                    node.getHazelcastThreadGroup());
+                    node.getHazelcastThreadGroup(),
+                    operationExecutor.getIOThreadHosts());
         }
     }
 }
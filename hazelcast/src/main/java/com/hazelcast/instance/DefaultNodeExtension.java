@@ -20,8 +20,13 @@ import com.hazelcast.cache.impl.CacheService;
 import com.hazelcast.cache.impl.ICacheService;
 import com.hazelcast.cluster.ClusterState;
 import com.hazelcast.config.Config;
+import com.hazelcast.config.NativeMemoryConfig;
+import com.hazelcast.config.NativeMemoryConfig.MemoryAllocatorType;
 import com.hazelcast.config.SerializationConfig;
 import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.memory.HazelcastMemoryManager;
+import com.hazelcast.internal.memory.impl.PooledMemoryManager;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
@@ -32,6 +37,7 @@ import com.hazelcast.memory.MemoryStats;
 import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.IOService;
 import com.hazelcast.nio.MemberSocketInterceptor;
+import com.hazelcast.nio.PacketPayloadPool;
 import com.hazelcast.nio.tcp.DefaultSocketChannelWrapperFactory;
 import com.hazelcast.nio.tcp.MemberReadHandler;
 import com.hazelcast.nio.tcp.MemberWriteHandler;
@@ -45,6 +51,7 @@ import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.annotation.PrivateApi;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.util.ConstructorFunction;
 import com.hazelcast.util.ExceptionUtil;
 import com.hazelcast.wan.WanReplicationService;
@@ -54,6 +61,7 @@ import java.util.Collections;
 import java.util.Map;
 
 import static com.hazelcast.map.impl.MapServiceConstructor.getDefaultMapServiceConstructor;
+import static com.hazelcast.memory.MemoryUnit.KILOBYTES;
 
 @PrivateApi
 public class DefaultNodeExtension implements NodeExtension {
@@ -64,14 +72,38 @@ public class DefaultNodeExtension implements NodeExtension {
 
     private final MemoryStats memoryStats = new DefaultMemoryStats();
 
+    private volatile PacketPayloadPool packetPayloadPool;
+    private volatile HazelcastMemoryManager nativeMemoryManager;
+
     public DefaultNodeExtension(Node node) {
         this.node = node;
         logger = node.getLogger(NodeExtension.class);
         systemLogger = node.getLogger("com.hazelcast.system");
     }
 
+    private static PacketPayloadPool createPacketPayloadPool(HazelcastProperties properties) {
+        if (!properties.getBoolean(GroupProperty.SOCKET_RECEIVE_PAYLOAD_POOL_ENABLED)) {
+            return null;
+        }
+
+        int maxPayloadSize = properties.getInteger(GroupProperty.SOCKET_RECEIVE_PAYLOAD_POOL_MAX_SIZE);
+        long capacity = KILOBYTES.toBytes(properties.getInteger(GroupProperty.SOCKET_RECEIVE_PAYLOAD_POOL_CAPACITY));
+        return new PacketPayloadPool(maxPayloadSize, capacity);
+    }
+
     @Override
     public void beforeStart() {
+        packetPayloadPool = createPacketPayloadPool(node.getProperties());
+
+        NativeMemoryConfig nativeMemoryConfig = node.getConfig().getNativeMemoryConfig();
+        if (nativeMemoryConfig.isEnabled()) {
+            nativeMemoryManager = nativeMemoryConfig.getAllocatorType() == MemoryAllocatorType.POOLED
+                    ? new PooledMemoryManager(nativeMemoryConfig)
+                    : new StandardMemoryManager(nativeMemoryConfig.getSize().bytes());
+            logger.info("Native memory is enabled, using " + nativeMemoryConfig.getSize().toPrettyString()
+                    + " of native memory with the " + nativeMemoryConfig.getAllocatorType()
+                    + " allocator for the in-memory format NATIVE.");
+        }
     }
 
     @Override
@@ -182,7 +214,7 @@ public class DefaultNodeExtension implements NodeExtension {
     @Override
     public ReadHandler createReadHandler(TcpIpConnection connection, IOService ioService) {
         NodeEngineImpl nodeEngine = node.nodeEngine;
-        return new MemberReadHandler(connection, nodeEngine.getPacketDispatcher());
+        return new MemberReadHandler(connection, nodeEngine.getPacketDispatcher(), packetPayloadPool);
     }
 
     @Override
@@ -200,7 +232,13 @@ public class DefaultNodeExtension implements NodeExtension {
 
     @Override
     public MemoryStats getMemoryStats() {
-        return memoryStats;
+        HazelcastMemoryManager memoryManager = nativeMemoryManager;
+        return memoryManager != null ? memoryManager.getMemoryStats() : memoryStats;
+    }
+
+    @Override
+    public HazelcastMemoryManager getNativeMemoryManager() {
+        return nativeMemoryManager;
     }
 
     @Override
@@ -210,6 +248,10 @@ public class DefaultNodeExtension implements NodeExtension {
     @Override
     public void shutdown() {
         logger.info("Destroying node NodeExtension.");
+        HazelcastMemoryManager memoryManager = nativeMemoryManager;
+        if (memoryManager != null) {
+            memoryManager.dispose();
+        }
     }
 
     @Override
@@ -17,6 +17,7 @@
 package com.hazelcast.instance;
 
 import com.hazelcast.cluster.ClusterState;
+import com.hazelcast.internal.memory.HazelcastMemoryManager;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.memory.MemoryStats;
 import com.hazelcast.nio.IOService;
@@ -161,6 +162,13 @@ public interface NodeExtension {
      */
     MemoryStats getMemoryStats();
 
+    /**
+     * Returns the {@link HazelcastMemoryManager} which serves the native memory allocations of this node.
+     *
+     * @return the native memory manager or {@code null} if native memory is not enabled
+     */
+    HazelcastMemoryManager getNativeMemoryManager();
+
      /**
      * Called before a new node is joining to cluster,
      * executed if node is the master node before join event.
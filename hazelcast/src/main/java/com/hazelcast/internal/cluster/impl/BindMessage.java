@@ -28,14 +28,26 @@ public class BindMessage implements IdentifiedDataSerializable {
     private Address localAddress;
     private Address targetAddress;
     private boolean reply;
+    private int lane;
+    private boolean compression;
 
     public BindMessage() {
     }
 
     public BindMessage(Address localAddress, Address targetAddress, boolean reply) {
+        this(localAddress, targetAddress, reply, 0);
+    }
+
+    public BindMessage(Address localAddress, Address targetAddress, boolean reply, int lane) {
+        this(localAddress, targetAddress, reply, lane, false);
+    }
+
+    public BindMessage(Address localAddress, Address targetAddress, boolean reply, int lane, boolean compression) {
         this.localAddress = localAddress;
         this.targetAddress = targetAddress;
         this.reply = reply;
+        this.lane = lane;
+        this.compression = compression;
     }
 
     public Address getLocalAddress() {
@@ -50,6 +62,26 @@ public class BindMessage implements IdentifiedDataSerializable {
         return reply;
     }
 
+    /**
+     * Returns the lane of the connection being bound. 0 is the regular connection between two members, the others
+     * are the additional connections, see {@link com.hazelcast.spi.properties.GroupProperty#SOCKET_MEMBER_CONNECTION_COUNT}.
+     *
+     * @return the lane.
+     */
+    public int getLane() {
+        return lane;
+    }
+
+    /**
+     * Checks if the sender of this BindMessage has packet compression enabled. Only if both sides have it enabled,
+     * packets on the connection are compressed.
+     *
+     * @return true if compression is enabled, false otherwise.
+     */
+    public boolean isCompression() {
+        return compression;
+    }
+
     @Override
     public int getFactoryId() {
         return ClusterDataSerializerHook.F_ID;
@@ -70,6 +102,8 @@ public class BindMessage implements IdentifiedDataSerializable {
             targetAddress.readData(in);
         }
         reply = in.readBoolean();
+        lane = in.readInt();
+        compression = in.readBoolean();
     }
 
     @Override
@@ -81,6 +115,8 @@ public class BindMessage implements IdentifiedDataSerializable {
             targetAddress.writeData(out);
         }
         out.writeBoolean(reply);
+        out.writeInt(lane);
+        out.writeBoolean(compression);
     }
 
     @Override
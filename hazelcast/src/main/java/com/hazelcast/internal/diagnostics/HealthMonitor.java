@@ -442,6 +442,8 @@ public class HealthMonitor {
               .append(numberToUnit(memoryStats.getCommittedNative())).append(", ");
             sb.append("native.memory.max=")
               .append(numberToUnit(memoryStats.getMaxNative())).append(", ");
+            sb.append("native.memory.fragmentation=")
+              .append(percentageString(PERCENTAGE_MULTIPLIER * memoryStats.getNativeFragmentation())).append(", ");
             final long maxMeta = memoryStats.getMaxMetadata();
             if (maxMeta > 0) {
                 final long usedMeta = memoryStats.getUsedMetadata();
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.memory;
+
+import com.hazelcast.memory.MemoryStats;
+
+/**
+ * {@link MemoryManager} which serves the native memory of a Hazelcast member
+ * and keeps track of the memory it manages.
+ */
+public interface HazelcastMemoryManager extends MemoryManager {
+
+    /**
+     * @return the statistics of the memory managed by this memory manager,
+     * combined with the heap and physical memory statistics of the JVM
+     */
+    MemoryStats getMemoryStats();
+}
@@ -0,0 +1,475 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.config.NativeMemoryConfig;
+import com.hazelcast.internal.memory.HazelcastMemoryManager;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.memory.DefaultMemoryStats;
+import com.hazelcast.memory.MemoryStats;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.util.Preconditions.checkPositive;
+import static com.hazelcast.util.Preconditions.checkTrue;
+import static com.hazelcast.util.QuickMath.isPowerOfTwo;
+import static com.hazelcast.util.QuickMath.log2;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * {@link HazelcastMemoryManager} which serves allocations from pages of native memory using
+ * the buddy allocation scheme.
+ * <p>
+ * Native memory is taken from the operating system in pages of {@code pageSize} bytes. Each page is split
+ * into power-of-two sized blocks, from {@code minBlockSize} up to the page size, and a freed block is merged
+ * with its buddy whenever the buddy is free too. Allocations larger than a page are served directly by the
+ * operating system.
+ * <p>
+ * Every thread allocates from its own pool of pages, so allocations of different threads do not contend.
+ * A block can be freed by any thread; it is returned to the pool of the page it belongs to. Pages which
+ * become completely free are handed back to a shared list and reused by any pool.
+ * <p>
+ * Free blocks are linked into per-order free lists through their first 16 bytes. The order of each free block
+ * is kept in a per-page metadata region (one byte per minimum sized block) which is allocated from the
+ * metadata space, next to the pooled memory.
+ */
+public class PooledMemoryManager implements HazelcastMemoryManager {
+
+    /**
+     * Minimum block size which can hold the links of the free lists.
+     */
+    public static final int MIN_BLOCK_SIZE_LOWER_LIMIT = 16;
+
+    private static final int PREV_OFFSET = 8;
+    private static final float HUNDRED_PERCENT = 100f;
+
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final long maxNative;
+    private final long maxMetadata;
+    private final int pageSize;
+    private final int minBlockSizeShift;
+    private final int maxOrder;
+
+    private final ConcurrentSkipListMap<Long, Page> pages = new ConcurrentSkipListMap<Long, Page>();
+    private final Queue<Page> freePages = new ConcurrentLinkedQueue<Page>();
+    private final ConcurrentMap<Long, Long> largeBlocks = new ConcurrentHashMap<Long, Long>();
+    private final ThreadLocal<Pool> pools = new ThreadLocal<Pool>() {
+        @Override
+        protected Pool initialValue() {
+            return new Pool();
+        }
+    };
+
+    // native memory taken from the operating system, pages and large blocks
+    private final AtomicLong committed = new AtomicLong();
+    // native memory handed out, rounded up to the block sizes
+    private final AtomicLong used = new AtomicLong();
+    // native memory requested by the callers
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong usedMetadata = new AtomicLong();
+    private final AtomicInteger freePageCount = new AtomicInteger();
+
+    private final MemoryAllocator allocator = new PooledAllocator();
+    private final MemoryStats memoryStats = new PooledMemoryStats();
+
+    public PooledMemoryManager(NativeMemoryConfig config) {
+        this(new UnsafeMalloc(), MEM, config.getSize().bytes(), config.getMinBlockSize(), config.getPageSize(),
+                config.getMetadataSpacePercentage());
+    }
+
+    public PooledMemoryManager(MemoryAllocator malloc, MemoryAccessor accessor, long maxNative,
+                               int minBlockSize, int pageSize, float metadataSpacePercentage) {
+        checkPositive(maxNative, "maxNative should be positive");
+        checkTrue(isPowerOfTwo(minBlockSize) && minBlockSize >= MIN_BLOCK_SIZE_LOWER_LIMIT,
+                "Minimum block size should be a power of two and at least " + MIN_BLOCK_SIZE_LOWER_LIMIT);
+        checkTrue(isPowerOfTwo(pageSize) && pageSize >= minBlockSize,
+                "Page size should be a power of two and at least the minimum block size");
+        this.malloc = malloc;
+        this.mem = accessor;
+        this.maxNative = maxNative;
+        this.maxMetadata = (long) (maxNative * metadataSpacePercentage / HUNDRED_PERCENT);
+        this.pageSize = pageSize;
+        this.minBlockSizeShift = log2(minBlockSize);
+        this.maxOrder = log2(pageSize / minBlockSize);
+    }
+
+    @Override
+    public MemoryAllocator getAllocator() {
+        return allocator;
+    }
+
+    @Override
+    public MemoryAccessor getAccessor() {
+        return mem;
+    }
+
+    @Override
+    public MemoryStats getMemoryStats() {
+        return memoryStats;
+    }
+
+    /**
+     * Frees all pages and large blocks, including the ones still in use.
+     */
+    @Override
+    public void dispose() {
+        for (Page page : pages.values()) {
+            malloc.free(page.address, pageSize);
+            malloc.free(page.metadataAddress, metadataSize());
+        }
+        pages.clear();
+        freePages.clear();
+        for (Map.Entry<Long, Long> entry : largeBlocks.entrySet()) {
+            malloc.free(entry.getKey(), entry.getValue());
+        }
+        largeBlocks.clear();
+        committed.set(0);
+        used.set(0);
+        requested.set(0);
+        usedMetadata.set(0);
+        freePageCount.set(0);
+        malloc.dispose();
+    }
+
+    @Override
+    public String toString() {
+        return "PooledMemoryManager{pageSize=" + pageSize + ", minBlockSize=" + (1 << minBlockSizeShift)
+                + ", " + memoryStats + '}';
+    }
+
+    private int orderOf(long size) {
+        int blocks = (int) ((size + (1 << minBlockSizeShift) - 1) >> minBlockSizeShift);
+        return log2(nextPowerOfTwo(Math.max(blocks, 1)));
+    }
+
+    private long blockSize(int order) {
+        return 1L << (minBlockSizeShift + order);
+    }
+
+    private int metadataSize() {
+        return pageSize >> minBlockSizeShift;
+    }
+
+    private Page pageOf(long address) {
+        Map.Entry<Long, Page> entry = pages.floorEntry(address);
+        if (entry == null || address >= entry.getKey() + pageSize) {
+            throw new IllegalArgumentException("Address " + address + " does not belong to this memory manager!");
+        }
+        return entry.getValue();
+    }
+
+    private Page acquirePage(Pool pool) {
+        Page page = freePages.poll();
+        if (page != null) {
+            freePageCount.decrementAndGet();
+        } else {
+            page = newPage();
+        }
+        page.owner = pool;
+        return page;
+    }
+
+    private void releasePage(Page page) {
+        page.owner = null;
+        freePages.offer(page);
+        freePageCount.incrementAndGet();
+    }
+
+    private Page newPage() {
+        reserve(committed, pageSize, maxNative, "native");
+        try {
+            reserve(usedMetadata, metadataSize(), maxMetadata, "metadata");
+        } catch (NativeOutOfMemoryError e) {
+            committed.addAndGet(-pageSize);
+            throw e;
+        }
+        long address = NULL_ADDRESS;
+        try {
+            address = malloc.allocate(pageSize);
+            long metadataAddress = malloc.allocate(metadataSize());
+            Page page = new Page(address, metadataAddress);
+            pages.put(address, page);
+            return page;
+        } catch (NativeOutOfMemoryError e) {
+            if (address != NULL_ADDRESS) {
+                malloc.free(address, pageSize);
+            }
+            committed.addAndGet(-pageSize);
+            usedMetadata.addAndGet(-metadataSize());
+            throw e;
+        }
+    }
+
+    private long allocateLarge(long size) {
+        reserve(committed, size, maxNative, "native");
+        long address;
+        try {
+            address = malloc.allocate(size);
+        } catch (NativeOutOfMemoryError e) {
+            committed.addAndGet(-size);
+            throw e;
+        }
+        largeBlocks.put(address, size);
+        used.addAndGet(size);
+        requested.addAndGet(size);
+        return address;
+    }
+
+    private void freeLarge(long address, long size) {
+        if (largeBlocks.remove(address) == null) {
+            throw new IllegalArgumentException("Address " + address + " does not belong to this memory manager!");
+        }
+        malloc.free(address, size);
+        committed.addAndGet(-size);
+        used.addAndGet(-size);
+        requested.addAndGet(-size);
+    }
+
+    private static void reserve(AtomicLong counter, long size, long max, String type) {
+        for (; ; ) {
+            long current = counter.get();
+            if (current + size > max) {
+                throw new NativeOutOfMemoryError("Not enough " + type + " memory! Used: " + current
+                        + " bytes, requested: " + size + " bytes, max: " + max + " bytes!");
+            }
+            if (counter.compareAndSet(current, current + size)) {
+                return;
+            }
+        }
+    }
+
+    private final class PooledAllocator implements MemoryAllocator {
+
+        @Override
+        public long allocate(long size) {
+            if (size > pageSize) {
+                return allocateLarge(size);
+            }
+            int order = orderOf(size);
+            long address = pools.get().allocate(order);
+            used.addAndGet(blockSize(order));
+            requested.addAndGet(size);
+            mem.setMemory(address, size, (byte) 0);
+            return address;
+        }
+
+        @Override
+        public long reallocate(long address, long currentSize, long newSize) {
+            if (currentSize <= pageSize && newSize <= pageSize && orderOf(currentSize) == orderOf(newSize)) {
+                if (newSize > currentSize) {
+                    mem.setMemory(address + currentSize, newSize - currentSize, (byte) 0);
+                }
+                requested.addAndGet(newSize - currentSize);
+                return address;
+            }
+            long newAddress = allocate(newSize);
+            mem.copyMemory(address, newAddress, Math.min(currentSize, newSize));
+            free(address, currentSize);
+            return newAddress;
+        }
+
+        @Override
+        public void free(long address, long size) {
+            if (size > pageSize) {
+                freeLarge(address, size);
+                return;
+            }
+            Page page = pageOf(address);
+            int order = orderOf(size);
+            // the owner cannot change while the page has a block in use
+            page.owner.free(page, address, order);
+            used.addAndGet(-blockSize(order));
+            requested.addAndGet(-size);
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+
+    /**
+     * Free lists of the pages owned by a thread.
+     */
+    private final class Pool {
+
+        private final long[] freeLists = new long[maxOrder + 1];
+
+        synchronized long allocate(int order) {
+            int freeOrder = order;
+            while (freeOrder <= maxOrder && freeLists[freeOrder] == NULL_ADDRESS) {
+                freeOrder++;
+            }
+
+            Page page;
+            long block;
+            if (freeOrder > maxOrder) {
+                page = acquirePage(this);
+                block = page.address;
+                freeOrder = maxOrder;
+            } else {
+                block = freeLists[freeOrder];
+                page = pageOf(block);
+                removeFreeBlock(page, block, freeOrder);
+            }
+
+            // split the block, the upper halves become free blocks
+            while (freeOrder > order) {
+                freeOrder--;
+                addFreeBlock(page, block + blockSize(freeOrder), freeOrder);
+            }
+            return block;
+        }
+
+        synchronized void free(Page page, long address, int order) {
+            long offset = address - page.address;
+            while (order < maxOrder) {
+                long buddyOffset = offset ^ blockSize(order);
+                long buddy = page.address + buddyOffset;
+                if (getFreeOrder(page, buddy) != order) {
+                    break;
+                }
+                removeFreeBlock(page, buddy, order);
+                offset = Math.min(offset, buddyOffset);
+                order++;
+            }
+
+            if (order == maxOrder) {
+                releasePage(page);
+            } else {
+                addFreeBlock(page, page.address + offset, order);
+            }
+        }
+
+        private void addFreeBlock(Page page, long block, int order) {
+            setFreeOrder(page, block, order);
+            long head = freeLists[order];
+            mem.putLong(block, head);
+            mem.putLong(block + PREV_OFFSET, NULL_ADDRESS);
+            if (head != NULL_ADDRESS) {
+                mem.putLong(head + PREV_OFFSET, block);
+            }
+            freeLists[order] = block;
+        }
+
+        private void removeFreeBlock(Page page, long block, int order) {
+            setFreeOrder(page, block, -1);
+            long next = mem.getLong(block);
+            long prev = mem.getLong(block + PREV_OFFSET);
+            if (prev == NULL_ADDRESS) {
+                freeLists[order] = next;
+            } else {
+                mem.putLong(prev, next);
+            }
+            if (next != NULL_ADDRESS) {
+                mem.putLong(next + PREV_OFFSET, prev);
+            }
+        }
+
+        /**
+         * Returns the order of the free block starting at the given address, or -1 if there is no free block.
+         */
+        private int getFreeOrder(Page page, long block) {
+            return mem.getByte(page.metadataAddress + ((block - page.address) >> minBlockSizeShift)) - 1;
+        }
+
+        private void setFreeOrder(Page page, long block, int order) {
+            mem.putByte(page.metadataAddress + ((block - page.address) >> minBlockSizeShift), (byte) (order + 1));
+        }
+    }
+
+    private static final class Page {
+
+        final long address;
+        final long metadataAddress;
+        volatile Pool owner;
+
+        Page(long address, long metadataAddress) {
+            this.address = address;
+            this.metadataAddress = metadataAddress;
+        }
+    }
+
+    private final class PooledMemoryStats extends DefaultMemoryStats {
+
+        @Override
+        public long getMaxNative() {
+            return maxNative;
+        }
+
+        @Override
+        public long getCommittedNative() {
+            return committed.get();
+        }
+
+        @Override
+        public long getUsedNative() {
+            return used.get();
+        }
+
+        @Override
+        public long getFreeNative() {
+            return maxNative - used.get();
+        }
+
+        /**
+         * The share of the native memory held by pages in use which does not serve requested bytes,
+         * either because of rounding up to the block sizes or because it is free but split into blocks.
+         */
+        @Override
+        public double getNativeFragmentation() {
+            long pinned = committed.get() - (long) freePageCount.get() * pageSize;
+            if (pinned <= 0) {
+                return 0;
+            }
+            return Math.max(0, 1 - (double) requested.get() / pinned);
+        }
+
+        @Override
+        public long getMaxMetadata() {
+            return maxMetadata;
+        }
+
+        @Override
+        public long getUsedMetadata() {
+            return usedMetadata.get();
+        }
+
+        @Override
+        public String toString() {
+            return "PooledMemoryStats{"
+                    + "committedNative=" + getCommittedNative()
+                    + ", usedNative=" + getUsedNative()
+                    + ", freeNative=" + getFreeNative()
+                    + ", nativeFragmentation=" + getNativeFragmentation()
+                    + ", usedMetadata=" + getUsedMetadata()
+                    + '}';
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.HazelcastMemoryManager;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.memory.DefaultMemoryStats;
+import com.hazelcast.memory.MemoryStats;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * {@link HazelcastMemoryManager} which serves allocations from the operating system (through a
+ * {@link MemoryAllocator} such as {@link UnsafeMalloc}) while enforcing an upper bound on
+ * the total number of bytes allocated through it.
+ * <p>
+ * The bookkeeping is thread-safe, so a single instance can be shared by all partition threads
+ * of a member. It does not track the individual blocks: the owners of the blocks are responsible
+ * for freeing them.
+ */
+public class StandardMemoryManager implements HazelcastMemoryManager {
+
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor accessor;
+    private final long maxMemory;
+    private final AtomicLong usedMemory = new AtomicLong();
+    private final BoundedAllocator allocator = new BoundedAllocator();
+    private final MemoryStats memoryStats = new StandardMemoryStats();
+
+    public StandardMemoryManager(long maxMemory) {
+        this(new UnsafeMalloc(), MEM, maxMemory);
+    }
+
+    public StandardMemoryManager(MemoryAllocator malloc, MemoryAccessor accessor, long maxMemory) {
+        checkPositive(maxMemory, "maxMemory should be positive");
+        this.malloc = malloc;
+        this.accessor = accessor;
+        this.maxMemory = maxMemory;
+    }
+
+    @Override
+    public MemoryAllocator getAllocator() {
+        return allocator;
+    }
+
+    @Override
+    public MemoryAccessor getAccessor() {
+        return accessor;
+    }
+
+    /**
+     * @return the number of bytes currently allocated through this memory manager
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    /**
+     * @return the maximum number of bytes which can be allocated through this memory manager
+     */
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    @Override
+    public MemoryStats getMemoryStats() {
+        return memoryStats;
+    }
+
+    @Override
+    public void dispose() {
+        malloc.dispose();
+    }
+
+    private void reserve(long size) {
+        for (; ; ) {
+            long used = usedMemory.get();
+            long newUsed = used + size;
+            if (newUsed > maxMemory) {
+                throw new NativeOutOfMemoryError("Not enough native memory! Used: " + used
+                        + " bytes, requested: " + size + " bytes, max: " + maxMemory + " bytes!");
+            }
+            if (usedMemory.compareAndSet(used, newUsed)) {
+                return;
+            }
+        }
+    }
+
+    private void release(long size) {
+        usedMemory.addAndGet(-size);
+    }
+
+    private final class BoundedAllocator implements MemoryAllocator {
+
+        @Override
+        public long allocate(long size) {
+            reserve(size);
+            try {
+                return malloc.allocate(size);
+            } catch (NativeOutOfMemoryError e) {
+                release(size);
+                throw e;
+            }
+        }
+
+        @Override
+        public long reallocate(long address, long currentSize, long newSize) {
+            long diff = newSize - currentSize;
+            if (diff > 0) {
+                reserve(diff);
+            }
+            long newAddress;
+            try {
+                newAddress = malloc.reallocate(address, currentSize, newSize);
+            } catch (NativeOutOfMemoryError e) {
+                if (diff > 0) {
+                    release(diff);
+                }
+                throw e;
+            }
+            if (diff < 0) {
+                release(-diff);
+            }
+            return newAddress;
+        }
+
+        @Override
+        public void free(long address, long size) {
+            malloc.free(address, size);
+            release(size);
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+
+    private final class StandardMemoryStats extends DefaultMemoryStats {
+
+        @Override
+        public long getMaxNative() {
+            return maxMemory;
+        }
+
+        @Override
+        public long getCommittedNative() {
+            return usedMemory.get();
+        }
+
+        @Override
+        public long getUsedNative() {
+            return usedMemory.get();
+        }
+
+        @Override
+        public long getFreeNative() {
+            return maxMemory - usedMemory.get();
+        }
+    }
+}
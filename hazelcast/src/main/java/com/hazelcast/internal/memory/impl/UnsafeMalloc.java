@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+
+/**
+ * {@link MemoryAllocator} which delegates every request directly to the operating system
+ * through {@code sun.misc.Unsafe}. It keeps no state of its own.
+ */
+public final class UnsafeMalloc implements MemoryAllocator {
+
+    public UnsafeMalloc() {
+        if (!UnsafeUtil.UNSAFE_AVAILABLE) {
+            throw new IllegalStateException("sun.misc.Unsafe is not available, native memory cannot be used!");
+        }
+    }
+
+    @Override
+    public long allocate(long size) {
+        long address = allocateMemory(size);
+        UNSAFE.setMemory(address, size, (byte) 0);
+        return address;
+    }
+
+    @Override
+    public long reallocate(long address, long currentSize, long newSize) {
+        long newAddress;
+        try {
+            newAddress = UNSAFE.reallocateMemory(address, newSize);
+        } catch (OutOfMemoryError e) {
+            throw new NativeOutOfMemoryError("Not enough contiguous memory available! Cannot reallocate "
+                    + currentSize + " bytes to " + newSize + " bytes!", e);
+        }
+        if (newSize > currentSize) {
+            UNSAFE.setMemory(newAddress + currentSize, newSize - currentSize, (byte) 0);
+        }
+        return newAddress;
+    }
+
+    @Override
+    public void free(long address, long size) {
+        UNSAFE.freeMemory(address);
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    @Override
+    public String toString() {
+        return "UnsafeMalloc";
+    }
+
+    private static long allocateMemory(long size) {
+        try {
+            return UNSAFE.allocateMemory(size);
+        } catch (OutOfMemoryError e) {
+            throw new NativeOutOfMemoryError("Not enough contiguous memory available! Cannot allocate "
+                    + size + " bytes!", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.spi.MigrationAwareService;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.PartitionReplicationEvent;
+
+import java.util.Iterator;
+
+/**
+ * A {@link MigrationAwareService} that can send the state of a migrating or syncing partition replica as a sequence of
+ * bounded chunks instead of a single replication operation carrying the whole partition.
+ * <p/>
+ * The chunks are read from the partition one at a time, when the destination has applied the previous one, so the
+ * source never holds more than a single chunk of the partition.
+ *
+ * @see com.hazelcast.spi.properties.GroupProperty#PARTITION_MIGRATION_CHUNKED_ENABLED
+ */
+public interface ChunkedMigrationAwareService extends MigrationAwareService {
+
+    /**
+     * Returns the replication operations carrying the state of the partition, at most {@code maxEntries} entries each.
+     * The chunks are run on the destination in order: the first chunk touching a piece of state replaces it, the
+     * following chunks add to it.
+     * <p/>
+     * The chunks are created lazily. {@link Iterator#hasNext()} and {@link Iterator#next()} read from the partition and
+     * are only called in the partition thread. The partition is migrating meanwhile, or, for a replica sync, all chunks
+     * are read in a single run of the partition thread, so its state does not change between two chunks. The operations
+     * need to return the name of the service, see {@link Operation#getServiceName()}.
+     *
+     * @param event      the replication event
+     * @param maxEntries the maximum number of entries in a chunk
+     * @return the chunks; empty if there is nothing to replicate
+     */
+    Iterator<Operation> prepareReplicationChunks(PartitionReplicationEvent event, int maxEntries);
+}
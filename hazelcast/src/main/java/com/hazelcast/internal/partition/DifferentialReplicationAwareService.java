@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.spi.MigrationAwareService;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.PartitionReplicationEvent;
+
+/**
+ * A {@link MigrationAwareService} that can synchronize a backup replica with its owner by transferring only the parts of
+ * the partition that differ between them.
+ * <p/>
+ * The backup replica creates a digest of its data and sends it to the owner with the replica sync request. The owner
+ * compares it with its own data and prepares a replication operation carrying only the differing parts.
+ *
+ * @see com.hazelcast.spi.properties.GroupProperty#PARTITION_REPLICA_SYNC_DIFFERENTIAL_ENABLED
+ */
+public interface DifferentialReplicationAwareService extends MigrationAwareService {
+
+    /**
+     * Creates a digest of the data of the given replica. Called on the backup replica, in the partition thread.
+     *
+     * @param event the replication event
+     * @return the serializable digest or null if this replica should be synchronized in full
+     */
+    Object createReplicaDigest(PartitionReplicationEvent event);
+
+    /**
+     * Prepares a replication operation that brings a backup replica with the given digest in line with this replica.
+     * Called on the partition owner, in the partition thread.
+     *
+     * @param event  the replication event
+     * @param digest the digest created by {@link #createReplicaDigest(PartitionReplicationEvent)} on the backup replica
+     * @return the replication operation or null if there is nothing to replicate
+     */
+    Operation prepareReplicationOperation(PartitionReplicationEvent event, Object digest);
+}
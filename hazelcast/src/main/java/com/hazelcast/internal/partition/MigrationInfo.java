@@ -80,6 +80,8 @@ public class MigrationInfo implements DataSerializable {
 
     private final AtomicBoolean processing = new AtomicBoolean(false);
     private volatile MigrationStatus status;
+    // number of migration chunks applied on the destination, only used locally and not serialized
+    private volatile int appliedChunkCount;
 
     public MigrationInfo() {
     }
@@ -157,6 +159,14 @@ public class MigrationInfo implements DataSerializable {
         processing.set(false);
     }
 
+    public int getAppliedChunkCount() {
+        return appliedChunkCount;
+    }
+
+    public void setAppliedChunkCount(int appliedChunkCount) {
+        this.appliedChunkCount = appliedChunkCount;
+    }
+
     public MigrationStatus getStatus() {
         return status;
     }
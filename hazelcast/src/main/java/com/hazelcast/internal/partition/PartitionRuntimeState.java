@@ -42,7 +42,7 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable {
     private int version;
     private Collection<MigrationInfo> completedMigrations;
     // used to know ongoing migrations when master changed
-    private MigrationInfo activeMigration;
+    private Collection<MigrationInfo> activeMigrations;
 
     // transient fields
     private ILogger logger;
@@ -144,12 +144,12 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable {
         return completedMigrations != null ? completedMigrations : Collections.<MigrationInfo>emptyList();
     }
 
-    public MigrationInfo getActiveMigration() {
-        return activeMigration;
+    public Collection<MigrationInfo> getActiveMigrations() {
+        return activeMigrations != null ? activeMigrations : Collections.<MigrationInfo>emptyList();
     }
 
-    public void setActiveMigration(MigrationInfo activeMigration) {
-        this.activeMigration = activeMigration;
+    public void setActiveMigrations(Collection<MigrationInfo> activeMigrations) {
+        this.activeMigrations = activeMigrations;
     }
 
     public void setCompletedMigrations(Collection<MigrationInfo> completedMigrations) {
@@ -186,9 +186,14 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable {
             }
         }
 
-        if (in.readBoolean()) {
-            activeMigration = new MigrationInfo();
-            activeMigration.readData(in);
+        int activeMigrationCount = in.readInt();
+        if (activeMigrationCount > 0) {
+            activeMigrations = new ArrayList<MigrationInfo>(activeMigrationCount);
+            for (int i = 0; i < activeMigrationCount; i++) {
+                MigrationInfo migrationInfo = new MigrationInfo();
+                migrationInfo.readData(in);
+                activeMigrations.add(migrationInfo);
+            }
         }
 
         int k = in.readInt();
@@ -218,11 +223,13 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable {
             }
         }
 
-        if (activeMigration != null) {
-            out.writeBoolean(true);
-            activeMigration.writeData(out);
+        if (activeMigrations != null) {
+            out.writeInt(activeMigrations.size());
+            for (MigrationInfo migrationInfo : activeMigrations) {
+                migrationInfo.writeData(out);
+            }
         } else {
-            out.writeBoolean(false);
+            out.writeInt(0);
         }
 
         if (completedMigrations != null) {
@@ -110,6 +110,8 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
 
     private final long partitionMigrationTimeout;
 
+    private final int migrationChunkMaxEntries;
+
     private final PartitionServiceProxy proxy;
     private final Lock lock = new ReentrantLock();
     private final InternalPartitionListener partitionListener;
@@ -151,6 +153,8 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
                 logAllExceptions(logger, EXCEPTION_MSG_PARTITION_STATE_SYNC_TIMEOUT, Level.FINEST);
 
         partitionMigrationTimeout = properties.getMillis(GroupProperty.PARTITION_MIGRATION_TIMEOUT);
+        migrationChunkMaxEntries = properties.getBoolean(GroupProperty.PARTITION_MIGRATION_CHUNKED_ENABLED)
+                ? Math.max(1, properties.getInteger(GroupProperty.PARTITION_MIGRATION_CHUNK_MAX_ENTRIES)) : 0;
 
         proxy = new PartitionServiceProxy(nodeEngine, this);
 
@@ -389,7 +393,7 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
 
             PartitionRuntimeState state =
                     new PartitionRuntimeState(logger, members, partitions, completedMigrations, getPartitionStateVersion());
-            state.setActiveMigration(migrationManager.getActiveMigration());
+            state.setActiveMigrations(migrationManager.getActiveMigrations());
             return state;
         } finally {
             lock.unlock();
@@ -810,6 +814,15 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
         return partitionMigrationTimeout;
     }
 
+    /**
+     * Returns the maximum number of entries in a migration chunk, or 0 if partitions are migrated in a single operation.
+     *
+     * @see GroupProperty#PARTITION_MIGRATION_CHUNKED_ENABLED
+     */
+    public int getMigrationChunkMaxEntries() {
+        return migrationChunkMaxEntries;
+    }
+
     // called in operation threads
     // Caution: Returning version array without copying for performance reasons. Callers must not modify this array!
     @Override
@@ -1090,9 +1103,7 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
                     }
                     allCompletedMigrations.addAll(state.getCompletedMigrations());
 
-                    if (state.getActiveMigration() != null) {
-                        allActiveMigrations.add(state.getActiveMigration());
-                    }
+                    allActiveMigrations.addAll(state.getActiveMigrations());
                 } catch (TargetNotMemberException e) {
                     EmptyStatement.ignore(e);
                 } catch (MemberLeftException e) {
@@ -1114,9 +1125,7 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
             lock.lock();
             try {
                 allCompletedMigrations.addAll(migrationManager.getCompletedMigrations());
-                if (migrationManager.getActiveMigration() != null) {
-                    allActiveMigrations.add(migrationManager.getActiveMigration());
-                }
+                allActiveMigrations.addAll(migrationManager.getActiveMigrations());
 
                 for (MigrationInfo activeMigration : allActiveMigrations) {
                     activeMigration.setStatus(MigrationStatus.FAILED);
@@ -62,6 +62,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -87,6 +89,8 @@ public class MigrationManager {
 
     final long partitionMigrationInterval;
 
+    final int maxParallelMigrations;
+
     private final Node node;
     private final NodeEngineImpl nodeEngine;
     private final InternalPartitionServiceImpl partitionService;
@@ -109,7 +113,8 @@ public class MigrationManager {
     private final Set<Address> shutdownRequestedAddresses = new HashSet<Address>();
 
     // updates will be done under lock, but reads will be multithreaded.
-    private volatile MigrationInfo activeMigrationInfo;
+    // there is at most one active migration per partition and at most maxParallelMigrations in total.
+    private final ConcurrentMap<Integer, MigrationInfo> activeMigrations = new ConcurrentHashMap<Integer, MigrationInfo>();
 
     // both reads and updates will be done under lock!
     private final LinkedHashSet<MigrationInfo> completedMigrations = new LinkedHashSet<MigrationInfo>();
@@ -137,6 +142,7 @@ public class MigrationManager {
         long intervalMillis = properties.getMillis(GroupProperty.PARTITION_MIGRATION_INTERVAL);
         partitionMigrationInterval = (intervalMillis > 0 ? intervalMillis : 0);
         partitionMigrationTimeout = properties.getMillis(GroupProperty.PARTITION_MIGRATION_TIMEOUT);
+        maxParallelMigrations = Math.max(1, properties.getInteger(GroupProperty.PARTITION_MAX_PARALLEL_MIGRATIONS));
 
         partitionStateManager = partitionService.getPartitionStateManager();
 
@@ -222,37 +228,40 @@ public class MigrationManager {
     public boolean addActiveMigration(MigrationInfo migrationInfo) {
         partitionServiceLock.lock();
         try {
-            if (activeMigrationInfo == null) {
-                partitionStateManager.setMigrating(migrationInfo.getPartitionId(), true);
-                activeMigrationInfo = migrationInfo;
+            int partitionId = migrationInfo.getPartitionId();
+            MigrationInfo existing = activeMigrations.get(partitionId);
+            if (existing == null && activeMigrations.size() < maxParallelMigrations) {
+                partitionStateManager.setMigrating(partitionId, true);
+                activeMigrations.put(partitionId, migrationInfo);
                 return true;
             }
 
-            logger.warning(migrationInfo + " not added! Already existing active migration: " + activeMigrationInfo);
+            logger.warning(migrationInfo + " not added! Already existing active migrations: " + activeMigrations.values());
             return false;
         } finally {
             partitionServiceLock.unlock();
         }
     }
 
-    MigrationInfo getActiveMigration() {
-        return activeMigrationInfo;
+    public MigrationInfo getActiveMigration(int partitionId) {
+        return activeMigrations.get(partitionId);
+    }
+
+    Collection<MigrationInfo> getActiveMigrations() {
+        return new ArrayList<MigrationInfo>(activeMigrations.values());
     }
 
     private boolean removeActiveMigration(int partitionId) {
         partitionServiceLock.lock();
         try {
-            if (activeMigrationInfo != null) {
-                if (activeMigrationInfo.getPartitionId() == partitionId) {
-                    partitionStateManager.setMigrating(partitionId, false);
-                    activeMigrationInfo = null;
-                    return true;
-                }
+            if (activeMigrations.remove(partitionId) != null) {
+                partitionStateManager.setMigrating(partitionId, false);
+                return true;
+            }
 
-                if (logger.isFinestEnabled()) {
-                    logger.finest("Active migration is not removed, because it has different partitionId! "
-                            + "PartitionId=" + partitionId + ", Active migration=" + activeMigrationInfo);
-                }
+            if (logger.isFinestEnabled()) {
+                logger.finest("Active migration is not removed, because there is no active migration for partitionId="
+                        + partitionId + ". Active migrations=" + activeMigrations.values());
             }
         } finally {
             partitionServiceLock.unlock();
@@ -266,7 +275,7 @@ public class MigrationManager {
     void scheduleActiveMigrationFinalization(final MigrationInfo migrationInfo) {
         partitionServiceLock.lock();
         try {
-            final MigrationInfo activeMigrationInfo = this.activeMigrationInfo;
+            final MigrationInfo activeMigrationInfo = activeMigrations.get(migrationInfo.getPartitionId());
             if (activeMigrationInfo != null && migrationInfo.equals(activeMigrationInfo)) {
                 if (activeMigrationInfo.startProcessing()) {
                     activeMigrationInfo.setStatus(migrationInfo.getStatus());
@@ -449,8 +458,7 @@ public class MigrationManager {
         Address deadAddress = member.getAddress();
         shutdownRequestedAddresses.remove(deadAddress);
 
-        final MigrationInfo activeMigration = activeMigrationInfo;
-        if (activeMigration != null) {
+        for (MigrationInfo activeMigration : activeMigrations.values()) {
             if (deadAddress.equals(activeMigration.getSource())
                     || deadAddress.equals(activeMigration.getDestination())) {
                 activeMigration.setStatus(MigrationStatus.INVALID);
@@ -472,7 +480,7 @@ public class MigrationManager {
     }
 
     boolean hasOnGoingMigration() {
-        return activeMigrationInfo != null || migrationQueue.hasMigrationTasks();
+        return !activeMigrations.isEmpty() || migrationQueue.hasMigrationTasks();
     }
 
     int getMigrationQueueSize() {
@@ -481,7 +489,7 @@ public class MigrationManager {
 
     void reset() {
         migrationQueue.clear();
-        activeMigrationInfo = null;
+        activeMigrations.clear();
         completedMigrations.clear();
     }
 
@@ -762,6 +770,10 @@ public class MigrationManager {
 
         final MigrationInfo migrationInfo;
 
+        private MemberImpl partitionOwner;
+        private Future migrationFuture;
+        private Boolean migrationResult;
+
         MigrateTask(MigrationInfo migrationInfo) {
             this.migrationInfo = migrationInfo;
             migrationInfo.setMaster(node.getThisAddress());
@@ -769,8 +781,19 @@ public class MigrationManager {
 
         @Override
         public void run() {
+            if (start()) {
+                complete();
+            }
+        }
+
+        /**
+         * Sends the migration request to the partition owner without waiting for its result.
+         *
+         * @return true if the migration is started and {@link #complete()} has to be called, false otherwise
+         */
+        boolean start() {
             if (!node.isMaster()) {
-                return;
+                return false;
             }
 
             if (migrationInfo.getSource() == null
@@ -782,22 +805,61 @@ public class MigrationManager {
             }
 
             try {
-                MemberImpl partitionOwner = checkMigrationParticipantsAndGetPartitionOwner();
+                partitionOwner = checkMigrationParticipantsAndGetPartitionOwner();
                 if (partitionOwner == null) {
-                    return;
+                    return false;
                 }
 
                 beforeMigration();
-                Boolean result = executeMigrateOperation(partitionOwner);
-                processMigrationResult(result);
+                migrationFuture = invokeMigrateOperation(partitionOwner);
+                return true;
             } catch (Throwable t) {
-                final Level level = migrationInfo.isValid() ? Level.WARNING : Level.FINE;
-                logger.log(level, "Error [" + t.getClass() + ": " + t.getMessage() + "] during " + migrationInfo);
-                logger.finest(t);
-                migrationOperationFailed();
+                onMigrationError(t);
+                return false;
+            }
+        }
+
+        /**
+         * Waits until the partition owner has transferred the data of a started migration, without committing it.
+         */
+        void awaitTransfer() {
+            if (migrationResult == null) {
+                migrationResult = awaitMigrateOperation();
+            }
+        }
+
+        /**
+         * Waits for the result of a started migration, then commits or rolls it back.
+         */
+        void complete() {
+            try {
+                awaitTransfer();
+                processMigrationResult(migrationResult);
+            } catch (Throwable t) {
+                onMigrationError(t);
             }
         }
 
+        /**
+         * Returns true if this migration can run in the same batch as the given migrations, i.e. none of them belongs
+         * to the same partition.
+         */
+        boolean isIndependentOf(Collection<MigrateTask> tasks) {
+            for (MigrateTask task : tasks) {
+                if (task.migrationInfo.getPartitionId() == migrationInfo.getPartitionId()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void onMigrationError(Throwable t) {
+            final Level level = migrationInfo.isValid() ? Level.WARNING : Level.FINE;
+            logger.log(level, "Error [" + t.getClass() + ": " + t.getMessage() + "] during " + migrationInfo);
+            logger.finest(t);
+            migrationOperationFailed();
+        }
+
         private void beforeMigration() {
             internalMigrationListener.onMigrationStart(MigrationParticipant.MASTER, migrationInfo);
             partitionService.getPartitionEventManager()
@@ -862,18 +924,20 @@ public class MigrationManager {
             }
         }
 
-        private Boolean executeMigrateOperation(MemberImpl fromMember) {
+        private Future invokeMigrateOperation(MemberImpl fromMember) {
             MigrationRequestOperation migrationRequestOp = new MigrationRequestOperation(migrationInfo,
                     partitionService.getPartitionStateVersion());
 
-            Future future = nodeEngine.getOperationService().createInvocationBuilder(SERVICE_NAME, migrationRequestOp,
+            return nodeEngine.getOperationService().createInvocationBuilder(SERVICE_NAME, migrationRequestOp,
                     fromMember.getAddress())
                     .setCallTimeout(partitionMigrationTimeout)
                     .setTryCount(InternalPartitionService.MIGRATION_RETRY_COUNT)
                     .setTryPauseMillis(InternalPartitionService.MIGRATION_RETRY_PAUSE).invoke();
+        }
 
+        private Boolean awaitMigrateOperation() {
             try {
-                Object response = future.get();
+                Object response = migrationFuture.get();
                 return (Boolean) nodeEngine.toObject(response);
             } catch (Throwable e) {
                 Level level = nodeEngine.isRunning() && migrationInfo.isValid() ? Level.WARNING : Level.FINE;
@@ -881,7 +945,7 @@ public class MigrationManager {
                     level = Level.FINE;
                 }
                 if (logger.isLoggable(level)) {
-                    logger.log(level, "Failed migration from " + fromMember + " for " + migrationRequestOp.getMigrationInfo(), e);
+                    logger.log(level, "Failed migration from " + partitionOwner + " for " + migrationInfo, e);
                 }
             }
             return Boolean.FALSE;
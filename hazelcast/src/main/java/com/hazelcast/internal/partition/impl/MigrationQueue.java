@@ -48,6 +48,17 @@ class MigrationQueue {
         return queue.poll(timeout, unit);
     }
 
+    public MigrationRunnable peek() {
+        return queue.peek();
+    }
+
+    /**
+     * Removes the given task from the queue, returns false if it has been removed concurrently, e.g. by {@link #clear()}.
+     */
+    public boolean remove(MigrationRunnable task) {
+        return queue.remove(task);
+    }
+
     public void clear() {
         List<MigrationRunnable> sink = new ArrayList<MigrationRunnable>();
         queue.drainTo(sink);
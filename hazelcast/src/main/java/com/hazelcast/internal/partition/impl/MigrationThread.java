@@ -18,8 +18,11 @@ package com.hazelcast.internal.partition.impl;
 
 import com.hazelcast.instance.HazelcastThreadGroup;
 import com.hazelcast.instance.OutOfMemoryErrorDispatcher;
+import com.hazelcast.internal.partition.impl.MigrationManager.MigrateTask;
 import com.hazelcast.logging.ILogger;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static java.lang.Math.max;
@@ -27,6 +30,10 @@ import static java.lang.Math.max;
 /**
  * MigrationThread is responsible to execute migration related tasks submitted to its
  * migration-queue.
+ * <p/>
+ * If {@link MigrationManager#maxParallelMigrations} is greater than 1, consecutive migrations of different partitions
+ * are run as a batch: their data is transferred concurrently and they are committed one by one in queue order,
+ * after all transfers of the batch are done.
  */
 class MigrationThread extends Thread implements Runnable {
 
@@ -36,6 +43,7 @@ class MigrationThread extends Thread implements Runnable {
     private final MigrationQueue queue;
     private final ILogger logger;
     private final long partitionMigrationInterval;
+    private final int maxParallelMigrations;
     private final long sleepTime;
 
     MigrationThread(MigrationManager migrationManager, HazelcastThreadGroup hazelcastThreadGroup, ILogger logger,
@@ -45,6 +53,7 @@ class MigrationThread extends Thread implements Runnable {
         this.migrationManager = migrationManager;
         this.queue = queue;
         partitionMigrationInterval = migrationManager.partitionMigrationInterval;
+        maxParallelMigrations = migrationManager.maxParallelMigrations;
         sleepTime = max(DEFAULT_MIGRATION_SLEEP_INTERVAL, partitionMigrationInterval);
         this.logger = logger;
     }
@@ -77,8 +86,13 @@ class MigrationThread extends Thread implements Runnable {
                 break;
             }
 
-            migrating |= runnable instanceof MigrationManager.MigrateTask;
-            processTask(runnable);
+            boolean migrateTask = runnable instanceof MigrateTask;
+            migrating |= migrateTask;
+            if (migrateTask && maxParallelMigrations > 1) {
+                processMigrations((MigrateTask) runnable);
+            } else {
+                processTask(runnable);
+            }
             if (partitionMigrationInterval > 0) {
                 Thread.sleep(partitionMigrationInterval);
             }
@@ -110,6 +124,55 @@ class MigrationThread extends Thread implements Runnable {
         return true;
     }
 
+    private void processMigrations(MigrateTask first) {
+        List<MigrateTask> batch = pollMigrationBatch(first);
+        List<MigrateTask> started = new ArrayList<MigrateTask>(batch.size());
+        for (MigrateTask task : batch) {
+            try {
+                if (!isInterrupted() && task.start()) {
+                    started.add(task);
+                    continue;
+                }
+            } catch (Throwable t) {
+                logger.warning(t);
+            }
+            queue.afterTaskCompletion(task);
+        }
+
+        // partition state version must not change while the batch is transferring its data,
+        // so nothing is committed before all transfers are done
+        for (MigrateTask task : started) {
+            task.awaitTransfer();
+        }
+
+        for (MigrateTask task : started) {
+            try {
+                task.complete();
+            } catch (Throwable t) {
+                logger.warning(t);
+            } finally {
+                queue.afterTaskCompletion(task);
+            }
+        }
+    }
+
+    private List<MigrateTask> pollMigrationBatch(MigrateTask first) {
+        List<MigrateTask> batch = new ArrayList<MigrateTask>(maxParallelMigrations);
+        batch.add(first);
+        while (batch.size() < maxParallelMigrations && migrationManager.isMigrationAllowed()) {
+            MigrationRunnable next = queue.peek();
+            if (!(next instanceof MigrateTask)) {
+                break;
+            }
+            MigrateTask task = (MigrateTask) next;
+            if (!task.isIndependentOf(batch) || !queue.remove(task)) {
+                break;
+            }
+            batch.add(task);
+        }
+        return batch;
+    }
+
     void stopNow() {
         queue.clear();
         interrupt();
@@ -19,6 +19,7 @@ package com.hazelcast.internal.partition.impl;
 import com.hazelcast.instance.Node;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.partition.InternalPartition;
+import com.hazelcast.internal.partition.operation.PrepareReplicaSyncRequest;
 import com.hazelcast.internal.partition.operation.ReplicaSyncRequest;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
@@ -64,6 +65,7 @@ public class PartitionReplicaManager {
     private final long partitionMigrationTimeout;
     private final int partitionCount;
     private final int maxParallelReplications;
+    private final boolean differentialReplicaSyncEnabled;
 
     PartitionReplicaManager(Node node, InternalPartitionServiceImpl partitionService) {
         this.node = node;
@@ -78,6 +80,7 @@ public class PartitionReplicaManager {
         partitionMigrationTimeout = properties.getMillis(GroupProperty.PARTITION_MIGRATION_TIMEOUT);
         maxParallelReplications = properties.getInteger(GroupProperty.PARTITION_MAX_PARALLEL_REPLICATIONS);
         replicaSyncProcessLock = new Semaphore(maxParallelReplications);
+        differentialReplicaSyncEnabled = properties.getBoolean(GroupProperty.PARTITION_REPLICA_SYNC_DIFFERENTIAL_ENABLED);
 
         replicaVersions = new PartitionReplicaVersions[partitionCount];
         for (int i = 0; i < replicaVersions.length; i++) {
@@ -203,8 +206,15 @@ public class PartitionReplicaManager {
                         + ", replicaIndex=" + replicaIndex);
             }
             replicaSyncScheduler.schedule(partitionMigrationTimeout, partitionId, syncInfo);
-            ReplicaSyncRequest syncRequest = new ReplicaSyncRequest(partitionId, replicaIndex);
-            nodeEngine.getOperationService().send(syncRequest, target);
+            if (differentialReplicaSyncEnabled) {
+                // replica digests are created in the partition thread, which then sends the sync request
+                PrepareReplicaSyncRequest op = new PrepareReplicaSyncRequest(partitionId, replicaIndex, target);
+                op.setNodeEngine(nodeEngine).setService(partitionService);
+                nodeEngine.getOperationService().executeOperation(op);
+            } else {
+                ReplicaSyncRequest syncRequest = new ReplicaSyncRequest(partitionId, replicaIndex);
+                nodeEngine.getOperationService().send(syncRequest, target);
+            }
             return true;
         }
         return false;
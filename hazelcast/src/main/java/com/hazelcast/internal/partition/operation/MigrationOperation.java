@@ -59,6 +59,8 @@ public final class MigrationOperation extends BaseMigrationOperation {
 
     private long[] replicaVersions;
     private Collection<Operation> tasks;
+    private int chunkIndex;
+    private boolean lastChunk = true;
 
     private Throwable failureReason;
 
@@ -67,9 +69,16 @@ public final class MigrationOperation extends BaseMigrationOperation {
 
     public MigrationOperation(MigrationInfo migrationInfo, long[] replicaVersions, Collection<Operation> tasks,
             int partitionStateVersion) {
+        this(migrationInfo, replicaVersions, tasks, partitionStateVersion, 0, true);
+    }
+
+    public MigrationOperation(MigrationInfo migrationInfo, long[] replicaVersions, Collection<Operation> tasks,
+            int partitionStateVersion, int chunkIndex, boolean lastChunk) {
         super(migrationInfo, partitionStateVersion);
         this.replicaVersions = replicaVersions;
         this.tasks = tasks;
+        this.chunkIndex = chunkIndex;
+        this.lastChunk = lastChunk;
     }
 
     @Override
@@ -77,6 +86,13 @@ public final class MigrationOperation extends BaseMigrationOperation {
         return MigrationParticipant.DESTINATION;
     }
 
+    @Override
+    void onMigrationStart() {
+        if (chunkIndex == 0) {
+            super.onMigrationStart();
+        }
+    }
+
     @Override
     public void run() throws Exception {
         assertMigrationInitiatorIsMaster();
@@ -88,7 +104,9 @@ public final class MigrationOperation extends BaseMigrationOperation {
             success = false;
             failureReason = t;
         } finally {
-            onMigrationComplete();
+            if (lastChunk || !success) {
+                onMigrationComplete();
+            }
             if (!success) {
                 onExecutionFailure(failureReason);
             }
@@ -96,15 +114,16 @@ public final class MigrationOperation extends BaseMigrationOperation {
     }
 
     private void doRun() throws Exception {
-        if (startMigration()) {
+        MigrationInfo activeMigration = startMigration();
+        if (activeMigration != null) {
             try {
-                migrate();
+                migrateChunk(activeMigration);
             } catch (Throwable e) {
                 success = false;
                 failureReason = e;
                 getLogger().severe("Error while processing " + migrationInfo, e);
             } finally {
-                afterMigrate();
+                afterMigrate(activeMigration);
             }
         } else {
             success = false;
@@ -119,15 +138,48 @@ public final class MigrationOperation extends BaseMigrationOperation {
         }
     }
 
-    private boolean startMigration() {
-        return migrationInfo.startProcessing() && addActiveMigration();
+    /**
+     * Returns the active migration this operation belongs to, or null if the migration is cancelled or another operation
+     * of it is currently being processed. Only the first chunk of a migration can start it.
+     */
+    private MigrationInfo startMigration() {
+        InternalPartitionServiceImpl partitionService = getService();
+        MigrationManager migrationManager = partitionService.getMigrationManager();
+        MigrationInfo activeMigration = migrationManager.getActiveMigration(migrationInfo.getPartitionId());
+        if (migrationInfo.equals(activeMigration)) {
+            return activeMigration.startProcessing() ? activeMigration : null;
+        }
+        if (chunkIndex == 0 && migrationInfo.startProcessing() && migrationManager.addActiveMigration(migrationInfo)) {
+            return migrationInfo;
+        }
+        return null;
+    }
+
+    private void migrateChunk(MigrationInfo activeMigration) throws Exception {
+        int appliedChunkCount = activeMigration.getAppliedChunkCount();
+        if (chunkIndex < appliedChunkCount) {
+            // the chunk is sent again since its response got lost, it must not be applied twice
+            success = true;
+        } else if (chunkIndex == appliedChunkCount) {
+            migrate();
+            if (success) {
+                activeMigration.setAppliedChunkCount(chunkIndex + 1);
+            }
+        } else {
+            throw new IllegalStateException("Migration chunk " + chunkIndex + " is received but only "
+                    + appliedChunkCount + " chunks are applied! => " + migrationInfo);
+        }
     }
 
     private void logMigrationCancelled() {
         getLogger().warning("Migration is cancelled -> " + migrationInfo);
     }
 
-    private void afterMigrate() {
+    private void afterMigrate(MigrationInfo activeMigration) {
+        if (success && !lastChunk) {
+            activeMigration.doneProcessing();
+            return;
+        }
         if (success) {
             InternalPartitionServiceImpl partitionService = getService();
             PartitionReplicaManager replicaManager = partitionService.getReplicaManager();
@@ -143,7 +195,7 @@ public final class MigrationOperation extends BaseMigrationOperation {
                     + migrationInfo.getPartitionId());
         }
 
-        migrationInfo.doneProcessing();
+        activeMigration.doneProcessing();
     }
 
     private void logMigrationFailure(Throwable e) {
@@ -172,12 +224,6 @@ public final class MigrationOperation extends BaseMigrationOperation {
         success = true;
     }
 
-    private boolean addActiveMigration() {
-        InternalPartitionServiceImpl partitionService = getService();
-        MigrationManager migrationManager = partitionService.getMigrationManager();
-        return migrationManager.addActiveMigration(migrationInfo);
-    }
-
     private void runMigrationTask(Operation op) throws Exception {
         MigrationAwareService service = op.getService();
         PartitionMigrationEvent event = new PartitionMigrationEvent(MigrationEndpoint.DESTINATION,
@@ -219,6 +265,8 @@ public final class MigrationOperation extends BaseMigrationOperation {
     protected void writeInternal(ObjectDataOutput out) throws IOException {
         super.writeInternal(out);
         out.writeLongArray(replicaVersions);
+        out.writeInt(chunkIndex);
+        out.writeBoolean(lastChunk);
         int size = tasks != null ? tasks.size() : 0;
         out.writeInt(size);
         if (size > 0) {
@@ -232,6 +280,8 @@ public final class MigrationOperation extends BaseMigrationOperation {
     protected void readInternal(ObjectDataInput in) throws IOException {
         super.readInternal(in);
         replicaVersions = in.readLongArray();
+        chunkIndex = in.readInt();
+        lastChunk = in.readBoolean();
         int size = in.readInt();
         if (size > 0) {
             tasks = new ArrayList<Operation>(size);
@@ -250,5 +300,7 @@ public final class MigrationOperation extends BaseMigrationOperation {
         sb.append(", migration=").append(migrationInfo);
         sb.append(", replicaVersions=").append(Arrays.toString(replicaVersions));
         sb.append(", numberOfTasks=").append(numberOfTasks);
+        sb.append(", chunkIndex=").append(chunkIndex);
+        sb.append(", lastChunk=").append(lastChunk);
     }
 }
@@ -18,6 +18,7 @@ package com.hazelcast.internal.partition.operation;
 
 import com.hazelcast.core.Member;
 import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.partition.MigrationInfo;
@@ -35,12 +36,17 @@ import com.hazelcast.spi.PartitionReplicationEvent;
 import com.hazelcast.spi.exception.RetryableHazelcastException;
 import com.hazelcast.spi.exception.TargetNotMemberException;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.SimpleExecutionCallback;
+import com.hazelcast.spi.impl.operationservice.InternalOperationService;
 import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 
@@ -48,6 +54,10 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
 
     private boolean returnResponse = true;
 
+    // the chunks of the services that send their state in chunks; read one at a time in the partition thread
+    private List<Iterator<Operation>> chunkIterators;
+    private long[] replicaVersions;
+
     public MigrationRequestOperation() {
     }
 
@@ -87,9 +97,13 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
         }
 
         try {
-            Collection<Operation> tasks = prepareMigrationOperations();
-            long[] replicaVersions = partitionService.getPartitionReplicaVersions(migrationInfo.getPartitionId());
-            invokeMigrationOperation(destination, replicaVersions, tasks);
+            chunkIterators = new LinkedList<Iterator<Operation>>();
+            Collection<Operation> tasks = prepareMigrationOperations(partitionService.getMigrationChunkMaxEntries());
+            replicaVersions = partitionService.getPartitionReplicaVersions(migrationInfo.getPartitionId());
+            if (tasks.isEmpty() && hasNextChunk()) {
+                tasks = nextChunk();
+            }
+            invokeMigrationOperation(0, tasks);
             returnResponse = false;
         } catch (Throwable e) {
             logThrowable(e);
@@ -135,17 +149,39 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
         }
     }
 
-    private void invokeMigrationOperation(Address destination, long[] replicaVersions, Collection<Operation> tasks)
-            throws IOException {
+    private boolean hasNextChunk() {
+        while (!chunkIterators.isEmpty()) {
+            if (chunkIterators.get(0).hasNext()) {
+                return true;
+            }
+            chunkIterators.remove(0);
+        }
+        return false;
+    }
+
+    private Collection<Operation> nextChunk() {
+        Operation chunk = chunkIterators.get(0).next();
+        return Collections.singletonList(chunk);
+    }
 
-        MigrationOperation operation = new MigrationOperation(migrationInfo, replicaVersions, tasks, partitionStateVersion);
+    /**
+     * Sends a chunk of the migration to the destination. Only a single chunk is in flight at a time, the next one is
+     * read from the partition and sent when the destination has applied the previous one. A chunk which is retried by
+     * the invocation is sent as is and ignored by the destination if it has already been applied, so the migration
+     * continues from the last applied chunk.
+     */
+    private void invokeMigrationOperation(int chunkIndex, Collection<Operation> tasks) throws IOException {
+        boolean lastChunk = !hasNextChunk();
+        MigrationOperation operation = new MigrationOperation(migrationInfo, replicaVersions, tasks,
+                partitionStateVersion, chunkIndex, lastChunk);
 
         NodeEngine nodeEngine = getNodeEngine();
         InternalPartitionServiceImpl partitionService = getService();
+        Address destination = migrationInfo.getDestination();
 
         nodeEngine.getOperationService()
                 .createInvocationBuilder(InternalPartitionService.SERVICE_NAME, operation, destination)
-                .setExecutionCallback(new MigrationCallback(migrationInfo, this))
+                .setExecutionCallback(new MigrationCallback(migrationInfo, this, chunkIndex, lastChunk))
                 .setResultDeserialized(true)
                 .setCallTimeout(partitionService.getPartitionMigrationTimeout())
                 .setTryCount(InternalPartitionService.MIGRATION_RETRY_COUNT)
@@ -184,13 +220,38 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
         return returnResponse;
     }
 
+    private void handleChunkResultFromTarget(int chunkIndex, boolean lastChunk, Object result) {
+        if (!Boolean.TRUE.equals(result) || lastChunk) {
+            handleMigrationResultFromTarget(result);
+            return;
+        }
+
+        // the chunks are read from the partition, so the next one is prepared in the partition thread
+        InternalOperationService operationService = ((NodeEngineImpl) getNodeEngine()).getOperationService();
+        operationService.execute(new NextChunkTask(chunkIndex + 1));
+    }
+
+    private void sendNextChunk(int chunkIndex) {
+        try {
+            invokeMigrationOperation(chunkIndex, nextChunk());
+        } catch (Throwable e) {
+            logThrowable(e);
+            handleMigrationResultFromTarget(Boolean.FALSE);
+        }
+    }
+
     public void handleMigrationResultFromTarget(Object result) {
         migrationInfo.doneProcessing();
         onMigrationComplete(Boolean.TRUE.equals(result));
         sendResponse(result);
     }
 
-    private Collection<Operation> prepareMigrationOperations() {
+    /**
+     * Prepares the operations of the services which send their state in a single operation. For the services which
+     * send their state in chunks, only the chunk iterators are created. If {@code maxChunkEntries} is 0, all services
+     * send their state in a single operation.
+     */
+    private Collection<Operation> prepareMigrationOperations(int maxChunkEntries) {
         NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
 
         PartitionReplicationEvent replicationEvent = new PartitionReplicationEvent(migrationInfo.getPartitionId(),
@@ -211,6 +272,12 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
                 service.beforeMigration(migrationEvent);
             }
 
+            if (maxChunkEntries > 0 && service instanceof ChunkedMigrationAwareService) {
+                chunkIterators.add(((ChunkedMigrationAwareService) service)
+                        .prepareReplicationChunks(replicationEvent, maxChunkEntries));
+                continue;
+            }
+
             Operation op = service.prepareReplicationOperation(replicationEvent);
             if (op != null) {
                 op.setServiceName(serviceInfo.getName());
@@ -220,19 +287,43 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
         return tasks;
     }
 
+    private final class NextChunkTask implements PartitionSpecificRunnable {
+
+        private final int chunkIndex;
+
+        private NextChunkTask(int chunkIndex) {
+            this.chunkIndex = chunkIndex;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return migrationInfo.getPartitionId();
+        }
+
+        @Override
+        public void run() {
+            sendNextChunk(chunkIndex);
+        }
+    }
+
     private static final class MigrationCallback extends SimpleExecutionCallback<Object> {
 
         final MigrationInfo migrationInfo;
         final MigrationRequestOperation op;
+        final int chunkIndex;
+        final boolean lastChunk;
 
-        private MigrationCallback(MigrationInfo migrationInfo, MigrationRequestOperation op) {
+        private MigrationCallback(MigrationInfo migrationInfo, MigrationRequestOperation op, int chunkIndex,
+                                  boolean lastChunk) {
             this.migrationInfo = migrationInfo;
             this.op = op;
+            this.chunkIndex = chunkIndex;
+            this.lastChunk = lastChunk;
         }
 
         @Override
         public void notify(Object result) {
-            op.handleMigrationResultFromTarget(result);
+            op.handleChunkResultFromTarget(chunkIndex, lastChunk, result);
         }
     }
 }
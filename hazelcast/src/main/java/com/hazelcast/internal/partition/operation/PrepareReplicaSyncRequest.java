@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.partition.operation;
+
+import com.hazelcast.internal.partition.DifferentialReplicationAwareService;
+import com.hazelcast.internal.partition.MigrationCycleOperation;
+import com.hazelcast.internal.partition.ReplicaErrorLogger;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.AbstractOperation;
+import com.hazelcast.spi.PartitionAwareOperation;
+import com.hazelcast.spi.PartitionReplicationEvent;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates the replica digests of the {@link DifferentialReplicationAwareService}s on a backup replica and sends them to
+ * the partition owner within a {@link ReplicaSyncRequest}. Runs locally, in the partition thread of the backup replica.
+ *
+ * @see com.hazelcast.spi.properties.GroupProperty#PARTITION_REPLICA_SYNC_DIFFERENTIAL_ENABLED
+ */
+public final class PrepareReplicaSyncRequest extends AbstractOperation
+        implements PartitionAwareOperation, MigrationCycleOperation {
+
+    private final Address target;
+
+    public PrepareReplicaSyncRequest(int partitionId, int replicaIndex, Address target) {
+        this.target = target;
+        setPartitionId(partitionId);
+        setReplicaIndex(replicaIndex);
+    }
+
+    @Override
+    public void run() {
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        int partitionId = getPartitionId();
+        int replicaIndex = getReplicaIndex();
+
+        Map<String, Object> digests = createDigests(nodeEngine);
+        ILogger logger = getLogger();
+        if (logger.isFinestEnabled()) {
+            logger.finest("Sending differential sync replica request to -> " + target + "; for partitionId=" + partitionId
+                    + ", replicaIndex=" + replicaIndex + ", services=" + digests.keySet());
+        }
+        ReplicaSyncRequest syncRequest = new ReplicaSyncRequest(partitionId, replicaIndex, digests);
+        nodeEngine.getOperationService().send(syncRequest, target);
+    }
+
+    private Map<String, Object> createDigests(NodeEngineImpl nodeEngine) {
+        Collection<ServiceInfo> services = nodeEngine.getServiceInfos(DifferentialReplicationAwareService.class);
+        PartitionReplicationEvent event = new PartitionReplicationEvent(getPartitionId(), getReplicaIndex());
+        Map<String, Object> digests = new HashMap<String, Object>(services.size());
+        for (ServiceInfo serviceInfo : services) {
+            DifferentialReplicationAwareService service = (DifferentialReplicationAwareService) serviceInfo.getService();
+            Object digest = service.createReplicaDigest(event);
+            if (digest != null) {
+                digests.put(serviceInfo.getName(), digest);
+            }
+        }
+        return digests;
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        return false;
+    }
+
+    @Override
+    public boolean validatesTarget() {
+        return false;
+    }
+
+    @Override
+    public void logError(Throwable e) {
+        ReplicaErrorLogger.log(e, getLogger());
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.hazelcast.internal.partition.operation;
 
+import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.DifferentialReplicationAwareService;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.partition.MigrationCycleOperation;
@@ -39,18 +41,34 @@ import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Requests the state of a partition replica from the partition owner. The owner answers with a
+ * {@link ReplicaSyncResponse}, or with a sequence of them when migrations are chunked, see
+ * {@link com.hazelcast.spi.properties.GroupProperty#PARTITION_MIGRATION_CHUNKED_ENABLED}.
+ */
 public final class ReplicaSyncRequest extends Operation
         implements PartitionAwareOperation, MigrationCycleOperation {
 
+    // replica digests of the requesting backup per service name, null if the replica is synchronized in full
+    private Map<String, Object> digests;
+
     public ReplicaSyncRequest() {
     }
 
     public ReplicaSyncRequest(int partitionId, int replicaIndex) {
+        this(partitionId, replicaIndex, null);
+    }
+
+    public ReplicaSyncRequest(int partitionId, int replicaIndex, Map<String, Object> digests) {
         setPartitionId(partitionId);
         setReplicaIndex(replicaIndex);
+        this.digests = digests;
     }
 
     @Override
@@ -83,12 +101,17 @@ public final class ReplicaSyncRequest extends Operation
         }
 
         try {
-            List<Operation> tasks = createReplicationOperations();
+            List<Iterator<Operation>> chunkIterators = new LinkedList<Iterator<Operation>>();
+            List<Operation> tasks = createReplicationOperations(chunkIterators,
+                    partitionService.getMigrationChunkMaxEntries());
+            if (tasks.isEmpty() && hasNextChunk(chunkIterators)) {
+                tasks = nextChunk(chunkIterators);
+            }
             if (tasks.isEmpty()) {
                 logNoReplicaDataFound(partitionId, replicaIndex);
                 sendEmptyResponse();
             } else {
-                sendResponse(tasks);
+                sendResponses(tasks, chunkIterators);
             }
         } finally {
             partitionService.getReplicaManager().releaseReplicaSyncPermit();
@@ -145,14 +168,29 @@ public final class ReplicaSyncRequest extends Operation
         operationService.send(response, target);
     }
 
-    private List<Operation> createReplicationOperations() {
+    /**
+     * Prepares the operations of the services which send their state in a single operation. For the services which
+     * send their state in chunks, only the chunk iterators are created. If {@code maxChunkEntries} is 0, all services
+     * send their state in a single operation.
+     */
+    private List<Operation> createReplicationOperations(List<Iterator<Operation>> chunkIterators, int maxChunkEntries) {
         NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
         Collection<ServiceInfo> services = nodeEngine.getServiceInfos(MigrationAwareService.class);
         PartitionReplicationEvent event = new PartitionReplicationEvent(getPartitionId(), getReplicaIndex());
         List<Operation> tasks = new LinkedList<Operation>();
         for (ServiceInfo serviceInfo : services) {
             MigrationAwareService service = (MigrationAwareService) serviceInfo.getService();
-            Operation op = service.prepareReplicationOperation(event);
+            Object digest = digests != null ? digests.get(serviceInfo.getName()) : null;
+            Operation op;
+            if (digest != null && service instanceof DifferentialReplicationAwareService) {
+                op = ((DifferentialReplicationAwareService) service).prepareReplicationOperation(event, digest);
+            } else if (maxChunkEntries > 0 && service instanceof ChunkedMigrationAwareService) {
+                chunkIterators.add(((ChunkedMigrationAwareService) service)
+                        .prepareReplicationChunks(event, maxChunkEntries));
+                continue;
+            } else {
+                op = service.prepareReplicationOperation(event);
+            }
             if (op != null) {
                 op.setServiceName(serviceInfo.getName());
                 tasks.add(op);
@@ -161,31 +199,64 @@ public final class ReplicaSyncRequest extends Operation
         return tasks;
     }
 
+    private static boolean hasNextChunk(List<Iterator<Operation>> chunkIterators) {
+        while (!chunkIterators.isEmpty()) {
+            if (chunkIterators.get(0).hasNext()) {
+                return true;
+            }
+            chunkIterators.remove(0);
+        }
+        return false;
+    }
+
+    private static List<Operation> nextChunk(List<Iterator<Operation>> chunkIterators) {
+        List<Operation> chunk = new LinkedList<Operation>();
+        chunk.add(chunkIterators.get(0).next());
+        return chunk;
+    }
+
     private void sendEmptyResponse() throws IOException {
-        sendResponse(null);
+        sendResponse(null, true);
     }
 
-    private void sendResponse(List<Operation> data) throws IOException {
+    /**
+     * Sends the tasks and then the remaining chunks, each in its own response. The chunks are read and sent in this
+     * run, so the partition doesn't change in between and the replica versions sent with the last response match all
+     * of them. A response is serialized when it is sent, so only a single chunk is held on-heap at a time.
+     */
+    private void sendResponses(List<Operation> tasks, List<Iterator<Operation>> chunkIterators) throws IOException {
+        List<Operation> chunk = tasks;
+        for (; ; ) {
+            boolean lastChunk = !hasNextChunk(chunkIterators);
+            sendResponse(chunk, lastChunk);
+            if (lastChunk) {
+                return;
+            }
+            chunk = nextChunk(chunkIterators);
+        }
+    }
+
+    private void sendResponse(List<Operation> data, boolean lastChunk) throws IOException {
         NodeEngine nodeEngine = getNodeEngine();
 
-        ReplicaSyncResponse syncResponse = createResponse(data);
+        ReplicaSyncResponse syncResponse = createResponse(data, lastChunk);
         Address target = getCallerAddress();
         ILogger logger = getLogger();
         if (logger.isFinestEnabled()) {
             logger.finest("Sending sync response to -> " + target + " for partitionId="
-                    + getPartitionId() + ", replicaIndex=" + getReplicaIndex());
+                    + getPartitionId() + ", replicaIndex=" + getReplicaIndex() + ", lastChunk=" + lastChunk);
         }
         OperationService operationService = nodeEngine.getOperationService();
         operationService.send(syncResponse, target);
     }
 
-    private ReplicaSyncResponse createResponse(List<Operation> data) throws IOException {
+    private ReplicaSyncResponse createResponse(List<Operation> data, boolean lastChunk) throws IOException {
         int partitionId = getPartitionId();
         NodeEngine nodeEngine = getNodeEngine();
         InternalPartitionService partitionService = (InternalPartitionService) nodeEngine.getPartitionService();
         long[] replicaVersions = partitionService.getPartitionReplicaVersions(partitionId);
 
-        ReplicaSyncResponse syncResponse = new ReplicaSyncResponse(data, replicaVersions);
+        ReplicaSyncResponse syncResponse = new ReplicaSyncResponse(data, replicaVersions, lastChunk);
         syncResponse.setPartitionId(partitionId).setReplicaIndex(getReplicaIndex());
         return syncResponse;
     }
@@ -225,9 +296,26 @@ public final class ReplicaSyncRequest extends Operation
 
     @Override
     protected void writeInternal(ObjectDataOutput out) throws IOException {
+        int size = digests != null ? digests.size() : -1;
+        out.writeInt(size);
+        if (size > 0) {
+            for (Map.Entry<String, Object> entry : digests.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeObject(entry.getValue());
+            }
+        }
     }
 
     @Override
     protected void readInternal(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        if (size >= 0) {
+            digests = new HashMap<String, Object>(size);
+            for (int i = 0; i < size; i++) {
+                String serviceName = in.readUTF();
+                Object digest = in.readObject();
+                digests.put(serviceName, digest);
+            }
+        }
     }
 }
@@ -44,19 +44,29 @@ import java.util.logging.Level;
 
 import static com.hazelcast.spi.impl.OperationResponseHandlerFactory.createErrorLoggingResponseHandler;
 
+/**
+ * Carries the state of a partition replica from the partition owner to a backup replica. The state can be split
+ * into several responses, which are sent in order; only the last one completes the replica sync.
+ */
 @SuppressFBWarnings("EI_EXPOSE_REP")
 public class ReplicaSyncResponse extends Operation
         implements PartitionAwareOperation, BackupOperation, UrgentSystemOperation, AllowedDuringPassiveState {
 
     private List<Operation> tasks;
     private long[] replicaVersions;
+    private boolean lastChunk = true;
 
     public ReplicaSyncResponse() {
     }
 
     public ReplicaSyncResponse(List<Operation> data, long[] replicaVersions) {
+        this(data, replicaVersions, true);
+    }
+
+    public ReplicaSyncResponse(List<Operation> data, long[] replicaVersions, boolean lastChunk) {
         this.tasks = data;
         this.replicaVersions = replicaVersions;
+        this.lastChunk = lastChunk;
     }
 
     @Override
@@ -84,7 +94,9 @@ public class ReplicaSyncResponse extends Operation
                 tasks.clear();
             }
         } finally {
-            postProcessReplicaSync(partitionService, currentReplicaIndex);
+            if (lastChunk) {
+                postProcessReplicaSync(partitionService, currentReplicaIndex);
+            }
         }
     }
 
@@ -235,6 +247,7 @@ public class ReplicaSyncResponse extends Operation
     @Override
     protected void writeInternal(ObjectDataOutput out) throws IOException {
         out.writeLongArray(replicaVersions);
+        out.writeBoolean(lastChunk);
         int size = tasks != null ? tasks.size() : 0;
         out.writeInt(size);
         if (size > 0) {
@@ -247,6 +260,7 @@ public class ReplicaSyncResponse extends Operation
     @Override
     protected void readInternal(ObjectDataInput in) throws IOException {
         replicaVersions = in.readLongArray();
+        lastChunk = in.readBoolean();
         int size = in.readInt();
         if (size > 0) {
             tasks = new ArrayList<Operation>(size);
@@ -262,5 +276,6 @@ public class ReplicaSyncResponse extends Operation
         super.toString(sb);
 
         sb.append(", replicaVersions=").append(Arrays.toString(replicaVersions));
+        sb.append(", lastChunk=").append(lastChunk);
     }
 }
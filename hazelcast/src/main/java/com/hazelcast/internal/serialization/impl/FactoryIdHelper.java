@@ -101,6 +101,12 @@ public final class FactoryIdHelper {
     public static final String PREDICATE_DS_FACTORY = "hazelcast.serialization.ds.predicate";
     public static final int PREDICATE_DS_FACTORY_ID = -32;
 
+    public static final String AGGREGATOR_DS_FACTORY = "hazelcast.serialization.ds.aggregator";
+    public static final int AGGREGATOR_DS_FACTORY_ID = -33;
+
+    public static final String PROJECTION_DS_FACTORY = "hazelcast.serialization.ds.projection";
+    public static final int PROJECTION_DS_FACTORY_ID = -34;
+
     // =========================== portables =============================================
 
     public static final String SPI_PORTABLE_FACTORY = "hazelcast.serialization.portable.spi";
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.util;
+
+import java.util.Arrays;
+
+/**
+ * A pure Java codec for the LZ4 block format.
+ *
+ * LZ4 trades compression ratio for speed: compressing and especially decompressing are fast enough to keep up with
+ * the network, so it can be applied to packets without the CPU becoming the bottleneck.
+ *
+ * The compressed block doesn't contain the length of the original content; the caller needs to store it next to the
+ * block, since it is needed for decompressing.
+ *
+ * The compressor uses a hash table that is cached per thread, so compressing doesn't create litter.
+ */
+public final class LZ4Codec {
+
+    static final int MIN_MATCH = 4;
+    static final int LAST_LITERALS = 5;
+    static final int MF_LIMIT = 12;
+    static final int MAX_DISTANCE = (1 << 16) - 1;
+
+    private static final int HASH_LOG = 12;
+    private static final int HASH_TABLE_SIZE = 1 << HASH_LOG;
+    private static final int HASH_MULTIPLIER = -1640531535;
+    private static final int SKIP_STRENGTH = 6;
+    private static final int RUN_MASK = 0x0F;
+    private static final int ML_BITS = 4;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int MAX_BYTE = 255;
+    private static final int BITS_PER_BYTE = 8;
+
+    private static final ThreadLocal<int[]> HASH_TABLES = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[HASH_TABLE_SIZE];
+        }
+    };
+
+    private LZ4Codec() {
+    }
+
+    /**
+     * Returns the maximum length of the compressed block for content of the given length.
+     *
+     * @param length the length of the content
+     * @return the maximum compressed length
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / MAX_BYTE + 16;
+    }
+
+    /**
+     * Compresses the content into the destination array.
+     *
+     * @param src    the content to compress
+     * @param srcOff the offset of the content
+     * @param srcLen the length of the content
+     * @param dst    the destination; needs at least {@link #maxCompressedLength(int)} bytes after dstOff
+     * @param dstOff the offset in the destination
+     * @return the length of the compressed block
+     */
+    @SuppressWarnings({"checkstyle:methodlength", "checkstyle:cyclomaticcomplexity", "checkstyle:npathcomplexity"})
+    public static int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff) {
+        int srcEnd = srcOff + srcLen;
+        int matchLimit = srcEnd - LAST_LITERALS;
+        int mfLimit = srcEnd - MF_LIMIT;
+
+        int sOff = srcOff;
+        int dOff = dstOff;
+        int anchor = sOff;
+
+        if (srcLen > MF_LIMIT) {
+            int[] hashTable = HASH_TABLES.get();
+            Arrays.fill(hashTable, -1);
+            sOff++;
+
+            search:
+            for (; ; ) {
+                // find a match
+                int forwardOff = sOff;
+                int ref;
+                int attempts = 1 << SKIP_STRENGTH;
+                do {
+                    sOff = forwardOff;
+                    forwardOff += attempts++ >>> SKIP_STRENGTH;
+                    if (forwardOff > mfLimit) {
+                        break search;
+                    }
+
+                    int h = hash(readInt(src, sOff));
+                    ref = hashTable[h];
+                    hashTable[h] = sOff;
+                } while (ref < 0 || sOff - ref > MAX_DISTANCE || readInt(src, ref) != readInt(src, sOff));
+
+                // extend the match backwards
+                while (sOff > anchor && ref > srcOff && src[sOff - 1] == src[ref - 1]) {
+                    sOff--;
+                    ref--;
+                }
+
+                int tokenOff = dOff++;
+                dOff = writeLiterals(src, anchor, sOff - anchor, dst, dOff, tokenOff);
+
+                for (; ; ) {
+                    // write the offset and length of the match
+                    dOff = writeShortLE(sOff - ref, dst, dOff);
+                    sOff += MIN_MATCH;
+                    int matchLen = commonBytes(src, ref + MIN_MATCH, sOff, matchLimit);
+                    sOff += matchLen;
+                    dOff = writeMatchLength(matchLen, dst, dOff, tokenOff);
+                    anchor = sOff;
+
+                    if (sOff > mfLimit) {
+                        break search;
+                    }
+
+                    hashTable[hash(readInt(src, sOff - 2))] = sOff - 2;
+
+                    // check if the next bytes directly start a new match; then no literals are needed
+                    int h = hash(readInt(src, sOff));
+                    ref = hashTable[h];
+                    hashTable[h] = sOff;
+                    if (ref < 0 || sOff - ref > MAX_DISTANCE || readInt(src, ref) != readInt(src, sOff)) {
+                        break;
+                    }
+                    tokenOff = dOff++;
+                    dst[tokenOff] = 0;
+                }
+
+                sOff++;
+            }
+        }
+
+        // the last literals
+        int tokenOff = dOff++;
+        dOff = writeLiterals(src, anchor, srcEnd - anchor, dst, dOff, tokenOff);
+        return dOff - dstOff;
+    }
+
+    /**
+     * Decompresses a compressed block.
+     *
+     * @param src    the compressed block
+     * @param srcOff the offset of the block
+     * @param srcLen the length of the block
+     * @param dst    the destination
+     * @param dstOff the offset in the destination
+     * @param dstLen the length of the original content
+     * @throws IllegalArgumentException if the block is malformed, or doesn't decompress to exactly dstLen bytes
+     */
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+    public static void decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) {
+        int srcEnd = srcOff + srcLen;
+        int dstEnd = dstOff + dstLen;
+        int sOff = srcOff;
+        int dOff = dstOff;
+
+        for (; ; ) {
+            checkBlock(sOff < srcEnd);
+            int token = src[sOff++] & BYTE_MASK;
+
+            // copy the literals
+            int literalLen = token >>> ML_BITS;
+            if (literalLen == RUN_MASK) {
+                int b;
+                do {
+                    checkBlock(sOff < srcEnd);
+                    b = src[sOff++] & BYTE_MASK;
+                    literalLen += b;
+                } while (b == MAX_BYTE);
+            }
+            checkBlock(literalLen <= srcEnd - sOff && literalLen <= dstEnd - dOff);
+            System.arraycopy(src, sOff, dst, dOff, literalLen);
+            sOff += literalLen;
+            dOff += literalLen;
+
+            if (sOff == srcEnd) {
+                // the last sequence only contains literals
+                checkBlock(dOff == dstEnd);
+                return;
+            }
+
+            // copy the match
+            checkBlock(srcEnd - sOff >= 2);
+            int offset = (src[sOff] & BYTE_MASK) | ((src[sOff + 1] & BYTE_MASK) << BITS_PER_BYTE);
+            sOff += 2;
+            int ref = dOff - offset;
+            checkBlock(offset > 0 && ref >= dstOff);
+
+            int matchLen = token & RUN_MASK;
+            if (matchLen == RUN_MASK) {
+                int b;
+                do {
+                    checkBlock(sOff < srcEnd);
+                    b = src[sOff++] & BYTE_MASK;
+                    matchLen += b;
+                } while (b == MAX_BYTE);
+            }
+            matchLen += MIN_MATCH;
+            checkBlock(matchLen <= dstEnd - dOff);
+
+            if (offset >= matchLen) {
+                System.arraycopy(dst, ref, dst, dOff, matchLen);
+                dOff += matchLen;
+            } else {
+                // the match overlaps with the bytes being written, so it has to be copied byte by byte
+                for (int k = 0; k < matchLen; k++) {
+                    dst[dOff++] = dst[ref++];
+                }
+            }
+        }
+    }
+
+    private static void checkBlock(boolean condition) {
+        if (!condition) {
+            throw new IllegalArgumentException("Malformed LZ4 block");
+        }
+    }
+
+    private static int writeLiterals(byte[] src, int srcOff, int literalLen, byte[] dst, int dstOff, int tokenOff) {
+        int dOff = dstOff;
+        if (literalLen >= RUN_MASK) {
+            dst[tokenOff] = (byte) (RUN_MASK << ML_BITS);
+            dOff = writeLength(literalLen - RUN_MASK, dst, dOff);
+        } else {
+            dst[tokenOff] = (byte) (literalLen << ML_BITS);
+        }
+        System.arraycopy(src, srcOff, dst, dOff, literalLen);
+        return dOff + literalLen;
+    }
+
+    private static int writeMatchLength(int matchLen, byte[] dst, int dstOff, int tokenOff) {
+        if (matchLen >= RUN_MASK) {
+            dst[tokenOff] |= RUN_MASK;
+            return writeLength(matchLen - RUN_MASK, dst, dstOff);
+        }
+        dst[tokenOff] |= matchLen;
+        return dstOff;
+    }
+
+    private static int writeLength(int length, byte[] dst, int dstOff) {
+        int dOff = dstOff;
+        int remaining = length;
+        while (remaining >= MAX_BYTE) {
+            dst[dOff++] = (byte) MAX_BYTE;
+            remaining -= MAX_BYTE;
+        }
+        dst[dOff++] = (byte) remaining;
+        return dOff;
+    }
+
+    private static int writeShortLE(int value, byte[] dst, int dstOff) {
+        dst[dstOff] = (byte) value;
+        dst[dstOff + 1] = (byte) (value >>> BITS_PER_BYTE);
+        return dstOff + 2;
+    }
+
+    private static int commonBytes(byte[] src, int ref, int sOff, int limit) {
+        int matchLen = 0;
+        while (sOff + matchLen < limit && src[ref + matchLen] == src[sOff + matchLen]) {
+            matchLen++;
+        }
+        return matchLen;
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & BYTE_MASK)
+                | ((bytes[offset + 1] & BYTE_MASK) << 8)
+                | ((bytes[offset + 2] & BYTE_MASK) << 16)
+                | ((bytes[offset + 3] & BYTE_MASK) << 24);
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private static int hash(int value) {
+        return (value * HASH_MULTIPLIER) >>> (32 - HASH_LOG);
+    }
+}
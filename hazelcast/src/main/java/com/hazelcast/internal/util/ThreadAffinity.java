@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.logging.ILogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility to pin threads to CPUs on Linux.
+ * <p/>
+ * There is no JDK API for CPU affinity, so the native id of the current thread is resolved using
+ * {@code /proc/thread-self} and the affinity is set using {@code taskset}. Pinning is best effort;
+ * if it fails, the thread keeps running on any CPU and a warning is logged.
+ */
+public final class ThreadAffinity {
+
+    private static final File THREAD_SELF = new File("/proc/thread-self");
+
+    private ThreadAffinity() {
+    }
+
+    /**
+     * Parses a CPU list like {@code 0-3,6,8-9}.
+     *
+     * @param cpuList the CPU list, can be {@code null} or empty
+     * @return the CPUs in the order they are listed, empty if no CPUs are listed
+     * @throws IllegalArgumentException if the CPU list is not valid
+     */
+    public static int[] parseCpuList(String cpuList) {
+        List<Integer> cpus = new ArrayList<Integer>();
+        if (cpuList != null) {
+            for (String item : cpuList.split(",")) {
+                item = item.trim();
+                if (item.isEmpty()) {
+                    continue;
+                }
+                try {
+                    int separator = item.indexOf('-');
+                    int from = Integer.parseInt(separator < 0 ? item : item.substring(0, separator).trim());
+                    int to = separator < 0 ? from : Integer.parseInt(item.substring(separator + 1).trim());
+                    if (from < 0 || to < from) {
+                        throw new IllegalArgumentException("Invalid CPU range '" + item + "' in CPU list: " + cpuList);
+                    }
+                    for (int cpu = from; cpu <= to; cpu++) {
+                        cpus.add(cpu);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid CPU '" + item + "' in CPU list: " + cpuList, e);
+                }
+            }
+        }
+
+        int[] result = new int[cpus.size()];
+        for (int k = 0; k < result.length; k++) {
+            result[k] = cpus.get(k);
+        }
+        return result;
+    }
+
+    /**
+     * Pins the current thread to the given CPU.
+     *
+     * @param cpu    the CPU to pin to
+     * @param logger the logger used to report a failure
+     * @return true if the thread was pinned, false otherwise
+     */
+    public static boolean pinCurrentThread(int cpu, ILogger logger) {
+        String threadName = Thread.currentThread().getName();
+        try {
+            // resolves to /proc/<pid>/task/<tid>
+            String threadPath = THREAD_SELF.getCanonicalPath();
+            if (!THREAD_SELF.exists() || threadPath.equals(THREAD_SELF.getPath())) {
+                logger.warning("Can't pin " + threadName + " to CPU " + cpu + ", thread affinity is only supported on Linux");
+                return false;
+            }
+            String tid = threadPath.substring(threadPath.lastIndexOf('/') + 1);
+
+            Process process = new ProcessBuilder("taskset", "-p", "-c", String.valueOf(cpu), tid)
+                    .redirectErrorStream(true).start();
+            drain(process);
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                logger.warning("Failed to pin " + threadName + " to CPU " + cpu + ", taskset exited with " + exitCode);
+                return false;
+            }
+
+            if (logger.isFinestEnabled()) {
+                logger.finest("Pinned " + threadName + " to CPU " + cpu);
+            }
+            return true;
+        } catch (IOException e) {
+            logger.warning("Failed to pin " + threadName + " to CPU " + cpu, e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void drain(Process process) throws IOException {
+        try {
+            // taskset reports the old and the new affinity, this output is not needed
+            byte[] buffer = new byte[256];
+            int read;
+            do {
+                read = process.getInputStream().read(buffer);
+            } while (read != -1);
+        } finally {
+            process.getInputStream().close();
+            process.getOutputStream().close();
+        }
+    }
+}
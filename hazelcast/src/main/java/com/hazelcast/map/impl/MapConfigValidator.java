@@ -18,6 +18,7 @@ package com.hazelcast.map.impl;
 
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 
@@ -58,6 +59,26 @@ public final class MapConfigValidator {
         logIgnoredConfig(mapConfig);
     }
 
+    /**
+     * Checks preconditions to create a map proxy. Unlike {@link #checkMapConfig(MapConfig)},
+     * {@link InMemoryFormat#NATIVE} is allowed as long as native memory is enabled.
+     *
+     * @param mapConfig          the mapConfig
+     * @param nativeMemoryConfig the native memory configuration of the member
+     */
+    public static void checkMapConfig(MapConfig mapConfig, NativeMemoryConfig nativeMemoryConfig) {
+        if (NATIVE != mapConfig.getInMemoryFormat()) {
+            checkMapConfig(mapConfig);
+            return;
+        }
+        if (nativeMemoryConfig == null || !nativeMemoryConfig.isEnabled()) {
+            throw new IllegalArgumentException("NATIVE storage format requires native memory to be enabled. "
+                    + "Enable it using NativeMemoryConfig before creating map " + mapConfig.getName() + "!");
+        }
+
+        logIgnoredConfig(mapConfig);
+    }
+
     private static void logIgnoredConfig(MapConfig mapConfig) {
         if (DEFAULT_MIN_EVICTION_CHECK_MILLIS != mapConfig.getMinEvictionCheckMillis()
                 || DEFAULT_EVICTION_PERCENTAGE != mapConfig.getEvictionPercentage()) {
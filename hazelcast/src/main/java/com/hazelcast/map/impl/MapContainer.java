@@ -21,6 +21,7 @@ import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.config.WanReplicationRef;
 import com.hazelcast.core.IFunction;
 import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.memory.MemoryManager;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.map.eviction.MapEvictionPolicy;
 import com.hazelcast.map.impl.eviction.EvictionChecker;
@@ -29,6 +30,7 @@ import com.hazelcast.map.impl.eviction.EvictorImpl;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.query.QueryEntryFactory;
 import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
 import com.hazelcast.map.impl.record.ObjectRecordFactory;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.merge.MapMergePolicy;
@@ -36,9 +38,14 @@ import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.SortedIndexStoreType;
+import com.hazelcast.query.impl.UnsortedIndexStoreType;
 import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.partition.IPartitionService;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.spi.properties.HazelcastProperty;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.ConstructorFunction;
 import com.hazelcast.util.ExceptionUtil;
@@ -46,6 +53,7 @@ import com.hazelcast.util.RuntimeMemoryInfoAccessor;
 import com.hazelcast.wan.WanReplicationPublisher;
 import com.hazelcast.wan.WanReplicationService;
 
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.map.impl.SizeEstimators.createNearCacheSizeEstimator;
@@ -107,13 +115,26 @@ public class MapContainer {
         initWanReplication(nodeEngine);
         this.nearCacheSizeEstimator = createNearCacheSizeEstimator(mapConfig.getNearCacheConfig());
         this.extractors = new Extractors(mapConfig.getMapAttributeConfigs());
-        this.indexes = new Indexes((InternalSerializationService) serializationService, extractors);
+        this.indexes = new Indexes((InternalSerializationService) serializationService, extractors,
+                getIndexStoreType(nodeEngine, GroupProperty.QUERY_SORTED_INDEX_STORE_TYPE, SortedIndexStoreType.class),
+                getIndexStoreType(nodeEngine, GroupProperty.QUERY_UNSORTED_INDEX_STORE_TYPE, UnsortedIndexStoreType.class));
         this.memberNearCacheInvalidationEnabled = hasMemberNearCache() && mapConfig.getNearCacheConfig().isInvalidateOnChange();
         this.mapStoreContext = createMapStoreContext(this);
         this.mapStoreContext.start();
         initEvictor();
     }
 
+    private static <T extends Enum<T>> T getIndexStoreType(NodeEngine nodeEngine, HazelcastProperty property,
+                                                           Class<T> typeClass) {
+        String type = nodeEngine.getProperties().getString(property);
+        try {
+            return Enum.valueOf(typeClass, type);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown index store type: " + type + ". Use property '"
+                    + property.getName() + "' to select one of " + Arrays.toString(typeClass.getEnumConstants()));
+        }
+    }
+
     // this method is overridden.
     public void initEvictor() {
         MapEvictionPolicy mapEvictionPolicy = mapConfig.getMapEvictionPolicy();
@@ -137,6 +158,8 @@ public class MapContainer {
                         return new DataRecordFactory(mapConfig, serializationService, partitioningStrategy);
                     case OBJECT:
                         return new ObjectRecordFactory(mapConfig, serializationService);
+                    case NATIVE:
+                        return new NativeRecordFactory(mapConfig, serializationService, partitioningStrategy);
                     default:
                         throw new IllegalArgumentException("Invalid storage format: " + mapConfig.getInMemoryFormat());
                 }
@@ -253,6 +276,14 @@ public class MapContainer {
         return recordFactoryConstructor;
     }
 
+    /**
+     * @return the memory manager serving the native memory of this member or {@code null} if native memory is not enabled
+     */
+    public MemoryManager getNativeMemoryManager() {
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) mapServiceContext.getNodeEngine();
+        return nodeEngine.getNode().getNodeExtension().getNativeMemoryManager();
+    }
+
     public QueryableEntry newQueryEntry(Data key, Object value) {
         return queryEntryFactory.newEntry((InternalSerializationService) serializationService, key, value, extractors);
     }
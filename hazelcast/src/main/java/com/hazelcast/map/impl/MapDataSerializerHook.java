@@ -26,7 +26,9 @@ import com.hazelcast.map.impl.operation.PutBackupOperation;
 import com.hazelcast.map.impl.operation.PutOperation;
 import com.hazelcast.map.impl.operation.RemoveBackupOperation;
 import com.hazelcast.map.impl.operation.RemoveOperation;
+import com.hazelcast.map.impl.query.AggregationResult;
 import com.hazelcast.map.impl.query.QueryResult;
+import com.hazelcast.map.impl.query.QueryResultPage;
 import com.hazelcast.map.impl.query.QueryResultRow;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
@@ -52,8 +54,10 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int QUERY_RESULT = 10;
     public static final int EVICT_BACKUP = 11;
     public static final int CONTAINS_KEY = 12;
+    public static final int AGGREGATION_RESULT = 13;
+    public static final int QUERY_RESULT_PAGE = 14;
 
-    private static final int LEN = CONTAINS_KEY + 1;
+    private static final int LEN = QUERY_RESULT_PAGE + 1;
 
     @Override
     public int getFactoryId() {
@@ -129,6 +133,16 @@ public final class MapDataSerializerHook implements DataSerializerHook {
                 return new ContainsKeyOperation();
             }
         };
+        constructors[AGGREGATION_RESULT] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new AggregationResult();
+            }
+        };
+        constructors[QUERY_RESULT_PAGE] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new QueryResultPage();
+            }
+        };
 
         return new ArrayDataSerializableFactory(constructors);
     }
@@ -16,6 +16,10 @@
 
 package com.hazelcast.map.impl;
 
+import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.DifferentialReplicationAwareService;
+import com.hazelcast.map.impl.operation.MapReplicaDigest;
+import com.hazelcast.map.impl.operation.MapReplicationChunkIterator;
 import com.hazelcast.map.impl.operation.MapReplicationOperation;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.Records;
@@ -23,7 +27,6 @@ import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryableEntry;
-import com.hazelcast.spi.MigrationAwareService;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionMigrationEvent;
 import com.hazelcast.spi.PartitionReplicationEvent;
@@ -31,14 +34,16 @@ import com.hazelcast.spi.partition.MigrationEndpoint;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.Clock;
 
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 /**
  * Defines migration behavior of map service.
  *
  * @see MapService
  */
-class MapMigrationAwareService implements MigrationAwareService {
+class MapMigrationAwareService implements DifferentialReplicationAwareService, ChunkedMigrationAwareService {
 
     protected final MapServiceContext mapServiceContext;
     protected final SerializationService serializationService;
@@ -63,6 +68,34 @@ class MapMigrationAwareService implements MigrationAwareService {
         return operation;
     }
 
+    @Override
+    public Iterator<Operation> prepareReplicationChunks(PartitionReplicationEvent event, int maxEntries) {
+        PartitionContainer container = mapServiceContext.getPartitionContainer(event.getPartitionId());
+        return new MapReplicationChunkIterator(container, event.getReplicaIndex(), maxEntries, mapServiceContext.getService());
+    }
+
+    @Override
+    public Object createReplicaDigest(PartitionReplicationEvent event) {
+        PartitionContainer container = mapServiceContext.getPartitionContainer(event.getPartitionId());
+        Map<String, long[]> segmentHashes = new HashMap<String, long[]>(container.getMaps().size());
+        for (Map.Entry<String, RecordStore> entry : container.getMaps().entrySet()) {
+            segmentHashes.put(entry.getKey(), MapReplicaDigest.computeSegmentHashes(entry.getValue(), mapServiceContext));
+        }
+        return new MapReplicaDigest(segmentHashes);
+    }
+
+    @Override
+    public Operation prepareReplicationOperation(PartitionReplicationEvent event, Object digest) {
+        int partitionId = event.getPartitionId();
+        PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
+
+        MapReplicationOperation operation = new MapReplicationOperation(container, partitionId, event.getReplicaIndex(),
+                (MapReplicaDigest) digest);
+        operation.setService(mapServiceContext.getService());
+
+        return operation;
+    }
+
     @Override
     public void commitMigration(PartitionMigrationEvent event) {
         migrateIndex(event);
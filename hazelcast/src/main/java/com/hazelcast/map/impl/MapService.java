@@ -17,6 +17,8 @@
 package com.hazelcast.map.impl;
 
 import com.hazelcast.core.DistributedObject;
+import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.DifferentialReplicationAwareService;
 import com.hazelcast.map.impl.event.MapEventPublishingService;
 import com.hazelcast.monitor.LocalMapStats;
 import com.hazelcast.spi.ClientAwareService;
@@ -43,6 +45,8 @@ import com.hazelcast.transaction.TransactionalObject;
 import com.hazelcast.transaction.impl.Transaction;
 import com.hazelcast.wan.WanReplicationEvent;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Properties;
 
@@ -65,7 +69,7 @@ import static com.hazelcast.core.EntryEventType.INVALIDATION;
  * @see MapClientAwareService
  * @see MapServiceContext
  */
-public class MapService implements ManagedService, MigrationAwareService,
+public class MapService implements ManagedService, DifferentialReplicationAwareService, ChunkedMigrationAwareService,
         TransactionalService, RemoteService, EventPublishingService<Object, ListenerAdapter>,
         PostJoinAwareService, SplitBrainHandlerService, ReplicationSupportingService, StatisticsAwareService,
         PartitionAwareService, ClientAwareService, QuorumAwareService, NotifiableEventListener {
@@ -114,6 +118,31 @@ public class MapService implements ManagedService, MigrationAwareService,
         return migrationAwareService.prepareReplicationOperation(event);
     }
 
+    @Override
+    public Iterator<Operation> prepareReplicationChunks(PartitionReplicationEvent event, int maxEntries) {
+        if (migrationAwareService instanceof ChunkedMigrationAwareService) {
+            return ((ChunkedMigrationAwareService) migrationAwareService).prepareReplicationChunks(event, maxEntries);
+        }
+        Operation operation = migrationAwareService.prepareReplicationOperation(event);
+        return operation == null ? Collections.<Operation>emptyList().iterator() : Collections.singleton(operation).iterator();
+    }
+
+    @Override
+    public Object createReplicaDigest(PartitionReplicationEvent event) {
+        if (migrationAwareService instanceof DifferentialReplicationAwareService) {
+            return ((DifferentialReplicationAwareService) migrationAwareService).createReplicaDigest(event);
+        }
+        return null;
+    }
+
+    @Override
+    public Operation prepareReplicationOperation(PartitionReplicationEvent event, Object digest) {
+        if (migrationAwareService instanceof DifferentialReplicationAwareService) {
+            return ((DifferentialReplicationAwareService) migrationAwareService).prepareReplicationOperation(event, digest);
+        }
+        return migrationAwareService.prepareReplicationOperation(event);
+    }
+
     @Override
     public void beforeMigration(PartitionMigrationEvent event) {
         migrationAwareService.beforeMigration(event);
@@ -65,7 +65,7 @@ public class AddIndexOperation extends MapOperation implements PartitionAwareOpe
             Data key = record.getKey();
             Object value = Records.getValueOrCachedValue(record, serializationService);
             QueryableEntry queryEntry = mapContainer.newQueryEntry(key, value);
-            index.saveEntryIndex(queryEntry, null);
+            index.saveEntryIndex(indexes.cover(queryEntry), null);
         }
     }
 
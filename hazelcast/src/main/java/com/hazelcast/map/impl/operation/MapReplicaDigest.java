@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.DataSerializable;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static com.hazelcast.util.HashUtil.MurmurHash3_fmix;
+import static com.hazelcast.util.HashUtil.fastIntMix;
+
+/**
+ * Digest of the IMap-states of a partition replica, used to synchronize a backup replica differentially.
+ * <p/>
+ * The keys of every map are spread over {@link #SEGMENT_COUNT} segments. The hash of a segment is the sum of the hashes
+ * of its entries, so it does not depend on the iteration order of the record store. Only the entries of the segments
+ * whose hashes differ between the owner and the backup replica are replicated.
+ */
+public class MapReplicaDigest implements DataSerializable {
+
+    /**
+     * The number of segments the keys of a map are spread over, must be a power of two.
+     */
+    public static final int SEGMENT_COUNT = 256;
+
+    private static final int INT_BITS = 32;
+    private static final long INT_MASK = 0xFFFFFFFFL;
+
+    private Map<String, long[]> segmentHashes;
+
+    public MapReplicaDigest() {
+    }
+
+    public MapReplicaDigest(Map<String, long[]> segmentHashes) {
+        this.segmentHashes = segmentHashes;
+    }
+
+    /**
+     * Returns the segment hashes of the given map or null if the map is not part of this digest.
+     */
+    public long[] getSegmentHashes(String mapName) {
+        return segmentHashes.get(mapName);
+    }
+
+    /**
+     * Returns the segment of the given key.
+     */
+    public static int segmentOf(Data key) {
+        return fastIntMix(key.hashCode()) & (SEGMENT_COUNT - 1);
+    }
+
+    /**
+     * Computes the segment hashes of the records in the given record store.
+     */
+    public static long[] computeSegmentHashes(RecordStore recordStore, MapServiceContext mapServiceContext) {
+        long[] hashes = new long[SEGMENT_COUNT];
+        Iterator<Record> iterator = recordStore.iterator();
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            Data key = record.getKey();
+            Data value = mapServiceContext.toData(record.getValue());
+            long entryHash = ((long) key.hashCode() << INT_BITS) | (value.hashCode() & INT_MASK);
+            hashes[segmentOf(key)] += MurmurHash3_fmix(entryHash);
+        }
+        return hashes;
+    }
+
+    /**
+     * Returns the sorted indexes of the segments whose hashes differ.
+     */
+    public static int[] diffSegments(long[] hashes, long[] otherHashes) {
+        int[] segments = new int[SEGMENT_COUNT];
+        int count = 0;
+        for (int segment = 0; segment < SEGMENT_COUNT; segment++) {
+            if (hashes[segment] != otherHashes[segment]) {
+                segments[count++] = segment;
+            }
+        }
+        return Arrays.copyOf(segments, count);
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(segmentHashes.size());
+        for (Entry<String, long[]> entry : segmentHashes.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLongArray(entry.getValue());
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        segmentHashes = new HashMap<String, long[]>(size);
+        for (int i = 0; i < size; i++) {
+            segmentHashes.put(in.readUTF(), in.readLongArray());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordReplicationInfo;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.map.impl.recordstore.Storage;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.Operation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.hazelcast.map.impl.record.Records.buildRecordInfo;
+
+/**
+ * Reads the IMap-states of a migrating partition as a sequence of {@link MapReplicationOperation}s carrying at most
+ * {@code maxEntries} records each. Every chunk is read from the record stores when it is requested, using the
+ * {@link Storage#fetchKeys(int, int, List)} cursor, so only a single chunk of the partition is held at a time.
+ * <p/>
+ * The records of a map are sent in consecutive chunks and only the first of them resets the record store. The
+ * write-behind state is sent with the last chunk, since resetting a record store also resets its write-behind queue.
+ * <p/>
+ * Must only be used in the partition thread.
+ */
+public final class MapReplicationChunkIterator implements Iterator<Operation> {
+
+    private final PartitionContainer container;
+    private final int partitionId;
+    private final int replicaIndex;
+    private final int maxEntries;
+    private final MapService mapService;
+    private final MapServiceContext mapServiceContext;
+    private final Iterator<RecordStore> recordStores;
+    private final List<Data> keys = new ArrayList<Data>();
+
+    // the record store being read and the cursor in its storage; a negative cursor means the record store is done
+    private RecordStore recordStore;
+    private int tableIndex = -1;
+    private boolean lastChunkSent;
+
+    public MapReplicationChunkIterator(PartitionContainer container, int replicaIndex, int maxEntries,
+                                       MapService mapService) {
+        this.container = container;
+        this.partitionId = container.getPartitionId();
+        this.replicaIndex = replicaIndex;
+        this.maxEntries = maxEntries;
+        this.mapService = mapService;
+        this.mapServiceContext = mapService.getMapServiceContext();
+
+        List<RecordStore> replicated = new ArrayList<RecordStore>(container.getMaps().size());
+        for (RecordStore recordStore : container.getMaps().values()) {
+            if (recordStore.getMapContainer().getMapConfig().getTotalBackupCount() >= replicaIndex) {
+                replicated.add(recordStore);
+            }
+        }
+        this.recordStores = replicated.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !lastChunkSent;
+    }
+
+    @Override
+    public Operation next() {
+        if (lastChunkSent) {
+            throw new NoSuchElementException();
+        }
+
+        MapReplicationOperation chunk = MapReplicationOperation.newChunk(partitionId, replicaIndex, mapService);
+        int entries = 0;
+        while (entries < maxEntries) {
+            if (tableIndex < 0 && !nextRecordStore(chunk)) {
+                chunk.prepareWriteBehindState(container);
+                lastChunkSent = true;
+                break;
+            }
+
+            Set<RecordReplicationInfo> records = chunk.mapReplicationStateHolder.data.get(recordStore.getName());
+            if (records == null) {
+                records = new HashSet<RecordReplicationInfo>();
+                chunk.mapReplicationStateHolder.data.put(recordStore.getName(), records);
+            }
+            entries += fetchRecords(maxEntries - entries, records);
+        }
+        return chunk;
+    }
+
+    /**
+     * Moves to the next record store. The chunk which contains its first records resets it on the destination.
+     */
+    private boolean nextRecordStore(MapReplicationOperation chunk) {
+        if (!recordStores.hasNext()) {
+            recordStore = null;
+            return false;
+        }
+
+        recordStore = recordStores.next();
+        tableIndex = Integer.MAX_VALUE;
+        String mapName = recordStore.getName();
+        chunk.mapReplicationStateHolder.data.put(mapName, new HashSet<RecordReplicationInfo>());
+        chunk.mapReplicationStateHolder.loaded.put(mapName, recordStore.isLoaded());
+        return true;
+    }
+
+    private int fetchRecords(int size, Set<RecordReplicationInfo> records) {
+        Storage<Data, ? extends Record> storage = recordStore.getStorage();
+        keys.clear();
+        tableIndex = storage.fetchKeys(tableIndex, size, keys);
+
+        int fetched = 0;
+        for (Data key : keys) {
+            Record record = storage.get(key);
+            if (record == null) {
+                continue;
+            }
+            Data value = mapServiceContext.toData(record.getValue());
+            records.add(new RecordReplicationInfo(key, value, buildRecordInfo(record)));
+            fetched++;
+        }
+        return fetched;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -66,9 +66,17 @@ public class MapReplicationOperation extends AbstractOperation implements Mutati
     }
 
     public MapReplicationOperation(PartitionContainer container, int partitionId, int replicaIndex) {
+        this(container, partitionId, replicaIndex, null);
+    }
+
+    /**
+     * Creates an operation that replicates only the entries of the segments differing from the given digest of the
+     * destination replica. Maps missing from the digest are replicated in full.
+     */
+    public MapReplicationOperation(PartitionContainer container, int partitionId, int replicaIndex, MapReplicaDigest digest) {
         setPartitionId(partitionId).setReplicaIndex(replicaIndex);
 
-        mapReplicationStateHolder.prepare(container, replicaIndex);
+        mapReplicationStateHolder.prepare(container, replicaIndex, digest);
         writeBehindStateHolder.prepare(container, replicaIndex);
     }
 
@@ -79,6 +87,26 @@ public class MapReplicationOperation extends AbstractOperation implements Mutati
         writeBehindStateHolder.applyState();
     }
 
+    /**
+     * Creates an empty operation to be filled with a chunk of the state of the partition, see
+     * {@link MapReplicationChunkIterator}.
+     */
+    static MapReplicationOperation newChunk(int partitionId, int replicaIndex, MapService mapService) {
+        MapReplicationOperation chunk = new MapReplicationOperation();
+        chunk.setPartitionId(partitionId).setReplicaIndex(replicaIndex);
+        chunk.setService(mapService);
+        chunk.mapReplicationStateHolder.data = new HashMap<String, Set<RecordReplicationInfo>>();
+        chunk.mapReplicationStateHolder.loaded = new HashMap<String, Boolean>();
+        chunk.mapReplicationStateHolder.segments = new HashMap<String, int[]>();
+        chunk.writeBehindStateHolder.delayedEntries = new HashMap<String, List<DelayedEntry>>();
+        chunk.writeBehindStateHolder.flushSequences = new HashMap<String, Queue<WriteBehindStore.Sequence>>();
+        return chunk;
+    }
+
+    void prepareWriteBehindState(PartitionContainer container) {
+        writeBehindStateHolder.prepare(container, getReplicaIndex());
+    }
+
     @Override
     public String getServiceName() {
         return MapService.SERVICE_NAME;
@@ -118,10 +146,13 @@ public class MapReplicationOperation extends AbstractOperation implements Mutati
         // propagates the information if the given record store has been already loaded with map-loaded
         // if so, the loading won't be triggered again after a migration to avoid duplicate loading.
         protected Map<String, Boolean> loaded;
+        // the differing segments of the maps which are replicated differentially, see MapReplicaDigest
+        protected Map<String, int[]> segments;
 
-        private void prepare(PartitionContainer container, int replicaIndex) {
+        private void prepare(PartitionContainer container, int replicaIndex, MapReplicaDigest digest) {
             data = new HashMap<String, Set<RecordReplicationInfo>>(container.getMaps().size());
             loaded = new HashMap<String, Boolean>(container.getMaps().size());
+            segments = new HashMap<String, int[]>();
             for (Entry<String, RecordStore> entry : container.getMaps().entrySet()) {
                 RecordStore recordStore = entry.getValue();
 
@@ -132,13 +163,32 @@ public class MapReplicationOperation extends AbstractOperation implements Mutati
                 }
                 MapServiceContext mapServiceContext = mapContainer.getMapServiceContext();
                 String mapName = entry.getKey();
-                loaded.put(mapName, recordStore.isLoaded());
+                long[] replicaHashes = digest != null ? digest.getSegmentHashes(mapName) : null;
+                boolean[] differingSegments = null;
+                if (replicaHashes != null && replicaHashes.length == MapReplicaDigest.SEGMENT_COUNT) {
+                    long[] hashes = MapReplicaDigest.computeSegmentHashes(recordStore, mapServiceContext);
+                    int[] mapSegments = MapReplicaDigest.diffSegments(hashes, replicaHashes);
+                    segments.put(mapName, mapSegments);
+                    if (mapSegments.length == 0) {
+                        continue;
+                    }
+                    differingSegments = new boolean[MapReplicaDigest.SEGMENT_COUNT];
+                    for (int segment : mapSegments) {
+                        differingSegments[segment] = true;
+                    }
+                } else {
+                    loaded.put(mapName, recordStore.isLoaded());
+                }
                 // now prepare data to migrate records
-                Set<RecordReplicationInfo> recordSet = new HashSet<RecordReplicationInfo>(recordStore.size());
+                Set<RecordReplicationInfo> recordSet = new HashSet<RecordReplicationInfo>(
+                        differingSegments == null ? recordStore.size() : 0);
                 final Iterator<Record> iterator = recordStore.iterator();
                 while (iterator.hasNext()) {
                     Record record = iterator.next();
                     Data key = record.getKey();
+                    if (differingSegments != null && !differingSegments[MapReplicaDigest.segmentOf(key)]) {
+                        continue;
+                    }
                     RecordReplicationInfo recordReplicationInfo
                             = createRecordReplicationInfo(key, record, mapServiceContext);
                     recordSet.add(recordReplicationInfo);
@@ -147,14 +197,49 @@ public class MapReplicationOperation extends AbstractOperation implements Mutati
             }
         }
 
+        private void removeDifferingSegments() {
+            for (Entry<String, int[]> entry : segments.entrySet()) {
+                RecordStore recordStore = getRecordStore(entry.getKey());
+                // write-behind state is replicated in full, see WriteBehindStateHolder
+                recordStore.getMapDataStore().reset();
+
+                int[] mapSegments = entry.getValue();
+                if (mapSegments.length == 0) {
+                    continue;
+                }
+                boolean[] differingSegments = new boolean[MapReplicaDigest.SEGMENT_COUNT];
+                for (int segment : mapSegments) {
+                    differingSegments[segment] = true;
+                }
+                List<Data> keys = new ArrayList<Data>();
+                Iterator<Record> iterator = recordStore.iterator();
+                while (iterator.hasNext()) {
+                    Data key = iterator.next().getKey();
+                    if (differingSegments[MapReplicaDigest.segmentOf(key)]) {
+                        keys.add(key);
+                    }
+                }
+                for (Data key : keys) {
+                    recordStore.removeBackup(key);
+                }
+            }
+        }
+
         private void applyState() {
+            if (segments != null) {
+                removeDifferingSegments();
+            }
             if (data != null) {
                 for (Entry<String, Set<RecordReplicationInfo>> dataEntry : data.entrySet()) {
                     Set<RecordReplicationInfo> recordReplicationInfos = dataEntry.getValue();
                     final String mapName = dataEntry.getKey();
                     RecordStore recordStore = getRecordStore(mapName);
-                    recordStore.reset();
-                    recordStore.setPreMigrationLoadedStatus(loaded.get(mapName));
+                    // a map without loaded status is continued from an earlier chunk or replicated differentially
+                    Boolean preMigrationLoaded = loaded.get(mapName);
+                    if (preMigrationLoaded != null) {
+                        recordStore.reset();
+                        recordStore.setPreMigrationLoadedStatus(preMigrationLoaded);
+                    }
 
                     for (RecordReplicationInfo recordReplicationInfo : recordReplicationInfos) {
                         Data key = recordReplicationInfo.getKey();
@@ -184,6 +269,12 @@ public class MapReplicationOperation extends AbstractOperation implements Mutati
                 out.writeUTF(loadedEntry.getKey());
                 out.writeBoolean(loadedEntry.getValue());
             }
+
+            out.writeInt(segments.size());
+            for (Entry<String, int[]> segmentsEntry : segments.entrySet()) {
+                out.writeUTF(segmentsEntry.getKey());
+                out.writeIntArray(segmentsEntry.getValue());
+            }
         }
 
         @Override
@@ -206,6 +297,12 @@ public class MapReplicationOperation extends AbstractOperation implements Mutati
             for (int i = 0; i < loadedSize; i++) {
                 loaded.put(in.readUTF(), in.readBoolean());
             }
+
+            int segmentsSize = in.readInt();
+            segments = new HashMap<String, int[]>(segmentsSize);
+            for (int i = 0; i < segmentsSize; i++) {
+                segments.put(in.readUTF(), in.readIntArray());
+            }
         }
     }
 
@@ -16,6 +16,8 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.util.IterationType;
@@ -40,6 +42,20 @@ public interface MapQueryEngine {
     QueryResult queryLocalPartitions(String name, Predicate predicate, IterationType iterationType)
             throws ExecutionException, InterruptedException;
 
+    /**
+     * Executes a query on all the local partitions and applies the projection to the values of the matching entries.
+     *
+     * @param name          the name of the map
+     * @param predicate     the predicate
+     * @param iterationType the IterationType, the projection is only applied for {@link IterationType#VALUE}
+     * @param projection    the projection or {@code null} if no projection should be applied
+     * @return the QueryResult
+     * @throws ExecutionException
+     * @throws InterruptedException
+     */
+    QueryResult queryLocalPartitions(String name, Predicate predicate, IterationType iterationType, Projection projection)
+            throws ExecutionException, InterruptedException;
+
     /**
      * Executes a query a specific local partition.
      *
@@ -52,6 +68,37 @@ public interface MapQueryEngine {
      */
     QueryResult queryLocalPartition(String mapName, Predicate predicate, int partitionId, IterationType iterationType);
 
+    /**
+     * Executes a query a specific local partition and applies the projection to the values of the matching entries.
+     *
+     * @param mapName       map name.
+     * @param predicate     any predicate.
+     * @param partitionId   partition id.
+     * @param iterationType the IterationType, the projection is only applied for {@link IterationType#VALUE}
+     * @param projection    the projection or {@code null} if no projection should be applied
+     * @return result of query
+     */
+    QueryResult queryLocalPartition(String mapName, Predicate predicate, int partitionId, IterationType iterationType,
+                                    Projection projection);
+
+    /**
+     * Executes a query on a page of a specific local partition. The records of the partition are scanned
+     * from the given table index on until {@code pageSize} matching entries are found or the partition is
+     * completely scanned; the table index to continue the query from is part of the returned page.
+     * <p/>
+     * No state is kept on the member between the pages, so the pages are weakly consistent: entries added,
+     * removed or moved by a resize in between two pages may or may not be returned.
+     *
+     * @param mapName     map name.
+     * @param predicate   except paging predicate.
+     * @param partitionId partition id.
+     * @param tableIndex  the table index to start scanning from, a value outside of the table starts a new scan.
+     * @param pageSize    the maximum number of entries in the page.
+     * @return the page of matching entries
+     */
+    QueryResultPage queryLocalPartitionPage(String mapName, Predicate predicate, int partitionId, int tableIndex,
+                                            int pageSize);
+
     /**
      * Query all local partitions.
      *
@@ -73,6 +120,18 @@ public interface MapQueryEngine {
      */
     QueryResult invokeQueryAllPartitions(String mapName, Predicate predicate, IterationType iterationType);
 
+    /**
+     * Queries all partitions and applies the projection to the values of the matching entries on the members
+     * owning them. Paging predicates are not allowed.
+     *
+     * @param mapName       map name.
+     * @param predicate     except paging predicate.
+     * @param iterationType the IterationType, the projection is only applied for {@link IterationType#VALUE}
+     * @param projection    the projection or {@code null} if no projection should be applied
+     */
+    QueryResult invokeQueryAllPartitions(String mapName, Predicate predicate, IterationType iterationType,
+                                         Projection projection);
+
     /**
      * Query all local partitions with a paging predicate.
      *
@@ -99,4 +158,39 @@ public interface MapQueryEngine {
      * @return {@link SortedQueryResultSet}
      */
     Set queryAllPartitionsWithPagingPredicate(String mapName, PagingPredicate pagingPredicate, IterationType iterationType);
+
+    /**
+     * Aggregates the entries of all the local partitions matching the predicate into the given aggregator.
+     *
+     * @param mapName    map name.
+     * @param predicate  except paging predicate.
+     * @param aggregator the aggregator to accumulate the entries into.
+     * @return the {@link AggregationResult} containing the given aggregator
+     */
+    AggregationResult aggregateLocalPartitions(String mapName, Predicate predicate, Aggregator aggregator);
+
+    /**
+     * Aggregates the entries of a specific local partition matching the predicate into the given aggregator.
+     *
+     * @param mapName     map name.
+     * @param predicate   except paging predicate.
+     * @param aggregator  the aggregator to accumulate the entries into.
+     * @param partitionId partition id.
+     * @return the {@link AggregationResult} containing the given aggregator
+     */
+    AggregationResult aggregateLocalPartition(String mapName, Predicate predicate, Aggregator aggregator, int partitionId);
+
+    /**
+     * Aggregates the entries of all partitions matching the predicate. Every member aggregates its local
+     * partitions and the partial results are combined on the caller. Paging predicates are not allowed.
+     *
+     * The given aggregator is not modified; each invocation works on its own copy.
+     *
+     * @param mapName    map name.
+     * @param predicate  except paging predicate.
+     * @param aggregator the aggregator.
+     * @param <R>        the result type of the aggregator
+     * @return the result of the aggregation
+     */
+    <R> R invokeAggregationAllPartitions(String mapName, Predicate predicate, Aggregator<?, R> aggregator);
 }
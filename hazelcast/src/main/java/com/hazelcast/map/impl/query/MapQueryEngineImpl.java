@@ -16,7 +16,9 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.core.Member;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.serialization.InternalSerializationService;
@@ -29,8 +31,11 @@ import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.map.impl.recordstore.Storage;
 import com.hazelcast.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.TruePredicate;
@@ -63,7 +68,9 @@ import java.util.concurrent.Future;
 
 import static com.hazelcast.query.PagingPredicateAccessor.getNearestAnchorEntry;
 import static com.hazelcast.spi.ExecutionService.QUERY_EXECUTOR;
+import static com.hazelcast.spi.ExecutionService.QUERY_SCAN_EXECUTOR;
 import static com.hazelcast.spi.properties.GroupProperty.QUERY_PREDICATE_PARALLEL_EVALUATION;
+import static com.hazelcast.spi.properties.GroupProperty.QUERY_SCAN_PARALLELISM;
 import static com.hazelcast.util.ExceptionUtil.rethrow;
 import static com.hazelcast.util.FutureUtil.RETHROW_EVERYTHING;
 import static com.hazelcast.util.FutureUtil.returnWithDeadline;
@@ -92,6 +99,7 @@ public class MapQueryEngineImpl implements MapQueryEngine {
     protected final LocalMapStatsProvider localMapStatsProvider;
     protected final boolean parallelEvaluation;
     protected final ManagedExecutorService executor;
+    protected final PartitionScanExecutor partitionScanExecutor;
 
     public MapQueryEngineImpl(MapServiceContext mapServiceContext, QueryOptimizer optimizer) {
         this.mapServiceContext = mapServiceContext;
@@ -106,6 +114,16 @@ public class MapQueryEngineImpl implements MapQueryEngine {
         this.localMapStatsProvider = mapServiceContext.getLocalMapStatsProvider();
         this.parallelEvaluation = nodeEngine.getProperties().getBoolean(QUERY_PREDICATE_PARALLEL_EVALUATION);
         this.executor = nodeEngine.getExecutionService().getExecutor(QUERY_EXECUTOR);
+        this.partitionScanExecutor = new PartitionScanExecutor(
+                nodeEngine.getExecutionService().getExecutor(QUERY_SCAN_EXECUTOR), getScanParallelism(nodeEngine));
+    }
+
+    private static int getScanParallelism(NodeEngine nodeEngine) {
+        int parallelism = nodeEngine.getProperties().getInteger(QUERY_SCAN_PARALLELISM);
+        if (parallelism < 0) {
+            parallelism = Runtime.getRuntime().availableProcessors() / 2;
+        }
+        return Math.max(parallelism, 1);
     }
 
     QueryResultSizeLimiter getQueryResultSizeLimiter() {
@@ -115,6 +133,12 @@ public class MapQueryEngineImpl implements MapQueryEngine {
     @Override
     public QueryResult queryLocalPartitions(String mapName, Predicate predicate, IterationType iterationType)
             throws ExecutionException, InterruptedException {
+        return queryLocalPartitions(mapName, predicate, iterationType, null);
+    }
+
+    @Override
+    public QueryResult queryLocalPartitions(String mapName, Predicate predicate, IterationType iterationType,
+                                            Projection projection) throws ExecutionException, InterruptedException {
 
         int initialPartitionStateVersion = partitionService.getPartitionStateVersion();
         Collection<Integer> initialPartitions = mapServiceContext.getOwnedPartitions();
@@ -126,9 +150,13 @@ public class MapQueryEngineImpl implements MapQueryEngine {
         // then we try to run using an index, but if that doesn't work, we'll try a full table scan
         // This would be the point where a query-plan should be added. It should determine if a full table scan
         // or an index should be used.
-        QueryResult result = tryQueryUsingIndexes(predicate, initialPartitions, mapContainer, iterationType);
+        QueryResult result = tryQueryUsingIndexes(predicate, initialPartitions, mapContainer, iterationType, projection);
+        if (result == null && isNative(mapContainer)) {
+            // native entries are read only by their partition threads, the caller falls back to partition operations
+            return newQueryResult(initialPartitions.size(), iterationType, projection);
+        }
         if (result == null) {
-            result = queryUsingFullTableScan(mapName, predicate, initialPartitions, iterationType);
+            result = queryUsingFullTableScan(mapName, predicate, initialPartitions, iterationType, projection);
         }
 
         if (hasPartitionVersion(initialPartitionStateVersion, predicate)) {
@@ -141,7 +169,7 @@ public class MapQueryEngineImpl implements MapQueryEngine {
     }
 
     protected QueryResult tryQueryUsingIndexes(Predicate predicate, Collection<Integer> partitions, MapContainer mapContainer,
-                                               IterationType iterationType) {
+                                               IterationType iterationType, Projection projection) {
 
         if (partitionService.hasOnGoingMigrationLocal()) {
             return null;
@@ -152,11 +180,15 @@ public class MapQueryEngineImpl implements MapQueryEngine {
             return null;
         }
 
-        QueryResult result = newQueryResult(partitions.size(), iterationType);
+        QueryResult result = newQueryResult(partitions.size(), iterationType, projection);
         result.addAll(entries);
         return result;
     }
 
+    protected boolean isNative(MapContainer mapContainer) {
+        return mapContainer.getMapConfig().getInMemoryFormat() == InMemoryFormat.NATIVE;
+    }
+
     protected void updateStatistics(MapContainer mapContainer) {
         if (mapContainer.getMapConfig().isStatisticsEnabled()) {
             LocalMapStatsImpl localStats = localMapStatsProvider.getLocalMapStatsImpl(mapContainer.getName());
@@ -165,22 +197,24 @@ public class MapQueryEngineImpl implements MapQueryEngine {
     }
 
     protected QueryResult queryUsingFullTableScan(String name, Predicate predicate, Collection<Integer> partitions,
-                                                  IterationType iterationType)
+                                                  IterationType iterationType, Projection projection)
             throws InterruptedException, ExecutionException {
 
         if (predicate instanceof PagingPredicate) {
             return queryParallelForPaging(name, (PagingPredicate) predicate, partitions, iterationType);
+        } else if (partitionScanExecutor.getParallelism() > 1) {
+            return queryUsingPartitionScanExecutor(name, predicate, partitions, iterationType, projection);
         } else if (parallelEvaluation) {
-            return queryParallel(name, predicate, partitions, iterationType);
+            return queryParallel(name, predicate, partitions, iterationType, projection);
         } else {
-            return querySequential(name, predicate, partitions, iterationType);
+            return querySequential(name, predicate, partitions, iterationType, projection);
         }
     }
 
     protected QueryResult querySequential(String name, Predicate predicate, Collection<Integer> partitions,
-                                          IterationType iterationType) {
+                                          IterationType iterationType, Projection projection) {
 
-        QueryResult result = newQueryResult(partitions.size(), iterationType);
+        QueryResult result = newQueryResult(partitions.size(), iterationType, projection);
         RetryableHazelcastException storedException = null;
         for (Integer partitionId : partitions) {
             try {
@@ -201,9 +235,34 @@ public class MapQueryEngineImpl implements MapQueryEngine {
         return result;
     }
 
+    protected QueryResult queryUsingPartitionScanExecutor(final String name, final Predicate predicate,
+                                                          final Collection<Integer> partitions,
+                                                          final IterationType iterationType, final Projection projection) {
+        QueryResult result = newQueryResult(partitions.size(), iterationType, projection);
+        partitionScanExecutor.scan(new ArrayList<Integer>(partitions), result,
+                new PartitionScanExecutor.PartitionScan<QueryResult>() {
+                    @Override
+                    public QueryResult newPartialResult() {
+                        return newQueryResult(partitions.size(), iterationType, projection);
+                    }
+
+                    @Override
+                    public void scan(int partitionId, QueryResult result) {
+                        queryTheLocalPartition(name, predicate, partitionId, result);
+                    }
+
+                    @Override
+                    public void combine(QueryResult result, QueryResult partialResult) {
+                        result.combine(partialResult);
+                    }
+                });
+        return result;
+    }
+
     protected QueryResult queryParallel(String name, Predicate predicate, Collection<Integer> partitions,
-                                        IterationType iterationType) throws InterruptedException, ExecutionException {
-        QueryResult result = newQueryResult(partitions.size(), iterationType);
+                                        IterationType iterationType, Projection projection)
+            throws InterruptedException, ExecutionException {
+        QueryResult result = newQueryResult(partitions.size(), iterationType, projection);
 
         List<Future<Collection<QueryableEntry>>> futures
                 = new ArrayList<Future<Collection<QueryableEntry>>>(partitions.size());
@@ -289,6 +348,29 @@ public class MapQueryEngineImpl implements MapQueryEngine {
         return getSortedSubList(resultList, pagingPredicate, nearestAnchorEntry);
     }
 
+    /**
+     * Like {@link #queryTheLocalPartition(String, Predicate, int)} for predicates other than paging predicates,
+     * adding the matching entries to the result right away.
+     */
+    protected void queryTheLocalPartition(String mapName, Predicate predicate, int partitionId, QueryResult result) {
+        PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
+        MapContainer mapContainer = mapServiceContext.getMapContainer(mapName);
+        Iterator<Record> iterator = partitionContainer.getRecordStore(mapName).loadAwareIterator(getNow(), false);
+        boolean useCachedVersion = shouldUseCachedValue(mapContainer);
+        Extractors extractors = mapServiceContext.getExtractors(mapName);
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            Object value = useCachedVersion ? Records.getValueOrCachedValue(record, serializationService) : record.getValue();
+            if (value == null) {
+                continue;
+            }
+            QueryableEntry queryEntry = new CachedQueryEntry(serializationService, record.getKey(), value, extractors);
+            if (predicate.apply(queryEntry)) {
+                result.add(queryEntry);
+            }
+        }
+    }
+
     private boolean shouldUseCachedValue(MapContainer mapContainer) {
         CacheDeserializedValues cacheDeserializedValues = mapContainer.getMapConfig().getCacheDeserializedValues();
         switch (cacheDeserializedValues) {
@@ -304,13 +386,55 @@ public class MapQueryEngineImpl implements MapQueryEngine {
 
     @Override
     public QueryResult queryLocalPartition(String mapName, Predicate predicate, int partitionId, IterationType iterationType) {
+        return queryLocalPartition(mapName, predicate, partitionId, iterationType, null);
+    }
+
+    @Override
+    public QueryResult queryLocalPartition(String mapName, Predicate predicate, int partitionId, IterationType iterationType,
+                                           Projection projection) {
         Collection<QueryableEntry> queryableEntries = queryTheLocalPartition(mapName, predicate, partitionId);
-        QueryResult result = newQueryResult(1, iterationType);
+        QueryResult result = newQueryResult(1, iterationType, projection);
         result.addAll(queryableEntries);
         result.setPartitionIds(singletonList(partitionId));
         return result;
     }
 
+    @Override
+    public QueryResultPage queryLocalPartitionPage(String mapName, Predicate predicate, int partitionId, int tableIndex,
+                                                   int pageSize) {
+        if (predicate instanceof PagingPredicate) {
+            throw new IllegalArgumentException("PagingPredicate is not supported by paged partition queries");
+        }
+        QueryResultPage page = new QueryResultPage(pageSize);
+        RecordStore recordStore = mapServiceContext.getPartitionContainer(partitionId).getExistingRecordStore(mapName);
+        if (recordStore == null) {
+            page.setNextTableIndex(-1);
+            return page;
+        }
+        Storage<Data, ? extends Record> storage = recordStore.getStorage();
+        Extractors extractors = mapServiceContext.getExtractors(mapName);
+        List<Data> keys = new ArrayList<Data>(pageSize);
+        int nextTableIndex = tableIndex;
+        // keep scanning until the page is full, so a selective predicate doesn't result in many small pages
+        do {
+            keys.clear();
+            nextTableIndex = storage.fetchKeys(nextTableIndex, pageSize - page.size(), keys);
+            for (Data key : keys) {
+                Record record = recordStore.getRecordOrNull(key);
+                Object value = record == null ? null : record.getValue();
+                if (value == null) {
+                    continue;
+                }
+                QueryableEntry queryEntry = new CachedQueryEntry(serializationService, key, value, extractors);
+                if (predicate.apply(queryEntry)) {
+                    page.add(new QueryResultRow(key, queryEntry.getValueData()));
+                }
+            }
+        } while (nextTableIndex >= 0 && page.size() < pageSize);
+        page.setNextTableIndex(nextTableIndex);
+        return page;
+    }
+
     @Override
     public QueryResult invokeQueryLocalPartitions(String mapName, Predicate predicate, IterationType iterationType) {
         checkNotPagingPredicate(predicate);
@@ -408,6 +532,12 @@ public class MapQueryEngineImpl implements MapQueryEngine {
 
     @Override
     public QueryResult invokeQueryAllPartitions(String mapName, Predicate predicate, IterationType iterationType) {
+        return invokeQueryAllPartitions(mapName, predicate, iterationType, null);
+    }
+
+    @Override
+    public QueryResult invokeQueryAllPartitions(String mapName, Predicate predicate, IterationType iterationType,
+                                                Projection projection) {
         checkNotPagingPredicate(predicate);
         if (predicate == TruePredicate.INSTANCE) {
             queryResultSizeLimiter.checkMaxResultLimitOnLocalPartitions(mapName);
@@ -417,7 +547,7 @@ public class MapQueryEngineImpl implements MapQueryEngine {
         QueryResult result = newQueryResult(partitionIds.size(), iterationType);
 
         try {
-            List<Future<QueryResult>> futures = queryOnMembers(mapName, predicate, iterationType);
+            List<Future<QueryResult>> futures = queryOnMembers(mapName, predicate, iterationType, projection);
             addResultsOfPredicate(futures, result, partitionIds);
             if (partitionIds.isEmpty()) {
                 return result;
@@ -430,7 +560,7 @@ public class MapQueryEngineImpl implements MapQueryEngine {
         }
 
         try {
-            List<Future<QueryResult>> futures = queryPartitions(mapName, predicate, partitionIds, iterationType);
+            List<Future<QueryResult>> futures = queryPartitions(mapName, predicate, partitionIds, iterationType, projection);
             addResultsOfPredicate(futures, result, partitionIds);
         } catch (Throwable t) {
             throw rethrow(t);
@@ -439,6 +569,207 @@ public class MapQueryEngineImpl implements MapQueryEngine {
         return result;
     }
 
+    @Override
+    public AggregationResult aggregateLocalPartitions(String mapName, Predicate predicate, Aggregator aggregator) {
+        int initialPartitionStateVersion = partitionService.getPartitionStateVersion();
+        Collection<Integer> initialPartitions = mapServiceContext.getOwnedPartitions();
+        MapContainer mapContainer = mapServiceContext.getMapContainer(mapName);
+
+        predicate = queryOptimizer.optimize(predicate, mapContainer.getIndexes());
+
+        boolean aggregatedUsingIndexes = tryAggregateUsingIndexes(predicate, mapContainer, aggregator);
+        if (!aggregatedUsingIndexes && isNative(mapContainer)) {
+            // see queryLocalPartitions, the caller falls back to partition operations
+            return new AggregationResult(aggregator);
+        }
+        if (!aggregatedUsingIndexes) {
+            aggregateUsingFullTableScan(mapName, predicate, initialPartitions, aggregator);
+        }
+
+        AggregationResult result = new AggregationResult(aggregator);
+        if (hasPartitionVersion(initialPartitionStateVersion, predicate)) {
+            result.setPartitionIds(initialPartitions);
+        }
+
+        updateStatistics(mapContainer);
+
+        return result;
+    }
+
+    @Override
+    public AggregationResult aggregateLocalPartition(String mapName, Predicate predicate, Aggregator aggregator,
+                                                     int partitionId) {
+        aggregateTheLocalPartition(mapName, predicate, aggregator, partitionId);
+        AggregationResult result = new AggregationResult(aggregator);
+        result.setPartitionIds(singletonList(partitionId));
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> R invokeAggregationAllPartitions(String mapName, Predicate predicate, Aggregator<?, R> aggregator) {
+        checkNotPagingPredicate(predicate);
+
+        // every invocation gets its own copy, local invocations are not serialized
+        Data aggregatorData = serializationService.toData(aggregator);
+        Aggregator<?, R> combined = serializationService.toObject(aggregatorData);
+        Set<Integer> partitionIds = getAllPartitionIds();
+
+        try {
+            List<Future<AggregationResult>> futures = aggregateOnMembers(mapName, predicate, aggregatorData);
+            combineAggregationResults(futures, combined, partitionIds);
+            if (partitionIds.isEmpty()) {
+                return combined.aggregate();
+            }
+        } catch (Throwable t) {
+            logger.warning("Could not get aggregation results", t);
+        }
+
+        try {
+            List<Future<AggregationResult>> futures = aggregatePartitions(mapName, predicate, aggregatorData, partitionIds);
+            combineAggregationResults(futures, combined, partitionIds);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+
+        return combined.aggregate();
+    }
+
+    protected boolean tryAggregateUsingIndexes(Predicate predicate, MapContainer mapContainer, Aggregator aggregator) {
+        if (partitionService.hasOnGoingMigrationLocal()) {
+            return false;
+        }
+
+        Set<QueryableEntry> entries = mapContainer.getIndexes().query(predicate);
+        if (entries == null) {
+            return false;
+        }
+
+        for (QueryableEntry entry : entries) {
+            aggregator.accumulate(entry);
+        }
+        return true;
+    }
+
+    protected void aggregateUsingFullTableScan(String mapName, Predicate predicate, Collection<Integer> partitions,
+                                               Aggregator aggregator) {
+        if (partitionScanExecutor.getParallelism() > 1) {
+            aggregateUsingPartitionScanExecutor(mapName, predicate, partitions, aggregator);
+            return;
+        }
+        RetryableHazelcastException storedException = null;
+        for (Integer partitionId : partitions) {
+            try {
+                aggregateTheLocalPartition(mapName, predicate, aggregator, partitionId);
+            } catch (RetryableHazelcastException e) {
+                // see querySequential
+                if (storedException == null) {
+                    storedException = e;
+                }
+            }
+        }
+        if (storedException != null) {
+            throw storedException;
+        }
+    }
+
+    protected void aggregateUsingPartitionScanExecutor(final String mapName, final Predicate predicate,
+                                                       Collection<Integer> partitions, Aggregator aggregator) {
+        // the helpers start from copies of the aggregator taken before anything is accumulated
+        final Data emptyAggregator = serializationService.toData(aggregator);
+        partitionScanExecutor.scan(new ArrayList<Integer>(partitions), aggregator,
+                new PartitionScanExecutor.PartitionScan<Aggregator>() {
+                    @Override
+                    public Aggregator newPartialResult() {
+                        return serializationService.toObject(emptyAggregator);
+                    }
+
+                    @Override
+                    public void scan(int partitionId, Aggregator result) {
+                        aggregateTheLocalPartition(mapName, predicate, result, partitionId);
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public void combine(Aggregator result, Aggregator partialResult) {
+                        result.combine(partialResult);
+                    }
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    protected void aggregateTheLocalPartition(String mapName, Predicate predicate, Aggregator aggregator, int partitionId) {
+        PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
+        MapContainer mapContainer = mapServiceContext.getMapContainer(mapName);
+        Iterator<Record> iterator = partitionContainer.getRecordStore(mapName).loadAwareIterator(getNow(), false);
+        boolean useCachedVersion = shouldUseCachedValue(mapContainer);
+        Extractors extractors = mapServiceContext.getExtractors(mapName);
+        boolean matchAll = predicate == TruePredicate.INSTANCE;
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            Object value = useCachedVersion ? Records.getValueOrCachedValue(record, serializationService) : record.getValue();
+            if (value == null) {
+                continue;
+            }
+            QueryableEntry queryEntry = new CachedQueryEntry(serializationService, record.getKey(), value, extractors);
+            if (matchAll || predicate.apply(queryEntry)) {
+                aggregator.accumulate(queryEntry);
+            }
+        }
+    }
+
+    protected List<Future<AggregationResult>> aggregateOnMembers(String mapName, Predicate predicate, Data aggregatorData) {
+        Collection<Member> members = clusterService.getMembers();
+        List<Future<AggregationResult>> futures = new ArrayList<Future<AggregationResult>>(members.size());
+        for (Member member : members) {
+            Aggregator aggregator = serializationService.toObject(aggregatorData);
+            Operation operation = new AggregationOperation(mapName, predicate, aggregator);
+            Future<AggregationResult> future = operationService.invokeOnTarget(MapService.SERVICE_NAME, operation,
+                    member.getAddress());
+            futures.add(future);
+        }
+        return futures;
+    }
+
+    protected List<Future<AggregationResult>> aggregatePartitions(String mapName, Predicate predicate, Data aggregatorData,
+                                                                  Collection<Integer> partitionIds) {
+        if (partitionIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Future<AggregationResult>> futures = new ArrayList<Future<AggregationResult>>(partitionIds.size());
+        for (Integer partitionId : partitionIds) {
+            Aggregator aggregator = serializationService.toObject(aggregatorData);
+            Operation op = new AggregationPartitionOperation(mapName, predicate, aggregator);
+            op.setPartitionId(partitionId);
+            Future<AggregationResult> future = operationService.invokeOnPartition(MapService.SERVICE_NAME, op, partitionId);
+            futures.add(future);
+        }
+        return futures;
+    }
+
+    /**
+     * Combines the partial aggregation results into the given aggregator and removes the aggregated partition ids.
+     * Results overlapping with already combined partitions are discarded, they are caused by a migration and
+     * combining them would count entries twice. The affected partitions are retried one by one later.
+     */
+    protected void combineAggregationResults(List<Future<AggregationResult>> futures, Aggregator combined,
+                                             Collection<Integer> partitionIds)
+            throws ExecutionException, InterruptedException {
+
+        for (Future<AggregationResult> future : futures) {
+            AggregationResult aggregationResult = future.get();
+            if (aggregationResult == null) {
+                continue;
+            }
+            Collection<Integer> aggregatedPartitionIds = aggregationResult.getPartitionIds();
+            if (aggregatedPartitionIds != null && partitionIds.containsAll(aggregatedPartitionIds)) {
+                partitionIds.removeAll(aggregatedPartitionIds);
+                combined.combine(aggregationResult.getAggregator());
+            }
+        }
+    }
+
     /**
      * Creates a {@link QueryResult} with configured result limit (according to the number of partitions) if feature is enabled.
      *
@@ -446,7 +777,19 @@ public class MapQueryEngineImpl implements MapQueryEngine {
      * @return {@link QueryResult}
      */
     protected QueryResult newQueryResult(int numberOfPartitions, IterationType iterationType) {
-        return new QueryResult(iterationType, queryResultSizeLimiter.getNodeResultLimit(numberOfPartitions));
+        return newQueryResult(numberOfPartitions, iterationType, null);
+    }
+
+    /**
+     * Creates a {@link QueryResult} which applies the given projection to the values of the matching entries.
+     *
+     * @param numberOfPartitions number of partitions to calculate result limit
+     * @param projection         the projection to apply or {@code null} if the values should be returned as they are
+     * @return {@link QueryResult}
+     */
+    protected QueryResult newQueryResult(int numberOfPartitions, IterationType iterationType, Projection projection) {
+        long resultLimit = queryResultSizeLimiter.getNodeResultLimit(numberOfPartitions);
+        return new QueryResult(iterationType, resultLimit, projection, serializationService);
     }
 
     protected void checkNotPagingPredicate(Predicate predicate) {
@@ -461,10 +804,15 @@ public class MapQueryEngineImpl implements MapQueryEngine {
     }
 
     protected List<Future<QueryResult>> queryOnMembers(String mapName, Predicate predicate, IterationType iterationType) {
+        return queryOnMembers(mapName, predicate, iterationType, null);
+    }
+
+    protected List<Future<QueryResult>> queryOnMembers(String mapName, Predicate predicate, IterationType iterationType,
+                                                       Projection projection) {
         Collection<Member> members = clusterService.getMembers();
         List<Future<QueryResult>> futures = new ArrayList<Future<QueryResult>>(members.size());
         for (Member member : members) {
-            Operation operation = new QueryOperation(mapName, predicate, iterationType);
+            Operation operation = new QueryOperation(mapName, predicate, iterationType, projection);
             Future<QueryResult> future = operationService.invokeOnTarget(MapService.SERVICE_NAME, operation, member.getAddress());
             futures.add(future);
         }
@@ -473,13 +821,18 @@ public class MapQueryEngineImpl implements MapQueryEngine {
 
     protected List<Future<QueryResult>> queryPartitions(String mapName, Predicate predicate,
                                                         Collection<Integer> partitionIds, IterationType iterationType) {
+        return queryPartitions(mapName, predicate, partitionIds, iterationType, null);
+    }
+
+    protected List<Future<QueryResult>> queryPartitions(String mapName, Predicate predicate, Collection<Integer> partitionIds,
+                                                        IterationType iterationType, Projection projection) {
         if (partitionIds == null || partitionIds.isEmpty()) {
             return Collections.emptyList();
         }
 
         List<Future<QueryResult>> futures = new ArrayList<Future<QueryResult>>(partitionIds.size());
         for (Integer partitionId : partitionIds) {
-            Operation op = new QueryPartitionOperation(mapName, predicate, iterationType);
+            Operation op = new QueryPartitionOperation(mapName, predicate, iterationType, projection);
             op.setPartitionId(partitionId);
             try {
                 Future<QueryResult> future = operationService
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.spi.exception.RetryableHazelcastException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.util.ExceptionUtil.rethrow;
+
+/**
+ * Splits a full scan of the local partitions across several threads.
+ * <p/>
+ * The partitions are cut into chunks which the calling thread and up to {@code parallelism - 1} helper
+ * tasks claim one after the other, so faster threads take over more chunks. Every thread collects into its
+ * own partial result, the partial results are combined once all chunks are scanned.
+ * <p/>
+ * Helpers are only started while one of the member wide helper permits is available. When the query
+ * executor is busy with other scans, a scan does not queue more work but is run by the calling thread
+ * alone; so a burst of scans neither grows the executor queue nor takes more cores than configured.
+ */
+class PartitionScanExecutor {
+
+    /**
+     * Number of chunks per thread taking part in a scan: with more, smaller chunks the threads finish
+     * closer to each other.
+     */
+    static final int CHUNKS_PER_THREAD = 4;
+
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final Semaphore helperPermits;
+
+    PartitionScanExecutor(ExecutorService executor, int parallelism) {
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.helperPermits = new Semaphore(Math.max(parallelism - 1, 0));
+    }
+
+    int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Scans the given partitions into the result.
+     * <p/>
+     * {@link RetryableHazelcastException}s are rethrown once all partitions are scanned, like the sequential
+     * scan of {@link MapQueryEngineImpl} does.
+     *
+     * @param partitions the partitions to scan
+     * @param result     the result the calling thread scans into and the partial results are combined into
+     * @param scan       the scan of a single partition
+     * @param <R>        type of the result
+     */
+    <R> void scan(List<Integer> partitions, R result, PartitionScan<R> scan) {
+        int chunkSize = Math.max(1, partitions.size() / (parallelism * CHUNKS_PER_THREAD));
+        Chunks<R> chunks = new Chunks<R>(partitions, chunkSize, scan);
+
+        List<Future<R>> helpers = startHelpers(chunks);
+        chunks.scanInto(result);
+        for (Future<R> helper : helpers) {
+            scan.combine(result, await(helper));
+        }
+        RetryableHazelcastException exception = chunks.retryableException.get();
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private <R> List<Future<R>> startHelpers(final Chunks<R> chunks) {
+        int helperCount = Math.min(parallelism - 1, chunks.chunkCount - 1);
+        List<Future<R>> helpers = new ArrayList<Future<R>>(Math.max(helperCount, 0));
+        for (int i = 0; i < helperCount; i++) {
+            if (!helperPermits.tryAcquire()) {
+                break;
+            }
+            try {
+                helpers.add(executor.submit(new Callable<R>() {
+                    @Override
+                    public R call() {
+                        try {
+                            R partialResult = chunks.scan.newPartialResult();
+                            chunks.scanInto(partialResult);
+                            return partialResult;
+                        } finally {
+                            helperPermits.release();
+                        }
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                helperPermits.release();
+                break;
+            }
+        }
+        return helpers;
+    }
+
+    private static <R> R await(Future<R> helper) {
+        try {
+            return helper.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw rethrow(e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Scan of a single partition.
+     *
+     * @param <R> type of the result
+     */
+    interface PartitionScan<R> {
+
+        /**
+         * Creates an empty result for a helper thread.
+         */
+        R newPartialResult();
+
+        /**
+         * Adds the matching entries of the partition to the result.
+         */
+        void scan(int partitionId, R result);
+
+        /**
+         * Adds the partial result of a helper thread to the result.
+         */
+        void combine(R result, R partialResult);
+    }
+
+    private static final class Chunks<R> {
+
+        final List<Integer> partitions;
+        final int chunkSize;
+        final int chunkCount;
+        final PartitionScan<R> scan;
+        final AtomicInteger nextChunk = new AtomicInteger();
+        final AtomicReference<RetryableHazelcastException> retryableException
+                = new AtomicReference<RetryableHazelcastException>();
+
+        Chunks(List<Integer> partitions, int chunkSize, PartitionScan<R> scan) {
+            this.partitions = partitions;
+            this.chunkSize = chunkSize;
+            this.chunkCount = (partitions.size() + chunkSize - 1) / chunkSize;
+            this.scan = scan;
+        }
+
+        void scanInto(R result) {
+            for (int chunk = nextChunk.getAndIncrement(); chunk < chunkCount; chunk = nextChunk.getAndIncrement()) {
+                int end = Math.min(partitions.size(), (chunk + 1) * chunkSize);
+                for (int i = chunk * chunkSize; i < end; i++) {
+                    try {
+                        scan.scan(partitions.get(i), result);
+                    } catch (RetryableHazelcastException e) {
+                        retryableException.compareAndSet(null, e);
+                    }
+                }
+            }
+        }
+    }
+}
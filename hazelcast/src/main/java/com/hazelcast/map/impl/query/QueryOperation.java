@@ -20,6 +20,7 @@ import com.hazelcast.core.MemberLeftException;
 import com.hazelcast.map.impl.operation.MapOperation;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.spi.ExceptionAction;
 import com.hazelcast.spi.ReadonlyOperation;
@@ -35,6 +36,7 @@ public class QueryOperation extends MapOperation implements ReadonlyOperation {
     private Predicate predicate;
     private QueryResult result;
     private IterationType iterationType;
+    private Projection projection;
 
     public QueryOperation() {
     }
@@ -45,10 +47,15 @@ public class QueryOperation extends MapOperation implements ReadonlyOperation {
         this.iterationType = iterationType;
     }
 
+    public QueryOperation(String mapName, Predicate predicate, IterationType iterationType, Projection projection) {
+        this(mapName, predicate, iterationType);
+        this.projection = projection;
+    }
+
     @Override
     public void run() throws Exception {
         MapQueryEngine queryEngine = mapServiceContext.getMapQueryEngine(name);
-        result = queryEngine.queryLocalPartitions(name, predicate, iterationType);
+        result = queryEngine.queryLocalPartitions(name, predicate, iterationType, projection);
     }
 
     @Override
@@ -70,6 +77,7 @@ public class QueryOperation extends MapOperation implements ReadonlyOperation {
         out.writeUTF(name);
         out.writeObject(predicate);
         out.writeByte(iterationType.getId());
+        out.writeObject(projection);
     }
 
     @Override
@@ -78,5 +86,6 @@ public class QueryOperation extends MapOperation implements ReadonlyOperation {
         name = in.readUTF();
         predicate = in.readObject();
         iterationType = IterationType.getById(in.readByte());
+        projection = in.readObject();
     }
 }
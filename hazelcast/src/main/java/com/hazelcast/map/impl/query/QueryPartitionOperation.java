@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.query;
 import com.hazelcast.map.impl.operation.MapOperation;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.spi.PartitionAwareOperation;
 import com.hazelcast.spi.ReadonlyOperation;
@@ -31,6 +32,7 @@ public class QueryPartitionOperation extends MapOperation implements PartitionAw
     private Predicate predicate;
     private QueryResult result;
     private IterationType iterationType;
+    private Projection projection;
 
     public QueryPartitionOperation() {
     }
@@ -41,10 +43,15 @@ public class QueryPartitionOperation extends MapOperation implements PartitionAw
         this.iterationType = iterationType;
     }
 
+    public QueryPartitionOperation(String mapName, Predicate predicate, IterationType iterationType, Projection projection) {
+        this(mapName, predicate, iterationType);
+        this.projection = projection;
+    }
+
     @Override
     public void run() {
         MapQueryEngine queryEngine = mapServiceContext.getMapQueryEngine(name);
-        result = queryEngine.queryLocalPartition(name, predicate, getPartitionId(), iterationType);
+        result = queryEngine.queryLocalPartition(name, predicate, getPartitionId(), iterationType, projection);
     }
 
     @Override
@@ -57,6 +64,7 @@ public class QueryPartitionOperation extends MapOperation implements PartitionAw
         super.writeInternal(out);
         out.writeObject(predicate);
         out.writeByte(iterationType.getId());
+        out.writeObject(projection);
     }
 
     @Override
@@ -64,5 +72,6 @@ public class QueryPartitionOperation extends MapOperation implements PartitionAw
         super.readInternal(in);
         predicate = in.readObject();
         iterationType = IterationType.getById(in.readByte());
+        projection = in.readObject();
     }
 }
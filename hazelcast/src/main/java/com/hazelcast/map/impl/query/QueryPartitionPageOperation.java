@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.map.impl.operation.MapOperation;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.PartitionAwareOperation;
+import com.hazelcast.spi.ReadonlyOperation;
+
+import java.io.IOException;
+
+/**
+ * Queries a single page of the partition, starting from the given table index.
+ *
+ * @see MapQueryEngine#queryLocalPartitionPage(String, Predicate, int, int, int)
+ */
+public class QueryPartitionPageOperation extends MapOperation implements PartitionAwareOperation, ReadonlyOperation {
+
+    private Predicate predicate;
+    private int tableIndex;
+    private int pageSize;
+    private QueryResultPage result;
+
+    public QueryPartitionPageOperation() {
+    }
+
+    public QueryPartitionPageOperation(String mapName, Predicate predicate, int tableIndex, int pageSize) {
+        super(mapName);
+        this.predicate = predicate;
+        this.tableIndex = tableIndex;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void run() {
+        MapQueryEngine queryEngine = mapServiceContext.getMapQueryEngine(name);
+        result = queryEngine.queryLocalPartitionPage(name, predicate, getPartitionId(), tableIndex, pageSize);
+    }
+
+    @Override
+    public Object getResponse() {
+        return result;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeObject(predicate);
+        out.writeInt(tableIndex);
+        out.writeInt(pageSize);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        predicate = in.readObject();
+        tableIndex = in.readInt();
+        pageSize = in.readInt();
+    }
+}
@@ -22,14 +22,16 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.IterationType;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.List;
 
 /**
  * Contains the result of a query evaluation.
@@ -38,8 +40,7 @@ import java.util.LinkedList;
  */
 public class QueryResult implements IdentifiedDataSerializable, Iterable<QueryResultRow> {
 
-    // todo: probably arraylist cheaper.
-    private final Collection<QueryResultRow> rows = new LinkedList<QueryResultRow>();
+    private final List<QueryResultRow> rows = new ArrayList<QueryResultRow>();
 
     private Collection<Integer> partitionIds;
 
@@ -47,6 +48,9 @@ public class QueryResult implements IdentifiedDataSerializable, Iterable<QueryRe
     private transient long resultSize;
     private IterationType iterationType;
 
+    private transient Projection projection;
+    private transient SerializationService serializationService;
+
     public QueryResult() {
         resultLimit = Long.MAX_VALUE;
     }
@@ -56,6 +60,17 @@ public class QueryResult implements IdentifiedDataSerializable, Iterable<QueryRe
         this.iterationType = iterationType;
     }
 
+    /**
+     * Creates a QueryResult which stores the projected values instead of the values of the entries.
+     * The projection is only applied if the iterationType is {@link IterationType#VALUE}.
+     */
+    public QueryResult(IterationType iterationType, long resultLimit, Projection projection,
+                       SerializationService serializationService) {
+        this(iterationType, resultLimit);
+        this.projection = projection;
+        this.serializationService = serializationService;
+    }
+
     // for testing
     IterationType getIterationType() {
         return iterationType;
@@ -89,29 +104,49 @@ public class QueryResult implements IdentifiedDataSerializable, Iterable<QueryRe
 
     public void addAll(Collection<QueryableEntry> entries) {
         for (QueryableEntry entry : entries) {
-            if (++resultSize > resultLimit) {
-                throw new QueryResultSizeExceededException();
-            }
+            add(entry);
+        }
+    }
 
-            Data key = null;
-            Data value = null;
-            switch (iterationType) {
-                case KEY:
-                    key = entry.getKeyData();
-                    break;
-                case VALUE:
-                    value = entry.getValueData();
-                    break;
-                case ENTRY:
-                    key = entry.getKeyData();
-                    value = entry.getValueData();
-                    break;
-                default:
-                    throw new IllegalStateException("Unknown iterationtype:" + iterationType);
-            }
+    public void add(QueryableEntry entry) {
+        if (++resultSize > resultLimit) {
+            throw new QueryResultSizeExceededException();
+        }
 
-            rows.add(new QueryResultRow(key, value));
+        Data key = null;
+        Data value = null;
+        switch (iterationType) {
+            case KEY:
+                key = entry.getKeyData();
+                break;
+            case VALUE:
+                value = projection == null ? entry.getValueData() : project(entry);
+                break;
+            case ENTRY:
+                key = entry.getKeyData();
+                value = entry.getValueData();
+                break;
+            default:
+                throw new IllegalStateException("Unknown iterationtype:" + iterationType);
         }
+
+        rows.add(new QueryResultRow(key, value));
+    }
+
+    /**
+     * Adds the rows of a result built from other partitions of the same query.
+     */
+    public void combine(QueryResult other) {
+        resultSize += other.resultSize;
+        if (resultSize > resultLimit) {
+            throw new QueryResultSizeExceededException();
+        }
+        rows.addAll(other.rows);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Data project(QueryableEntry entry) {
+        return serializationService.toData(projection.transform(entry));
     }
 
     public Collection<Integer> getPartitionIds() {
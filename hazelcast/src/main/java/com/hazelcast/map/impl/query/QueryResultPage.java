@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A page of the entries of a single partition matching a predicate, see
+ * {@link MapQueryEngine#queryLocalPartitionPage(String, com.hazelcast.query.Predicate, int, int, int)}.
+ * <p/>
+ * Besides the rows the page contains the table index to continue the query from; it is negative if the
+ * partition has been completely scanned.
+ */
+public class QueryResultPage implements IdentifiedDataSerializable {
+
+    private int nextTableIndex;
+    private List<QueryResultRow> rows;
+
+    public QueryResultPage() {
+    }
+
+    public QueryResultPage(int expectedSize) {
+        this.rows = new ArrayList<QueryResultRow>(expectedSize);
+    }
+
+    public void add(QueryResultRow row) {
+        rows.add(row);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public List<QueryResultRow> getRows() {
+        return rows;
+    }
+
+    public int getNextTableIndex() {
+        return nextTableIndex;
+    }
+
+    public void setNextTableIndex(int nextTableIndex) {
+        this.nextTableIndex = nextTableIndex;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.QUERY_RESULT_PAGE;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(nextTableIndex);
+        out.writeInt(rows.size());
+        for (QueryResultRow row : rows) {
+            row.writeData(out);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        nextTableIndex = in.readInt();
+        int size = in.readInt();
+        rows = new ArrayList<QueryResultRow>(size);
+        for (int i = 0; i < size; i++) {
+            QueryResultRow row = new QueryResultRow();
+            row.readData(in);
+            rows.add(row);
+        }
+    }
+}
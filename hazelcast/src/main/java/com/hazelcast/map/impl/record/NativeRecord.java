@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.util.Clock;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.map.impl.record.RecordStatistics.EMPTY_STATS;
+
+/**
+ * {@link Record} of an entry which is stored in native memory.
+ * <p>
+ * A record is either <em>bound</em> to an entry of a {@link NativeRecordSpace}, in which case all reads
+ * and writes go to native memory, or it is <em>unbound</em> and keeps its state on-heap. Records created by
+ * {@link NativeRecordFactory} are unbound until they are put into a storage; records removed from a storage
+ * are unbound with a snapshot of their last state, so they stay readable after the entry is freed.
+ * Only the record passed to the storage gets a snapshot: other records bound to the same entry find out the
+ * entry is gone on their next access, by comparing the generation of the slot of the entry, and from then on
+ * return a {@code null} value and zeroed metadata.
+ * <p>
+ * The layout of an entry in native memory is:
+ * <pre>
+ * | next | hash | flags | key size | value size | value address | value capacity | slot | version | ttl |
+ * | creation time | last access time | last update time | hits | last stored time | expiration time | key bytes |
+ * </pre>
+ * Key and value bytes are the complete payloads of the serialized {@link Data}. The value bytes are kept in a
+ * separate block of {@code value capacity} bytes, so the entry doesn't move when its value changes. The first
+ * field links the entries of the same bucket and is maintained by the owner of the entries.
+ * <p>
+ * Like any other {@link Record}, instances of this class are confined to the partition thread.
+ */
+public class NativeRecord implements Record<Data> {
+
+    public static final int NEXT_OFFSET = 0;
+    public static final int HASH_OFFSET = 8;
+    public static final int FLAGS_OFFSET = 12;
+    public static final int KEY_SIZE_OFFSET = 16;
+    public static final int VALUE_SIZE_OFFSET = 20;
+    public static final int VALUE_ADDRESS_OFFSET = 24;
+    public static final int VALUE_CAPACITY_OFFSET = 32;
+    public static final int SLOT_OFFSET = 36;
+    public static final int VERSION_OFFSET = 40;
+    public static final int TTL_OFFSET = 48;
+    public static final int CREATION_TIME_OFFSET = 56;
+    public static final int LAST_ACCESS_TIME_OFFSET = 64;
+    public static final int LAST_UPDATE_TIME_OFFSET = 72;
+    public static final int HITS_OFFSET = 80;
+    public static final int LAST_STORED_TIME_OFFSET = 88;
+    public static final int EXPIRATION_TIME_OFFSET = 96;
+    public static final int HEADER_SIZE = 104;
+
+    public static final int STATISTICS_ENABLED_FLAG = 1;
+
+    private static final int LONG_SIZE_SHIFT = 3;
+    private static final int LONG_FIELD_COUNT = (HEADER_SIZE - VERSION_OFFSET) >> LONG_SIZE_SHIFT;
+
+    private final boolean statisticsEnabled;
+
+    private Data key;
+
+    // on-heap state, used while the record is unbound
+    private Data value;
+    private final long[] fields = new long[LONG_FIELD_COUNT];
+
+    // native state, used while the record is bound
+    private NativeRecordSpace space;
+    private long address = NULL_ADDRESS;
+    private int slot;
+    private long generation;
+
+    /**
+     * Creates an unbound record.
+     */
+    public NativeRecord(Data value, boolean statisticsEnabled) {
+        this.value = value;
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    /**
+     * Creates a record bound to the entry at the given address.
+     */
+    public NativeRecord(NativeRecordSpace space, Data key, long address) {
+        this.key = key;
+        this.statisticsEnabled = (space.getAccessor().getInt(address + FLAGS_OFFSET) & STATISTICS_ENABLED_FLAG) != 0;
+        bind(space, address);
+    }
+
+    /**
+     * Binds this record to the entry at the given address. The on-heap state is released.
+     *
+     * @param space   the space the entry lives in
+     * @param address the address of the entry
+     */
+    public void bind(NativeRecordSpace space, long address) {
+        this.space = space;
+        this.address = address;
+        this.slot = space.getAccessor().getInt(address + SLOT_OFFSET);
+        this.generation = space.getGeneration(slot);
+        this.value = null;
+    }
+
+    /**
+     * Takes a snapshot of the entry this record is bound to and unbinds the record from it.
+     * Does nothing if the record is not bound.
+     */
+    public void unbind() {
+        long address = address();
+        if (address == NULL_ADDRESS) {
+            return;
+        }
+        MemoryAccessor mem = space.getAccessor();
+        value = readValue(mem, address);
+        for (int i = 0; i < LONG_FIELD_COUNT; i++) {
+            fields[i] = mem.getLong(address + VERSION_OFFSET + ((long) i << LONG_SIZE_SHIFT));
+        }
+        space = null;
+        this.address = NULL_ADDRESS;
+    }
+
+    /**
+     * @return {@code true} if this record is bound to an entry which is still alive
+     */
+    public boolean isBound() {
+        return address() != NULL_ADDRESS;
+    }
+
+    /**
+     * @return the address of the entry this record is bound to or {@link
+     * com.hazelcast.internal.memory.MemoryAllocator#NULL_ADDRESS} if the record is not bound
+     */
+    public long getAddress() {
+        return address();
+    }
+
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    @Override
+    public Data getKey() {
+        return key;
+    }
+
+    public void setKey(Data key) {
+        this.key = key;
+    }
+
+    @Override
+    public Data getValue() {
+        long address = address();
+        if (address == NULL_ADDRESS) {
+            return value;
+        }
+        return readValue(space.getAccessor(), address);
+    }
+
+    @Override
+    public void setValue(Data value) {
+        long address = address();
+        if (address == NULL_ADDRESS) {
+            this.value = value;
+        } else {
+            space.updateValue(this, value);
+        }
+    }
+
+    @Override
+    public RecordStatistics getStatistics() {
+        return statisticsEnabled ? new NativeRecordStatistics() : EMPTY_STATS;
+    }
+
+    @Override
+    public void setStatistics(RecordStatistics stats) {
+        if (!statisticsEnabled || stats == null) {
+            return;
+        }
+        setLong(LAST_STORED_TIME_OFFSET, stats.getLastStoredTime());
+        setLong(EXPIRATION_TIME_OFFSET, stats.getExpirationTime());
+    }
+
+    @Override
+    public void onAccess(long now) {
+        setLong(HITS_OFFSET, getLong(HITS_OFFSET) + 1);
+        setLong(LAST_ACCESS_TIME_OFFSET, now);
+    }
+
+    @Override
+    public void onUpdate(long now) {
+        onAccess(now);
+
+        setLong(VERSION_OFFSET, getLong(VERSION_OFFSET) + 1);
+        setLong(LAST_UPDATE_TIME_OFFSET, now);
+    }
+
+    @Override
+    public void onStore() {
+        if (statisticsEnabled) {
+            setLong(LAST_STORED_TIME_OFFSET, Clock.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Returns the number of native memory bytes occupied by the entry of this record.
+     */
+    @Override
+    public long getCost() {
+        long address = address();
+        if (address == NULL_ADDRESS) {
+            return getEntrySize(key == null ? 0 : key.totalSize(), value == null ? 0 : value.totalSize());
+        }
+        MemoryAccessor mem = space.getAccessor();
+        return getEntrySize(mem.getInt(address + KEY_SIZE_OFFSET), mem.getInt(address + VALUE_CAPACITY_OFFSET));
+    }
+
+    @Override
+    public long getVersion() {
+        return getLong(VERSION_OFFSET);
+    }
+
+    @Override
+    public void setVersion(long version) {
+        setLong(VERSION_OFFSET, version);
+    }
+
+    @Override
+    public Object getCachedValueUnsafe() {
+        return NOT_CACHED;
+    }
+
+    @Override
+    public boolean casCachedValue(Object expectedValue, Object newValue) {
+        return true;
+    }
+
+    @Override
+    public long getTtl() {
+        return getLong(TTL_OFFSET);
+    }
+
+    @Override
+    public void setTtl(long ttl) {
+        setLong(TTL_OFFSET, ttl);
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return getLong(LAST_ACCESS_TIME_OFFSET);
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        setLong(LAST_ACCESS_TIME_OFFSET, lastAccessTime);
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return getLong(LAST_UPDATE_TIME_OFFSET);
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdatedTime) {
+        setLong(LAST_UPDATE_TIME_OFFSET, lastUpdatedTime);
+    }
+
+    @Override
+    public long getCreationTime() {
+        return getLong(CREATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        setLong(CREATION_TIME_OFFSET, creationTime);
+    }
+
+    @Override
+    public long getHits() {
+        return getLong(HITS_OFFSET);
+    }
+
+    @Override
+    public void setHits(long hits) {
+        setLong(HITS_OFFSET, hits);
+    }
+
+    @Override
+    public long getSequence() {
+        return -1L;
+    }
+
+    @Override
+    public void setSequence(long sequence) {
+    }
+
+    /**
+     * @param keySize   size of the key payload in bytes
+     * @param valueSize size of the value block in bytes
+     * @return the native memory occupied by an entry holding a key and a value block of the given sizes
+     */
+    public static long getEntrySize(int keySize, int valueSize) {
+        return HEADER_SIZE + keySize + valueSize;
+    }
+
+    private long address() {
+        if (space == null) {
+            return NULL_ADDRESS;
+        }
+        if (space.getGeneration(slot) != generation) {
+            // the entry was freed through another record, its memory cannot be read anymore
+            detach();
+        }
+        return address;
+    }
+
+    /**
+     * Unbinds this record without a snapshot, it reads like a removed record from now on.
+     */
+    private void detach() {
+        space = null;
+        address = NULL_ADDRESS;
+        value = null;
+        Arrays.fill(fields, 0L);
+    }
+
+    private long getLong(int offset) {
+        long address = address();
+        if (address == NULL_ADDRESS) {
+            return fields[(offset - VERSION_OFFSET) >> LONG_SIZE_SHIFT];
+        }
+        return space.getAccessor().getLong(address + offset);
+    }
+
+    private void setLong(int offset, long value) {
+        long address = address();
+        if (address == NULL_ADDRESS) {
+            fields[(offset - VERSION_OFFSET) >> LONG_SIZE_SHIFT] = value;
+        } else {
+            space.getAccessor().putLong(address + offset, value);
+        }
+    }
+
+    private static Data readValue(MemoryAccessor mem, long address) {
+        int valueSize = mem.getInt(address + VALUE_SIZE_OFFSET);
+        byte[] bytes = new byte[valueSize];
+        mem.copyToByteArray(mem.getLong(address + VALUE_ADDRESS_OFFSET), bytes, 0, valueSize);
+        return new HeapData(bytes);
+    }
+
+    /**
+     * Snapshot of the statistics of the record, writes are also applied to the record.
+     */
+    private final class NativeRecordStatistics extends RecordStatisticsImpl {
+
+        NativeRecordStatistics() {
+            lastStoredTime = getLong(LAST_STORED_TIME_OFFSET);
+            expirationTime = getLong(EXPIRATION_TIME_OFFSET);
+        }
+
+        @Override
+        public void setExpirationTime(long expirationTime) {
+            super.setExpirationTime(expirationTime);
+            setLong(EXPIRATION_TIME_OFFSET, expirationTime);
+        }
+
+        @Override
+        public void store() {
+            super.store();
+            setLong(LAST_STORED_TIME_OFFSET, lastStoredTime);
+        }
+
+        @Override
+        public void setLastStoredTime(long lastStoredTime) {
+            super.setLastStoredTime(lastStoredTime);
+            setLong(LAST_STORED_TIME_OFFSET, lastStoredTime);
+        }
+    }
+}
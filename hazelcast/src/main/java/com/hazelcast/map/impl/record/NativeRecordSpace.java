@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.nio.serialization.Data;
+
+/**
+ * The native memory region where the entries backing {@link NativeRecord}s live.
+ * <p>
+ * An entry stays at the same address while it is alive, its value is updated in place or moved to a new value
+ * block. Each entry occupies a slot whose generation changes when the entry is freed, so a {@link NativeRecord}
+ * keeps the address and the generation of its entry and checks the generation before each access.
+ */
+public interface NativeRecordSpace {
+
+    /**
+     * @return the accessor to be used to read and write the entries of this space
+     */
+    MemoryAccessor getAccessor();
+
+    /**
+     * @param slot the slot of an entry, as stored in the entry
+     * @return the current generation of the slot
+     */
+    long getGeneration(int slot);
+
+    /**
+     * Replaces the value of the entry the given record is bound to.
+     *
+     * @param record the record bound to this space
+     * @param value  the new value
+     */
+    void updateValue(NativeRecord record, Data value);
+}
@@ -106,6 +106,9 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
 
     @Override
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (NATIVE == memoryFormat) {
+            return new NativeStorage(recordFactory, mapContainer.getNativeMemoryManager(), serializationService);
+        }
         return new StorageImpl(recordFactory, memoryFormat, serializationService);
     }
 
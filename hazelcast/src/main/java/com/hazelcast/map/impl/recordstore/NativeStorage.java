@@ -0,0 +1,569 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.impl.SizeEstimator;
+import com.hazelcast.map.impl.record.NativeRecord;
+import com.hazelcast.map.impl.record.NativeRecordSpace;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordFactory;
+import com.hazelcast.map.impl.record.RecordStatistics;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.util.RandomPicker;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.map.impl.record.NativeRecord.CREATION_TIME_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.EXPIRATION_TIME_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.FLAGS_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.HASH_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.HEADER_SIZE;
+import static com.hazelcast.map.impl.record.NativeRecord.HITS_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.KEY_SIZE_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.LAST_ACCESS_TIME_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.LAST_STORED_TIME_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.LAST_UPDATE_TIME_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.NEXT_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.SLOT_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.STATISTICS_ENABLED_FLAG;
+import static com.hazelcast.map.impl.record.NativeRecord.TTL_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.VALUE_ADDRESS_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.VALUE_CAPACITY_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.VALUE_SIZE_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.VERSION_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.getEntrySize;
+import static com.hazelcast.map.impl.record.RecordStatistics.EMPTY_STATS;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.util.Preconditions.checkNotNull;
+
+/**
+ * {@link Storage} which keeps keys, values and record metadata of a partition in native memory.
+ * <p>
+ * Entries are kept in a chained hash table: a power-of-two sized native array of bucket head addresses,
+ * each entry holding the address of the next entry of its bucket. See {@link NativeRecord} for the layout
+ * of an entry. Entries don't move while they are alive: a put of an existing key and a value update are
+ * written to the existing entry, only the value block is reallocated when the new value doesn't fit into it.
+ * <p>
+ * Every entry takes a slot, whose generation is kept in an on-heap array and is incremented when the entry is
+ * freed. The entry count and the size estimation are kept on-heap as well, so they can be read by statistics
+ * threads; everything else must only be accessed from the partition thread.
+ * <p>
+ * The records returned by this storage are flyweights bound to the native entries. Iteration is weakly
+ * consistent: records are collected bucket by bucket, so removing the current record while iterating is safe
+ * and records removed after their bucket was collected are skipped.
+ */
+public class NativeStorage implements Storage<Data, Record>, NativeRecordSpace {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final RecordFactory recordFactory;
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final SerializationService serializationService;
+
+    private long table = NULL_ADDRESS;
+    private int capacity;
+    private volatile int size;
+
+    private long[] generations = new long[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeSlotCount;
+    private int slotCount;
+
+    // not final for testing purposes.
+    private SizeEstimator sizeEstimator = new NativeSizeEstimator();
+
+    public NativeStorage(RecordFactory recordFactory, MemoryManager memoryManager,
+                         SerializationService serializationService) {
+        this.recordFactory = recordFactory;
+        this.serializationService = serializationService;
+        checkNotNull(memoryManager, "Native memory is not enabled, NATIVE storage format cannot be used!");
+        this.malloc = memoryManager.getAllocator();
+        this.mem = memoryManager.getAccessor();
+    }
+
+    @Override
+    public MemoryAccessor getAccessor() {
+        return mem;
+    }
+
+    @Override
+    public long getGeneration(int slot) {
+        return generations[slot];
+    }
+
+    @Override
+    public void put(Data key, Record record) {
+        NativeRecord nativeRecord = null;
+        if (record instanceof NativeRecord) {
+            nativeRecord = (NativeRecord) record;
+            // a record moved from another entry carries its last state to the new one
+            nativeRecord.unbind();
+            nativeRecord.setKey(key);
+        }
+
+        int hash = key.hashCode();
+        long link = findLink(key, hash);
+        long address;
+        if (link == NULL_ADDRESS) {
+            ensureCapacity(size + 1);
+            address = newEntry(hash, key);
+            long bucket = bucketAddress(hash);
+            mem.putLong(address + NEXT_OFFSET, mem.getLong(bucket));
+            mem.putLong(bucket, address);
+            size++;
+        } else {
+            // the existing entry is overwritten, so the records bound to it stay valid
+            address = mem.getLong(link);
+            sizeEstimator.add(-entrySize(address));
+        }
+        writeMetadata(address, record);
+        writeValue(address, ((Data) record.getValue()).toByteArray());
+        sizeEstimator.add(entrySize(address));
+
+        if (nativeRecord != null) {
+            nativeRecord.bind(this, address);
+        }
+    }
+
+    @Override
+    public void updateRecordValue(Data key, Record record, Object value) {
+        recordFactory.setValue(record, value);
+    }
+
+    @Override
+    public void updateValue(NativeRecord record, Data value) {
+        long address = record.getAddress();
+        sizeEstimator.add(-entrySize(address));
+        writeValue(address, value.toByteArray());
+        sizeEstimator.add(entrySize(address));
+    }
+
+    @Override
+    public Record get(Data key) {
+        long address = addressOf(key);
+        return address == NULL_ADDRESS ? null : new NativeRecord(this, key, address);
+    }
+
+    @Override
+    public void removeRecord(Record record) {
+        if (record == null) {
+            return;
+        }
+
+        Data key = record.getKey();
+        if (record instanceof NativeRecord) {
+            ((NativeRecord) record).unbind();
+        }
+        long link = findLink(key, key.hashCode());
+        if (link == NULL_ADDRESS) {
+            return;
+        }
+        long address = mem.getLong(link);
+        mem.putLong(link, mem.getLong(address + NEXT_OFFSET));
+        freeEntry(address);
+        size--;
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return addressOf(key) != NULL_ADDRESS;
+    }
+
+    @Override
+    public Collection<Record> values() {
+        return new AbstractCollection<Record>() {
+            @Override
+            public Iterator<Record> iterator() {
+                return new RecordIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        if (table != NULL_ADDRESS) {
+            for (int i = 0; i < capacity; i++) {
+                long address = mem.getLong(table + (long) i * LONG_SIZE_IN_BYTES);
+                while (address != NULL_ADDRESS) {
+                    long next = mem.getLong(address + NEXT_OFFSET);
+                    freeEntry(address);
+                    address = next;
+                }
+            }
+            malloc.free(table, (long) capacity * LONG_SIZE_IN_BYTES);
+            table = NULL_ADDRESS;
+            capacity = 0;
+        }
+        size = 0;
+
+        sizeEstimator.reset();
+    }
+
+    @Override
+    public void destroy() {
+        clear();
+    }
+
+    @Override
+    public SizeEstimator getSizeEstimator() {
+        return sizeEstimator;
+    }
+
+    @Override
+    public void setSizeEstimator(SizeEstimator sizeEstimator) {
+        this.sizeEstimator = sizeEstimator;
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        // NOP intentionally, blocks are freed eagerly.
+    }
+
+    /**
+     * Returns the entries of up to {@code sampleCount} buckets, starting from a random bucket.
+     */
+    @Override
+    public Iterable<LazyEntryViewFromRecord> getRandomSamples(int sampleCount) {
+        if (sampleCount < 0) {
+            throw new IllegalArgumentException("Sample count cannot be a negative value.");
+        }
+        if (sampleCount == 0 || size == 0) {
+            return Collections.emptyList();
+        }
+
+        List<LazyEntryViewFromRecord> samples = new ArrayList<LazyEntryViewFromRecord>(sampleCount);
+        int mask = capacity - 1;
+        int start = RandomPicker.getInt(capacity);
+        for (int i = 0; i < capacity; i++) {
+            long address = mem.getLong(table + (long) ((start + i) & mask) * LONG_SIZE_IN_BYTES);
+            while (address != NULL_ADDRESS) {
+                samples.add(new LazyEntryViewFromRecord(newRecord(address), serializationService));
+                if (samples.size() == sampleCount) {
+                    return samples;
+                }
+                address = mem.getLong(address + NEXT_OFFSET);
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Fetches the keys bucket by bucket, the table index is the index of a bucket.
+     */
+    @Override
+    public int fetchKeys(int tableIndex, int size, List<Data> keys) {
+        if (table == NULL_ADDRESS) {
+            return -1;
+        }
+        int nextTableIndex = tableIndex >= 0 && tableIndex < capacity ? tableIndex : capacity - 1;
+        int count = 0;
+        while (nextTableIndex >= 0 && count < size) {
+            long address = mem.getLong(table + (long) nextTableIndex-- * LONG_SIZE_IN_BYTES);
+            while (address != NULL_ADDRESS) {
+                keys.add(readKey(address));
+                count++;
+                address = mem.getLong(address + NEXT_OFFSET);
+            }
+        }
+        return nextTableIndex;
+    }
+
+    private long newEntry(int hash, Data key) {
+        byte[] keyBytes = key.toByteArray();
+        long address = malloc.allocate(HEADER_SIZE + keyBytes.length);
+        mem.putInt(address + HASH_OFFSET, hash);
+        mem.putInt(address + KEY_SIZE_OFFSET, keyBytes.length);
+        mem.putInt(address + VALUE_SIZE_OFFSET, 0);
+        mem.putLong(address + VALUE_ADDRESS_OFFSET, NULL_ADDRESS);
+        mem.putInt(address + VALUE_CAPACITY_OFFSET, 0);
+        mem.putInt(address + SLOT_OFFSET, acquireSlot());
+        mem.copyFromByteArray(keyBytes, 0, address + HEADER_SIZE, keyBytes.length);
+        return address;
+    }
+
+    private void writeMetadata(long address, Record record) {
+        RecordStatistics statistics = record.getStatistics();
+        boolean statisticsEnabled = statistics != null && statistics != EMPTY_STATS;
+        mem.putInt(address + FLAGS_OFFSET, statisticsEnabled ? STATISTICS_ENABLED_FLAG : 0);
+        mem.putLong(address + VERSION_OFFSET, record.getVersion());
+        mem.putLong(address + TTL_OFFSET, record.getTtl());
+        mem.putLong(address + CREATION_TIME_OFFSET, record.getCreationTime());
+        mem.putLong(address + LAST_ACCESS_TIME_OFFSET, record.getLastAccessTime());
+        mem.putLong(address + LAST_UPDATE_TIME_OFFSET, record.getLastUpdateTime());
+        mem.putLong(address + HITS_OFFSET, record.getHits());
+        mem.putLong(address + LAST_STORED_TIME_OFFSET, statisticsEnabled ? statistics.getLastStoredTime() : 0L);
+        mem.putLong(address + EXPIRATION_TIME_OFFSET, statisticsEnabled ? statistics.getExpirationTime() : 0L);
+    }
+
+    /**
+     * Writes the value into the value block of the entry. The block is reallocated if the value doesn't fit
+     * or would leave more than half of the block unused.
+     */
+    private void writeValue(long address, byte[] valueBytes) {
+        long valueAddress = mem.getLong(address + VALUE_ADDRESS_OFFSET);
+        int valueCapacity = mem.getInt(address + VALUE_CAPACITY_OFFSET);
+        if (valueBytes.length > valueCapacity || valueBytes.length < valueCapacity >> 1) {
+            if (valueAddress != NULL_ADDRESS) {
+                malloc.free(valueAddress, valueCapacity);
+            }
+            valueAddress = malloc.allocate(valueBytes.length);
+            mem.putLong(address + VALUE_ADDRESS_OFFSET, valueAddress);
+            mem.putInt(address + VALUE_CAPACITY_OFFSET, valueBytes.length);
+        }
+        mem.copyFromByteArray(valueBytes, 0, valueAddress, valueBytes.length);
+        mem.putInt(address + VALUE_SIZE_OFFSET, valueBytes.length);
+    }
+
+    private NativeRecord newRecord(long address) {
+        return new NativeRecord(this, readKey(address), address);
+    }
+
+    private Data readKey(long address) {
+        int keySize = mem.getInt(address + KEY_SIZE_OFFSET);
+        byte[] keyBytes = new byte[keySize];
+        mem.copyToByteArray(address + HEADER_SIZE, keyBytes, 0, keySize);
+        return new HeapData(keyBytes);
+    }
+
+    private void freeEntry(long address) {
+        releaseSlot(mem.getInt(address + SLOT_OFFSET));
+        sizeEstimator.add(-entrySize(address));
+        malloc.free(mem.getLong(address + VALUE_ADDRESS_OFFSET), mem.getInt(address + VALUE_CAPACITY_OFFSET));
+        malloc.free(address, HEADER_SIZE + mem.getInt(address + KEY_SIZE_OFFSET));
+    }
+
+    private long entrySize(long address) {
+        return getEntrySize(mem.getInt(address + KEY_SIZE_OFFSET), mem.getInt(address + VALUE_CAPACITY_OFFSET));
+    }
+
+    private int acquireSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == generations.length) {
+            generations = Arrays.copyOf(generations, slotCount << 1);
+        }
+        return slotCount++;
+    }
+
+    /**
+     * Makes the records bound to the entry in the slot read as removed and allows the slot to be reused.
+     */
+    private void releaseSlot(int slot) {
+        generations[slot]++;
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount << 1);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private long bucketAddress(int hash) {
+        return table + (long) (hash & (capacity - 1)) * LONG_SIZE_IN_BYTES;
+    }
+
+    private long addressOf(Data key) {
+        long link = findLink(key, key.hashCode());
+        return link == NULL_ADDRESS ? NULL_ADDRESS : mem.getLong(link);
+    }
+
+    /**
+     * Returns the address of the link (either a bucket or the next field of an entry)
+     * pointing to the entry of the given key, or {@code NULL_ADDRESS} if there is no such entry.
+     */
+    private long findLink(Data key, int hash) {
+        if (table == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        long link = bucketAddress(hash);
+        long address = mem.getLong(link);
+        while (address != NULL_ADDRESS) {
+            if (mem.getInt(address + HASH_OFFSET) == hash && keyEquals(address, key)) {
+                return link;
+            }
+            link = address + NEXT_OFFSET;
+            address = mem.getLong(link);
+        }
+        return NULL_ADDRESS;
+    }
+
+    /**
+     * Compares the serialized key with the key of the entry, ignoring the partition hash
+     * in the same way as {@link HeapData#equals(Object)} does.
+     */
+    private boolean keyEquals(long address, Data key) {
+        byte[] keyBytes = key.toByteArray();
+        if (mem.getInt(address + KEY_SIZE_OFFSET) != keyBytes.length) {
+            return false;
+        }
+        long keyAddress = address + HEADER_SIZE;
+        for (int i = keyBytes.length - 1; i >= HeapData.TYPE_OFFSET; i--) {
+            if (mem.getByte(keyAddress + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int expectedSize) {
+        if (table == NULL_ADDRESS) {
+            table = malloc.allocate((long) INITIAL_CAPACITY * LONG_SIZE_IN_BYTES);
+            capacity = INITIAL_CAPACITY;
+            return;
+        }
+        if (expectedSize <= capacity * LOAD_FACTOR) {
+            return;
+        }
+
+        int newCapacity = capacity << 1;
+        long newTable = malloc.allocate((long) newCapacity * LONG_SIZE_IN_BYTES);
+        int newMask = newCapacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            long address = mem.getLong(table + (long) i * LONG_SIZE_IN_BYTES);
+            while (address != NULL_ADDRESS) {
+                long next = mem.getLong(address + NEXT_OFFSET);
+                long bucket = newTable + (long) (mem.getInt(address + HASH_OFFSET) & newMask) * LONG_SIZE_IN_BYTES;
+                mem.putLong(address + NEXT_OFFSET, mem.getLong(bucket));
+                mem.putLong(bucket, address);
+                address = next;
+            }
+        }
+        malloc.free(table, (long) capacity * LONG_SIZE_IN_BYTES);
+        table = newTable;
+        capacity = newCapacity;
+    }
+
+    /**
+     * Iterates over the records bucket by bucket. The records of a bucket are collected
+     * before the first one is returned, so the current record can be removed from the storage.
+     */
+    private final class RecordIterator implements Iterator<Record> {
+
+        private final List<NativeRecord> bucketRecords = new ArrayList<NativeRecord>();
+        private int nextBucket;
+        private int index;
+        private NativeRecord lastReturned;
+
+        @Override
+        public boolean hasNext() {
+            while (true) {
+                while (index == bucketRecords.size()) {
+                    if (!advance()) {
+                        return false;
+                    }
+                }
+                // skip the records which were removed after their bucket was collected
+                if (bucketRecords.get(index).isBound()) {
+                    return true;
+                }
+                index++;
+            }
+        }
+
+        @Override
+        public Record next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = bucketRecords.get(index++);
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (lastReturned.isBound()) {
+                removeRecord(lastReturned);
+            }
+            lastReturned = null;
+        }
+
+        private boolean advance() {
+            if (table == NULL_ADDRESS || nextBucket >= capacity) {
+                return false;
+            }
+            bucketRecords.clear();
+            index = 0;
+            long address = mem.getLong(table + (long) nextBucket++ * LONG_SIZE_IN_BYTES);
+            while (address != NULL_ADDRESS) {
+                bucketRecords.add(newRecord(address));
+                address = mem.getLong(address + NEXT_OFFSET);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Keeps track of the native memory occupied by the entries of this storage.
+     */
+    private static final class NativeSizeEstimator implements SizeEstimator<Record> {
+
+        private volatile long size;
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public void add(long size) {
+            this.size += size;
+        }
+
+        @Override
+        public long calculateSize(Record record) {
+            return record == null ? 0 : record.getCost();
+        }
+
+        @Override
+        public void reset() {
+            size = 0;
+        }
+    }
+}
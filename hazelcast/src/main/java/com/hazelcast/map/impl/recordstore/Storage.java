@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.recordstore;
 import com.hazelcast.map.impl.SizeEstimator;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Represents actual storage layer behind a {@link RecordStore}.
@@ -62,4 +63,19 @@ public interface Storage<K, R> {
      * @return sampled entries.
      */
     Iterable<LazyEntryViewFromRecord> getRandomSamples(int sampleCount);
+
+    /**
+     * Fetches the keys of at least {@code size} records, walking the internal table from {@code tableIndex}
+     * downwards. A {@code tableIndex} outside of the table starts the fetch at the end of the table.
+     * <p/>
+     * The returned index is the cursor of the next fetch; it is negative when all records have been fetched.
+     * Fetching is weakly consistent: records added or removed in between two fetches, or moved by a resize
+     * of the table, may or may not be returned.
+     *
+     * @param tableIndex the table index to start fetching from
+     * @param size       the number of keys to fetch
+     * @param keys       the list to add the fetched keys to
+     * @return the table index to continue fetching from or a negative value if there are no more records
+     */
+    int fetchKeys(int tableIndex, int size, List<K> keys);
 }
@@ -25,6 +25,7 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.serialization.SerializationService;
 
 import java.util.Collection;
+import java.util.List;
 
 import static com.hazelcast.map.impl.SizeEstimators.createMapSizeEstimator;
 
@@ -148,4 +149,9 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
         return records.getRandomSamples(sampleCount);
     }
 
+    @Override
+    public int fetchKeys(int tableIndex, int size, List<Data> keys) {
+        return records.fetch(tableIndex, size, keys);
+    }
+
 }
@@ -76,6 +76,11 @@ public class DefaultMemoryStats implements MemoryStats {
         return 0;
     }
 
+    @Override
+    public double getNativeFragmentation() {
+        return 0;
+    }
+
     @Override
     public long getMaxMetadata() {
         return 0;
@@ -112,6 +112,15 @@ public interface MemoryStats {
      */
     long getFreeNative();
 
+    /**
+     * Returns the fragmentation of the native memory in current HazelcastInstance, as the ratio of the
+     * native memory which is held by partially used pools but not used by any allocation.
+     * A value of {@code 0} means the pooled native memory is fully packed.
+     *
+     * @return the native memory fragmentation ratio, between {@code 0} and {@code 1}
+     */
+    double getNativeFragmentation();
+
     /**
      * Returns the amount of native memory reserved for metadata. This memory
      * is separate and not accounted for by the {@code ...NativeMemory} statistics.
@@ -21,6 +21,7 @@ import com.hazelcast.memory.MemoryStats;
 import com.hazelcast.monitor.LocalGCStats;
 import com.hazelcast.monitor.LocalMemoryStats;
 
+import static com.hazelcast.util.JsonUtil.getDouble;
 import static com.hazelcast.util.JsonUtil.getLong;
 import static com.hazelcast.util.JsonUtil.getObject;
 
@@ -33,6 +34,7 @@ public class LocalMemoryStatsImpl implements LocalMemoryStats {
     public static final String JSON_COMMITTED_NATIVE_MEMORY = "committedNativeMemory";
     public static final String JSON_USED_NATIVE_MEMORY = "usedNativeMemory";
     public static final String JSON_FREE_NATIVE_MEMORY = "freeNativeMemory";
+    public static final String JSON_NATIVE_FRAGMENTATION = "nativeFragmentation";
     public static final String JSON_MAX_HEAP = "maxHeap";
     public static final String JSON_COMMITTED_HEAP = "committedHeap";
     public static final String JSON_USED_HEAP = "usedHeap";
@@ -52,6 +54,8 @@ public class LocalMemoryStatsImpl implements LocalMemoryStats {
 
     private long freeNativeMemory;
 
+    private double nativeFragmentation;
+
     private long maxMetadata;
 
     private long usedMetadata;
@@ -74,6 +78,7 @@ public class LocalMemoryStatsImpl implements LocalMemoryStats {
         setCommittedNativeMemory(memoryStats.getCommittedNative());
         setUsedNativeMemory(memoryStats.getUsedNative());
         setFreeNativeMemory(memoryStats.getFreeNative());
+        setNativeFragmentation(memoryStats.getNativeFragmentation());
         setMaxMetadata(memoryStats.getMaxMetadata());
         setUsedMetadata(memoryStats.getUsedMetadata());
         setMaxHeap(memoryStats.getMaxHeap());
@@ -136,6 +141,15 @@ public class LocalMemoryStatsImpl implements LocalMemoryStats {
         this.freeNativeMemory = freeNativeMemory;
     }
 
+    @Override
+    public double getNativeFragmentation() {
+        return nativeFragmentation;
+    }
+
+    public void setNativeFragmentation(double nativeFragmentation) {
+        this.nativeFragmentation = nativeFragmentation;
+    }
+
     @Override
     public long getMaxMetadata() {
         return maxMetadata;
@@ -210,6 +224,7 @@ public class LocalMemoryStatsImpl implements LocalMemoryStats {
         root.add(JSON_COMMITTED_NATIVE_MEMORY, committedNativeMemory);
         root.add(JSON_USED_NATIVE_MEMORY, usedNativeMemory);
         root.add(JSON_FREE_NATIVE_MEMORY, freeNativeMemory);
+        root.add(JSON_NATIVE_FRAGMENTATION, nativeFragmentation);
         root.add(JSON_MAX_HEAP, maxHeap);
         root.add(JSON_COMMITTED_HEAP, committedHeap);
         root.add(JSON_USED_HEAP, usedHeap);
@@ -229,6 +244,7 @@ public class LocalMemoryStatsImpl implements LocalMemoryStats {
         committedNativeMemory = getLong(json, JSON_COMMITTED_NATIVE_MEMORY, -1L);
         usedNativeMemory = getLong(json, JSON_USED_NATIVE_MEMORY, -1L);
         freeNativeMemory = getLong(json, JSON_FREE_NATIVE_MEMORY, -1L);
+        nativeFragmentation = getDouble(json, JSON_NATIVE_FRAGMENTATION, -1);
         maxHeap = getLong(json, JSON_MAX_HEAP, -1L);
         committedHeap = getLong(json, JSON_COMMITTED_HEAP, -1L);
         usedHeap = getLong(json, JSON_USED_HEAP, -1L);
@@ -246,6 +262,7 @@ public class LocalMemoryStatsImpl implements LocalMemoryStats {
                 + ", maxNativeMemory=" + maxNativeMemory
                 + ", committedNativeMemory=" + committedNativeMemory
                 + ", usedNativeMemory=" + usedNativeMemory
+                + ", nativeFragmentation=" + nativeFragmentation
                 + ", maxMetadata=" + maxMetadata
                 + ", usedUsedMetadata=" + usedMetadata
                 + ", maxHeap=" + maxHeap
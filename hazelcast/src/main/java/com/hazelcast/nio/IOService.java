@@ -84,6 +84,59 @@ public interface IOService {
 
     boolean isSocketBufferDirect();
 
+    /**
+     * Checks if member to member connections should use gathering writes.
+     *
+     * @return true if gathering writes should be used, false otherwise.
+     */
+    boolean isSocketGatheringWrite();
+
+    /**
+     * Returns the payload size from which a packet is written from its own byte-array when using gathering writes.
+     *
+     * @return the threshold in bytes.
+     */
+    int getSocketGatheringWriteThreshold();
+
+    /**
+     * Checks if member to member connections should drain the socket on a read event.
+     *
+     * @return true if the socket should be drained, false otherwise.
+     * @see com.hazelcast.spi.properties.GroupProperty#SOCKET_READ_DRAIN_ENABLED
+     */
+    boolean isSocketReadDrain();
+
+    /**
+     * Returns the number of connections between two members.
+     *
+     * @return the number of connections.
+     * @see com.hazelcast.spi.properties.GroupProperty#SOCKET_MEMBER_CONNECTION_COUNT
+     */
+    int getSocketMemberConnectionCount();
+
+    /**
+     * Returns the number of partitions.
+     *
+     * @return the number of partitions.
+     * @see com.hazelcast.spi.properties.GroupProperty#PARTITION_COUNT
+     */
+    int getPartitionCount();
+
+    /**
+     * Checks if packet payloads should be compressed on member to member connections.
+     *
+     * @return true if compression is enabled, false otherwise.
+     * @see com.hazelcast.spi.properties.GroupProperty#SOCKET_COMPRESSION_ENABLED
+     */
+    boolean isSocketCompression();
+
+    /**
+     * Returns the minimum payload size of a packet to be compressed.
+     *
+     * @return the threshold in bytes.
+     */
+    int getSocketCompressionThreshold();
+
     /**
      * Size of receive buffers for connections opened by clients
      *
@@ -208,6 +208,41 @@ public class NodeIOService implements IOService {
         return node.getProperties().getBoolean(GroupProperty.SOCKET_BUFFER_DIRECT);
     }
 
+    @Override
+    public boolean isSocketGatheringWrite() {
+        return node.getProperties().getBoolean(GroupProperty.SOCKET_GATHERING_WRITE_ENABLED);
+    }
+
+    @Override
+    public int getSocketGatheringWriteThreshold() {
+        return node.getProperties().getInteger(GroupProperty.SOCKET_GATHERING_WRITE_THRESHOLD);
+    }
+
+    @Override
+    public boolean isSocketReadDrain() {
+        return node.getProperties().getBoolean(GroupProperty.SOCKET_READ_DRAIN_ENABLED);
+    }
+
+    @Override
+    public int getSocketMemberConnectionCount() {
+        return node.getProperties().getInteger(GroupProperty.SOCKET_MEMBER_CONNECTION_COUNT);
+    }
+
+    @Override
+    public int getPartitionCount() {
+        return node.getProperties().getInteger(GroupProperty.PARTITION_COUNT);
+    }
+
+    @Override
+    public boolean isSocketCompression() {
+        return node.getProperties().getBoolean(GroupProperty.SOCKET_COMPRESSION_ENABLED);
+    }
+
+    @Override
+    public int getSocketCompressionThreshold() {
+        return node.getProperties().getInteger(GroupProperty.SOCKET_COMPRESSION_THRESHOLD);
+    }
+
     @Override
     public int getSocketClientReceiveBufferSize() {
         int clientSendBuffer = node.getProperties().getInteger(GroupProperty.SOCKET_CLIENT_RECEIVE_BUFFER_SIZE);
@@ -20,6 +20,7 @@ import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.spi.annotation.PrivateApi;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import static com.hazelcast.nio.Bits.BYTE_SIZE_IN_BYTES;
 import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
@@ -49,8 +50,16 @@ public final class Packet extends HeapData implements OutboundFrame {
      */
     public static final int FLAG_OP_CONTROL = 1 << 6;
 
+    /**
+     * A flag to indicate the payload is compressed, see {@link com.hazelcast.nio.tcp.PacketCompressor}.
+     */
+    public static final int FLAG_COMPRESSED = 1 << 7;
+
     private static final int HEADER_SIZE = BYTE_SIZE_IN_BYTES + SHORT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
 
+    private static final AtomicIntegerFieldUpdater<Packet> REF_COUNT
+            = AtomicIntegerFieldUpdater.newUpdater(Packet.class, "refCount");
+
     private short flags;
     private int partitionId;
     private transient Connection conn;
@@ -61,9 +70,23 @@ public final class Packet extends HeapData implements OutboundFrame {
     // Stores the current 'phase' of read/write. This is needed so that repeated calls can be made to read/write.
     private boolean headerComplete;
 
+    // Only set when the payload is taken from a pool. When the reference count drops to 0, the payload is returned.
+    private transient PacketPayloadPool payloadPool;
+    private volatile int refCount;
+
     public Packet() {
     }
 
+    /**
+     * Creates a Packet for reading. If the packet turns out to be an operation or a response, its payload is taken
+     * from the given pool and it needs to be {@link #release() released} when the payload is no longer needed.
+     *
+     * @param payloadPool the pool to take the payload from. Could be null.
+     */
+    public Packet(PacketPayloadPool payloadPool) {
+        this.payloadPool = payloadPool;
+    }
+
     public Packet(byte[] payload) {
         this(payload, -1);
     }
@@ -152,6 +175,48 @@ public final class Packet extends HeapData implements OutboundFrame {
         headerComplete = false;
     }
 
+    /**
+     * Checks if the payload of this Packet was taken from a {@link PacketPayloadPool}.
+     *
+     * @return true if pooled, false otherwise.
+     */
+    public boolean isPooled() {
+        return payloadPool != null;
+    }
+
+    /**
+     * Increments the reference count of the pooled payload. Every call needs to be matched with a {@link #release()}.
+     * If the payload isn't pooled, the call is ignored.
+     *
+     * @return this (for fluent interface)
+     */
+    public Packet retain() {
+        if (payloadPool != null) {
+            REF_COUNT.incrementAndGet(this);
+        }
+        return this;
+    }
+
+    /**
+     * Decrements the reference count of the pooled payload. When it drops to 0, the payload is returned to the pool and
+     * this Packet has no payload anymore. If the payload isn't pooled, the call is ignored.
+     */
+    public void release() {
+        PacketPayloadPool pool = payloadPool;
+        if (pool == null) {
+            return;
+        }
+
+        int refs = REF_COUNT.decrementAndGet(this);
+        if (refs == 0) {
+            byte[] bytes = payload;
+            payload = null;
+            pool.release(bytes);
+        } else if (refs < 0) {
+            throw new IllegalStateException("Packet is released more often than retained: " + this);
+        }
+    }
+
     @Override
     public boolean isUrgent() {
         return isFlagSet(FLAG_URGENT);
@@ -159,21 +224,38 @@ public final class Packet extends HeapData implements OutboundFrame {
 
     public boolean writeTo(ByteBuffer dst) {
         if (!headerComplete) {
-            if (dst.remaining() < HEADER_SIZE) {
+            if (!writeHeaderTo(dst)) {
                 return false;
             }
 
-            dst.put(VERSION);
-            dst.putShort(flags);
-            dst.putInt(partitionId);
             size = totalSize();
-            dst.putInt(size);
             headerComplete = true;
         }
 
         return writeValue(dst);
     }
 
+    /**
+     * Writes only the header of this Packet. The payload, see {@link #toByteArray()}, needs to be written right after it.
+     * <p/>
+     * This is used for gathering writes, where the payload of a large Packet is not copied into the destination buffer.
+     * Unlike {@link #writeTo(ByteBuffer)}, it does not change the read/write state of this Packet.
+     *
+     * @param dst the destination ByteBuffer
+     * @return true if the header is written, false if there is not enough space in dst.
+     */
+    public boolean writeHeaderTo(ByteBuffer dst) {
+        if (dst.remaining() < HEADER_SIZE) {
+            return false;
+        }
+
+        dst.put(VERSION);
+        dst.putShort(flags);
+        dst.putInt(partitionId);
+        dst.putInt(totalSize());
+        return true;
+    }
+
     public boolean readFrom(ByteBuffer src) {
         if (!headerComplete) {
             if (src.remaining() < HEADER_SIZE) {
@@ -199,7 +281,14 @@ public final class Packet extends HeapData implements OutboundFrame {
 
     private boolean readValue(ByteBuffer src) {
         if (payload == null) {
-            payload = new byte[size];
+            // only operations and responses are released after they have been deserialized.
+            if (payloadPool != null && isFlagSet(FLAG_OP) && !isFlagSet(FLAG_OP_CONTROL)) {
+                payload = payloadPool.take(size);
+                refCount = 1;
+            } else {
+                payloadPool = null;
+                payload = new byte[size];
+            }
         }
 
         if (size > 0) {
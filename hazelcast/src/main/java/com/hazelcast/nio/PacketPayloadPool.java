@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio;
+
+import com.hazelcast.spi.annotation.PrivateApi;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.util.Preconditions.checkNotNegative;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * A pool for the payload byte-arrays of inbound {@link Packet} instances.
+ *
+ * A Packet is a {@link com.hazelcast.nio.serialization.Data}, so its payload needs to have exactly the length of the
+ * serialized content. That is why the pool is organized by exact length; for every length up to the max payload size
+ * a few slots are available. For a typical load the same packet sizes are seen over and over again, so most packets
+ * find an array of the right length.
+ *
+ * The pool is lock-free and creates no litter: arrays are taken and returned by swapping them in and out of the slots.
+ * Arrays can be taken on one thread (the io thread) and returned on another (e.g. a partition thread).
+ *
+ * The total number of bytes retained by the pool is bounded by the capacity. If a returned array doesn't fit, it is
+ * dropped and left for the garbage collector.
+ */
+@PrivateApi
+public final class PacketPayloadPool {
+
+    static final int SLOTS_PER_SIZE = 4;
+
+    private final int maxPayloadSize;
+    private final long capacity;
+    private final AtomicReferenceArray<byte[]> slots;
+    private final AtomicLong retainedBytes = new AtomicLong();
+
+    /**
+     * Creates a PacketPayloadPool.
+     *
+     * @param maxPayloadSize the maximum length of a pooled payload
+     * @param capacity       the maximum number of bytes retained by the pool
+     */
+    public PacketPayloadPool(int maxPayloadSize, long capacity) {
+        this.maxPayloadSize = checkPositive(maxPayloadSize, "maxPayloadSize should be larger than 0");
+        this.capacity = checkNotNegative(capacity, "capacity can't be smaller than 0");
+        this.slots = new AtomicReferenceArray<byte[]>((maxPayloadSize + 1) * SLOTS_PER_SIZE);
+    }
+
+    /**
+     * Takes a byte-array of the given length from the pool. If none is available, a new one is created.
+     *
+     * The content of the returned array is undefined.
+     *
+     * @param length the length of the array
+     * @return the array
+     */
+    public byte[] take(int length) {
+        if (length > 0 && length <= maxPayloadSize) {
+            int offset = length * SLOTS_PER_SIZE;
+            for (int k = 0; k < SLOTS_PER_SIZE; k++) {
+                if (slots.get(offset + k) == null) {
+                    continue;
+                }
+
+                byte[] bytes = slots.getAndSet(offset + k, null);
+                if (bytes != null) {
+                    retainedBytes.addAndGet(-length);
+                    return bytes;
+                }
+            }
+        }
+        return new byte[length];
+    }
+
+    /**
+     * Returns a byte-array to the pool. If the array is too large, or the pool is full, it is dropped.
+     *
+     * The caller should not touch the array after returning it.
+     *
+     * @param bytes the array to return
+     */
+    public void release(byte[] bytes) {
+        int length = bytes.length;
+        if (length == 0 || length > maxPayloadSize) {
+            return;
+        }
+
+        if (retainedBytes.addAndGet(length) > capacity) {
+            retainedBytes.addAndGet(-length);
+            return;
+        }
+
+        int offset = length * SLOTS_PER_SIZE;
+        for (int k = 0; k < SLOTS_PER_SIZE; k++) {
+            if (slots.get(offset + k) == null && slots.compareAndSet(offset + k, null, bytes)) {
+                return;
+            }
+        }
+
+        retainedBytes.addAndGet(-length);
+    }
+
+    /**
+     * Returns the number of bytes currently retained by this pool.
+     *
+     * @return the number of retained bytes
+     */
+    public long retainedBytes() {
+        return retainedBytes.get();
+    }
+
+    public int getMaxPayloadSize() {
+        return maxPayloadSize;
+    }
+}
@@ -64,6 +64,11 @@ public class DefaultSocketChannelWrapper implements SocketChannelWrapper {
         return socketChannel.write(src);
     }
 
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+        return socketChannel.write(srcs, offset, length);
+    }
+
     @Override
     public SelectableChannel configureBlocking(boolean block) throws IOException {
         return socketChannel.configureBlocking(block);
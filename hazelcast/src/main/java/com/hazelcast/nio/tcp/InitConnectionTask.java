@@ -48,13 +48,27 @@ public class InitConnectionTask implements Runnable {
     private final ILogger logger;
     private final boolean silent;
     private final IOService ioService;
+    private final int lane;
 
     public InitConnectionTask(TcpIpConnectionManager connectionManager, Address address, boolean silent) {
+        this(connectionManager, address, silent, 0);
+    }
+
+    /**
+     * Creates an InitConnectionTask for one of the connections to a member.
+     *
+     * @param connectionManager the TcpIpConnectionManager
+     * @param address           the address to connect to
+     * @param silent            if connection failures should be logged at finest level only
+     * @param lane              the lane of the connection, 0 for the regular connection, see {@link TcpIpConnectionLanes}
+     */
+    public InitConnectionTask(TcpIpConnectionManager connectionManager, Address address, boolean silent, int lane) {
         this.connectionManager = connectionManager;
         this.ioService = connectionManager.getIoService();
         this.address = address;
         this.logger = ioService.getLogger(this.getClass().getName());
         this.silent = silent;
+        this.lane = lane;
     }
 
     @Override
@@ -91,7 +105,11 @@ public class InitConnectionTask implements Runnable {
             }
         } catch (Throwable e) {
             logger.finest(e);
-            connectionManager.failedConnection(address, e, silent);
+            if (lane > 0) {
+                connectionManager.failedLaneConnection(address, lane, e);
+            } else {
+                connectionManager.failedConnection(address, e, silent);
+            }
         }
     }
 
@@ -147,8 +165,9 @@ public class InitConnectionTask implements Runnable {
 
             socketChannelWrapper.configureBlocking(false);
             TcpIpConnection connection = connectionManager.newConnection(socketChannelWrapper, address);
+            connection.setLane(lane);
             connection.getSocketWriter().setProtocol(Protocols.CLUSTER);
-            connectionManager.sendBindRequest(connection, address, true);
+            connectionManager.sendBindRequest(connection, address, true, lane);
         } catch (Exception e) {
             closeSocket(socketChannel);
             logger.log(level, "Could not connect to: " + socketAddress + ". Reason: " + e.getClass().getSimpleName()
@@ -18,6 +18,7 @@ package com.hazelcast.nio.tcp;
 
 import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketPayloadPool;
 import com.hazelcast.spi.impl.packetdispatcher.PacketDispatcher;
 
 import java.nio.ByteBuffer;
@@ -27,6 +28,9 @@ import java.nio.ByteBuffer;
  *
  * It reads as many packets from the src ByteBuffer as possible, and each of the Packets is send to the {@link PacketDispatcher}.
  *
+ * If a {@link PacketPayloadPool} is provided, the payloads of operation and response packets are taken from the pool. These
+ * packets are released by the consumer once they have been deserialized.
+ *
  * @see PacketDispatcher
  * @see MemberWriteHandler
  */
@@ -38,10 +42,16 @@ public class MemberReadHandler implements ReadHandler {
     private final PacketDispatcher packetDispatcher;
     private final Counter normalPacketsRead;
     private final Counter priorityPacketsRead;
+    private final PacketPayloadPool payloadPool;
 
     public MemberReadHandler(TcpIpConnection connection, PacketDispatcher packetDispatcher) {
+        this(connection, packetDispatcher, null);
+    }
+
+    public MemberReadHandler(TcpIpConnection connection, PacketDispatcher packetDispatcher, PacketPayloadPool payloadPool) {
         this.connection = connection;
         this.packetDispatcher = packetDispatcher;
+        this.payloadPool = payloadPool;
         SocketReader socketReader = connection.getSocketReader();
         this.normalPacketsRead = socketReader.getNormalFramesReadCounter();
         this.priorityPacketsRead = socketReader.getPriorityFramesReadCounter();
@@ -51,7 +61,7 @@ public class MemberReadHandler implements ReadHandler {
     public void onRead(ByteBuffer src) throws Exception {
         while (src.hasRemaining()) {
             if (packet == null) {
-                packet = new Packet();
+                packet = new Packet(payloadPool);
             }
             boolean complete = packet.readFrom(src);
             if (complete) {
@@ -72,6 +82,10 @@ public class MemberReadHandler implements ReadHandler {
 
         packet.setConn(connection);
 
-        packetDispatcher.dispatch(packet);
+        if (packet.isFlagSet(Packet.FLAG_COMPRESSED)) {
+            packetDispatcher.dispatch(PacketCompressor.decompress(packet));
+        } else {
+            packetDispatcher.dispatch(packet);
+        }
     }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.util.LZ4Codec;
+import com.hazelcast.nio.Packet;
+
+import java.util.Arrays;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.readIntB;
+import static com.hazelcast.nio.Bits.writeIntB;
+
+/**
+ * Compresses and decompresses the payload of {@link Packet} instances using the {@link LZ4Codec}.
+ *
+ * A compressed Packet has the {@link Packet#FLAG_COMPRESSED} flag set, and its payload is the length of the original
+ * payload followed by the compressed block. Compression is only applied to connections where both members have it
+ * enabled, see {@link com.hazelcast.spi.properties.GroupProperty#SOCKET_COMPRESSION_ENABLED}; decompression is always
+ * done when the flag is set.
+ */
+public final class PacketCompressor {
+
+    private PacketCompressor() {
+    }
+
+    /**
+     * Compresses the Packet if its payload has at least the threshold length. If the Packet is a bind packet, is already
+     * compressed, or the payload doesn't compress, the Packet itself is returned.
+     *
+     * @param packet    the Packet to compress
+     * @param threshold the minimum payload length in bytes for compressing
+     * @return the compressed Packet, or the Packet itself
+     */
+    public static Packet compress(Packet packet, int threshold) {
+        if (packet.isFlagSet(Packet.FLAG_COMPRESSED | Packet.FLAG_BIND)) {
+            return packet;
+        }
+
+        byte[] payload = packet.toByteArray();
+        if (payload == null || payload.length < threshold) {
+            return packet;
+        }
+
+        int length = payload.length;
+        byte[] buffer = new byte[INT_SIZE_IN_BYTES + LZ4Codec.maxCompressedLength(length)];
+        int compressedLength = INT_SIZE_IN_BYTES + LZ4Codec.compress(payload, 0, length, buffer, INT_SIZE_IN_BYTES);
+        if (compressedLength >= length) {
+            return packet;
+        }
+
+        writeIntB(buffer, 0, length);
+        return new Packet(Arrays.copyOf(buffer, compressedLength), packet.getPartitionId())
+                .setAllFlags(packet.getFlags() | Packet.FLAG_COMPRESSED);
+    }
+
+    /**
+     * Decompresses a Packet that has the {@link Packet#FLAG_COMPRESSED} flag set. The compressed Packet is released.
+     *
+     * @param packet the compressed Packet
+     * @return the decompressed Packet
+     * @throws IllegalArgumentException if the payload of the Packet isn't a valid compressed payload
+     */
+    public static Packet decompress(Packet packet) {
+        byte[] compressed = packet.toByteArray();
+        if (compressed == null || compressed.length < INT_SIZE_IN_BYTES) {
+            throw new IllegalArgumentException("Malformed compressed packet: " + packet);
+        }
+
+        int length = readIntB(compressed, 0);
+        if (length < 0) {
+            throw new IllegalArgumentException("Malformed compressed packet: " + packet);
+        }
+
+        byte[] payload = new byte[length];
+        LZ4Codec.decompress(compressed, INT_SIZE_IN_BYTES, compressed.length - INT_SIZE_IN_BYTES, payload, 0, length);
+
+        Packet result = new Packet(payload, packet.getPartitionId())
+                .setAllFlags(packet.getFlags() & ~Packet.FLAG_COMPRESSED);
+        result.setConn(packet.getConn());
+        packet.release();
+        return result;
+    }
+}
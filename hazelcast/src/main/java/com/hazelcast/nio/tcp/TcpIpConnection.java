@@ -21,6 +21,7 @@ import com.hazelcast.nio.Address;
 import com.hazelcast.nio.Connection;
 import com.hazelcast.nio.ConnectionType;
 import com.hazelcast.nio.OutboundFrame;
+import com.hazelcast.nio.Packet;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
@@ -62,6 +63,11 @@ public final class TcpIpConnection implements Connection {
 
     private volatile ConnectionType type = ConnectionType.NONE;
 
+    private volatile int lane;
+
+    // the minimum payload size of packets to compress; 0 if compression isn't enabled for this connection
+    private volatile int compressionThreshold;
+
     private volatile Throwable closeCause;
 
     private volatile String closeReason;
@@ -153,6 +159,34 @@ public final class TcpIpConnection implements Connection {
         return monitor;
     }
 
+    /**
+     * Returns the lane of this connection. 0 is the regular connection to a member; a larger value is one of the additional
+     * connections to the member, see {@link TcpIpConnectionLanes}.
+     *
+     * @return the lane
+     */
+    public int getLane() {
+        return lane;
+    }
+
+    void setLane(int lane) {
+        this.lane = lane;
+    }
+
+    /**
+     * Enables compression of the packets written to this connection.
+     *
+     * @param compressionThreshold the minimum payload size of a packet to be compressed; 0 to disable compression
+     * @see PacketCompressor
+     */
+    void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public boolean isCompressionEnabled() {
+        return compressionThreshold > 0;
+    }
+
     public int getConnectionId() {
         return connectionId;
     }
@@ -199,7 +233,14 @@ public final class TcpIpConnection implements Connection {
             }
             return false;
         }
-        socketWriter.write(frame);
+
+        // compressing is done on the calling thread, so it doesn't burden the IO thread.
+        int compressionThreshold = this.compressionThreshold;
+        if (compressionThreshold > 0 && frame instanceof Packet) {
+            socketWriter.write(PacketCompressor.compress((Packet) frame, compressionThreshold));
+        } else {
+            socketWriter.write(frame);
+        }
         return true;
     }
 
@@ -252,6 +293,10 @@ public final class TcpIpConnection implements Connection {
 
         logger.info(message);
         connectionManager.onClose(this);
+        if (lane > 0) {
+            // the loss of an additional connection doesn't say anything about the member
+            return;
+        }
         connectionManager.getIoService().onDisconnect(endPoint);
         if (cause != null && monitor != null) {
             monitor.onError(cause);
@@ -278,6 +323,7 @@ public final class TcpIpConnection implements Connection {
                 + ", endpoint=" + endPoint
                 + ", alive=" + alive
                 + ", type=" + type
+                + (lane > 0 ? ", lane=" + lane : "")
                 + "]";
     }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The additional connections to a single member when
+ * {@link com.hazelcast.spi.properties.GroupProperty#SOCKET_MEMBER_CONNECTION_COUNT} is larger than 1.
+ *
+ * Each connection is a 'lane'. Packets are assigned to a lane based on their partition id. Since the lanes are
+ * connected after the regular connection, the first packet of a partition decides whether the partition uses
+ * its lane or the regular connection, see {@link #usesLane(int, int)}. So the packets of a partition are written
+ * to the same socket and their order is preserved. A partition that is bound to the regular connection is only
+ * reconsidered after it has migrated, see {@link #unpin(int)}.
+ *
+ * Lane 0 is the regular connection that is registered in the {@link TcpIpConnectionManager}, so it isn't stored here.
+ */
+final class TcpIpConnectionLanes {
+
+    private static final int UNDECIDED = 0;
+    private static final int REGULAR = 1;
+    private static final int LANE = 2;
+
+    private final AtomicReferenceArray<TcpIpConnection> connections;
+    private final AtomicIntegerArray connecting;
+    // per partition, whether its packets are written to the regular connection or to its lane
+    private final AtomicIntegerArray partitionLanes;
+
+    TcpIpConnectionLanes(int laneCount, int partitionCount) {
+        this.connections = new AtomicReferenceArray<TcpIpConnection>(laneCount);
+        this.connecting = new AtomicIntegerArray(laneCount);
+        this.partitionLanes = new AtomicIntegerArray(partitionCount);
+    }
+
+    /**
+     * Returns the lane of a packet with the given partition id.
+     *
+     * @param partitionId the partition id of the packet; -1 if the packet isn't for a particular partition
+     * @param laneCount   the number of lanes
+     * @return the lane
+     */
+    static int laneOf(int partitionId, int laneCount) {
+        return partitionId < 0 ? 0 : partitionId % laneCount;
+    }
+
+    TcpIpConnection get(int lane) {
+        return connections.get(lane);
+    }
+
+    /**
+     * Checks if the packets of the partition are written to its lane instead of to the regular connection.
+     *
+     * The first call for a partition decides: the lane is used if it is connected at that moment. The decision
+     * doesn't change until the partition is {@link #unpin(int) unpinned}, because packets written to another socket
+     * could overtake the packets that are still pending on the previous one.
+     *
+     * @param partitionId the partition id of the packet
+     * @param lane        the lane of the partition
+     * @return true if the lane is used, false if the regular connection is used
+     */
+    boolean usesLane(int partitionId, int lane) {
+        if (partitionId >= partitionLanes.length()) {
+            return false;
+        }
+
+        int choice = partitionLanes.get(partitionId);
+        if (choice == UNDECIDED) {
+            TcpIpConnection connection = connections.get(lane);
+            int proposed = connection != null && connection.isAlive() ? LANE : REGULAR;
+            if (!partitionLanes.compareAndSet(partitionId, UNDECIDED, proposed)) {
+                return partitionLanes.get(partitionId) == LANE;
+            }
+            choice = proposed;
+        }
+        return choice == LANE;
+    }
+
+    /**
+     * Lets the next packet of the partition decide again whether the lane is used, if the partition was bound to
+     * the regular connection. This is only safe at a point where the order of the packets written before and after
+     * doesn't matter, like the completion of a migration of the partition.
+     *
+     * A partition that is bound to its lane stays there, since a lane isn't disconnected without the regular
+     * connection.
+     *
+     * @param partitionId the partition id
+     */
+    void unpin(int partitionId) {
+        if (partitionId >= 0 && partitionId < partitionLanes.length()) {
+            partitionLanes.compareAndSet(partitionId, REGULAR, UNDECIDED);
+        }
+    }
+
+    /**
+     * Tries to claim the lane for connecting, so that only a single connection attempt is made at any given moment.
+     *
+     * @param lane the lane to connect
+     * @return true if claimed, false if a connection attempt is already in progress
+     */
+    boolean tryStartConnecting(int lane) {
+        return connecting.compareAndSet(lane, 0, 1);
+    }
+
+    void connectingFailed(int lane) {
+        connecting.set(lane, 0);
+    }
+
+    /**
+     * Registers the connection for the given lane. If there already is a live connection for that lane, the
+     * connection isn't registered; it still can be used to receive packets.
+     *
+     * @param lane       the lane
+     * @param connection the connection
+     * @return true if registered, false otherwise.
+     */
+    boolean register(int lane, TcpIpConnection connection) {
+        if (lane <= 0 || lane >= connections.length()) {
+            return false;
+        }
+
+        for (; ; ) {
+            TcpIpConnection current = connections.get(lane);
+            if (current != null && current.isAlive()) {
+                return false;
+            }
+
+            if (connections.compareAndSet(lane, current, connection)) {
+                connecting.set(lane, 0);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Checks if the connection is the registered connection of its lane.
+     *
+     * @param connection the connection
+     * @return true if registered, false otherwise.
+     */
+    boolean isRegistered(TcpIpConnection connection) {
+        int lane = connection.getLane();
+        return lane > 0 && lane < connections.length() && connections.get(lane) == connection;
+    }
+
+    void close(String reason) {
+        for (int lane = 1; lane < connections.length(); lane++) {
+            TcpIpConnection connection = connections.getAndSet(lane, null);
+            if (connection != null) {
+                connection.close(reason, null);
+            }
+        }
+    }
+}
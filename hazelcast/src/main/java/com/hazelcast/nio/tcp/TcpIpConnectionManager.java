@@ -59,6 +59,7 @@ import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.nio.IOService.KILO_BYTE;
 import static com.hazelcast.nio.IOUtil.closeResource;
 import static com.hazelcast.util.Preconditions.checkNotNull;
+import static java.lang.Math.max;
 
 public class TcpIpConnectionManager implements ConnectionManager, PacketHandler {
 
@@ -84,6 +85,16 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
     @Probe(name = "count", level = MANDATORY)
     private final ConcurrentHashMap<Address, Connection> connectionsMap = new ConcurrentHashMap<Address, Connection>(100);
 
+    private final ConcurrentHashMap<Address, TcpIpConnectionLanes> lanes =
+            new ConcurrentHashMap<Address, TcpIpConnectionLanes>();
+
+    private final ConstructorFunction<Address, TcpIpConnectionLanes> lanesConstructor
+            = new ConstructorFunction<Address, TcpIpConnectionLanes>() {
+        public TcpIpConnectionLanes createNew(Address endpoint) {
+            return new TcpIpConnectionLanes(laneCount, partitionCount);
+        }
+    };
+
     @Probe(name = "monitorCount")
     private final ConcurrentHashMap<Address, TcpIpConnectionMonitor> monitors =
             new ConcurrentHashMap<Address, TcpIpConnectionMonitor>(100);
@@ -110,6 +121,10 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
 
     private volatile boolean live;
 
+    // the number of connections per member, see GroupProperty.SOCKET_MEMBER_CONNECTION_COUNT. Set when starting.
+    private volatile int laneCount = 1;
+    private volatile int partitionCount;
+
     private final ServerSocketChannel serverSocketChannel;
 
     private final SocketChannelWrapperFactory socketChannelWrapperFactory;
@@ -192,6 +207,11 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         return activeConnections;
     }
 
+    // just for testing
+    TcpIpConnectionLanes getLanes(Address address) {
+        return lanes.get(address);
+    }
+
     // just for testing
     public IOBalancer getIoBalancer() {
         if (ioThreadingModel instanceof NonBlockingIOThreadingModel) {
@@ -233,13 +253,19 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         assert packet.isFlagSet(Packet.FLAG_BIND);
 
         BindMessage bind = ioService.getSerializationService().toObject(packet);
-        bind((TcpIpConnection) packet.getConn(), bind.getLocalAddress(), bind.getTargetAddress(), bind.shouldReply());
+        TcpIpConnection connection = (TcpIpConnection) packet.getConn();
+        if (bind.isCompression() && ioService.isSocketCompression()) {
+            connection.setCompressionThreshold(max(1, ioService.getSocketCompressionThreshold()));
+        }
+        bind(connection, bind.getLocalAddress(), bind.getTargetAddress(), bind.shouldReply(),
+                bind.getLane());
     }
 
     /**
      * Binding completes the connection and makes it available to be used with the ConnectionManager.
      */
-    private boolean bind(TcpIpConnection connection, Address remoteEndPoint, Address localEndpoint, boolean reply) {
+    private boolean bind(TcpIpConnection connection, Address remoteEndPoint, Address localEndpoint, boolean reply,
+                         int lane) {
         if (logger.isFinestEnabled()) {
             logger.finest("Binding " + connection + " to " + remoteEndPoint + ", reply is " + reply);
         }
@@ -254,12 +280,109 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         connection.setEndPoint(remoteEndPoint);
         ioService.onSuccessfulConnection(remoteEndPoint);
         if (reply) {
-            sendBindRequest(connection, remoteEndPoint, false);
+            sendBindRequest(connection, remoteEndPoint, false, lane);
+        }
+        if (lane > 0) {
+            return registerLane(remoteEndPoint, lane, connection);
         }
         if (checkAlreadyConnected(connection, remoteEndPoint)) {
             return false;
         }
-        return registerConnection(remoteEndPoint, connection);
+        if (!registerConnection(remoteEndPoint, connection)) {
+            return false;
+        }
+        if (!reply) {
+            // we initiated the connection, so we are also going to set up the additional connections
+            connectLanes(remoteEndPoint);
+        }
+        return true;
+    }
+
+    private boolean registerLane(Address remoteEndPoint, int lane, TcpIpConnection connection) {
+        connection.setLane(lane);
+        TcpIpConnectionLanes connectionLanes = ConcurrencyUtil.getOrPutIfAbsent(lanes, remoteEndPoint, lanesConstructor);
+        if (!connectionLanes.register(lane, connection)) {
+            if (logger.isFinestEnabled()) {
+                logger.finest("Lane " + lane + " to " + remoteEndPoint + " is already bound, new one is " + connection);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void connectLanes(Address remoteEndPoint) {
+        for (int lane = 1; lane < laneCount; lane++) {
+            connectLane(remoteEndPoint, lane);
+        }
+    }
+
+    private void connectLane(Address remoteEndPoint, int lane) {
+        if (!live) {
+            return;
+        }
+
+        TcpIpConnectionLanes connectionLanes = ConcurrencyUtil.getOrPutIfAbsent(lanes, remoteEndPoint, lanesConstructor);
+        if (connectionLanes.tryStartConnecting(lane)) {
+            ioService.executeAsync(new InitConnectionTask(this, remoteEndPoint, true, lane));
+        }
+    }
+
+    void failedLaneConnection(Address address, int lane, Throwable t) {
+        if (logger.isFinestEnabled()) {
+            logger.finest("Failed to connect lane " + lane + " to " + address, t);
+        }
+        TcpIpConnectionLanes connectionLanes = lanes.get(address);
+        if (connectionLanes != null) {
+            connectionLanes.connectingFailed(lane);
+        }
+    }
+
+    /**
+     * Selects the connection to write the packet to. If there are multiple connections to the member, the packet is
+     * written to the connection of its lane, unless the partition was already bound to the regular connection because
+     * the lane wasn't connected yet when the first packet of the partition was written. If the lane has been removed
+     * in the meantime, the regular connection is returned.
+     */
+    private Connection selectConnection(Packet packet, Connection connection) {
+        int laneCount = this.laneCount;
+        if (laneCount == 1 || !(connection instanceof TcpIpConnection)) {
+            return connection;
+        }
+
+        int lane = TcpIpConnectionLanes.laneOf(packet.getPartitionId(), laneCount);
+        TcpIpConnection tcpConnection = (TcpIpConnection) connection;
+        if (lane == 0 || tcpConnection.getLane() != 0 || tcpConnection.isClient() || !tcpConnection.isAlive()) {
+            return connection;
+        }
+
+        Address endPoint = tcpConnection.getEndPoint();
+        TcpIpConnectionLanes connectionLanes = ConcurrencyUtil.getOrPutIfAbsent(lanes, endPoint, lanesConstructor);
+        boolean usesLane = connectionLanes.usesLane(packet.getPartitionId(), lane);
+        // the lane can be removed concurrently when the connections to the member are closed
+        TcpIpConnection laneConnection = connectionLanes.get(lane);
+        if (usesLane) {
+            // when the lane is lost, the packet is dropped like on any other closed connection
+            return laneConnection != null ? laneConnection : connection;
+        }
+
+        if (laneConnection == null || !laneConnection.isAlive()) {
+            // the partitions that haven't been written to yet still can use the lane
+            connectLane(endPoint, lane);
+        }
+        return connection;
+    }
+
+    /**
+     * Called when a migration of the partition has completed on this member. The order of the packets of the
+     * partition doesn't need to be kept across a migration, so a partition that was bound to the regular connection
+     * because its lane wasn't connected yet can move to its lane.
+     *
+     * @param partitionId the id of the migrated partition
+     */
+    public void onPartitionMigrate(int partitionId) {
+        for (TcpIpConnectionLanes connectionLanes : lanes.values()) {
+            connectionLanes.unpin(partitionId);
+        }
     }
 
     @Override
@@ -316,13 +439,18 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
     }
 
     void sendBindRequest(TcpIpConnection connection, Address remoteEndPoint, boolean replyBack) {
+        sendBindRequest(connection, remoteEndPoint, replyBack, 0);
+    }
+
+    void sendBindRequest(TcpIpConnection connection, Address remoteEndPoint, boolean replyBack, int lane) {
         connection.setEndPoint(remoteEndPoint);
         ioService.onSuccessfulConnection(remoteEndPoint);
         //make sure bind packet is the first packet sent to the end point.
         if (logger.isFinestEnabled()) {
             logger.finest("Sending bind packet to " + remoteEndPoint);
         }
-        BindMessage bind = new BindMessage(ioService.getThisAddress(), remoteEndPoint, replyBack);
+        BindMessage bind = new BindMessage(ioService.getThisAddress(), remoteEndPoint, replyBack, lane,
+                ioService.isSocketCompression());
         byte[] bytes = ioService.getSerializationService().toBytes(bind);
         Packet packet = new Packet(bytes);
         packet.setFlag(Packet.FLAG_BIND);
@@ -410,11 +538,31 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         }
 
         Address endPoint = connection.getEndPoint();
-        if (endPoint != null) {
-            connectionsInProgress.remove(endPoint);
-            connectionsMap.remove(endPoint, connection);
-            fireConnectionRemovedEvent(connection, endPoint);
+        if (endPoint == null) {
+            return;
+        }
+
+        if (connection instanceof TcpIpConnection && ((TcpIpConnection) connection).getLane() > 0) {
+            TcpIpConnectionLanes connectionLanes = lanes.get(endPoint);
+            if (connectionLanes != null && connectionLanes.isRegistered((TcpIpConnection) connection)) {
+                // the partitions of the lane can't move to another connection without losing their order,
+                // so the lane is lost together with the regular connection
+                Connection regularConnection = connectionsMap.get(endPoint);
+                if (regularConnection != null) {
+                    regularConnection.close("Lane " + ((TcpIpConnection) connection).getLane() + " is closed", null);
+                }
+            }
+            return;
+        }
+
+        connectionsInProgress.remove(endPoint);
+        if (connectionsMap.remove(endPoint, connection)) {
+            TcpIpConnectionLanes connectionLanes = lanes.remove(endPoint);
+            if (connectionLanes != null) {
+                connectionLanes.close("Connection to " + endPoint + " is closed");
+            }
         }
+        fireConnectionRemovedEvent(connection, endPoint);
     }
 
     private void fireConnectionRemovedEvent(final Connection connection, final Address endPoint) {
@@ -454,6 +602,8 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
             throw new IllegalStateException("ConnectionManager is already shutdown. Cannot start!");
         }
 
+        laneCount = max(1, ioService.getSocketMemberConnectionCount());
+        partitionCount = ioService.getPartitionCount();
         live = true;
         logger.finest("Starting ConnectionManager and IO selectors.");
 
@@ -503,6 +653,7 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         acceptedSockets.clear();
         connectionsInProgress.clear();
         connectionsMap.clear();
+        lanes.clear();
         monitors.clear();
         activeConnections.clear();
     }
@@ -584,7 +735,7 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
             return false;
         }
 
-        return connection.write(packet);
+        return selectConnection(packet, connection).write(packet);
     }
 
     /**
@@ -601,7 +752,7 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
     private boolean send(Packet packet, Address target, SendTask sendTask) {
         Connection connection = getConnection(target);
         if (connection != null) {
-            return connection.write(packet);
+            return selectConnection(packet, connection).write(packet);
         }
 
         if (sendTask == null) {
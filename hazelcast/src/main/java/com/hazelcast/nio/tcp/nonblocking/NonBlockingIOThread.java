@@ -27,6 +27,7 @@ import com.hazelcast.util.EmptyStatement;
 import java.io.IOException;
 import java.nio.channels.CancelledKeyException;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
@@ -82,6 +83,8 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
 
     // last time select unblocked with some keys selected
     private volatile long lastSelectTimeMs;
+    // set before the thread is handed to its NonBlockingIOThreadHost, a hosted thread is never started
+    private volatile boolean hosted;
     // set to true while testing
     private boolean selectorWorkaroundTest;
 
@@ -173,7 +176,8 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
      */
     public void addTaskAndWakeup(Runnable task) {
         taskQueue.add(task);
-        if (selectMode != SelectorMode.SELECT_NOW) {
+        // a hosted NonBlockingIOThread is not alive and its host can block on the selector, whatever the selectMode
+        if (selectMode != SelectorMode.SELECT_NOW || !isAlive()) {
             selector.wakeup();
         }
     }
@@ -291,6 +295,53 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
         }
     }
 
+    /**
+     * Processes the pending tasks and the selected keys once; if there are no selected keys, it waits at most
+     * timeoutMs for one. A timeout of 0 doesn't wait at all.
+     * <p/>
+     * This method should only be called by the {@link NonBlockingIOThreadHost} of this NonBlockingIOThread and
+     * this NonBlockingIOThread should not be started.
+     *
+     * @param timeoutMs the maximum time to wait in milliseconds.
+     */
+    public final void selectOnce(long timeoutMs) {
+        try {
+            processTaskQueue();
+
+            int selectedKeys = timeoutMs > 0 ? selector.select(timeoutMs) : selector.selectNow();
+            if (selectedKeys > 0) {
+                handleSelectionKeys();
+            }
+        } catch (ClosedSelectorException e) {
+            // the selector was closed because we are shutting down
+            EmptyStatement.ignore(e);
+        } catch (IOException e) {
+            selectorIOExceptionCount.inc();
+            logger.warning(getName() + " " + e.toString(), e);
+        }
+    }
+
+    /**
+     * Checks if this NonBlockingIOThread is driven by a {@link NonBlockingIOThreadHost}. The handlers of a hosted
+     * NonBlockingIOThread can't be migrated, since their tasks run on the host and not on this thread.
+     *
+     * @return true if hosted, false otherwise.
+     */
+    public boolean isHosted() {
+        return hosted;
+    }
+
+    void setHosted() {
+        this.hosted = true;
+    }
+
+    /**
+     * Wakes up the {@link NonBlockingIOThreadHost} of this NonBlockingIOThread when it is waiting on the selector.
+     */
+    public final void wakeup() {
+        selector.wakeup();
+    }
+
     private void processTaskQueue() {
         while (!isInterrupted()) {
             Runnable task = taskQueue.poll();
@@ -363,6 +414,10 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
     public final void shutdown() {
         taskQueue.clear();
         interrupt();
+        if (!isAlive()) {
+            // a hosted NonBlockingIOThread is never started, so it will not close the selector itself
+            closeSelector();
+        }
     }
 
     // this method is always invoked in this thread
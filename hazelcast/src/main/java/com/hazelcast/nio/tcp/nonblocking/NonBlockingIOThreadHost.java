@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp.nonblocking;
+
+/**
+ * A thread that drives the selector of a {@link NonBlockingIOThread} besides doing its own work. The hosted
+ * NonBlockingIOThread is never started; the host calls {@link NonBlockingIOThread#selectOnce(long)} when it has
+ * nothing else to do and is woken up using {@link NonBlockingIOThread#wakeup()}.
+ * <p/>
+ * This is used for the thread-per-core mode, where a partition operation thread also reads the packets of its
+ * connections; so the packets it reads for its own partitions don't need to be handed over to another thread.
+ */
+public interface NonBlockingIOThreadHost {
+
+    /**
+     * Starts hosting the given NonBlockingIOThread.
+     * <p/>
+     * This method is thread safe.
+     *
+     * @param ioThread the NonBlockingIOThread to host or {@code null} to stop hosting.
+     */
+    void host(NonBlockingIOThread ioThread);
+}
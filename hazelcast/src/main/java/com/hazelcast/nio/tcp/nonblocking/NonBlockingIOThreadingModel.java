@@ -41,10 +41,15 @@ import static java.util.logging.Level.INFO;
  * By default the {@link NonBlockingIOThread} blocks on the Selector, but it can be put in a 'selectNow' mode that makes it
  * spinning on the selector. This is an experimental feature and will cause the io threads to run hot. For this reason, when
  * this feature is enabled, the number of io threads should be reduced (preferably 1).
+ *
+ * When {@link NonBlockingIOThreadHost}s are provided, the input threads are not started. Instead each input thread is
+ * driven by a host, e.g. a partition operation thread in the thread-per-core mode. The read handlers are then never
+ * migrated by the {@link IOBalancer}.
  */
 public class NonBlockingIOThreadingModel implements IOThreadingModel {
 
     private final NonBlockingIOThread[] inputThreads;
+    private final NonBlockingIOThreadHost[] inputThreadHosts;
     private final NonBlockingIOThread[] outputThreads;
     private final AtomicInteger nextInputThreadIndex = new AtomicInteger();
     private final AtomicInteger nextOutputThreadIndex = new AtomicInteger();
@@ -70,12 +75,31 @@ public class NonBlockingIOThreadingModel implements IOThreadingModel {
             LoggingService loggingService,
             MetricsRegistry metricsRegistry,
             HazelcastThreadGroup hazelcastThreadGroup) {
+        this(ioService, loggingService, metricsRegistry, hazelcastThreadGroup, null);
+    }
+
+    /**
+     * Creates a NonBlockingIOThreadingModel.
+     *
+     * @param inputThreadHosts the hosts of the input threads; one input thread is created for every host. If
+     *                         {@code null}, the input threads run on their own.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public NonBlockingIOThreadingModel(
+            IOService ioService,
+            LoggingService loggingService,
+            MetricsRegistry metricsRegistry,
+            HazelcastThreadGroup hazelcastThreadGroup,
+            NonBlockingIOThreadHost[] inputThreadHosts) {
         this.ioService = ioService;
         this.hazelcastThreadGroup = hazelcastThreadGroup;
         this.metricsRegistry = metricsRegistry;
         this.loggingService = loggingService;
         this.logger = loggingService.getLogger(NonBlockingIOThreadingModel.class);
-        this.inputThreads = new NonBlockingIOThread[ioService.getInputSelectorThreadCount()];
+        this.inputThreadHosts = inputThreadHosts;
+        this.inputThreads = new NonBlockingIOThread[inputThreadHosts == null
+                ? ioService.getInputSelectorThreadCount()
+                : inputThreadHosts.length];
         this.outputThreads = new NonBlockingIOThread[ioService.getOutputSelectorThreadCount()];
     }
 
@@ -121,7 +145,8 @@ public class NonBlockingIOThreadingModel implements IOThreadingModel {
     public void start() {
         logger.info("TcpIpConnectionManager configured with Non Blocking IO-threading model: "
                 + inputThreads.length + " input threads and "
-                + outputThreads.length + " output threads");
+                + outputThreads.length + " output threads"
+                + (inputThreadHosts == null ? "" : ", the input threads are hosted by the partition operation threads"));
 
         logger.log(getSelectorMode() != SelectorMode.SELECT ? INFO : FINE,
                     "IO threads selector mode is " + getSelectorMode());
@@ -145,7 +170,12 @@ public class NonBlockingIOThreadingModel implements IOThreadingModel {
             thread.setSelectorWorkaroundTest(selectorWorkaroundTest);
             inputThreads[i] = thread;
             metricsRegistry.scanAndRegister(thread, "tcp." + thread.getName());
-            thread.start();
+            if (inputThreadHosts == null) {
+                thread.start();
+            } else {
+                thread.setHosted();
+                inputThreadHosts[i].host(thread);
+            }
         }
 
         for (int i = 0; i < outputThreads.length; i++) {
@@ -190,6 +220,11 @@ public class NonBlockingIOThreadingModel implements IOThreadingModel {
             logger.finest("Shutting down IO selectors... Total: " + (inputThreads.length + outputThreads.length));
         }
 
+        if (inputThreadHosts != null) {
+            for (NonBlockingIOThreadHost host : inputThreadHosts) {
+                host.host(null);
+            }
+        }
         shutdown(inputThreads);
         shutdown(outputThreads);
     }
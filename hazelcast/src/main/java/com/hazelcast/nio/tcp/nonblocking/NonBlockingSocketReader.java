@@ -50,9 +50,16 @@ import static java.lang.System.currentTimeMillis;
  * When the {@link NonBlockingIOThread} receives a read event from the {@link java.nio.channels.Selector}, then the
  * {@link #handle()} is called to read out the data from the socket into a bytebuffer and hand it over to the
  * {@link ReadHandler} to get processed.
+ *
+ * If {@link com.hazelcast.spi.properties.GroupProperty#SOCKET_READ_DRAIN_ENABLED} is set, the socket is drained: as long
+ * as a read fills up the input buffer, the reader reads again before returning to the selector.
  */
 public final class NonBlockingSocketReader extends AbstractHandler implements SocketReader {
 
+    // the maximum number of reads for a single read event when draining the socket, so that other sockets on the
+    // same NonBlockingIOThread don't starve.
+    static final int MAX_READS_PER_EVENT = 16;
+
     @Probe(name = "eventCount")
     private final SwCounter eventCount = newSwCounter();
     @Probe(name = "bytesRead")
@@ -62,6 +69,7 @@ public final class NonBlockingSocketReader extends AbstractHandler implements So
     @Probe(name = "priorityFramesRead")
     private final SwCounter priorityFramesRead = newSwCounter();
     private final MetricsRegistry metricRegistry;
+    private final boolean drainSocket;
 
     private ReadHandler readHandler;
     private ByteBuffer inputBuffer;
@@ -74,6 +82,7 @@ public final class NonBlockingSocketReader extends AbstractHandler implements So
         super(connection, ioThread, SelectionKey.OP_READ);
         this.ioThread = ioThread;
         this.metricRegistry = metricsRegistry;
+        this.drainSocket = ioService.isSocketReadDrain();
         metricRegistry.scanAndRegister(this, "tcp.connection[" + connection.getMetricsId() + "].in");
     }
 
@@ -128,6 +137,11 @@ public final class NonBlockingSocketReader extends AbstractHandler implements So
      */
     @Override
     public void requestMigration(NonBlockingIOThread newOwner) {
+        if (ioThread.isHosted() || newOwner.isHosted()) {
+            // the migration tasks would run on the partition threads hosting the selectors
+            logger.finest("Ignoring the migration of " + this + ", its NonBlockingIOThread is hosted");
+            return;
+        }
         ioThread.addTaskAndWakeup(new StartMigrationTask(newOwner));
     }
 
@@ -151,23 +165,31 @@ public final class NonBlockingSocketReader extends AbstractHandler implements So
             }
         }
 
-        int readBytes = socketChannel.read(inputBuffer);
-        if (readBytes <= 0) {
-            if (readBytes == -1) {
-                throw new EOFException("Remote socket closed!");
+        int reads = 0;
+        boolean bufferFilled;
+        do {
+            int bytesWanted = inputBuffer.remaining();
+            int readBytes = socketChannel.read(inputBuffer);
+            if (readBytes <= 0) {
+                if (readBytes == -1) {
+                    throw new EOFException("Remote socket closed!");
+                }
+                return;
             }
-            return;
-        }
 
-        bytesRead.inc(readBytes);
+            bytesRead.inc(readBytes);
+            // if the buffer didn't fill up, the socket has been drained.
+            bufferFilled = readBytes == bytesWanted;
 
-        inputBuffer.flip();
-        readHandler.onRead(inputBuffer);
-        if (inputBuffer.hasRemaining()) {
-            inputBuffer.compact();
-        } else {
-            inputBuffer.clear();
-        }
+            inputBuffer.flip();
+            readHandler.onRead(inputBuffer);
+            if (inputBuffer.hasRemaining()) {
+                inputBuffer.compact();
+            } else {
+                inputBuffer.clear();
+            }
+            reads++;
+        } while (drainSocket && bufferFilled && reads < MAX_READS_PER_EVENT);
     }
 
     private void initReadHandler() throws IOException {
@@ -24,6 +24,7 @@ import com.hazelcast.nio.OutboundFrame;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.nio.ascii.TextWriteHandler;
 import com.hazelcast.nio.tcp.ClientWriteHandler;
+import com.hazelcast.nio.tcp.MemberWriteHandler;
 import com.hazelcast.nio.tcp.SocketWriter;
 import com.hazelcast.nio.tcp.TcpIpConnection;
 import com.hazelcast.nio.tcp.WriteHandler;
@@ -55,6 +56,8 @@ import static java.lang.System.currentTimeMillis;
 public final class NonBlockingSocketWriter extends AbstractHandler implements Runnable, SocketWriter {
 
     private static final long TIMEOUT = 3;
+    // the maximum number of buffers passed to a single gathering write
+    private static final int MAX_SEGMENTS = 64;
 
     @SuppressWarnings("checkstyle:visibilitymodifier")
     @Probe(name = "writeQueueSize")
@@ -79,6 +82,15 @@ public final class NonBlockingSocketWriter extends AbstractHandler implements Ru
     private volatile long lastWriteTime;
 
     private boolean shutdown;
+
+    // The gathering write state; segments is only set if gathering writes are used, see createWriterHandler.
+    // The segments are slices of the outputBuffer and the payloads of large packets, in the order they need to be written.
+    private ByteBuffer[] segments;
+    private int segmentCount;
+    private int segmentIndex;
+    // the position in the outputBuffer where the segment that is currently filled, starts
+    private int segmentStart;
+    private int gatheringWriteThreshold;
     // this field will be accessed by the NonBlockingIOThread or
     // it is accessed by any other thread but only that thread managed to cas the scheduled flag to true.
     // This prevents running into an NonBlockingIOThread that is migrating.
@@ -165,6 +177,11 @@ public final class NonBlockingSocketWriter extends AbstractHandler implements Ru
             if (CLUSTER.equals(protocol)) {
                 configureBuffers(ioService.getSocketSendBufferSize() * KILO_BYTE);
                 writeHandler = ioService.createWriteHandler(connection);
+                // gathering writes bypass the WriteHandler for large packets, so only if it is the plain MemberWriteHandler
+                if (ioService.isSocketGatheringWrite() && writeHandler.getClass() == MemberWriteHandler.class) {
+                    segments = new ByteBuffer[MAX_SEGMENTS];
+                    gatheringWriteThreshold = ioService.getSocketGatheringWriteThreshold();
+                }
                 outputBuffer.put(stringToBytes(CLUSTER));
                 registerOp(SelectionKey.OP_WRITE);
             } else if (CLIENT_BINARY_NEW.equals(protocol)) {
@@ -278,6 +295,14 @@ public final class NonBlockingSocketWriter extends AbstractHandler implements Ru
             return;
         }
 
+        if (segments != null && !(writeQueue.isEmpty() && urgentWriteQueue.isEmpty())) {
+            // Frames were queued while we were writing, so we are under load. Instead of writing them immediately, we
+            // stay scheduled and wait for the nio write event of the next select. In the meantime more frames can be queued
+            // and they are coalesced into a single gathering write.
+            registerOp(SelectionKey.OP_WRITE);
+            return;
+        }
+
         // since everything is written, we are not interested anymore in write-events, so lets unsubscribe
         unregisterOp(SelectionKey.OP_WRITE);
         // So the outputBuffer is empty, so we are going to unschedule ourselves.
@@ -321,10 +346,14 @@ public final class NonBlockingSocketWriter extends AbstractHandler implements Ru
             createWriterHandler(CLUSTER);
         }
 
-        fillOutputBuffer();
+        if (segments != null) {
+            gatheringWrite();
+        } else {
+            fillOutputBuffer();
 
-        if (dirtyOutputBuffer()) {
-            writeOutputBufferToSocket();
+            if (dirtyOutputBuffer()) {
+                writeOutputBufferToSocket();
+            }
         }
 
         if (newOwner == null) {
@@ -371,6 +400,85 @@ public final class NonBlockingSocketWriter extends AbstractHandler implements Ru
         }
     }
 
+    /**
+     * Writes the pending segments to the socket using a single gathering write. If there are no pending segments, new
+     * segments are created from the pending frames first.
+     * <p/>
+     * The outputBuffer is only cleared when all segments are written, since the segments are slices of it.
+     *
+     * @throws Exception
+     */
+    private void gatheringWrite() throws Exception {
+        if (segmentCount == 0) {
+            fillSegments();
+            if (segmentCount == 0) {
+                return;
+            }
+        }
+
+        long written = socketChannel.write(segments, segmentIndex, segmentCount - segmentIndex);
+        bytesWritten.inc(written);
+
+        while (segmentIndex < segmentCount && !segments[segmentIndex].hasRemaining()) {
+            segments[segmentIndex] = null;
+            segmentIndex++;
+        }
+
+        if (segmentIndex == segmentCount) {
+            // everything is written, so the outputBuffer can be reused
+            segmentCount = 0;
+            segmentIndex = 0;
+            segmentStart = 0;
+            outputBuffer.clear();
+        }
+    }
+
+    /**
+     * Creates the segments for the pending frames. Frames are copied into the outputBuffer, except packets with a payload
+     * of at least the gathering write threshold: only their header is copied and their payload becomes a segment of its own.
+     *
+     * @throws Exception
+     */
+    private void fillSegments() throws Exception {
+        // a large packet needs 2 segments: one for the outputBuffer content including its header and one for its payload
+        while (segmentCount < MAX_SEGMENTS - 2 && outputBuffer.hasRemaining()) {
+            if (currentFrame == null) {
+                currentFrame = poll();
+                if (currentFrame == null) {
+                    break;
+                }
+            }
+
+            if (currentFrame.getClass() == Packet.class && ((Packet) currentFrame).totalSize() >= gatheringWriteThreshold) {
+                // a large packet is only handled here when nothing of it has been written yet
+                Packet packet = (Packet) currentFrame;
+                if (!packet.writeHeaderTo(outputBuffer)) {
+                    break;
+                }
+                closeSegment();
+                segments[segmentCount++] = ByteBuffer.wrap(packet.toByteArray());
+            } else if (!writeHandler.onWrite(currentFrame, outputBuffer)) {
+                // the remainder of the frame is written in the next round
+                break;
+            }
+
+            currentFrame = null;
+        }
+
+        closeSegment();
+    }
+
+    private void closeSegment() {
+        int position = outputBuffer.position();
+        if (position > segmentStart) {
+            ByteBuffer segment = outputBuffer.duplicate();
+            segment.limit(position);
+            segment.position(segmentStart);
+            segments[segmentCount++] = segment;
+            segmentStart = position;
+        }
+    }
+
     /**
      * Fills the outBuffer with frames. This is done till there are no more frames or till there is no more space in the
      * outputBuffer.
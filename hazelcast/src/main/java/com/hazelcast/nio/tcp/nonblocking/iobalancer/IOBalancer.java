@@ -50,6 +50,9 @@ import static com.hazelcast.spi.properties.GroupProperty.IO_THREAD_COUNT;
  *
  * Measuring interval can be customized via {@link GroupProperty#IO_BALANCER_INTERVAL_SECONDS}
  *
+ * When the input threads are hosted by the partition operation threads, see
+ * {@link GroupProperty#OPERATION_THREAD_PER_CORE}, only the write handlers are balanced.
+ *
  * It doesn't leverage {@link com.hazelcast.nio.ConnectionListener} capability
  * provided by {@link com.hazelcast.nio.ConnectionManager} to observe connections as it has to be notified
  * right after a physical TCP connection is created whilst <code>ConnectionListener</code> is notified only
@@ -64,6 +67,8 @@ public class IOBalancer {
 
     private final LoadTracker inLoadTracker;
     private final LoadTracker outLoadTracker;
+    // the read handlers of hosted input threads can't be migrated, see NonBlockingIOThread#isHosted
+    private final boolean inputThreadsHosted;
 
     private final HazelcastThreadGroup threadGroup;
     private volatile boolean enabled;
@@ -87,6 +92,7 @@ public class IOBalancer {
         this.strategy = createMigrationStrategy();
         this.threadGroup = threadGroup;
 
+        this.inputThreadsHosted = inputThreads.length > 0 && inputThreads[0].isHosted();
         this.inLoadTracker = new LoadTracker(inputThreads, logger);
         this.outLoadTracker = new LoadTracker(outputThreads, logger);
 
@@ -135,6 +141,9 @@ public class IOBalancer {
     }
 
     void checkReadHandlers() {
+        if (inputThreadsHosted) {
+            return;
+        }
         scheduleMigrationIfNeeded(inLoadTracker);
     }
 
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.projection;
+
+import java.io.Serializable;
+
+/**
+ * Enables transforming object into other objects.
+ * <p/>
+ * A projection is executed on the members holding the data, so only the transformed object is serialized and
+ * sent to the caller. Exemplary usage scenario is a query returning only a few attributes of big values.
+ * <p/>
+ * Since the projection is sent over the wire it has to be serializable. Implementing
+ * {@link com.hazelcast.nio.serialization.IdentifiedDataSerializable} is recommended for best performance.
+ * Only 1:1 transformations are allowed. Use an {@link com.hazelcast.aggregation.Aggregator} to perform N:1
+ * aggregations.
+ *
+ * @param <I> input type
+ * @param <O> output type
+ * @since 3.7
+ */
+public abstract class Projection<I, O> implements Serializable {
+
+    /**
+     * Transforms the input object into the output object.
+     *
+     * @param input object.
+     * @return the output object.
+     */
+    public abstract O transform(I input);
+}
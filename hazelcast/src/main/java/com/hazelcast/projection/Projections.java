@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.projection;
+
+import com.hazelcast.projection.impl.MultiAttributeProjection;
+import com.hazelcast.projection.impl.SingleAttributeProjection;
+
+/**
+ * A utility class to create the built-in {@link Projection} instances to be used with
+ * {@link com.hazelcast.core.IMap#project(Projection)}.
+ * <p/>
+ * The attributes are extracted the same way the query engine does, so custom extractors and the
+ * {@code __key} prefix are supported. A multi-value ({@code [any]}) extraction is returned as a {@link java.util.List}.
+ *
+ * @since 3.7
+ */
+public final class Projections {
+
+    private Projections() {
+    }
+
+    /**
+     * Returns a projection that extracts the value of the given attribute path.
+     *
+     * @param attributePath single attribute path, path must not be null or empty
+     * @param <I>           type of the input
+     * @param <O>           type of the extracted attribute
+     */
+    public static <I, O> Projection<I, O> singleAttribute(String attributePath) {
+        return new SingleAttributeProjection<I, O>(attributePath);
+    }
+
+    /**
+     * Returns a projection that extracts the value of the given attribute paths.
+     * The attribute values will be returned as an Object[] array from each projection call.
+     *
+     * @param attributePaths attribute paths, paths must not be null or empty
+     * @param <I>            type of the input
+     */
+    public static <I> Projection<I, Object[]> multiAttribute(String... attributePaths) {
+        return new MultiAttributeProjection<I>(attributePaths);
+    }
+}
@@ -0,0 +1,520 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+
+/**
+ * B+tree keyed by {@code (attribute value, entry key)} pairs, used by {@link BPlusTreeIndexStore}.
+ * <p/>
+ * Nodes keep their keys in plain arrays so lookups and range scans walk contiguous memory instead of
+ * chasing skip-list and hash-map nodes. Leaves are linked, so a range scan descends once and then
+ * follows the leaf chain. Entries with equal attribute values are ordered by their key, which makes
+ * every {@code (value, key)} pair unique.
+ * <p/>
+ * This class is not thread-safe; {@link BPlusTreeIndexStore} guards it with its read/write lock.
+ */
+final class BPlusTree {
+
+    static final int DEFAULT_ORDER = 64;
+
+    private static final int MIN_ORDER = 4;
+
+    private final int order;
+    private final int minSize;
+
+    private Node root;
+    private int size;
+
+    BPlusTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    BPlusTree(int order) {
+        if (order < MIN_ORDER) {
+            throw new IllegalArgumentException("order must be at least " + MIN_ORDER + ", was " + order);
+        }
+        this.order = order;
+        this.minSize = order / 2;
+        this.root = new Leaf(order);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        root = new Leaf(order);
+        size = 0;
+    }
+
+    /**
+     * Associates the entry with the given value and key.
+     *
+     * @return the entry previously associated with the value and key, or {@code null} if there was none
+     */
+    QueryableEntry put(Comparable value, Data key, QueryableEntry entry) {
+        Put put = new Put(value, key, entry);
+        Node split = insert(root, put);
+        if (split != null) {
+            Inner newRoot = new Inner(order);
+            newRoot.values[0] = put.splitValue;
+            newRoot.keys[0] = put.splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = split;
+            newRoot.size = 1;
+            root = newRoot;
+        }
+        if (put.replaced == null) {
+            size++;
+        }
+        return put.replaced;
+    }
+
+    /**
+     * Removes the entry associated with the given value and key.
+     *
+     * @return the removed entry, or {@code null} if there was none
+     */
+    QueryableEntry remove(Comparable value, Data key) {
+        QueryableEntry removed = delete(root, value, key);
+        if (removed != null) {
+            size--;
+            if (root instanceof Inner && root.size == 0) {
+                root = ((Inner) root).children[0];
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Adds all entries whose values lie in the given range to the result, in ascending value order.
+     * A {@code null} bound means the range is unbounded on that side.
+     */
+    @SuppressWarnings("unchecked")
+    void collect(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                 EntryArrayResultSet result) {
+        Leaf leaf;
+        int index;
+        if (from == null) {
+            leaf = firstLeaf();
+            index = 0;
+        } else {
+            leaf = findLeaf(from, fromInclusive);
+            index = valueBound(leaf, from, fromInclusive);
+        }
+        while (leaf != null) {
+            for (; index < leaf.size; index++) {
+                if (to != null) {
+                    int c = leaf.values[index].compareTo(to);
+                    if (c > 0 || (c == 0 && !toInclusive)) {
+                        return;
+                    }
+                }
+                result.addEntry(leaf.entries[index]);
+            }
+            leaf = leaf.next;
+            index = 0;
+        }
+    }
+
+    private Leaf firstLeaf() {
+        Node node = root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[0];
+        }
+        return (Leaf) node;
+    }
+
+    /**
+     * Descends to the leaf where the first entry with a value {@code >= value} (or {@code > value}
+     * when not inclusive) would be found. The entry itself may live in one of the following leaves.
+     */
+    @SuppressWarnings("unchecked")
+    private Leaf findLeaf(Comparable value, boolean inclusive) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            int index = 0;
+            while (index < inner.size) {
+                int c = inner.values[index].compareTo(value);
+                if (c > 0 || (c == 0 && inclusive)) {
+                    break;
+                }
+                index++;
+            }
+            node = inner.children[index];
+        }
+        return (Leaf) node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int valueBound(Leaf leaf, Comparable value, boolean inclusive) {
+        int low = 0;
+        int high = leaf.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int c = leaf.values[mid].compareTo(value);
+            if (c < 0 || (c == 0 && !inclusive)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private Node insert(Node node, Put put) {
+        if (node instanceof Leaf) {
+            return insertIntoLeaf((Leaf) node, put);
+        }
+        Inner inner = (Inner) node;
+        int childIndex = childIndex(inner, put.value, put.key);
+        Node split = insert(inner.children[childIndex], put);
+        if (split == null) {
+            return null;
+        }
+        shiftRight(inner.values, childIndex, inner.size);
+        shiftRight(inner.keys, childIndex, inner.size);
+        shiftRight(inner.children, childIndex + 1, inner.size + 1);
+        inner.values[childIndex] = put.splitValue;
+        inner.keys[childIndex] = put.splitKey;
+        inner.children[childIndex + 1] = split;
+        inner.size++;
+        return inner.size > order ? splitInner(inner, put) : null;
+    }
+
+    private Node insertIntoLeaf(Leaf leaf, Put put) {
+        int index = search(leaf.values, leaf.keys, leaf.size, put.value, put.key);
+        if (index >= 0) {
+            put.replaced = leaf.entries[index];
+            leaf.entries[index] = put.entry;
+            return null;
+        }
+        index = -(index + 1);
+        shiftRight(leaf.values, index, leaf.size);
+        shiftRight(leaf.keys, index, leaf.size);
+        shiftRight(leaf.entries, index, leaf.size);
+        leaf.values[index] = put.value;
+        leaf.keys[index] = put.key;
+        leaf.entries[index] = put.entry;
+        leaf.size++;
+        return leaf.size > order ? splitLeaf(leaf, put) : null;
+    }
+
+    private Node splitLeaf(Leaf leaf, Put put) {
+        Leaf right = new Leaf(order);
+        int mid = leaf.size / 2;
+        int moved = leaf.size - mid;
+        System.arraycopy(leaf.values, mid, right.values, 0, moved);
+        System.arraycopy(leaf.keys, mid, right.keys, 0, moved);
+        System.arraycopy(leaf.entries, mid, right.entries, 0, moved);
+        clear(leaf.values, mid, leaf.size);
+        clear(leaf.keys, mid, leaf.size);
+        clear(leaf.entries, mid, leaf.size);
+        right.size = moved;
+        leaf.size = mid;
+        right.next = leaf.next;
+        leaf.next = right;
+        put.splitValue = right.values[0];
+        put.splitKey = right.keys[0];
+        return right;
+    }
+
+    private Node splitInner(Inner inner, Put put) {
+        Inner right = new Inner(order);
+        int mid = inner.size / 2;
+        int moved = inner.size - mid - 1;
+        put.splitValue = inner.values[mid];
+        put.splitKey = inner.keys[mid];
+        System.arraycopy(inner.values, mid + 1, right.values, 0, moved);
+        System.arraycopy(inner.keys, mid + 1, right.keys, 0, moved);
+        System.arraycopy(inner.children, mid + 1, right.children, 0, moved + 1);
+        clear(inner.values, mid, inner.size);
+        clear(inner.keys, mid, inner.size);
+        clear(inner.children, mid + 1, inner.size + 1);
+        right.size = moved;
+        inner.size = mid;
+        return right;
+    }
+
+    private QueryableEntry delete(Node node, Comparable value, Data key) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int index = search(leaf.values, leaf.keys, leaf.size, value, key);
+            if (index < 0) {
+                return null;
+            }
+            QueryableEntry removed = leaf.entries[index];
+            shiftLeft(leaf.values, index, leaf.size);
+            shiftLeft(leaf.keys, index, leaf.size);
+            shiftLeft(leaf.entries, index, leaf.size);
+            leaf.size--;
+            return removed;
+        }
+        Inner inner = (Inner) node;
+        int childIndex = childIndex(inner, value, key);
+        Node child = inner.children[childIndex];
+        QueryableEntry removed = delete(child, value, key);
+        if (removed != null && child.size < minSize) {
+            rebalance(inner, childIndex);
+        }
+        return removed;
+    }
+
+    private void rebalance(Inner parent, int childIndex) {
+        Node left = childIndex > 0 ? parent.children[childIndex - 1] : null;
+        Node right = childIndex < parent.size ? parent.children[childIndex + 1] : null;
+        if (left != null && left.size > minSize) {
+            borrowFromLeft(parent, childIndex);
+        } else if (right != null && right.size > minSize) {
+            borrowFromRight(parent, childIndex);
+        } else if (left != null) {
+            merge(parent, childIndex - 1);
+        } else if (right != null) {
+            merge(parent, childIndex);
+        }
+    }
+
+    private void borrowFromLeft(Inner parent, int childIndex) {
+        int separator = childIndex - 1;
+        Node child = parent.children[childIndex];
+        if (child instanceof Leaf) {
+            Leaf leaf = (Leaf) child;
+            Leaf left = (Leaf) parent.children[separator];
+            int last = left.size - 1;
+            shiftRight(leaf.values, 0, leaf.size);
+            shiftRight(leaf.keys, 0, leaf.size);
+            shiftRight(leaf.entries, 0, leaf.size);
+            leaf.values[0] = left.values[last];
+            leaf.keys[0] = left.keys[last];
+            leaf.entries[0] = left.entries[last];
+            leaf.size++;
+            clear(left.values, last, left.size);
+            clear(left.keys, last, left.size);
+            clear(left.entries, last, left.size);
+            left.size--;
+            parent.values[separator] = leaf.values[0];
+            parent.keys[separator] = leaf.keys[0];
+        } else {
+            Inner inner = (Inner) child;
+            Inner left = (Inner) parent.children[separator];
+            int last = left.size - 1;
+            shiftRight(inner.values, 0, inner.size);
+            shiftRight(inner.keys, 0, inner.size);
+            shiftRight(inner.children, 0, inner.size + 1);
+            inner.values[0] = parent.values[separator];
+            inner.keys[0] = parent.keys[separator];
+            inner.children[0] = left.children[last + 1];
+            inner.size++;
+            parent.values[separator] = left.values[last];
+            parent.keys[separator] = left.keys[last];
+            clear(left.values, last, left.size);
+            clear(left.keys, last, left.size);
+            clear(left.children, last + 1, left.size + 1);
+            left.size--;
+        }
+    }
+
+    private void borrowFromRight(Inner parent, int childIndex) {
+        int separator = childIndex;
+        Node child = parent.children[childIndex];
+        if (child instanceof Leaf) {
+            Leaf leaf = (Leaf) child;
+            Leaf right = (Leaf) parent.children[childIndex + 1];
+            leaf.values[leaf.size] = right.values[0];
+            leaf.keys[leaf.size] = right.keys[0];
+            leaf.entries[leaf.size] = right.entries[0];
+            leaf.size++;
+            shiftLeft(right.values, 0, right.size);
+            shiftLeft(right.keys, 0, right.size);
+            shiftLeft(right.entries, 0, right.size);
+            right.size--;
+            parent.values[separator] = right.values[0];
+            parent.keys[separator] = right.keys[0];
+        } else {
+            Inner inner = (Inner) child;
+            Inner right = (Inner) parent.children[childIndex + 1];
+            inner.values[inner.size] = parent.values[separator];
+            inner.keys[inner.size] = parent.keys[separator];
+            inner.children[inner.size + 1] = right.children[0];
+            inner.size++;
+            parent.values[separator] = right.values[0];
+            parent.keys[separator] = right.keys[0];
+            shiftLeft(right.values, 0, right.size);
+            shiftLeft(right.keys, 0, right.size);
+            shiftLeft(right.children, 0, right.size + 1);
+            right.size--;
+        }
+    }
+
+    /**
+     * Merges the child to the right of the given separator into the child to its left and
+     * removes the separator from the parent.
+     */
+    private void merge(Inner parent, int separator) {
+        Node leftNode = parent.children[separator];
+        Node rightNode = parent.children[separator + 1];
+        if (leftNode instanceof Leaf) {
+            Leaf left = (Leaf) leftNode;
+            Leaf right = (Leaf) rightNode;
+            System.arraycopy(right.values, 0, left.values, left.size, right.size);
+            System.arraycopy(right.keys, 0, left.keys, left.size, right.size);
+            System.arraycopy(right.entries, 0, left.entries, left.size, right.size);
+            left.size += right.size;
+            left.next = right.next;
+        } else {
+            Inner left = (Inner) leftNode;
+            Inner right = (Inner) rightNode;
+            left.values[left.size] = parent.values[separator];
+            left.keys[left.size] = parent.keys[separator];
+            System.arraycopy(right.values, 0, left.values, left.size + 1, right.size);
+            System.arraycopy(right.keys, 0, left.keys, left.size + 1, right.size);
+            System.arraycopy(right.children, 0, left.children, left.size + 1, right.size + 1);
+            left.size += right.size + 1;
+        }
+        shiftLeft(parent.values, separator, parent.size);
+        shiftLeft(parent.keys, separator, parent.size);
+        shiftLeft(parent.children, separator + 1, parent.size + 1);
+        parent.size--;
+    }
+
+    /**
+     * Returns the index of the child that covers the given pair. A separator is the smallest pair of
+     * its right subtree, so an equal pair descends to the right.
+     */
+    private static int childIndex(Inner inner, Comparable value, Data key) {
+        int index = search(inner.values, inner.keys, inner.size, value, key);
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
+    /**
+     * Binary search in the style of {@link java.util.Arrays#binarySearch(Object[], Object)}.
+     */
+    private static int search(Comparable[] values, Data[] keys, int size, Comparable value, Data key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = compare(values[mid], keys[mid], value, key);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Comparable value1, Data key1, Comparable value2, Data key2) {
+        int c = value1.compareTo(value2);
+        return c != 0 ? c : compareKeys(key1, key2);
+    }
+
+    /**
+     * Orders keys consistently with {@link Data#equals(Object)}: by hash first, then by the
+     * serialized bytes that take part in equality.
+     */
+    static int compareKeys(Data key1, Data key2) {
+        int hash1 = key1.hashCode();
+        int hash2 = key2.hashCode();
+        if (hash1 != hash2) {
+            return hash1 < hash2 ? -1 : 1;
+        }
+        byte[] bytes1 = key1.toByteArray();
+        byte[] bytes2 = key2.toByteArray();
+        if (bytes1.length != bytes2.length) {
+            return bytes1.length < bytes2.length ? -1 : 1;
+        }
+        for (int i = HeapData.TYPE_OFFSET; i < bytes1.length; i++) {
+            if (bytes1[i] != bytes2[i]) {
+                return bytes1[i] < bytes2[i] ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private static void shiftRight(Object[] array, int from, int size) {
+        System.arraycopy(array, from, array, from + 1, size - from);
+    }
+
+    private static void shiftLeft(Object[] array, int from, int size) {
+        System.arraycopy(array, from + 1, array, from, size - from - 1);
+        array[size - 1] = null;
+    }
+
+    private static void clear(Object[] array, int from, int to) {
+        for (int i = from; i < to; i++) {
+            array[i] = null;
+        }
+    }
+
+    private abstract static class Node {
+        int size;
+    }
+
+    /**
+     * Arrays have room for one extra element so a node can overflow before it is split.
+     */
+    private static final class Leaf extends Node {
+        final Comparable[] values;
+        final Data[] keys;
+        final QueryableEntry[] entries;
+        Leaf next;
+
+        Leaf(int order) {
+            values = new Comparable[order + 1];
+            keys = new Data[order + 1];
+            entries = new QueryableEntry[order + 1];
+        }
+    }
+
+    private static final class Inner extends Node {
+        final Comparable[] values;
+        final Data[] keys;
+        final Node[] children;
+
+        Inner(int order) {
+            values = new Comparable[order + 1];
+            keys = new Data[order + 1];
+            children = new Node[order + 2];
+        }
+    }
+
+    /**
+     * State of a single insertion, carried through the recursion.
+     */
+    private static final class Put {
+        final Comparable value;
+        final Data key;
+        final QueryableEntry entry;
+        QueryableEntry replaced;
+        Comparable splitValue;
+        Data splitKey;
+
+        Put(Comparable value, Data key, QueryableEntry entry) {
+            this.value = value;
+            this.key = key;
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Sorted index store backed by a {@link BPlusTree}.
+ * <p/>
+ * Compared to {@link SortedIndexStore} it keeps one array-based tree instead of a skip list of
+ * per-value hash maps, so range predicates touch fewer objects and updates create far less garbage.
+ * Results are snapshots taken under the read lock.
+ */
+public class BPlusTreeIndexStore extends BaseIndexStore {
+
+    private final ConcurrentMap<Data, QueryableEntry> recordsWithNullValue
+            = new ConcurrentHashMap<Data, QueryableEntry>();
+
+    private final BPlusTree tree;
+
+    public BPlusTreeIndexStore() {
+        this(BPlusTree.DEFAULT_ORDER);
+    }
+
+    BPlusTreeIndexStore(int order) {
+        this.tree = new BPlusTree(order);
+    }
+
+    @Override
+    void newIndexInternal(Comparable newValue, QueryableEntry record) {
+        if (newValue instanceof IndexImpl.NullObject) {
+            recordsWithNullValue.put(record.getKeyData(), record);
+        } else {
+            tree.put(newValue, record.getKeyData(), record);
+        }
+    }
+
+    @Override
+    void removeIndexInternal(Comparable oldValue, Data indexKey) {
+        if (oldValue instanceof IndexImpl.NullObject) {
+            recordsWithNullValue.remove(indexKey);
+        } else {
+            tree.remove(oldValue, indexKey);
+        }
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            recordsWithNullValue.clear();
+            tree.clear();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
+        takeReadLock();
+        try {
+            EntryArrayResultSet results = createEntryArrayResultSet();
+            tree.collect(from, true, to, true, results);
+            return results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
+        takeReadLock();
+        try {
+            EntryArrayResultSet results = createEntryArrayResultSet();
+            switch (comparisonType) {
+                case LESSER:
+                    tree.collect(null, false, searchedValue, false, results);
+                    break;
+                case LESSER_EQUAL:
+                    tree.collect(null, false, searchedValue, true, results);
+                    break;
+                case GREATER:
+                    tree.collect(searchedValue, false, null, false, results);
+                    break;
+                case GREATER_EQUAL:
+                    tree.collect(searchedValue, true, null, false, results);
+                    break;
+                case NOT_EQUAL:
+                    tree.collect(null, false, searchedValue, false, results);
+                    tree.collect(searchedValue, false, null, false, results);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unrecognized comparisonType: " + comparisonType);
+            }
+            return results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public ConcurrentMap<Data, QueryableEntry> getRecordMap(Comparable value) {
+        takeReadLock();
+        try {
+            if (value instanceof IndexImpl.NullObject) {
+                return recordsWithNullValue;
+            }
+            EntryArrayResultSet results = createEntryArrayResultSet();
+            tree.collect(value, true, value, true, results);
+            if (results.isEmpty()) {
+                return null;
+            }
+            ConcurrentMap<Data, QueryableEntry> records
+                    = new ConcurrentHashMap<Data, QueryableEntry>(results.size(), LOAD_FACTOR, 1);
+            for (QueryableEntry entry : results) {
+                records.put(entry.getKeyData(), entry);
+            }
+            return records;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            if (value instanceof IndexImpl.NullObject) {
+                return new SingleResultSet(recordsWithNullValue);
+            }
+            EntryArrayResultSet results = createEntryArrayResultSet();
+            tree.collect(value, true, value, true, results);
+            return results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            EntryArrayResultSet results = createEntryArrayResultSet();
+            for (Comparable value : values) {
+                if (value instanceof IndexImpl.NullObject) {
+                    for (QueryableEntry entry : recordsWithNullValue.values()) {
+                        results.addEntry(entry);
+                    }
+                } else {
+                    tree.collect(value, true, value, true, results);
+                }
+            }
+            return results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    private EntryArrayResultSet createEntryArrayResultSet() {
+        return new EntryArrayResultSet(hasToDetectDuplicates());
+    }
+
+    @Override
+    public String toString() {
+        return "BPlusTreeIndexStore{"
+                + "tree=" + tree.size()
+                + '}';
+    }
+}
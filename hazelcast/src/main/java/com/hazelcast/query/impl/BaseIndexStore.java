@@ -132,6 +132,14 @@ public abstract class BaseIndexStore implements IndexStore {
 
     }
 
+    /**
+     * Returns {@code true} if an entry may be indexed under several values, so results built from
+     * several values have to be deduplicated.
+     */
+    protected boolean hasToDetectDuplicates() {
+        return multiResultHasToDetectDuplicates;
+    }
+
     protected MultiResultSet createMultiResultSet() {
         return multiResultHasToDetectDuplicates ? new DuplicateDetectingMultiResult() : new FastMultiResultSet();
     }
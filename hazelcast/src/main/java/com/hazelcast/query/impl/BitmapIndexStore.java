@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Unordered index store keeping one {@link CompressedBitSet} of entry ordinals per distinct value.
+ * <p/>
+ * Meant for attributes with few distinct values, e.g. enums, booleans or regions: instead of a hash map
+ * entry per indexed entry it costs roughly two bytes per entry and value. The ordinals come from the
+ * {@link EntryOrdinals} shared by all bitmap indexes of the map, whose lock also guards this store.
+ */
+public class BitmapIndexStore extends BaseIndexStore {
+
+    private final EntryOrdinals ordinals;
+    private final Map<Comparable, CompressedBitSet> bitmaps = new HashMap<Comparable, CompressedBitSet>();
+
+    public BitmapIndexStore(EntryOrdinals ordinals) {
+        this.ordinals = ordinals;
+        this.lock = ordinals.getLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+    }
+
+    public EntryOrdinals getEntryOrdinals() {
+        return ordinals;
+    }
+
+    @Override
+    void newIndexInternal(Comparable newValue, QueryableEntry record) {
+        CompressedBitSet bitmap = bitmaps.get(newValue);
+        if (bitmap == null) {
+            bitmap = new CompressedBitSet();
+            bitmaps.put(newValue, bitmap);
+        }
+        int ordinal = ordinals.acquire(record);
+        if (!bitmap.add(ordinal)) {
+            // already indexed under this value, keep a single reference
+            ordinals.release(ordinal);
+        }
+    }
+
+    @Override
+    void removeIndexInternal(Comparable oldValue, Data indexKey) {
+        CompressedBitSet bitmap = bitmaps.get(oldValue);
+        if (bitmap == null) {
+            return;
+        }
+        int ordinal = ordinals.getOrdinal(indexKey);
+        if (ordinal >= 0 && bitmap.remove(ordinal)) {
+            ordinals.release(ordinal);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(oldValue);
+            }
+        }
+    }
+
+    /**
+     * Returns the bitmap of the value, or {@code null} if no entry has this value. The caller must hold
+     * the read lock of the {@link EntryOrdinals} and must not modify the returned bitmap.
+     */
+    CompressedBitSet getBitmap(Comparable value) {
+        return bitmaps.get(value);
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            for (CompressedBitSet bitmap : bitmaps.values()) {
+                for (int ordinal = bitmap.nextSetBit(0); ordinal >= 0; ordinal = bitmap.nextSetBit(ordinal + 1)) {
+                    ordinals.release(ordinal);
+                }
+            }
+            bitmaps.clear();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
+        takeReadLock();
+        try {
+            CompressedBitSet result = new CompressedBitSet();
+            for (Map.Entry<Comparable, CompressedBitSet> entry : bitmaps.entrySet()) {
+                Comparable value = entry.getKey();
+                if (!(value instanceof IndexImpl.NullObject) && value.compareTo(from) >= 0 && value.compareTo(to) <= 0) {
+                    result = result.or(entry.getValue());
+                }
+            }
+            return ordinals.toResultSet(result);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
+        takeReadLock();
+        try {
+            CompressedBitSet result = new CompressedBitSet();
+            for (Map.Entry<Comparable, CompressedBitSet> entry : bitmaps.entrySet()) {
+                Comparable value = entry.getKey();
+                if (value instanceof IndexImpl.NullObject) {
+                    continue;
+                }
+                if (matches(comparisonType, searchedValue.compareTo(value))) {
+                    result = result.or(entry.getValue());
+                }
+            }
+            return ordinals.toResultSet(result);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    private static boolean matches(ComparisonType comparisonType, int result) {
+        switch (comparisonType) {
+            case LESSER:
+                return result > 0;
+            case LESSER_EQUAL:
+                return result >= 0;
+            case GREATER:
+                return result < 0;
+            case GREATER_EQUAL:
+                return result <= 0;
+            case NOT_EQUAL:
+                return result != 0;
+            default:
+                throw new IllegalStateException("Unrecognized comparisonType: " + comparisonType);
+        }
+    }
+
+    @Override
+    public ConcurrentMap<Data, QueryableEntry> getRecordMap(Comparable value) {
+        takeReadLock();
+        try {
+            CompressedBitSet bitmap = bitmaps.get(value);
+            if (bitmap == null) {
+                return null;
+            }
+            ConcurrentMap<Data, QueryableEntry> records
+                    = new ConcurrentHashMap<Data, QueryableEntry>(bitmap.cardinality(), LOAD_FACTOR, 1);
+            for (QueryableEntry entry : ordinals.toResultSet(bitmap)) {
+                records.put(entry.getKeyData(), entry);
+            }
+            return records;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            CompressedBitSet bitmap = bitmaps.get(value);
+            return bitmap == null ? new EntryArrayResultSet(false) : ordinals.toResultSet(bitmap);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            CompressedBitSet result = new CompressedBitSet();
+            for (Comparable value : values) {
+                CompressedBitSet bitmap = bitmaps.get(value);
+                if (bitmap != null) {
+                    result = result.or(bitmap);
+                }
+            }
+            return ordinals.toResultSet(result);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BitmapIndexStore{"
+                + "bitmaps=" + bitmaps.size()
+                + '}';
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+
+/**
+ * Value stored in a composite index: the values of the indexed attributes, compared lexicographically.
+ * <p/>
+ * Range lookups are expressed with bounds padded by {@link #NEGATIVE_INFINITY} and {@link #POSITIVE_INFINITY},
+ * e.g. all entries with {@code a = 1} lie between {@code (1, -inf)} and {@code (1, +inf)}. A bound may be one
+ * component longer than the stored values to express an exclusive range on the last attribute:
+ * {@code (1, 5, +inf)} is greater than every {@code (1, 5)}.
+ */
+public final class CompositeValue implements Comparable<CompositeValue> {
+
+    /**
+     * Component smaller than any other value.
+     */
+    public static final Comparable NEGATIVE_INFINITY = new Infinity(-1);
+
+    /**
+     * Component greater than any other value.
+     */
+    public static final Comparable POSITIVE_INFINITY = new Infinity(1);
+
+    private final Comparable[] components;
+
+    public CompositeValue(Comparable[] components) {
+        this.components = components;
+    }
+
+    public Comparable[] getComponents() {
+        return components;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int compareTo(CompositeValue other) {
+        Comparable[] otherComponents = other.components;
+        int length = Math.min(components.length, otherComponents.length);
+        for (int i = 0; i < length; i++) {
+            int c = compareComponents(components[i], otherComponents[i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        if (components.length == otherComponents.length) {
+            return 0;
+        }
+        if (components.length > length) {
+            return components[length] == NEGATIVE_INFINITY ? -1 : 1;
+        }
+        return otherComponents[length] == NEGATIVE_INFINITY ? 1 : -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareComponents(Comparable c1, Comparable c2) {
+        if (c1 == c2) {
+            return 0;
+        }
+        if (c1 == NEGATIVE_INFINITY || c2 == POSITIVE_INFINITY) {
+            return -1;
+        }
+        if (c1 == POSITIVE_INFINITY || c2 == NEGATIVE_INFINITY) {
+            return 1;
+        }
+        boolean null1 = c1 instanceof IndexImpl.NullObject;
+        boolean null2 = c2 instanceof IndexImpl.NullObject;
+        if (null1 || null2) {
+            return null1 == null2 ? 0 : (null1 ? -1 : 1);
+        }
+        return c1.compareTo(c2);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(components, ((CompositeValue) o).components);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(components);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(components);
+    }
+
+    private static final class Infinity implements Comparable {
+
+        private final int sign;
+
+        private Infinity(int sign) {
+            this.sign = sign;
+        }
+
+        @Override
+        public int compareTo(Object o) {
+            return o == this ? 0 : sign;
+        }
+
+        @Override
+        public String toString() {
+            return sign < 0 ? "-inf" : "+inf";
+        }
+    }
+}
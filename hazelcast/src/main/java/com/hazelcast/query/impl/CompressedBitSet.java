@@ -0,0 +1,543 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative ints in the style of Roaring bitmaps.
+ * <p/>
+ * Values are split into chunks of 2^16 by their high 16 bits. A sparse chunk keeps its low bits in a
+ * sorted {@code char[]}; a dense chunk (more than {@value #ARRAY_CONTAINER_MAX_SIZE} values) switches to
+ * a fixed 8 KB bitmap. This keeps bitmaps of low-cardinality index values small while the set operations
+ * stay word-at-a-time for dense chunks.
+ * <p/>
+ * Not thread-safe.
+ */
+public final class CompressedBitSet {
+
+    static final int ARRAY_CONTAINER_MAX_SIZE = 4096;
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int LOW_MASK = 0xFFFF;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] keys;
+    private Container[] containers;
+    private int size;
+
+    public CompressedBitSet() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private CompressedBitSet(int capacity) {
+        keys = new int[capacity];
+        containers = new Container[capacity];
+    }
+
+    /**
+     * @return {@code true} if the value was not contained before
+     */
+    public boolean add(int value) {
+        int high = value >>> CHUNK_SHIFT;
+        char low = (char) (value & LOW_MASK);
+        int index = Arrays.binarySearch(keys, 0, size, high);
+        if (index >= 0) {
+            Container container = containers[index];
+            int before = container.cardinality;
+            containers[index] = container.add(low);
+            return containers[index].cardinality > before;
+        }
+        ArrayContainer container = new ArrayContainer(1);
+        container.add(low);
+        insert(-(index + 1), high, container);
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the value was contained before
+     */
+    public boolean remove(int value) {
+        int index = Arrays.binarySearch(keys, 0, size, value >>> CHUNK_SHIFT);
+        if (index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        int before = container.cardinality;
+        Container updated = container.remove((char) (value & LOW_MASK));
+        if (updated.cardinality == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            containers[--size] = null;
+        } else {
+            containers[index] = updated;
+        }
+        return updated.cardinality < before;
+    }
+
+    public boolean contains(int value) {
+        int index = Arrays.binarySearch(keys, 0, size, value >>> CHUNK_SHIFT);
+        return index >= 0 && containers[index].contains((char) (value & LOW_MASK));
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the smallest value in this set that is greater than or equal to {@code from},
+     * or {@code -1} if there is none.
+     */
+    public int nextSetBit(int from) {
+        int index = Arrays.binarySearch(keys, 0, size, from >>> CHUNK_SHIFT);
+        int low;
+        if (index >= 0) {
+            low = from & LOW_MASK;
+        } else {
+            index = -(index + 1);
+            low = 0;
+        }
+        for (; index < size; index++) {
+            int next = containers[index].next(low);
+            if (next >= 0) {
+                return keys[index] << CHUNK_SHIFT | next;
+            }
+            low = 0;
+        }
+        return -1;
+    }
+
+    /**
+     * @return a new set containing the values contained in both sets
+     */
+    public CompressedBitSet and(CompressedBitSet other) {
+        CompressedBitSet result = new CompressedBitSet(Math.max(1, Math.min(size, other.size)));
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+                if (container.cardinality > 0) {
+                    result.append(keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new set containing the values contained in either set
+     */
+    public CompressedBitSet or(CompressedBitSet other) {
+        CompressedBitSet result = new CompressedBitSet(Math.max(1, size + other.size));
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new set containing the values of this set that are not contained in the other one
+     */
+    public CompressedBitSet andNot(CompressedBitSet other) {
+        CompressedBitSet result = new CompressedBitSet(Math.max(1, size));
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            Container container;
+            if (j < other.size && other.keys[j] == keys[i]) {
+                container = containers[i].andNot(other.containers[j]);
+            } else {
+                container = containers[i].copy();
+            }
+            if (container.cardinality > 0) {
+                result.append(keys[i], container);
+            }
+        }
+        return result;
+    }
+
+    public CompressedBitSet copy() {
+        CompressedBitSet result = new CompressedBitSet(Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            result.append(keys[i], containers[i].copy());
+        }
+        return result;
+    }
+
+    private void insert(int index, int key, Container container) {
+        ensureCapacity();
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void append(int key, Container container) {
+        ensureCapacity();
+        keys[size] = key;
+        containers[size] = container;
+        size++;
+    }
+
+    private void ensureCapacity() {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size << 1);
+            containers = Arrays.copyOf(containers, size << 1);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedBitSet{cardinality=" + cardinality() + ", chunks=" + size + '}';
+    }
+
+    /**
+     * Low 16 bits of the values sharing the same high 16 bits. Mutators may return a container of the
+     * other kind; set operations always return a new container.
+     */
+    private abstract static class Container {
+        int cardinality;
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int next(int from);
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract Container copy();
+    }
+
+    private static final class ArrayContainer extends Container {
+        char[] values;
+
+        ArrayContainer(int capacity) {
+            values = new char[capacity];
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_CONTAINER_MAX_SIZE) {
+                return toBitmap().add(value);
+            }
+            index = -(index + 1);
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_CONTAINER_MAX_SIZE, Math.max(4, cardinality << 1)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int next(int from) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) from);
+            if (index < 0) {
+                index = -(index + 1);
+            }
+            return index < cardinality ? values[index] : -1;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality)];
+            int count = 0;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            char[] result = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    result[count++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    result[count++] = array.values[j++];
+                } else {
+                    result[count++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            ArrayContainer container = new ArrayContainer(result, count);
+            return count > ARRAY_CONTAINER_MAX_SIZE ? container.toBitmap() : container;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private static final int WORDS = 1 << (CHUNK_SHIFT - 6);
+
+        final long[] words;
+
+        BitmapContainer() {
+            words = new long[WORDS];
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            int word = value >>> 6;
+            if ((words[word] & bit) == 0) {
+                words[word] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            int word = value >>> 6;
+            if ((words[word] & bit) != 0) {
+                words[word] &= ~bit;
+                cardinality--;
+                if (cardinality <= ARRAY_CONTAINER_MAX_SIZE) {
+                    return toArray();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int next(int from) {
+            int word = from >>> 6;
+            if (word >= WORDS) {
+                return -1;
+            }
+            long bits = words[word] & (-1L << from);
+            while (true) {
+                if (bits != 0) {
+                    return (word << 6) + Long.numberOfTrailingZeros(bits);
+                }
+                if (++word == WORDS) {
+                    return -1;
+                }
+                bits = words[word];
+            }
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[WORDS];
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                result[i] = words[i] & otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            return normalize(result, count);
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] result = Arrays.copyOf(words, WORDS);
+            if (other instanceof ArrayContainer) {
+                BitmapContainer container = new BitmapContainer(result, cardinality);
+                ArrayContainer array = (ArrayContainer) other;
+                for (int i = 0; i < array.cardinality; i++) {
+                    container.add(array.values[i]);
+                }
+                return container;
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                result[i] |= otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            return new BitmapContainer(result, count);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] result = Arrays.copyOf(words, WORDS);
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                int count = cardinality;
+                for (int i = 0; i < array.cardinality; i++) {
+                    char value = array.values[i];
+                    long bit = 1L << value;
+                    if ((result[value >>> 6] & bit) != 0) {
+                        result[value >>> 6] &= ~bit;
+                        count--;
+                    }
+                }
+                return normalize(result, count);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                result[i] &= ~otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            return normalize(result, count);
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(Arrays.copyOf(words, WORDS), cardinality);
+        }
+
+        private static Container normalize(long[] words, int cardinality) {
+            BitmapContainer container = new BitmapContainer(words, cardinality);
+            return cardinality <= ARRAY_CONTAINER_MAX_SIZE ? container.toArray() : container;
+        }
+
+        ArrayContainer toArray() {
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long bits = words[i];
+                while (bits != 0) {
+                    values[count++] = (char) ((i << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+    }
+}
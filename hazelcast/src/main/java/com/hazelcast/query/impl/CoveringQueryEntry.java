@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.QueryException;
+
+/**
+ * Entry held by the indexes of a map, carrying the values of the covered attributes next to the entry.
+ * <p/>
+ * The covered attributes are extracted once, when the entry is indexed. Predicates evaluated on indexed
+ * results, projections and aggregations reading only covered attributes are then answered from these
+ * values, without extracting them from the (possibly serialized) entry value again. Any other attribute
+ * and the key and value themselves are served by the wrapped entry.
+ */
+public final class CoveringQueryEntry extends QueryableEntry {
+
+    private static final Object NOT_COVERED = new Object();
+
+    private final QueryableEntry entry;
+    private final String[] attributeNames;
+    private final Object[] attributeValues;
+
+    public CoveringQueryEntry(QueryableEntry entry, String[] attributeNames) {
+        this.entry = entry;
+        this.serializationService = entry.serializationService;
+        this.extractors = entry.extractors;
+        this.attributeNames = attributeNames;
+        this.attributeValues = new Object[attributeNames.length];
+        for (int i = 0; i < attributeNames.length; i++) {
+            attributeValues[i] = extract(entry, attributeNames[i]);
+        }
+    }
+
+    private static Object extract(QueryableEntry entry, String attributeName) {
+        try {
+            return entry.getAttributeValue(attributeName);
+        } catch (QueryException e) {
+            // left to the wrapped entry, so the failure is reported where the attribute is actually used
+            return NOT_COVERED;
+        }
+    }
+
+    /**
+     * Tells if the given attribute is served from the values extracted when the entry was indexed.
+     */
+    public boolean isCovered(String attributeName) {
+        return indexOf(attributeName) >= 0;
+    }
+
+    @Override
+    public Object getAttributeValue(String attributeName) throws QueryException {
+        int index = indexOf(attributeName);
+        return index < 0 ? entry.getAttributeValue(attributeName) : attributeValues[index];
+    }
+
+    private int indexOf(String attributeName) {
+        for (int i = 0; i < attributeNames.length; i++) {
+            if (attributeNames[i].equals(attributeName)) {
+                return attributeValues[i] == NOT_COVERED ? -1 : i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Object getValue() {
+        return entry.getValue();
+    }
+
+    @Override
+    public Object getKey() {
+        return entry.getKey();
+    }
+
+    @Override
+    public Data getKeyData() {
+        return entry.getKeyData();
+    }
+
+    @Override
+    public Data getValueData() {
+        return entry.getValueData();
+    }
+
+    @Override
+    protected Object getTargetObject(boolean key) {
+        return entry.getTargetObject(key);
+    }
+
+    @Override
+    public Object setValue(Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CoveringQueryEntry that = (CoveringQueryEntry) o;
+        return getKeyData().equals(that.getKeyData());
+    }
+
+    @Override
+    public int hashCode() {
+        return getKeyData().hashCode();
+    }
+}
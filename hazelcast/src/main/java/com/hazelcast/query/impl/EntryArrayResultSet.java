@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Result set backed by a snapshot array of entries, filled while the index store holds its read lock.
+ * <p/>
+ * Keys are only hashed when {@link #contains(Object)} is called, e.g. when the set takes part in an
+ * {@link AndResultSet}; plain iteration does not allocate per entry.
+ */
+public class EntryArrayResultSet extends AbstractSet<QueryableEntry> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean detectDuplicates;
+
+    private QueryableEntry[] entries = new QueryableEntry[INITIAL_CAPACITY];
+    private int size;
+    private Set<Data> keys;
+
+    public EntryArrayResultSet(boolean detectDuplicates) {
+        this.detectDuplicates = detectDuplicates;
+    }
+
+    void addEntry(QueryableEntry entry) {
+        if (detectDuplicates) {
+            if (keys == null) {
+                keys = new HashSet<Data>();
+            }
+            if (!keys.add(entry.getKeyData())) {
+                return;
+            }
+        }
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size << 1);
+        }
+        entries[size++] = entry;
+    }
+
+    @Override
+    public boolean contains(Object mapEntry) {
+        if (size == 0) {
+            return false;
+        }
+        if (keys == null) {
+            Set<Data> keySet = new HashSet<Data>(size * 2);
+            for (int i = 0; i < size; i++) {
+                keySet.add(entries[i].getKeyData());
+            }
+            keys = keySet;
+        }
+        Data keyData = ((QueryableEntry) mapEntry).getKeyData();
+        return keys.contains(keyData);
+    }
+
+    @Override
+    public Iterator<QueryableEntry> iterator() {
+        return new Iterator<QueryableEntry>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public QueryableEntry next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return entries[index++];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
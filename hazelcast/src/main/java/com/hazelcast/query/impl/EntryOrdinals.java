@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Dense int ordinals of the entries indexed by the {@link BitmapIndexStore}s of one {@link Indexes} instance.
+ * <p/>
+ * All bitmap indexes of a map share the ordinals, so bitmaps of different attributes can be combined with
+ * bitwise operations. They also share the lock returned by {@link #getLock()}: mutations of any bitmap index
+ * hold its write lock, and a query combining several bitmaps holds its read lock until the resulting
+ * ordinals have been resolved to entries.
+ * <p/>
+ * An ordinal is reference-counted by the bitmaps containing it and is reused once no bitmap refers to it.
+ */
+public final class EntryOrdinals {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Data, Integer> ordinals = new HashMap<Data, Integer>();
+    private final CompressedBitSet live = new CompressedBitSet();
+
+    private QueryableEntry[] entries = new QueryableEntry[INITIAL_CAPACITY];
+    private int[] references = new int[INITIAL_CAPACITY];
+    private int[] freeOrdinals = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int nextOrdinal;
+
+    public ReentrantReadWriteLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Returns the ordinal of the entry's key, assigning one if needed, and adds a reference to it.
+     * The caller must hold the write lock.
+     */
+    int acquire(QueryableEntry entry) {
+        Data key = entry.getKeyData();
+        Integer existing = ordinals.get(key);
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+        } else {
+            ordinal = freeCount > 0 ? freeOrdinals[--freeCount] : newOrdinal();
+            ordinals.put(key, ordinal);
+            live.add(ordinal);
+        }
+        entries[ordinal] = entry;
+        references[ordinal]++;
+        return ordinal;
+    }
+
+    /**
+     * Drops a reference to the ordinal and frees it when no bitmap refers to it anymore.
+     * The caller must hold the write lock.
+     */
+    void release(int ordinal) {
+        if (--references[ordinal] > 0) {
+            return;
+        }
+        ordinals.remove(entries[ordinal].getKeyData());
+        entries[ordinal] = null;
+        live.remove(ordinal);
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount << 1);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    /**
+     * @return the ordinal of the key or {@code -1} if the key is not indexed
+     */
+    int getOrdinal(Data key) {
+        Integer ordinal = ordinals.get(key);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Returns all ordinals in use, i.e. every entry indexed by a bitmap index. The caller must hold the
+     * read lock and must not modify the returned set.
+     */
+    public CompressedBitSet getAll() {
+        return live;
+    }
+
+    /**
+     * Resolves the ordinals to their entries. The caller must hold the read lock.
+     */
+    public EntryArrayResultSet toResultSet(CompressedBitSet bits) {
+        EntryArrayResultSet results = new EntryArrayResultSet(false);
+        for (int ordinal = bits.nextSetBit(0); ordinal >= 0; ordinal = bits.nextSetBit(ordinal + 1)) {
+            QueryableEntry entry = entries[ordinal];
+            if (entry != null) {
+                results.addEntry(entry);
+            }
+        }
+        return results;
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    private int newOrdinal() {
+        if (nextOrdinal == entries.length) {
+            entries = Arrays.copyOf(entries, nextOrdinal << 1);
+            references = Arrays.copyOf(references, nextOrdinal << 1);
+        }
+        return nextOrdinal++;
+    }
+}
@@ -24,6 +24,7 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.query.QueryException;
 import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.getters.MultiResult;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -37,8 +38,12 @@ public class IndexImpl implements Index {
 
     public static final NullObject NULL = new NullObject();
 
+    private static final CompressedBitSet EMPTY_BITMAP = new CompressedBitSet();
+
     private final IndexStore indexStore;
+    private final IndexStatistics statistics = new IndexStatistics();
     private final String attributeName;
+    private final String[] components;
     private final boolean ordered;
 
     private volatile TypeConverter converter;
@@ -47,10 +52,16 @@ public class IndexImpl implements Index {
     private final Extractors extractors;
 
     public IndexImpl(String attributeName, boolean ordered, InternalSerializationService ss, Extractors extractors) {
+        this(attributeName, ordered, ss, extractors, ordered ? new SortedIndexStore() : new UnsortedIndexStore());
+    }
+
+    public IndexImpl(String attributeName, boolean ordered, InternalSerializationService ss, Extractors extractors,
+                     IndexStore indexStore) {
         this.attributeName = attributeName;
+        this.components = IndexUtils.isCompositeIndex(attributeName) ? IndexUtils.getComponents(attributeName) : null;
         this.ordered = ordered;
         this.ss = ss;
-        this.indexStore = ordered ? new SortedIndexStore() : new UnsortedIndexStore();
+        this.indexStore = indexStore;
         this.extractors = extractors;
     }
 
@@ -63,16 +74,18 @@ public class IndexImpl implements Index {
          * another thread can query over indexes without knowing the converter and
          * this causes to class cast exceptions.
          */
-        if (converter == null || converter == NULL_CONVERTER) {
-            converter = entry.getConverter(attributeName);
+        if (converter == null || converter == NULL_CONVERTER || isTransientCompositeConverter(converter)) {
+            converter = components == null ? entry.getConverter(attributeName) : getCompositeConverter(entry);
         }
 
-        Object newAttributeValue = extractAttributeValue(entry.getKeyData(), entry.getValue());
+        Object newAttributeValue = extractAttributeValue(entry);
         if (oldRecordValue == null) {
             indexStore.newIndex(newAttributeValue, entry);
+            statistics.onInsert(newAttributeValue);
         } else {
             Object oldAttributeValue = extractAttributeValue(entry.getKeyData(), oldRecordValue);
             indexStore.updateIndex(oldAttributeValue, newAttributeValue, entry);
+            statistics.onUpdate(newAttributeValue);
         }
     }
 
@@ -80,12 +93,61 @@ public class IndexImpl implements Index {
     public void removeEntryIndex(Data key, Object value) {
         Object attributeValue = extractAttributeValue(key, value);
         indexStore.removeIndex(attributeValue, key);
+        statistics.onRemove();
+    }
+
+    /**
+     * Extracts the value through the entry, so the values covered by a {@link CoveringQueryEntry} are reused.
+     */
+    private Object extractAttributeValue(QueryableEntry entry) {
+        if (components != null) {
+            return extractCompositeValue(entry, null, null);
+        }
+        return entry.getAttributeValue(attributeName);
     }
 
     private Object extractAttributeValue(Data key, Object value) {
+        if (components != null) {
+            return extractCompositeValue(null, key, value);
+        }
         return QueryableEntry.extractAttributeValue(extractors, ss, attributeName, key, value);
     }
 
+    private CompositeValue extractCompositeValue(QueryableEntry entry, Data key, Object value) {
+        Comparable[] values = new Comparable[components.length];
+        for (int i = 0; i < components.length; i++) {
+            Object attributeValue = entry == null
+                    ? QueryableEntry.extractAttributeValue(extractors, ss, components[i], key, value)
+                    : entry.getAttributeValue(components[i]);
+            if (attributeValue == null) {
+                values[i] = NULL;
+            } else if (attributeValue instanceof MultiResult) {
+                throw new QueryException("Composite index '" + attributeName
+                        + "' does not support multi-value attribute '" + components[i] + "'");
+            } else if (attributeValue.getClass().isEnum()) {
+                values[i] = TypeConverters.ENUM_CONVERTER.convert((Comparable) attributeValue);
+            } else if (attributeValue instanceof Comparable) {
+                values[i] = (Comparable) attributeValue;
+            } else {
+                throw new IllegalArgumentException("It is not allowed to used a type that is not Comparable: "
+                        + attributeValue.getClass());
+            }
+        }
+        return new CompositeValue(values);
+    }
+
+    private TypeConverter getCompositeConverter(QueryableEntry entry) {
+        TypeConverter[] converters = new TypeConverter[components.length];
+        for (int i = 0; i < components.length; i++) {
+            converters[i] = entry.getConverter(components[i]);
+        }
+        return new CompositeConverter(converters);
+    }
+
+    private static boolean isTransientCompositeConverter(TypeConverter converter) {
+        return converter instanceof CompositeConverter && ((CompositeConverter) converter).isTransient();
+    }
+
     @Override
     public Set<QueryableEntry> getRecords(Comparable[] values) {
         if (values.length == 1) {
@@ -148,6 +210,7 @@ public class IndexImpl implements Index {
     @Override
     public void clear() {
         indexStore.clear();
+        statistics.clear();
         converter = null;
     }
 
@@ -161,6 +224,66 @@ public class IndexImpl implements Index {
         return ordered;
     }
 
+    /**
+     * Returns {@code true} if this index keeps a bitmap per value, see {@link BitmapIndexStore}.
+     */
+    public boolean isBitmap() {
+        return indexStore instanceof BitmapIndexStore;
+    }
+
+    /**
+     * Returns the ordinals shared by the bitmap indexes of the map. Only valid for bitmap indexes.
+     */
+    public EntryOrdinals getEntryOrdinals() {
+        return ((BitmapIndexStore) indexStore).getEntryOrdinals();
+    }
+
+    /**
+     * Returns the ordinals of the entries having the given value. Only valid for bitmap indexes; the caller
+     * must hold the read lock of their {@link EntryOrdinals} and must not modify the returned set.
+     */
+    public CompressedBitSet getBitmap(Comparable value) {
+        CompressedBitSet bitmap = null;
+        if (converter != null) {
+            bitmap = ((BitmapIndexStore) indexStore).getBitmap(value == null ? NULL : convert(value));
+        }
+        return bitmap == null ? EMPTY_BITMAP : bitmap;
+    }
+
+    public IndexStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Estimates the number of entries having the given value.
+     *
+     * @return the estimated number of entries or -1 if it can't be estimated.
+     */
+    public long estimateEqual(Comparable value) {
+        if (converter == null) {
+            return 0;
+        }
+        return toEntryCount(statistics.estimateEqual(value == null ? NULL : convert(value)));
+    }
+
+    /**
+     * Estimates the number of entries having a value in the given range, a {@code null} bound is unbounded.
+     *
+     * @return the estimated number of entries or -1 if it can't be estimated.
+     */
+    public long estimateRange(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        if (converter == null) {
+            return 0;
+        }
+        Comparable convertedFrom = from == null ? null : convert(from);
+        Comparable convertedTo = to == null ? null : convert(to);
+        return toEntryCount(statistics.estimateRange(convertedFrom, fromInclusive, convertedTo, toInclusive));
+    }
+
+    private long toEntryCount(double share) {
+        return share == IndexStatistics.UNKNOWN ? -1 : Math.round(share * statistics.getEntryCount());
+    }
+
     ConcurrentMap<Data, QueryableEntry> getRecordMap(Comparable indexValue) {
         return indexStore.getRecordMap(indexValue);
     }
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.util.ThreadLocalRandom;
+import com.hazelcast.query.impl.getters.MultiResult;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Statistics of an {@link IndexImpl}, maintained incrementally as entries are indexed and used by the
+ * cost based query optimizer to estimate how many entries a predicate on the index matches.
+ * <p/>
+ * Besides the number of indexed entries, a fixed size uniform sample of the indexed values is kept
+ * (reservoir sampling). On demand the sample is sorted into an equi-depth histogram, where every sampled
+ * value stands for the same share of the entries. The histogram is rebuilt once the sample changed
+ * noticeably since the last build. Removals only update the entry count, the sample converges to the
+ * new distribution as new values are indexed.
+ */
+public final class IndexStatistics {
+
+    /**
+     * Returned by the estimations when the statistics can't tell, e.g. the indexed values are not
+     * mutually comparable.
+     */
+    public static final double UNKNOWN = -1;
+
+    static final int SAMPLE_SIZE = 512;
+
+    private static final int REBUILD_DIVISOR = 16;
+
+    private final AtomicLong entryCount = new AtomicLong();
+    private final AtomicLong sampledCount = new AtomicLong();
+    private final AtomicReferenceArray<Comparable> sample = new AtomicReferenceArray<Comparable>(SAMPLE_SIZE);
+
+    private volatile Histogram histogram;
+
+    void onInsert(Object value) {
+        entryCount.incrementAndGet();
+        offer(value);
+    }
+
+    void onUpdate(Object value) {
+        offer(value);
+    }
+
+    void onRemove() {
+        for (; ; ) {
+            long count = entryCount.get();
+            if (count == 0 || entryCount.compareAndSet(count, count - 1)) {
+                return;
+            }
+        }
+    }
+
+    void clear() {
+        entryCount.set(0);
+        sampledCount.set(0);
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            sample.set(i, null);
+        }
+        histogram = null;
+    }
+
+    private void offer(Object value) {
+        if (value instanceof MultiResult) {
+            for (Object result : ((MultiResult) value).getResults()) {
+                offerSingle(result);
+            }
+        } else {
+            offerSingle(value);
+        }
+    }
+
+    private void offerSingle(Object value) {
+        if (value != null && !(value instanceof Comparable)) {
+            return;
+        }
+        Comparable comparable = (Comparable) value;
+        if (comparable == null) {
+            comparable = IndexImpl.NULL;
+        } else if (comparable.getClass().isEnum()) {
+            comparable = TypeConverters.ENUM_CONVERTER.convert(comparable);
+        }
+        long count = sampledCount.incrementAndGet();
+        if (count <= SAMPLE_SIZE) {
+            sample.set((int) (count - 1), comparable);
+        } else {
+            long slot = (long) (ThreadLocalRandom.current().nextDouble() * count);
+            if (slot < SAMPLE_SIZE) {
+                sample.set((int) slot, comparable);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of indexed entries.
+     */
+    public long getEntryCount() {
+        return entryCount.get();
+    }
+
+    /**
+     * Estimates the share of entries having the given value.
+     *
+     * @param value the value, converted to the type of the indexed attribute; {@link IndexImpl#NULL} for null.
+     * @return the estimated share between 0 and 1 or {@link #UNKNOWN}.
+     */
+    public double estimateEqual(Comparable value) {
+        Histogram histogram = getHistogram();
+        return histogram == null ? UNKNOWN : histogram.estimateEqual(value);
+    }
+
+    /**
+     * Estimates the share of entries having a non-null value in the given range.
+     *
+     * @param from          the lower bound or {@code null} if unbounded.
+     * @param fromInclusive {@code true} if the lower bound is included.
+     * @param to            the upper bound or {@code null} if unbounded.
+     * @param toInclusive   {@code true} if the upper bound is included.
+     * @return the estimated share between 0 and 1 or {@link #UNKNOWN}.
+     */
+    public double estimateRange(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        Histogram histogram = getHistogram();
+        return histogram == null ? UNKNOWN : histogram.estimateRange(from, fromInclusive, to, toInclusive);
+    }
+
+    /**
+     * Estimates the number of distinct values, -1 if nothing is sampled yet.
+     */
+    public int estimateDistinctValues() {
+        Histogram histogram = getHistogram();
+        return histogram == null ? -1 : histogram.distinctValues;
+    }
+
+    private Histogram getHistogram() {
+        long count = sampledCount.get();
+        if (count == 0) {
+            return null;
+        }
+        Histogram current = histogram;
+        if (current == null || Math.abs(count - current.sampledCount) > current.sampledCount / REBUILD_DIVISOR) {
+            current = Histogram.build(sample, count);
+            histogram = current;
+        }
+        return current.values == null ? null : current;
+    }
+
+    /**
+     * Sorted snapshot of the sample. {@code values} is {@code null} if the sampled values can't be sorted.
+     */
+    private static final class Histogram {
+
+        final long sampledCount;
+        final Comparable[] values;
+        final int nullCount;
+        final int size;
+        final int distinctValues;
+
+        private Histogram(long sampledCount, Comparable[] values, int nullCount, int distinctValues) {
+            this.sampledCount = sampledCount;
+            this.values = values;
+            this.nullCount = nullCount;
+            this.size = values == null ? 0 : values.length + nullCount;
+            this.distinctValues = distinctValues;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Histogram build(AtomicReferenceArray<Comparable> sample, long sampledCount) {
+            int length = (int) Math.min(sampledCount, SAMPLE_SIZE);
+            Comparable[] values = new Comparable[length];
+            int size = 0;
+            int nullCount = 0;
+            for (int i = 0; i < length; i++) {
+                Comparable value = sample.get(i);
+                if (value instanceof IndexImpl.NullObject) {
+                    nullCount++;
+                } else if (value != null) {
+                    values[size++] = value;
+                }
+            }
+            values = Arrays.copyOf(values, size);
+            try {
+                Arrays.sort(values);
+            } catch (ClassCastException e) {
+                return new Histogram(sampledCount, null, 0, 0);
+            }
+            int distinctValues = nullCount > 0 ? 1 : 0;
+            for (int i = 0; i < values.length; i++) {
+                if (i == 0 || values[i - 1].compareTo(values[i]) != 0) {
+                    distinctValues++;
+                }
+            }
+            return new Histogram(sampledCount, values, nullCount, distinctValues);
+        }
+
+        double estimateEqual(Comparable value) {
+            if (size == 0) {
+                return 0;
+            }
+            int count;
+            if (value instanceof IndexImpl.NullObject) {
+                count = nullCount;
+            } else {
+                try {
+                    count = upperBound(value, true) - upperBound(value, false);
+                } catch (ClassCastException e) {
+                    return UNKNOWN;
+                }
+            }
+            // a value missed by the sample is still expected to be rarer than any sampled one
+            return count == 0 ? 1.0 / (2 * size) : (double) count / size;
+        }
+
+        double estimateRange(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+            if (size == 0) {
+                return 0;
+            }
+            try {
+                int first = from == null ? 0 : upperBound(from, !fromInclusive);
+                int last = to == null ? values.length : upperBound(to, toInclusive);
+                return last <= first ? 0 : (double) (last - first) / size;
+            } catch (ClassCastException e) {
+                return UNKNOWN;
+            }
+        }
+
+        /**
+         * Returns the number of values less than (or equal to, if {@code inclusive}) the given one.
+         */
+        @SuppressWarnings("unchecked")
+        private int upperBound(Comparable value, boolean inclusive) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int comparison = values[middle].compareTo(value);
+                if (comparison < 0 || (inclusive && comparison == 0)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Helpers for index attribute names. A composite index is named by its attributes separated by commas,
+ * e.g. {@code "tenantId,status"}.
+ */
+public final class IndexUtils {
+
+    private static final String COMPONENT_SEPARATOR = ",";
+
+    private IndexUtils() {
+    }
+
+    public static boolean isCompositeIndex(String attributeName) {
+        return attributeName.contains(COMPONENT_SEPARATOR);
+    }
+
+    /**
+     * Returns the attributes of a composite index name, in index order.
+     *
+     * @throws IllegalArgumentException if an attribute is empty or listed twice
+     */
+    public static String[] getComponents(String attributeName) {
+        String[] components = attributeName.split(COMPONENT_SEPARATOR, -1);
+        Set<String> seen = new HashSet<String>();
+        for (int i = 0; i < components.length; i++) {
+            String component = components[i].trim();
+            if (component.isEmpty()) {
+                throw new IllegalArgumentException("Empty attribute in composite index: " + attributeName);
+            }
+            if (!seen.add(component)) {
+                throw new IllegalArgumentException("Duplicate attribute '" + component + "' in composite index: "
+                        + attributeName);
+            }
+            components[i] = component;
+        }
+        return components;
+    }
+
+    /**
+     * Returns the attribute name with whitespace around composite index components removed, so that
+     * {@code "a, b"} and {@code "a,b"} refer to the same index.
+     */
+    public static String canonicalizeAttributeName(String attributeName) {
+        if (!isCompositeIndex(attributeName)) {
+            return attributeName;
+        }
+        String[] components = getComponents(attributeName);
+        StringBuilder sb = new StringBuilder(components[0]);
+        for (int i = 1; i < components.length; i++) {
+            sb.append(COMPONENT_SEPARATOR).append(components[i]);
+        }
+        return sb.toString();
+    }
+}
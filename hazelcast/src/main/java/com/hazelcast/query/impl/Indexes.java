@@ -23,37 +23,60 @@ import com.hazelcast.query.Predicate;
 import com.hazelcast.query.QueryException;
 import com.hazelcast.query.impl.getters.Extractors;
 
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+import static com.hazelcast.query.impl.IndexUtils.canonicalizeAttributeName;
+import static com.hazelcast.query.impl.IndexUtils.getComponents;
+import static com.hazelcast.query.impl.IndexUtils.isCompositeIndex;
+
 /**
  * Contains all indexes for a data-structure, e.g. an IMap.
  */
 public class Indexes {
     private static final Index[] EMPTY_INDEX = {};
+    private static final String[] EMPTY_ATTRIBUTES = {};
     private final ConcurrentMap<String, Index> mapIndexes = new ConcurrentHashMap<String, Index>(3);
     private final AtomicReference<Index[]> indexes = new AtomicReference<Index[]>(EMPTY_INDEX);
     private volatile boolean hasIndex;
+    private volatile String[] coveredAttributes = EMPTY_ATTRIBUTES;
     private final InternalSerializationService serializationService;
     private Extractors extractors;
+    private final SortedIndexStoreType sortedIndexStoreType;
+    private final UnsortedIndexStoreType unsortedIndexStoreType;
+    private final EntryOrdinals entryOrdinals = new EntryOrdinals();
 
     public Indexes(InternalSerializationService serializationService, Extractors extractors) {
+        this(serializationService, extractors, SortedIndexStoreType.SKIP_LIST, UnsortedIndexStoreType.HASH);
+    }
+
+    public Indexes(InternalSerializationService serializationService, Extractors extractors,
+                   SortedIndexStoreType sortedIndexStoreType, UnsortedIndexStoreType unsortedIndexStoreType) {
         this.serializationService = serializationService;
         this.extractors = extractors;
+        this.sortedIndexStoreType = sortedIndexStoreType;
+        this.unsortedIndexStoreType = unsortedIndexStoreType;
     }
 
     public synchronized Index destroyIndex(String attribute) {
-        return mapIndexes.remove(attribute);
+        Index index = mapIndexes.remove(canonicalizeAttributeName(attribute));
+        releaseBitmap(index);
+        updateCoveredAttributes();
+        return index;
     }
 
     public synchronized Index addOrGetIndex(String attribute, boolean ordered) {
+        attribute = canonicalizeAttributeName(attribute);
         Index index = mapIndexes.get(attribute);
         if (index != null) {
             return index;
         }
-        index = new IndexImpl(attribute, ordered, serializationService, extractors);
+        index = new IndexImpl(attribute, ordered, serializationService, extractors, newIndexStore(ordered));
         mapIndexes.put(attribute, index);
         Object[] indexObjects = mapIndexes.values().toArray();
         Index[] newIndexes = new Index[indexObjects.length];
@@ -62,17 +85,78 @@ public class Indexes {
         }
         indexes.set(newIndexes);
         hasIndex = true;
+        updateCoveredAttributes();
         return index;
     }
 
+    /**
+     * The attributes of all indexes are covered: their values are kept next to the indexed entries,
+     * see {@link CoveringQueryEntry}.
+     */
+    private void updateCoveredAttributes() {
+        Set<String> attributes = new LinkedHashSet<String>();
+        for (String attribute : mapIndexes.keySet()) {
+            if (isCompositeIndex(attribute)) {
+                for (String component : getComponents(attribute)) {
+                    addCoveredAttribute(attributes, component);
+                }
+            } else {
+                addCoveredAttribute(attributes, attribute);
+            }
+        }
+        coveredAttributes = attributes.toArray(new String[attributes.size()]);
+    }
+
+    private static void addCoveredAttribute(Set<String> attributes, String attribute) {
+        // the key and the value themselves are cached by the entry already
+        if (!KEY_ATTRIBUTE_NAME.value().equals(attribute) && !THIS_ATTRIBUTE_NAME.value().equals(attribute)) {
+            attributes.add(attribute);
+        }
+    }
+
+    /**
+     * Wraps the given entry into the {@link CoveringQueryEntry} to be stored by the indexes, so queries
+     * answered by the indexes read the indexed attributes without extracting them from the value again.
+     *
+     * @param queryableEntry the entry to be indexed.
+     * @return the entry to pass to {@link Index#saveEntryIndex(QueryableEntry, Object)}.
+     */
+    public QueryableEntry cover(QueryableEntry queryableEntry) {
+        if (queryableEntry instanceof CoveringQueryEntry) {
+            return queryableEntry;
+        }
+        return new CoveringQueryEntry(queryableEntry, coveredAttributes);
+    }
+
+    private IndexStore newIndexStore(boolean ordered) {
+        if (ordered) {
+            return sortedIndexStoreType == SortedIndexStoreType.BPLUS_TREE ? new BPlusTreeIndexStore() : new SortedIndexStore();
+        }
+        return unsortedIndexStoreType == UnsortedIndexStoreType.BITMAP
+                ? new BitmapIndexStore(entryOrdinals) : new UnsortedIndexStore();
+    }
+
     public Index[] getIndexes() {
         return indexes.get();
     }
 
     public void clearIndexes() {
-        indexes.set(EMPTY_INDEX);
+        Index[] oldIndexes = indexes.getAndSet(EMPTY_INDEX);
         mapIndexes.clear();
         hasIndex = false;
+        coveredAttributes = EMPTY_ATTRIBUTES;
+        for (Index index : oldIndexes) {
+            releaseBitmap(index);
+        }
+    }
+
+    /**
+     * Drops the references a removed bitmap index holds on the shared {@link EntryOrdinals}.
+     */
+    private static void releaseBitmap(Index index) {
+        if (index instanceof IndexImpl && ((IndexImpl) index).isBitmap()) {
+            index.clear();
+        }
     }
 
     public void removeEntryIndex(Data key, Object value) throws QueryException {
@@ -88,8 +172,12 @@ public class Indexes {
 
     public void saveEntryIndex(QueryableEntry queryableEntry, Object oldValue) throws QueryException {
         Index[] indexes = getIndexes();
+        if (indexes.length == 0) {
+            return;
+        }
+        QueryableEntry coveringEntry = cover(queryableEntry);
         for (Index index : indexes) {
-            index.saveEntryIndex(queryableEntry, oldValue);
+            index.saveEntryIndex(coveringEntry, oldValue);
         }
     }
 
@@ -100,7 +188,11 @@ public class Indexes {
      * @return Index for attribute or null if the index does not exist.
      */
     public Index getIndex(String attribute) {
-        return mapIndexes.get(attribute);
+        Index index = mapIndexes.get(attribute);
+        if (index == null && isCompositeIndex(attribute)) {
+            index = mapIndexes.get(canonicalizeAttributeName(attribute));
+        }
+        return index;
     }
 
     public Set<QueryableEntry> query(Predicate predicate) {
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompressedBitSet;
+import com.hazelcast.query.impl.EntryOrdinals;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexImpl;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Evaluates a tree of AND, OR and NOT nodes over equality, inequality and IN predicates on bitmap indexes
+ * as bitwise operations on the bitmaps, and only then resolves the matching ordinals to entries.
+ * <p/>
+ * Created by {@link BitmapIndexVisitor} on the member running the query; it is never sent over the wire.
+ */
+public class BitmapIndexPredicate implements IndexAwarePredicate {
+
+    private final Predicate predicate;
+
+    BitmapIndexPredicate(Predicate predicate) {
+        this.predicate = predicate;
+    }
+
+    Predicate getPredicate() {
+        return predicate;
+    }
+
+    /**
+     * Returns {@code true} if the predicate can be evaluated with bitmap operations only.
+     */
+    static boolean isEvaluable(Predicate predicate, Indexes indexes) {
+        if (predicate instanceof BitmapIndexPredicate) {
+            return true;
+        }
+        Class<?> type = predicate.getClass();
+        if (type == EqualPredicate.class || type == NotEqualPredicate.class || type == InPredicate.class) {
+            return isBitmapIndex(indexes.getIndex(((AbstractPredicate) predicate).attributeName));
+        }
+        if (predicate instanceof NotPredicate) {
+            return isEvaluable(((NotPredicate) predicate).predicate, indexes);
+        }
+        Predicate[] children;
+        if (predicate instanceof AndPredicate) {
+            children = ((AndPredicate) predicate).predicates;
+        } else if (predicate instanceof OrPredicate) {
+            children = ((OrPredicate) predicate).predicates;
+        } else {
+            return false;
+        }
+        for (Predicate child : children) {
+            if (!isEvaluable(child, indexes)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBitmapIndex(Index index) {
+        return index instanceof IndexImpl && ((IndexImpl) index).isBitmap();
+    }
+
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        EntryOrdinals ordinals = findEntryOrdinals(predicate, queryContext);
+        Lock readLock = ordinals.getLock().readLock();
+        readLock.lock();
+        try {
+            return ordinals.toResultSet(evaluate(predicate, queryContext, ordinals));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private static EntryOrdinals findEntryOrdinals(Predicate predicate, QueryContext queryContext) {
+        return ((IndexImpl) findLeafIndex(predicate, queryContext)).getEntryOrdinals();
+    }
+
+    private static Index findLeafIndex(Predicate predicate, QueryContext queryContext) {
+        Predicate leaf = predicate;
+        while (true) {
+            if (leaf instanceof BitmapIndexPredicate) {
+                leaf = ((BitmapIndexPredicate) leaf).predicate;
+            } else if (leaf instanceof NotPredicate) {
+                leaf = ((NotPredicate) leaf).predicate;
+            } else if (leaf instanceof AndPredicate) {
+                leaf = ((AndPredicate) leaf).predicates[0];
+            } else if (leaf instanceof OrPredicate) {
+                leaf = ((OrPredicate) leaf).predicates[0];
+            } else {
+                return queryContext.getIndex(((AbstractPredicate) leaf).attributeName);
+            }
+        }
+    }
+
+    private static CompressedBitSet evaluate(Predicate predicate, QueryContext queryContext, EntryOrdinals ordinals) {
+        if (predicate instanceof BitmapIndexPredicate) {
+            return evaluate(((BitmapIndexPredicate) predicate).predicate, queryContext, ordinals);
+        }
+        if (predicate instanceof NotEqualPredicate) {
+            NotEqualPredicate notEqual = (NotEqualPredicate) predicate;
+            return ordinals.getAll().andNot(getIndex(queryContext, notEqual).getBitmap(notEqual.value));
+        }
+        if (predicate instanceof EqualPredicate) {
+            EqualPredicate equal = (EqualPredicate) predicate;
+            return getIndex(queryContext, equal).getBitmap(equal.value);
+        }
+        if (predicate instanceof InPredicate) {
+            InPredicate in = (InPredicate) predicate;
+            IndexImpl index = getIndex(queryContext, in);
+            CompressedBitSet result = new CompressedBitSet();
+            for (Comparable value : in.values) {
+                result = result.or(index.getBitmap(value));
+            }
+            return result;
+        }
+        if (predicate instanceof NotPredicate) {
+            CompressedBitSet inner = evaluate(((NotPredicate) predicate).predicate, queryContext, ordinals);
+            return ordinals.getAll().andNot(inner);
+        }
+        if (predicate instanceof AndPredicate) {
+            Predicate[] children = ((AndPredicate) predicate).predicates;
+            CompressedBitSet result = evaluate(children[0], queryContext, ordinals);
+            for (int i = 1; i < children.length && !result.isEmpty(); i++) {
+                result = result.and(evaluate(children[i], queryContext, ordinals));
+            }
+            return result;
+        }
+        Predicate[] children = ((OrPredicate) predicate).predicates;
+        CompressedBitSet result = new CompressedBitSet();
+        for (Predicate child : children) {
+            result = result.or(evaluate(child, queryContext, ordinals));
+        }
+        return result;
+    }
+
+    private static IndexImpl getIndex(QueryContext queryContext, AbstractPredicate predicate) {
+        return (IndexImpl) queryContext.getIndex(predicate.attributeName);
+    }
+
+    @Override
+    public boolean isIndexed(QueryContext queryContext) {
+        return isBitmapIndex(findLeafIndex(predicate, queryContext));
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        return predicate.apply(mapEntry);
+    }
+
+    @Override
+    public String toString() {
+        return "BITMAP(" + predicate + ")";
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+
+import static com.hazelcast.query.impl.predicates.BitmapIndexPredicate.isEvaluable;
+
+/**
+ * Wraps the parts of a predicate that only reference bitmap indexes into a {@link BitmapIndexPredicate},
+ * so they are evaluated with bitwise operations instead of intersecting result sets.
+ *
+ * Given bitmap indexes on region and status, the expression
+ * (region = 'EU' and not(status = 'CLOSED') and amount > 10) is rewritten as
+ * (bitmap(region = 'EU' and not(status = 'CLOSED')) and amount > 10).
+ *
+ * An OR or NOT node is wrapped only when all its children are evaluable with bitmaps. A single equality
+ * is left alone, as the index answers it directly.
+ */
+public class BitmapIndexVisitor extends AbstractVisitor {
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        Predicate[] predicates = andPredicate.predicates;
+        int evaluable = 0;
+        for (Predicate predicate : predicates) {
+            if (isEvaluable(predicate, indexes)) {
+                evaluable++;
+            }
+        }
+        if (evaluable == predicates.length) {
+            return new BitmapIndexPredicate(unwrap(andPredicate));
+        }
+        if (evaluable < 2) {
+            return andPredicate;
+        }
+        Predicate[] bitmapPredicates = new Predicate[evaluable];
+        Predicate[] newPredicates = new Predicate[predicates.length - evaluable + 1];
+        int bitmapIndex = 0;
+        int index = 1;
+        for (Predicate predicate : predicates) {
+            if (isEvaluable(predicate, indexes)) {
+                bitmapPredicates[bitmapIndex++] = unwrap(predicate);
+            } else {
+                newPredicates[index++] = predicate;
+            }
+        }
+        newPredicates[0] = new BitmapIndexPredicate(new AndPredicate(bitmapPredicates));
+        return new AndPredicate(newPredicates);
+    }
+
+    @Override
+    public Predicate visit(OrPredicate orPredicate, Indexes indexes) {
+        if (isEvaluable(orPredicate, indexes)) {
+            return new BitmapIndexPredicate(unwrap(orPredicate));
+        }
+        return orPredicate;
+    }
+
+    @Override
+    public Predicate visit(NotPredicate notPredicate, Indexes indexes) {
+        if (isEvaluable(notPredicate, indexes)) {
+            return new BitmapIndexPredicate(unwrap(notPredicate));
+        }
+        return notPredicate;
+    }
+
+    private static Predicate unwrap(Predicate predicate) {
+        if (predicate instanceof BitmapIndexPredicate) {
+            return ((BitmapIndexPredicate) predicate).getPredicate();
+        }
+        if (predicate instanceof AndPredicate) {
+            return new AndPredicate(unwrap(((AndPredicate) predicate).predicates));
+        }
+        if (predicate instanceof OrPredicate) {
+            return new OrPredicate(unwrap(((OrPredicate) predicate).predicates));
+        }
+        return predicate;
+    }
+
+    private static Predicate[] unwrap(Predicate[] predicates) {
+        Predicate[] result = new Predicate[predicates.length];
+        for (int i = 0; i < predicates.length; i++) {
+            result[i] = unwrap(predicates[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompositeValue;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexImpl;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.CompositeValue.NEGATIVE_INFINITY;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+import static com.hazelcast.query.impl.IndexImpl.NULL;
+
+/**
+ * Conjunction of predicates answered by a single lookup in a composite index: equalities on a prefix of the
+ * indexed attributes, optionally followed by a range on the next attribute.
+ * <p/>
+ * Created by {@link CompositeIndexVisitor} on the member running the query; it is never sent over the wire.
+ */
+public class CompositeIndexPredicate implements IndexAwarePredicate {
+
+    private final String indexName;
+    private final int componentCount;
+    private final Comparable[] prefix;
+    private final boolean hasRange;
+    private final Comparable from;
+    private final boolean fromInclusive;
+    private final Comparable to;
+    private final boolean toInclusive;
+    private final Predicate[] predicates;
+
+    /**
+     * @param indexName      name of the composite index
+     * @param componentCount number of attributes of the composite index
+     * @param prefix         values of the leading attributes matched by equality
+     * @param predicates     the original predicates, used to evaluate entries without the index
+     */
+    CompositeIndexPredicate(String indexName, int componentCount, Comparable[] prefix, Predicate[] predicates) {
+        this(indexName, componentCount, prefix, false, null, false, null, false, predicates);
+    }
+
+    /**
+     * Like {@link #CompositeIndexPredicate(String, int, Comparable[], Predicate[])}, with a range on the attribute
+     * following the prefix. A {@code null} bound means the range is unbounded on that side.
+     */
+    @SuppressWarnings("checkstyle:parameternumber")
+    CompositeIndexPredicate(String indexName, int componentCount, Comparable[] prefix, boolean hasRange,
+                            Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                            Predicate[] predicates) {
+        this.indexName = indexName;
+        this.componentCount = componentCount;
+        this.prefix = prefix;
+        this.hasRange = hasRange;
+        this.from = from;
+        this.fromInclusive = fromInclusive;
+        this.to = to;
+        this.toInclusive = toInclusive;
+        this.predicates = predicates;
+    }
+
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        Index index = queryContext.getIndex(indexName);
+        if (isFullEquality()) {
+            return index.getRecords(new CompositeValue(prefix));
+        }
+        return index.getSubRecordsBetween(lowerBound(), upperBound());
+    }
+
+    /**
+     * Estimates the number of matching entries from the statistics of the composite index.
+     *
+     * @return the estimated number of entries or -1 if it can't be estimated.
+     */
+    long estimate(QueryContext queryContext) {
+        Index index = queryContext.getIndex(indexName);
+        if (!(index instanceof IndexImpl)) {
+            return -1;
+        }
+        IndexImpl indexImpl = (IndexImpl) index;
+        if (isFullEquality()) {
+            return indexImpl.estimateEqual(new CompositeValue(prefix));
+        }
+        return indexImpl.estimateRange(lowerBound(), true, upperBound(), true);
+    }
+
+    private boolean isFullEquality() {
+        return !hasRange && prefix.length == componentCount;
+    }
+
+    private CompositeValue lowerBound() {
+        if (hasRange && from != null) {
+            return bound(from, fromInclusive ? NEGATIVE_INFINITY : POSITIVE_INFINITY);
+        }
+        if (hasRange) {
+            // null sorts below every value, but a comparison never matches null: start just above the nulls
+            return bound(NULL, POSITIVE_INFINITY);
+        }
+        return bound(NEGATIVE_INFINITY);
+    }
+
+    private CompositeValue upperBound() {
+        if (hasRange && to != null) {
+            return bound(to, toInclusive ? POSITIVE_INFINITY : NEGATIVE_INFINITY);
+        }
+        return bound(POSITIVE_INFINITY);
+    }
+
+    private CompositeValue bound(Comparable... suffix) {
+        Comparable[] components = new Comparable[prefix.length + suffix.length];
+        System.arraycopy(prefix, 0, components, 0, prefix.length);
+        System.arraycopy(suffix, 0, components, prefix.length, suffix.length);
+        return new CompositeValue(components);
+    }
+
+    @Override
+    public boolean isIndexed(QueryContext queryContext) {
+        return queryContext.getIndex(indexName) != null;
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        for (Predicate predicate : predicates) {
+            if (!predicate.apply(mapEntry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < predicates.length; i++) {
+            if (i > 0) {
+                sb.append(" AND ");
+            }
+            sb.append(predicates[i]);
+        }
+        return sb.append(") USING ").append(indexName).toString();
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.Indexes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.query.impl.IndexUtils.getComponents;
+import static com.hazelcast.query.impl.IndexUtils.isCompositeIndex;
+
+/**
+ * Replaces predicates matching a composite index with a single {@link CompositeIndexPredicate}.
+ *
+ * Given an index on (tenantId, status, created), the expression
+ * (tenantId = 1 and status = 'OPEN' and created > 100 and owner = 'x') is rewritten as
+ * (composite(tenantId = 1 and status = 'OPEN' and created > 100) and owner = 'x').
+ *
+ * An unordered composite index matches only when every indexed attribute is compared by equality.
+ * An ordered composite index also matches an equality prefix, optionally followed by a range on the
+ * next attribute. When several indexes match, the one covering the most predicates wins.
+ */
+public class CompositeIndexVisitor extends AbstractVisitor {
+
+    private static final int MIN_MATCHED_PREDICATES = 2;
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        Predicate[] originalPredicates = andPredicate.predicates;
+        Map<String, EqualPredicate> equalities = null;
+        Map<String, Predicate> ranges = null;
+        for (Predicate predicate : originalPredicates) {
+            if (predicate.getClass() == EqualPredicate.class) {
+                EqualPredicate equalPredicate = (EqualPredicate) predicate;
+                if (equalities == null) {
+                    equalities = new HashMap<String, EqualPredicate>();
+                }
+                if (!equalities.containsKey(equalPredicate.attributeName)) {
+                    equalities.put(equalPredicate.attributeName, equalPredicate);
+                }
+            } else if (predicate instanceof GreaterLessPredicate || predicate.getClass() == BetweenPredicate.class) {
+                AbstractPredicate rangePredicate = (AbstractPredicate) predicate;
+                if (ranges == null) {
+                    ranges = new HashMap<String, Predicate>();
+                }
+                if (!ranges.containsKey(rangePredicate.attributeName)) {
+                    ranges.put(rangePredicate.attributeName, rangePredicate);
+                }
+            }
+        }
+        if (equalities == null) {
+            return andPredicate;
+        }
+
+        Match best = null;
+        for (Index index : indexes.getIndexes()) {
+            if (!isCompositeIndex(index.getAttributeName())) {
+                continue;
+            }
+            Match match = match(index, equalities, ranges);
+            if (match != null && match.isBetterThan(best)) {
+                best = match;
+            }
+        }
+        if (best == null) {
+            return andPredicate;
+        }
+        return rewrite(originalPredicates, best);
+    }
+
+    private static Match match(Index index, Map<String, EqualPredicate> equalities, Map<String, Predicate> ranges) {
+        String[] components = getComponents(index.getAttributeName());
+        int prefixLength = 0;
+        while (prefixLength < components.length && equalities.containsKey(components[prefixLength])) {
+            prefixLength++;
+        }
+        Predicate range = null;
+        if (prefixLength < components.length) {
+            if (!index.isOrdered() || prefixLength == 0) {
+                return null;
+            }
+            range = ranges == null ? null : ranges.get(components[prefixLength]);
+        }
+        int matched = prefixLength + (range == null ? 0 : 1);
+        if (matched < MIN_MATCHED_PREDICATES) {
+            return null;
+        }
+        EqualPredicate[] prefix = new EqualPredicate[prefixLength];
+        for (int i = 0; i < prefixLength; i++) {
+            prefix[i] = equalities.get(components[i]);
+        }
+        return new Match(index.getAttributeName(), components.length, prefix, range);
+    }
+
+    private static Predicate rewrite(Predicate[] originalPredicates, Match match) {
+        Predicate[] matched = match.getPredicates();
+        Predicate composite = match.createPredicate();
+        Predicate[] newPredicates = new Predicate[originalPredicates.length - matched.length + 1];
+        int index = 0;
+        boolean added = false;
+        for (Predicate predicate : originalPredicates) {
+            if (contains(matched, predicate)) {
+                if (!added) {
+                    newPredicates[index++] = composite;
+                    added = true;
+                }
+            } else {
+                newPredicates[index++] = predicate;
+            }
+        }
+        if (newPredicates.length == 1) {
+            return newPredicates[0];
+        }
+        return new AndPredicate(newPredicates);
+    }
+
+    private static boolean contains(Predicate[] predicates, Predicate predicate) {
+        for (Predicate p : predicates) {
+            if (p == predicate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Predicates of an AND node covered by a composite index.
+     */
+    private static final class Match {
+        private final String indexName;
+        private final int componentCount;
+        private final EqualPredicate[] prefix;
+        private final Predicate range;
+
+        Match(String indexName, int componentCount, EqualPredicate[] prefix, Predicate range) {
+            this.indexName = indexName;
+            this.componentCount = componentCount;
+            this.prefix = prefix;
+            this.range = range;
+        }
+
+        int matchedCount() {
+            return prefix.length + (range == null ? 0 : 1);
+        }
+
+        boolean isExact() {
+            return prefix.length == componentCount;
+        }
+
+        boolean isBetterThan(Match other) {
+            if (other == null) {
+                return true;
+            }
+            int matched = matchedCount();
+            int otherMatched = other.matchedCount();
+            if (matched != otherMatched) {
+                return matched > otherMatched;
+            }
+            return isExact() && !other.isExact();
+        }
+
+        Predicate[] getPredicates() {
+            Predicate[] predicates = new Predicate[matchedCount()];
+            System.arraycopy(prefix, 0, predicates, 0, prefix.length);
+            if (range != null) {
+                predicates[prefix.length] = range;
+            }
+            return predicates;
+        }
+
+        Predicate createPredicate() {
+            Comparable[] values = new Comparable[prefix.length];
+            for (int i = 0; i < prefix.length; i++) {
+                values[i] = prefix[i].value;
+            }
+            Predicate[] predicates = getPredicates();
+            if (range == null) {
+                return new CompositeIndexPredicate(indexName, componentCount, values, predicates);
+            }
+            if (range instanceof BetweenPredicate) {
+                BetweenPredicate between = (BetweenPredicate) range;
+                return new CompositeIndexPredicate(indexName, componentCount, values, true,
+                        between.from, true, between.to, true, predicates);
+            }
+            GreaterLessPredicate greaterLess = (GreaterLessPredicate) range;
+            if (greaterLess.less) {
+                return new CompositeIndexPredicate(indexName, componentCount, values, true,
+                        null, false, greaterLess.value, greaterLess.equal, predicates);
+            }
+            return new CompositeIndexPredicate(indexName, componentCount, values, true,
+                    greaterLess.value, greaterLess.equal, null, false, predicates);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexImpl;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryContext;
+
+/**
+ * Cost based optimizer. It applies the rules of the {@link RuleBasedQueryOptimizer} and then uses the
+ * {@link com.hazelcast.query.impl.IndexStatistics statistics} of the indexes to estimate how many entries
+ * the indexed predicates match:
+ * <ul>
+ * <li>in a conjunction, only the indexed predicate expected to match the least entries is looked up in its
+ * index; the other indexed predicates are evaluated on its results instead of being looked up as well</li>
+ * <li>if the index lookup is expected to return more than {@link #FULL_SCAN_SHARE} of the entries, the
+ * predicate is evaluated by a full scan instead</li>
+ * </ul>
+ * Predicates whose matches can't be estimated keep using their indexes. The chosen plan is returned by
+ * {@link #explain(Predicate, Indexes)} and logged at finest level.
+ */
+public final class CostBasedQueryOptimizer implements QueryOptimizer {
+
+    /**
+     * Share of the indexed entries above which a full scan is preferred over the index lookup.
+     */
+    static final double FULL_SCAN_SHARE = 0.5;
+
+    private static final ILogger LOGGER = Logger.getLogger(CostBasedQueryOptimizer.class);
+
+    private final QueryOptimizer ruleBasedOptimizer = new RuleBasedQueryOptimizer();
+
+    @Override
+    public <K, V> Predicate<K, V> optimize(Predicate<K, V> predicate, Indexes indexes) {
+        QueryPlan plan = explain(predicate, indexes);
+        if (LOGGER.isFinestEnabled()) {
+            LOGGER.finest("Query plan: " + plan);
+        }
+        return plan.getPredicate();
+    }
+
+    /**
+     * Optimizes the predicate and describes how it is going to be executed.
+     *
+     * @param predicate the predicate to optimize
+     * @param indexes   the indexes of the queried map
+     * @return the chosen plan
+     */
+    public QueryPlan explain(Predicate predicate, Indexes indexes) {
+        Predicate optimized = ruleBasedOptimizer.optimize(predicate, indexes);
+        long entryCount = getEntryCount(indexes);
+        QueryContext queryContext = new QueryContext(indexes);
+        if (entryCount < 0 || !isIndexed(optimized, queryContext)) {
+            return new QueryPlan(optimized, null, -1, entryCount);
+        }
+
+        Predicate driving = optimized;
+        if (optimized instanceof AndPredicate) {
+            Predicate[] predicates = ((AndPredicate) optimized).predicates;
+            int drivingIndex = findDrivingPredicate(predicates, queryContext, entryCount);
+            if (drivingIndex >= 0) {
+                optimized = skipOtherIndexes(predicates, drivingIndex, queryContext, entryCount);
+                driving = predicates[drivingIndex];
+            }
+        }
+        long estimate = estimate(optimized, queryContext, entryCount);
+
+        if (estimate > entryCount * FULL_SCAN_SHARE) {
+            return new QueryPlan(new SkipIndexPredicate(optimized), null, estimate, entryCount);
+        }
+        return new QueryPlan(optimized, driving, estimate, entryCount);
+    }
+
+    private static long getEntryCount(Indexes indexes) {
+        long entryCount = -1;
+        for (Index index : indexes.getIndexes()) {
+            if (index instanceof IndexImpl) {
+                entryCount = Math.max(entryCount, ((IndexImpl) index).getStatistics().getEntryCount());
+            }
+        }
+        return entryCount;
+    }
+
+    private static boolean isIndexed(Predicate predicate, QueryContext queryContext) {
+        return predicate instanceof IndexAwarePredicate && ((IndexAwarePredicate) predicate).isIndexed(queryContext);
+    }
+
+    /**
+     * Returns the position of the indexed predicate with the lowest estimate or -1 if none can be estimated.
+     */
+    private static int findDrivingPredicate(Predicate[] predicates, QueryContext queryContext, long entryCount) {
+        int drivingIndex = -1;
+        long lowestEstimate = Long.MAX_VALUE;
+        for (int i = 0; i < predicates.length; i++) {
+            if (isIndexed(predicates[i], queryContext)) {
+                long estimate = estimate(predicates[i], queryContext, entryCount);
+                if (estimate >= 0 && estimate < lowestEstimate) {
+                    lowestEstimate = estimate;
+                    drivingIndex = i;
+                }
+            }
+        }
+        return drivingIndex;
+    }
+
+    private static Predicate skipOtherIndexes(Predicate[] predicates, int drivingIndex, QueryContext queryContext,
+                                              long entryCount) {
+        Predicate[] rewritten = new Predicate[predicates.length];
+        for (int i = 0; i < predicates.length; i++) {
+            Predicate predicate = predicates[i];
+            if (i != drivingIndex && isIndexed(predicate, queryContext)
+                    && estimate(predicate, queryContext, entryCount) >= 0) {
+                predicate = new SkipIndexPredicate(predicate);
+            }
+            rewritten[i] = predicate;
+        }
+        return new AndPredicate(rewritten);
+    }
+
+    /**
+     * Estimates the number of entries matched by an indexed predicate.
+     *
+     * @return the estimated number of entries or -1 if it can't be estimated.
+     */
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+    static long estimate(Predicate predicate, QueryContext queryContext, long entryCount) {
+        if (predicate instanceof CompositeIndexPredicate) {
+            return ((CompositeIndexPredicate) predicate).estimate(queryContext);
+        }
+        if (predicate instanceof AndPredicate) {
+            return estimateAnd(((AndPredicate) predicate).predicates, queryContext, entryCount);
+        }
+        if (predicate instanceof OrPredicate) {
+            return estimateOr(((OrPredicate) predicate).predicates, queryContext, entryCount);
+        }
+        if (!(predicate instanceof AbstractPredicate)) {
+            return -1;
+        }
+        Index index = queryContext.getIndex(((AbstractPredicate) predicate).attributeName);
+        if (!(index instanceof IndexImpl)) {
+            return -1;
+        }
+        IndexImpl indexImpl = (IndexImpl) index;
+        if (predicate.getClass() == EqualPredicate.class) {
+            return indexImpl.estimateEqual(((EqualPredicate) predicate).value);
+        }
+        if (predicate instanceof GreaterLessPredicate) {
+            GreaterLessPredicate greaterLess = (GreaterLessPredicate) predicate;
+            return greaterLess.less
+                    ? indexImpl.estimateRange(null, false, greaterLess.value, greaterLess.equal)
+                    : indexImpl.estimateRange(greaterLess.value, greaterLess.equal, null, false);
+        }
+        if (predicate instanceof BetweenPredicate) {
+            BetweenPredicate between = (BetweenPredicate) predicate;
+            return indexImpl.estimateRange(between.from, true, between.to, true);
+        }
+        if (predicate instanceof InPredicate) {
+            long sum = 0;
+            for (Comparable value : ((InPredicate) predicate).values) {
+                long estimate = indexImpl.estimateEqual(value);
+                if (estimate < 0) {
+                    return -1;
+                }
+                sum += estimate;
+            }
+            return Math.min(sum, entryCount);
+        }
+        return -1;
+    }
+
+    /**
+     * A conjunction matches at most as many entries as its most selective indexed predicate.
+     */
+    private static long estimateAnd(Predicate[] predicates, QueryContext queryContext, long entryCount) {
+        long lowestEstimate = -1;
+        for (Predicate predicate : predicates) {
+            if (isIndexed(predicate, queryContext)) {
+                long estimate = estimate(predicate, queryContext, entryCount);
+                if (estimate < 0) {
+                    return -1;
+                }
+                lowestEstimate = lowestEstimate < 0 ? estimate : Math.min(lowestEstimate, estimate);
+            }
+        }
+        return lowestEstimate;
+    }
+
+    private static long estimateOr(Predicate[] predicates, QueryContext queryContext, long entryCount) {
+        long sum = 0;
+        for (Predicate predicate : predicates) {
+            long estimate = estimate(predicate, queryContext, entryCount);
+            if (estimate < 0) {
+                return -1;
+            }
+            sum += estimate;
+        }
+        return Math.min(sum, entryCount);
+    }
+}
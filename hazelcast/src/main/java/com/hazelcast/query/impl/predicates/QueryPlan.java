@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+
+/**
+ * Execution plan chosen by the {@link CostBasedQueryOptimizer} for a predicate.
+ * <p/>
+ * A plan either scans all entries or is driven by an index lookup. In the latter case the driving
+ * predicate is the indexed predicate expected to match the least entries; the remaining predicates are
+ * evaluated on its results.
+ */
+public final class QueryPlan {
+
+    private final Predicate predicate;
+    private final Predicate drivingPredicate;
+    private final long estimatedEntries;
+    private final long entryCount;
+
+    QueryPlan(Predicate predicate, Predicate drivingPredicate, long estimatedEntries, long entryCount) {
+        this.predicate = predicate;
+        this.drivingPredicate = drivingPredicate;
+        this.estimatedEntries = estimatedEntries;
+        this.entryCount = entryCount;
+    }
+
+    /**
+     * Returns the optimized predicate to execute.
+     */
+    public Predicate getPredicate() {
+        return predicate;
+    }
+
+    /**
+     * Returns {@code true} if the plan evaluates the predicate on every entry.
+     */
+    public boolean isFullScan() {
+        return drivingPredicate == null;
+    }
+
+    /**
+     * Returns the indexed predicate driving the execution or {@code null} for a full scan.
+     */
+    public Predicate getDrivingPredicate() {
+        return drivingPredicate;
+    }
+
+    /**
+     * Returns the estimated number of matching entries or -1 if not known.
+     */
+    public long getEstimatedEntries() {
+        return estimatedEntries;
+    }
+
+    /**
+     * Returns the number of indexed entries the estimation is based on or -1 if the map has no index.
+     */
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (isFullScan()) {
+            sb.append("FULL SCAN");
+        } else {
+            sb.append("INDEX SCAN USING ").append(drivingPredicate);
+        }
+        if (estimatedEntries >= 0) {
+            sb.append(" [estimated ").append(estimatedEntries).append(" of ").append(entryCount).append(" entries]");
+        } else if (isFullScan() && entryCount < 0) {
+            sb.append(" [no index]");
+        }
+        return sb.append(" FOR ").append(predicate).toString();
+    }
+}
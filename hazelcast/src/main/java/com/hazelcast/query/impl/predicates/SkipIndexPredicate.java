@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+
+import java.util.Map;
+
+/**
+ * Evaluates the wrapped predicate on every entry instead of consulting its indexes.
+ * <p/>
+ * Created by {@link CostBasedQueryOptimizer} for predicates whose index lookup is expected to cost more than
+ * it saves; it is never sent over the wire.
+ */
+public class SkipIndexPredicate implements Predicate {
+
+    private final Predicate predicate;
+
+    SkipIndexPredicate(Predicate predicate) {
+        this.predicate = predicate;
+    }
+
+    Predicate getPredicate() {
+        return predicate;
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        return predicate.apply(mapEntry);
+    }
+
+    @Override
+    public String toString() {
+        return "SKIP_INDEX(" + predicate + ")";
+    }
+}
@@ -58,6 +58,11 @@ public interface ExecutionService {
      */
     String QUERY_EXECUTOR = "hz:query";
 
+    /**
+     * Name of the executor running the helper tasks of parallel full scans of the local partitions.
+     */
+    String QUERY_SCAN_EXECUTOR = "hz:query-scan";
+
     /**
      * Name of the io executor.
      */
@@ -43,8 +43,10 @@ import com.hazelcast.internal.partition.MigrationInfo;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.LoggingServiceImpl;
 import com.hazelcast.nio.Address;
+import com.hazelcast.nio.ConnectionManager;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.tcp.TcpIpConnectionManager;
 import com.hazelcast.quorum.impl.QuorumServiceImpl;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.Operation;
@@ -124,7 +126,7 @@ public class NodeEngineImpl implements NodeEngine {
         this.wanReplicationService = node.getNodeExtension().createService(WanReplicationService.class);
         this.packetDispatcher = new PacketDispatcherImpl(
                 logger,
-                operationService.getOperationExecutor(),
+                operationService.getOperationPacketHandler(),
                 operationService.getAsyncResponseHandler(),
                 operationService.getInvocationMonitor(),
                 eventService,
@@ -373,6 +375,10 @@ public class NodeEngineImpl implements NodeEngine {
 
     public void onPartitionMigrate(MigrationInfo migrationInfo) {
         waitNotifyService.onPartitionMigrate(getThisAddress(), migrationInfo);
+        ConnectionManager connectionManager = node.getConnectionManager();
+        if (connectionManager instanceof TcpIpConnectionManager) {
+            ((TcpIpConnectionManager) connectionManager).onPartitionMigrate(migrationInfo.getPartitionId());
+        }
     }
 
     /**
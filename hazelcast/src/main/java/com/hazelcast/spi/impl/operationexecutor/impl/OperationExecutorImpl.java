@@ -21,11 +21,13 @@ import com.hazelcast.instance.NodeExtension;
 import com.hazelcast.internal.metrics.MetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.ThreadAffinity;
 import com.hazelcast.internal.util.collection.MPSCQueue;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.LoggingService;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.tcp.nonblocking.NonBlockingIOThreadHost;
 import com.hazelcast.spi.LiveOperations;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.UrgentSystemOperation;
@@ -36,14 +38,18 @@ import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunnerFactory;
 import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
 import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.spi.impl.operationservice.impl.AsyncResponseHandler.getIdleStrategy;
 import static com.hazelcast.spi.properties.GroupProperty.GENERIC_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.OPERATION_THREAD_PER_CORE;
 import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_AFFINITY;
 import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_COUNT;
 import static com.hazelcast.spi.properties.GroupProperty.PRIORITY_GENERIC_OPERATION_THREAD_COUNT;
 import static com.hazelcast.util.Preconditions.checkNotNull;
@@ -74,6 +80,27 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 @SuppressWarnings("checkstyle:methodcount")
 public final class OperationExecutorImpl implements OperationExecutor, MetricsProvider {
 
+    /**
+     * The capacity of the queue of each partition operation thread. If larger than 0, a bounded
+     * {@link RingBufferOperationQueue} is used and operations are rejected with a
+     * {@link com.hazelcast.core.HazelcastOverloadException} when it is full. For the operations received from other
+     * members, see {@link com.hazelcast.spi.impl.operationservice.impl.OperationPacketHandler}.
+     * <p/>
+     * The default is 0, which means that the unbounded {@link DefaultOperationQueue} is used.
+     */
+    public static final HazelcastProperty PARTITION_QUEUE_CAPACITY
+            = new HazelcastProperty("hazelcast.operation.partition.queue.capacity", 0);
+
+    /**
+     * The idle strategy of a partition operation thread when its {@link RingBufferOperationQueue} is empty: 'block'
+     * parks the thread till an operation is added, 'backoff' spins, yields and then parks for a short period and
+     * 'busyspin' keeps spinning. Spinning lowers the latency at the price of CPU usage.
+     * <p/>
+     * The default is 'block'.
+     */
+    public static final HazelcastProperty PARTITION_QUEUE_IDLE_STRATEGY
+            = new HazelcastProperty("hazelcast.operation.partition.queue.idlestrategy", "block");
+
     private static final int TERMINATION_TIMEOUT_SECONDS = 3;
 
     private final ILogger logger;
@@ -92,6 +119,8 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
     private final Address thisAddress;
     private final OperationRunner adHocOperationRunner;
     private final int priorityThreadCount;
+    // only set in the thread-per-core mode
+    private NonBlockingIOThreadHost[] ioThreadHosts;
 
     public OperationExecutorImpl(HazelcastProperties properties,
                                  LoggingService loggerService,
@@ -147,18 +176,39 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
             threadCount = Math.max(2, coreSize);
         }
 
+        int queueCapacity = properties.getInteger(PARTITION_QUEUE_CAPACITY);
+        boolean threadPerCore = properties.getBoolean(OPERATION_THREAD_PER_CORE);
+        int[] cpus = ThreadAffinity.parseCpuList(properties.getString(PARTITION_OPERATION_THREAD_AFFINITY));
+        if (threadPerCore) {
+            this.ioThreadHosts = new NonBlockingIOThreadHost[threadCount];
+        }
+
         PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = threadGroup.getThreadPoolNamePrefix("partition-operation") + threadId;
-            // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
-            MPSCQueue<Object> normalQueue = new MPSCQueue<Object>(null);
-            OperationQueue operationQueue = new DefaultOperationQueue(normalQueue, new ConcurrentLinkedQueue<Object>());
+            MPSCQueue<Object> normalQueue = null;
+            OperationQueue operationQueue;
+            if (threadPerCore) {
+                ThreadPerCoreOperationQueue threadPerCoreQueue = new ThreadPerCoreOperationQueue();
+                ioThreadHosts[threadId] = threadPerCoreQueue;
+                operationQueue = threadPerCoreQueue;
+            } else if (queueCapacity > 0) {
+                operationQueue = new RingBufferOperationQueue(queueCapacity,
+                        getIdleStrategy(properties, PARTITION_QUEUE_IDLE_STRATEGY));
+            } else {
+                // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
+                normalQueue = new MPSCQueue<Object>(null);
+                operationQueue = new DefaultOperationQueue(normalQueue, new ConcurrentLinkedQueue<Object>());
+            }
 
+            int cpu = cpus.length == 0 ? PartitionOperationThread.NO_CPU : cpus[threadId % cpus.length];
             PartitionOperationThread partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
-                    threadGroup, nodeExtension, partitionOperationRunners);
+                    threadGroup, nodeExtension, partitionOperationRunners, cpu);
 
             threads[threadId] = partitionThread;
-            normalQueue.setConsumerThread(partitionThread);
+            if (normalQueue != null) {
+                normalQueue.setConsumerThread(partitionThread);
+            }
         }
 
         // we need to assign the PartitionOperationThreads to all OperationRunners they own
@@ -219,6 +269,17 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         return partitionOperationRunners;
     }
 
+    /**
+     * Returns the hosts for the socket input threads in the thread-per-core mode; every partition operation thread
+     * hosts one socket input thread.
+     *
+     * @return the hosts or {@code null} if the thread-per-core mode is not enabled.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public NonBlockingIOThreadHost[] getIOThreadHosts() {
+        return ioThreadHosts;
+    }
+
     @SuppressFBWarnings("EI_EXPOSE_REP")
     @Override
     public OperationRunner[] getGenericOperationRunners() {
@@ -91,6 +91,7 @@ public abstract class OperationThread extends HazelcastManagedThread implements
     public final void run() {
         nodeExtension.onThreadStart(this);
         try {
+            beforeRun();
             while (!shutdown) {
                 Object task;
                 try {
@@ -19,6 +19,7 @@ package com.hazelcast.spi.impl.operationexecutor.impl;
 import com.hazelcast.instance.HazelcastThreadGroup;
 import com.hazelcast.instance.NodeExtension;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.ThreadAffinity;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -28,15 +29,41 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
  */
 public final class PartitionOperationThread extends OperationThread {
 
+    static final int NO_CPU = -1;
+
     private final OperationRunner[] partitionOperationRunners;
+    private final ILogger logger;
+    private final int cpu;
 
-    @SuppressFBWarnings("EI_EXPOSE_REP")
     public PartitionOperationThread(String name, int threadId,
                                     OperationQueue queue, ILogger logger,
                                     HazelcastThreadGroup threadGroup, NodeExtension nodeExtension,
                                     OperationRunner[] partitionOperationRunners) {
+        this(name, threadId, queue, logger, threadGroup, nodeExtension, partitionOperationRunners, NO_CPU);
+    }
+
+    /**
+     * Creates a PartitionOperationThread that is pinned to the given CPU when it starts.
+     *
+     * @param cpu the CPU to pin to or {@link #NO_CPU} if the thread should not be pinned.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    @SuppressWarnings("checkstyle:parameternumber")
+    public PartitionOperationThread(String name, int threadId,
+                                    OperationQueue queue, ILogger logger,
+                                    HazelcastThreadGroup threadGroup, NodeExtension nodeExtension,
+                                    OperationRunner[] partitionOperationRunners, int cpu) {
         super(name, threadId, queue, logger, threadGroup, nodeExtension, false);
         this.partitionOperationRunners = partitionOperationRunners;
+        this.logger = logger;
+        this.cpu = cpu;
+    }
+
+    @Override
+    protected void beforeRun() {
+        if (cpu != NO_CPU) {
+            ThreadAffinity.pinCurrentThread(cpu, logger);
+        }
     }
 
     /**
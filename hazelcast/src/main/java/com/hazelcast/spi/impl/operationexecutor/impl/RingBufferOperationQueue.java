@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.util.concurrent.IdleStrategy;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+import static java.util.concurrent.locks.LockSupport.park;
+import static java.util.concurrent.locks.LockSupport.unpark;
+
+/**
+ * An {@link OperationQueue} that stores normal tasks in a bounded, array backed, Multiple-Producer Single-Consumer
+ * ring buffer. So unlike the {@link DefaultOperationQueue} no node is allocated and no lock is acquired when a normal
+ * task is added; a producer claims a slot with a single CAS and publishes the task into that slot.
+ * <p/>
+ * Priority tasks are placed in a separate unbounded lane, which is always checked before the ring buffer. Priority
+ * tasks are rare and must never be rejected, so this lane is allowed to allocate.
+ * <p/>
+ * When the ring buffer is full, a {@link HazelcastOverloadException} is thrown; the producer is not blocked since
+ * an operation thread producing into the queue of another operation thread could otherwise deadlock. For packets
+ * received from other members, see {@link com.hazelcast.spi.impl.operationservice.impl.OperationPacketHandler}.
+ * <p/>
+ * When there is no work, the consumer uses the configured {@link IdleStrategy}. If no idle strategy is configured,
+ * the consumer parks and is unparked by the producer that adds the next task.
+ * <p/>
+ * Since there is a single consumer, this queue can only be used by a {@link PartitionOperationThread}.
+ */
+public final class RingBufferOperationQueue implements OperationQueue {
+
+    private final AtomicReferenceArray<Object> ring;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // only written by the consumer thread
+    private final AtomicLong head = new AtomicLong();
+    private final Queue<Object> priorityQueue = new ConcurrentLinkedQueue<Object>();
+    private final AtomicBoolean parked = new AtomicBoolean();
+    private final IdleStrategy idleStrategy;
+    private volatile Thread consumerThread;
+
+    /**
+     * Creates a RingBufferOperationQueue.
+     *
+     * @param capacity     the capacity of the ring buffer for normal tasks. It is rounded up to the next power of two.
+     * @param idleStrategy the idle strategy of the consumer or {@code null} if the consumer should park
+     *                     till a task is added.
+     */
+    public RingBufferOperationQueue(int capacity, IdleStrategy idleStrategy) {
+        checkPositive(capacity, "capacity should be larger than 0");
+        int length = nextPowerOfTwo(capacity);
+        this.ring = new AtomicReferenceArray<Object>(length);
+        this.mask = length - 1;
+        this.idleStrategy = idleStrategy;
+    }
+
+    @Override
+    public int normalSize() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    @Override
+    public int prioritySize() {
+        return priorityQueue.size();
+    }
+
+    @Override
+    public int size() {
+        return normalSize() + prioritySize();
+    }
+
+    @Override
+    public void add(Object task, boolean priority) {
+        checkNotNull(task, "task can't be null");
+
+        if (priority) {
+            priorityQueue.add(task);
+        } else {
+            offer(task);
+        }
+
+        if (idleStrategy == null && parked.get() && parked.compareAndSet(true, false)) {
+            unpark(consumerThread);
+        }
+    }
+
+    private void offer(Object task) {
+        AtomicLong tail = this.tail;
+        int capacity = mask + 1;
+        for (; ; ) {
+            long currentTail = tail.get();
+            if (currentTail - head.get() >= capacity) {
+                throw new HazelcastOverloadException("Operation queue is full, capacity: " + capacity);
+            }
+
+            if (tail.compareAndSet(currentTail, currentTail + 1)) {
+                // the consumer spins on a claimed slot till the task is visible
+                ring.lazySet((int) currentTail & mask, task);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public Object take(boolean priorityOnly) throws InterruptedException {
+        consumerThread = Thread.currentThread();
+
+        long iteration = 0;
+        for (; ; ) {
+            Object item = priorityQueue.poll();
+            if (item != null) {
+                return item;
+            }
+
+            if (!priorityOnly) {
+                item = poll();
+                if (item != null) {
+                    return item;
+                }
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            if (idleStrategy != null) {
+                idleStrategy.idle(iteration++);
+                continue;
+            }
+
+            parked.set(true);
+            // a producer could have added a task before it was able to see the parked flag
+            if (isEmpty(priorityOnly)) {
+                park(this);
+            }
+            parked.set(false);
+        }
+    }
+
+    private Object poll() {
+        long currentHead = head.get();
+        if (currentHead == tail.get()) {
+            return null;
+        }
+
+        int index = (int) currentHead & mask;
+        Object item = ring.get(index);
+        if (item == null) {
+            // the slot is claimed, but the producer has not yet published the task
+            return null;
+        }
+
+        ring.lazySet(index, null);
+        head.lazySet(currentHead + 1);
+        return item;
+    }
+
+    private boolean isEmpty(boolean priorityOnly) {
+        if (!priorityQueue.isEmpty()) {
+            return false;
+        }
+        return priorityOnly || head.get() == tail.get();
+    }
+}
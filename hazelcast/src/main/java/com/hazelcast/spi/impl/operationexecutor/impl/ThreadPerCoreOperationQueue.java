@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.nio.tcp.nonblocking.NonBlockingIOThread;
+import com.hazelcast.nio.tcp.nonblocking.NonBlockingIOThreadHost;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static java.util.concurrent.locks.LockSupport.park;
+import static java.util.concurrent.locks.LockSupport.unpark;
+
+/**
+ * The {@link OperationQueue} of a {@link PartitionOperationThread} in the thread-per-core mode.
+ * <p/>
+ * The consumer of this queue also hosts a {@link NonBlockingIOThread}: when the queue is empty, the consumer waits on the
+ * selector of that NonBlockingIOThread instead of parking. The packets it reads for its own partitions are added to this
+ * queue by the consumer itself and are processed without any thread handoff or wakeup. The connections are not assigned by
+ * partition, so the packets it reads for partitions of other threads are still added to the queues of those threads, which
+ * wakes up their selectors.
+ * <p/>
+ * To prevent a busy consumer from starving its connections, the consumer also does a non blocking select every
+ * {@link #SELECT_NOW_INTERVAL} tasks.
+ * <p/>
+ * Till the NonBlockingIOThread is provided, or after it is removed on shutdown, the consumer parks when there is no work.
+ */
+public final class ThreadPerCoreOperationQueue implements OperationQueue, NonBlockingIOThreadHost {
+
+    static final int SELECT_NOW_INTERVAL = 64;
+    static final long SELECT_TIMEOUT_MS = 1000;
+
+    private final Queue<Object> normalQueue = new ConcurrentLinkedQueue<Object>();
+    private final Queue<Object> priorityQueue = new ConcurrentLinkedQueue<Object>();
+    private final AtomicBoolean sleeping = new AtomicBoolean();
+    private volatile NonBlockingIOThread ioThread;
+    private volatile Thread consumerThread;
+    // only accessed by the consumer thread
+    private int takeCount;
+
+    @Override
+    public void host(NonBlockingIOThread ioThread) {
+        NonBlockingIOThread oldIOThread = this.ioThread;
+        this.ioThread = ioThread;
+
+        // the consumer could be waiting on the old selector or could be parked
+        if (oldIOThread != null) {
+            oldIOThread.wakeup();
+        }
+        Thread consumerThread = this.consumerThread;
+        if (consumerThread != null) {
+            unpark(consumerThread);
+        }
+    }
+
+    @Override
+    public int normalSize() {
+        return normalQueue.size();
+    }
+
+    @Override
+    public int prioritySize() {
+        return priorityQueue.size();
+    }
+
+    @Override
+    public int size() {
+        return normalQueue.size() + priorityQueue.size();
+    }
+
+    @Override
+    public void add(Object task, boolean priority) {
+        checkNotNull(task, "task can't be null");
+
+        if (priority) {
+            priorityQueue.add(task);
+        } else {
+            normalQueue.add(task);
+        }
+
+        // if the consumer itself adds the task, e.g. a packet it has read, there is no need for a wakeup
+        if (sleeping.get() && Thread.currentThread() != consumerThread && sleeping.compareAndSet(true, false)) {
+            NonBlockingIOThread ioThread = this.ioThread;
+            if (ioThread != null) {
+                ioThread.wakeup();
+            } else {
+                unpark(consumerThread);
+            }
+        }
+    }
+
+    @Override
+    public Object take(boolean priorityOnly) throws InterruptedException {
+        consumerThread = Thread.currentThread();
+
+        NonBlockingIOThread ioThread = this.ioThread;
+        // socket channels are closed when they are read by an interrupted thread, so we only read when not interrupted
+        if (ioThread != null && ++takeCount >= SELECT_NOW_INTERVAL && !Thread.currentThread().isInterrupted()) {
+            takeCount = 0;
+            ioThread.selectOnce(0);
+        }
+
+        for (; ; ) {
+            Object item = priorityQueue.poll();
+            if (item != null) {
+                return item;
+            }
+
+            if (!priorityOnly) {
+                item = normalQueue.poll();
+                if (item != null) {
+                    return item;
+                }
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            sleeping.set(true);
+            // a producer could have added a task before it was able to see the sleeping flag
+            if (isEmpty(priorityOnly)) {
+                ioThread = this.ioThread;
+                if (ioThread != null) {
+                    ioThread.selectOnce(SELECT_TIMEOUT_MS);
+                } else {
+                    park(this);
+                }
+            }
+            sleeping.set(false);
+        }
+    }
+
+    private boolean isEmpty(boolean priorityOnly) {
+        return priorityQueue.isEmpty() && (priorityOnly || normalQueue.isEmpty());
+    }
+}
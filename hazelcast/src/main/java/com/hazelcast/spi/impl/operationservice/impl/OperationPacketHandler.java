@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.internal.metrics.MetricsProvider;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.spi.exception.RetryableHazelcastException;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.spi.impl.SpiDataSerializerHook;
+import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
+import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
+
+import java.io.IOException;
+
+import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.nio.Packet.FLAG_URGENT;
+
+/**
+ * Hands the operation packets received from other members over to the {@link OperationExecutor}.
+ * <p/>
+ * When the bounded queue of a partition thread is full, the io thread that read the packet must not wait for room: it
+ * would stop reading all its connections, including the responses and the packets of partitions that are not
+ * overloaded. Instead the packet is rejected:
+ * <ol>
+ * <li>an operation with an invoker gets a {@link RetryableHazelcastException} as response, so the invoker sends it
+ * again after its retry pause.</li>
+ * <li>a backup or an operation without a call id can't be sent again, since its sender doesn't wait for it. It is
+ * queued as an urgent operation, which is never rejected. The replica versions detect a backup that overtakes an
+ * earlier one and sync the replica.</li>
+ * </ol>
+ */
+public final class OperationPacketHandler implements PacketHandler, MetricsProvider {
+
+    private final ILogger logger;
+    private final InternalSerializationService serializationService;
+    private final OperationExecutor operationExecutor;
+    private final OperationServiceImpl operationService;
+
+    @Probe(name = "rejectedPackets", level = MANDATORY)
+    private final MwCounter rejectedPackets = newMwCounter();
+
+    OperationPacketHandler(ILogger logger,
+                           InternalSerializationService serializationService,
+                           OperationExecutor operationExecutor,
+                           OperationServiceImpl operationService) {
+        this.logger = logger;
+        this.serializationService = serializationService;
+        this.operationExecutor = operationExecutor;
+        this.operationService = operationService;
+    }
+
+    @Override
+    public void provideMetrics(MetricsRegistry metricsRegistry) {
+        metricsRegistry.scanAndRegister(this, "operation");
+    }
+
+    @Override
+    public void handle(Packet packet) throws Exception {
+        try {
+            operationExecutor.handle(packet);
+        } catch (HazelcastOverloadException e) {
+            reject(packet, e);
+        }
+    }
+
+    private void reject(Packet packet, HazelcastOverloadException cause) throws Exception {
+        rejectedPackets.inc();
+
+        long callId = readCallIdOfInvocation(packet);
+        if (callId == 0) {
+            packet.setFlag(FLAG_URGENT);
+            operationExecutor.handle(packet);
+            return;
+        }
+
+        Address caller = packet.getConn().getEndPoint();
+        packet.release();
+        if (logger.isFinestEnabled()) {
+            logger.finest("Rejected the operation with call id " + callId + " of " + caller + ": " + cause.getMessage());
+        }
+        Exception error = new RetryableHazelcastException("Partition " + packet.getPartitionId() + " is overloaded: "
+                + cause.getMessage());
+        operationService.send(new ErrorResponse(error, callId, false), caller);
+    }
+
+    /**
+     * Reads the call id of the serialized operation without deserializing it; see
+     * {@link com.hazelcast.nio.IOUtil#extractOperationCallId}.
+     *
+     * @return the call id or 0 if the operation is a backup or has no call id.
+     */
+    private long readCallIdOfInvocation(Packet packet) throws IOException {
+        ObjectDataInput input = serializationService.createObjectDataInput(packet);
+        boolean identified = input.readBoolean();
+        if (identified) {
+            int factoryId = input.readInt();
+            int typeId = input.readInt();
+            if (factoryId == SpiDataSerializerHook.F_ID && typeId == SpiDataSerializerHook.BACKUP) {
+                // the call id of a backup is the one of the invocation on the primary replica
+                return 0;
+            }
+        } else {
+            input.readUTF();
+        }
+        return input.readLong();
+    }
+}
@@ -405,6 +405,7 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
             if (publishCurrentTask) {
                 currentTask = null;
             }
+            packet.release();
         }
     }
 
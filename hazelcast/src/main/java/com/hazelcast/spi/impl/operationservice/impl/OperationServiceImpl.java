@@ -126,6 +126,7 @@ public final class OperationServiceImpl implements InternalOperationService, Met
     private final InvocationMonitor invocationMonitor;
     private final SlowOperationDetector slowOperationDetector;
     private final AsyncResponseHandler asyncResponseHandler;
+    private final OperationPacketHandler operationPacketHandler;
     private final InternalSerializationService serializationService;
     private final ResponseHandler responseHandler;
     private final Address thisAddress;
@@ -159,6 +160,7 @@ public final class OperationServiceImpl implements InternalOperationService, Met
         this.operationExecutor = new OperationExecutorImpl(
                 node.getProperties(), node.loggingService, thisAddress, new OperationRunnerFactoryImpl(this),
                 node.getHazelcastThreadGroup(), node.getNodeExtension());
+        this.operationPacketHandler = new OperationPacketHandler(logger, serializationService, operationExecutor, this);
 
         this.slowOperationDetector = new SlowOperationDetector(node.loggingService,
                 operationExecutor.getGenericOperationRunners(), operationExecutor.getPartitionOperationRunners(),
@@ -175,6 +177,10 @@ public final class OperationServiceImpl implements InternalOperationService, Met
         return asyncResponseHandler;
     }
 
+    public PacketHandler getOperationPacketHandler() {
+        return operationPacketHandler;
+    }
+
     public InvocationMonitor getInvocationMonitor() {
         return invocationMonitor;
     }
@@ -417,7 +423,7 @@ public final class OperationServiceImpl implements InternalOperationService, Met
     public void provideMetrics(MetricsRegistry metricsRegistry) {
         metricsRegistry.scanAndRegister(this, "operation");
         metricsRegistry.collectMetrics(invocationRegistry, invocationMonitor, responseHandler, asyncResponseHandler,
-                operationExecutor);
+                operationExecutor, operationPacketHandler);
     }
 
     public void start() {
@@ -76,7 +76,12 @@ public final class ResponseHandler implements PacketHandler, MetricsProvider {
 
     @Override
     public void handle(Packet packet) throws Exception {
-        Response response = serializationService.toObject(packet);
+        Response response;
+        try {
+            response = serializationService.toObject(packet);
+        } finally {
+            packet.release();
+        }
         Address sender = packet.getConn().getEndPoint();
         try {
             if (response instanceof NormalResponse) {
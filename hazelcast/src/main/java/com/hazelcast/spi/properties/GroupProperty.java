@@ -23,6 +23,8 @@ import com.hazelcast.internal.diagnostics.HealthMonitorLevel;
 import com.hazelcast.map.QueryResultSizeExceededException;
 import com.hazelcast.map.impl.query.QueryResultSizeLimiter;
 import com.hazelcast.query.TruePredicate;
+import com.hazelcast.query.impl.SortedIndexStoreType;
+import com.hazelcast.query.impl.UnsortedIndexStoreType;
 import com.hazelcast.query.impl.predicates.QueryOptimizerFactory;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -70,6 +72,31 @@ public final class GroupProperty {
     public static final HazelcastProperty PARTITION_OPERATION_THREAD_COUNT
             = new HazelcastProperty("hazelcast.operation.thread.count", -1);
 
+    /**
+     * The CPUs the partition operation threads are pinned to, e.g. '0-3,6'. Partition operation thread n is pinned to the
+     * n-th CPU of the list, wrapping around when there are more threads than CPUs. Pinning is only supported on Linux
+     * and requires the taskset command.
+     * <p/>
+     * The default is empty, which means that the threads are not pinned.
+     */
+    public static final HazelcastProperty PARTITION_OPERATION_THREAD_AFFINITY
+            = new HazelcastProperty("hazelcast.operation.thread.affinity", "");
+
+    /**
+     * Enables the thread-per-core mode. In this mode every partition operation thread also drives the selector of a
+     * socket input thread, so the number of socket input threads is equal to the number of partition operation threads.
+     * The connections are not assigned by partition: a connection carries packets for all partitions. A packet read by
+     * the thread owning its partition is queued without a wake-up; any other packet is still handed over to the queue of
+     * the owning partition thread. The saving is the separate input thread and its wake-ups, not the handover itself.
+     * <p/>
+     * Since the connections are read in between operations, a slow operation delays the reading of the connections
+     * of its thread. Combine it with {@link #PARTITION_OPERATION_THREAD_AFFINITY} to pin every thread to its own core.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty OPERATION_THREAD_PER_CORE
+            = new HazelcastProperty("hazelcast.operation.threadpercore.enabled", false);
+
     /**
      * The number of generic operation handler threads per Member.
      * <p/>
@@ -210,6 +237,98 @@ public final class GroupProperty {
     public static final HazelcastProperty SOCKET_BUFFER_DIRECT
             = new HazelcastProperty("hazelcast.socket.buffer.direct", false);
 
+    /**
+     * If member to member connections should use gathering writes. Small packets are still copied into the send buffer,
+     * but packets with a payload of at least {@link #SOCKET_GATHERING_WRITE_THRESHOLD} bytes are written from their own
+     * byte-array, and all of them are written to the socket with a single gathering write.
+     * <p/>
+     * In this mode the writer also adapts its flushing to the load: if it is idle, frames are written immediately;
+     * if new frames were queued while it was writing, it waits for the next select before writing them, so that more
+     * frames can be coalesced into a single write.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty SOCKET_GATHERING_WRITE_ENABLED
+            = new HazelcastProperty("hazelcast.socket.gathering.write.enabled", false);
+
+    /**
+     * The payload size in bytes from which a packet is not copied into the send buffer when gathering writes are enabled,
+     * see {@link #SOCKET_GATHERING_WRITE_ENABLED}.
+     * <p/>
+     * The default is 8192 bytes.
+     */
+    public static final HazelcastProperty SOCKET_GATHERING_WRITE_THRESHOLD
+            = new HazelcastProperty("hazelcast.socket.gathering.write.threshold", 8192);
+
+    /**
+     * If member to member connections should drain the socket on a read event. As long as a read fills up the receive
+     * buffer, the reader reads again before it goes back to the selector, at most 16 times per event, instead of going
+     * through another select for every buffer.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty SOCKET_READ_DRAIN_ENABLED
+            = new HazelcastProperty("hazelcast.socket.read.drain.enabled", false);
+
+    /**
+     * If the payloads of inbound operation and response packets should be taken from a pool instead of being allocated
+     * for every packet. The payload is returned to the pool once the packet has been deserialized. This reduces the
+     * litter created by the network reads.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty SOCKET_RECEIVE_PAYLOAD_POOL_ENABLED
+            = new HazelcastProperty("hazelcast.socket.receive.payload.pool.enabled", false);
+
+    /**
+     * The maximum payload size in bytes of a packet that is pooled, see {@link #SOCKET_RECEIVE_PAYLOAD_POOL_ENABLED}.
+     * <p/>
+     * The default is 8192 bytes.
+     */
+    public static final HazelcastProperty SOCKET_RECEIVE_PAYLOAD_POOL_MAX_SIZE
+            = new HazelcastProperty("hazelcast.socket.receive.payload.pool.max.size", 8192);
+
+    /**
+     * The maximum number of bytes retained by the payload pool, see {@link #SOCKET_RECEIVE_PAYLOAD_POOL_ENABLED}.
+     * <p/>
+     * Size is in kilobytes. The default is 16384 (16 MB).
+     */
+    public static final HazelcastProperty SOCKET_RECEIVE_PAYLOAD_POOL_CAPACITY
+            = new HazelcastProperty("hazelcast.socket.receive.payload.pool.capacity", 16384);
+
+    /**
+     * The number of connections between two members. If larger than 1, packets for a partition are sent over the
+     * connection selected by their partition id, so the order of the packets of a partition is preserved, and the
+     * traffic between two members is spread over multiple sockets and IO threads. Responses and packets without
+     * a partition are sent over the first connection. A partition that is written to before its connection is
+     * established keeps using the first connection. If one of the connections is lost, the other connections to
+     * that member are closed as well.
+     * <p/>
+     * All members should be configured with the same value. The default is 1.
+     */
+    public static final HazelcastProperty SOCKET_MEMBER_CONNECTION_COUNT
+            = new HazelcastProperty("hazelcast.socket.member.connection.count", 1);
+
+    /**
+     * If the payloads of member to member packets should be compressed. Compression is negotiated per connection when
+     * it is bound, so it is only applied when both members have it enabled. Packets with a payload smaller than
+     * {@link #SOCKET_COMPRESSION_THRESHOLD} are sent as is.
+     * <p/>
+     * This is useful when the network is the bottleneck, e.g. for migrations of large, compressible values.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty SOCKET_COMPRESSION_ENABLED
+            = new HazelcastProperty("hazelcast.socket.compression.enabled", false);
+
+    /**
+     * The minimum payload size in bytes of a packet to be compressed, see {@link #SOCKET_COMPRESSION_ENABLED}.
+     * <p/>
+     * The default is 1024 bytes.
+     */
+    public static final HazelcastProperty SOCKET_COMPRESSION_THRESHOLD
+            = new HazelcastProperty("hazelcast.socket.compression.threshold", 1024);
+
 
     /**
      * Overrides receive buffer size for connections opened by clients.
@@ -343,12 +462,59 @@ public final class GroupProperty {
     public static final HazelcastProperty DISABLE_STALE_READ_ON_PARTITION_MIGRATION
             = new HazelcastProperty("hazelcast.partition.migration.stale.read.disabled", false);
 
+    /**
+     * If the state of a migrating partition should be streamed to the destination as a sequence of bounded chunks
+     * instead of a single operation carrying the whole partition. Only one chunk of a migration is in flight at a time:
+     * the source reads the next chunk from the partition when the destination has applied the previous one, so neither
+     * side needs to hold a copy of the whole partition at once. Services that can not split their state send it in the
+     * first chunk.
+     * <p/>
+     * Replica syncs are split into chunks of the same size as well. The owner reads and sends all chunks of a replica
+     * sync at once, since the partition isn't frozen like during a migration, but it holds only one of them at a time.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty PARTITION_MIGRATION_CHUNKED_ENABLED
+            = new HazelcastProperty("hazelcast.partition.migration.chunked.enabled", false);
+
+    /**
+     * The maximum number of entries in a single migration chunk, see {@link #PARTITION_MIGRATION_CHUNKED_ENABLED}.
+     * <p/>
+     * The default is 10000.
+     */
+    public static final HazelcastProperty PARTITION_MIGRATION_CHUNK_MAX_ENTRIES
+            = new HazelcastProperty("hazelcast.partition.migration.chunk.max.entries", 10000);
+
     public static final HazelcastProperty PARTITION_TABLE_SEND_INTERVAL
             = new HazelcastProperty("hazelcast.partition.table.send.interval", 15, SECONDS);
     public static final HazelcastProperty PARTITION_BACKUP_SYNC_INTERVAL
             = new HazelcastProperty("hazelcast.partition.backup.sync.interval", 30, SECONDS);
     public static final HazelcastProperty PARTITION_MAX_PARALLEL_REPLICATIONS
             = new HazelcastProperty("hazelcast.partition.max.parallel.replications", 5);
+
+    /**
+     * If a backup replica that falls behind its owner should be repaired differentially. The backup sends a digest of
+     * its data with the sync request and the owner only sends the parts of the partition that differ from it, instead of
+     * the whole partition. Services that do not support digests are still synchronized in full.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty PARTITION_REPLICA_SYNC_DIFFERENTIAL_ENABLED
+            = new HazelcastProperty("hazelcast.partition.replica.sync.differential.enabled", false);
+
+    /**
+     * The maximum number of migrations the master runs concurrently. Migrations of a batch belong to different
+     * partitions; their data is transferred in parallel and they are committed one by one in planned order once all
+     * transfers of the batch are done. Every member also accepts at most this many active migrations, so the property
+     * should be set to the same value on all members.
+     * <p/>
+     * Combine it with {@link #PARTITION_MIGRATION_CHUNKED_ENABLED} to bound the data in flight per migration.
+     * <p/>
+     * The default is 1, so migrations run one at a time.
+     */
+    public static final HazelcastProperty PARTITION_MAX_PARALLEL_MIGRATIONS
+            = new HazelcastProperty("hazelcast.partition.max.parallel.migrations", 1);
+
     public static final HazelcastProperty PARTITIONING_STRATEGY_CLASS
             = new HazelcastProperty("hazelcast.partitioning.strategy.class", "");
 
@@ -532,11 +698,25 @@ public final class GroupProperty {
      * When you have a large dataset and/or slow predicate you may benefit from parallel predicate evaluations.
      * Set to true if you are using slow predicates or have > 100,000s entries per member.
      * <p/>
+     * Only used when {@link #QUERY_SCAN_PARALLELISM} is 1.
+     * <p/>
      * The default is false.
      */
     public static final HazelcastProperty QUERY_PREDICATE_PARALLEL_EVALUATION
             = new HazelcastProperty("hazelcast.query.predicate.parallel.evaluation", false);
 
+    /**
+     * Maximum number of threads scanning the local partitions of a member for queries and aggregations which
+     * can't be answered by indexes.
+     * <p/>
+     * The thread running the query claims chunks of partitions together with helper tasks run by the
+     * {@code hz:query-scan} executor. The limit is member wide: when all helpers are busy, further scans are run
+     * by their calling threads only. 1 disables the parallel scan; the default -1 uses half of the available
+     * processors, leaving the other half to the partition threads.
+     */
+    public static final HazelcastProperty QUERY_SCAN_PARALLELISM
+            = new HazelcastProperty("hazelcast.query.scan.parallelism", -1);
+
     /**
      * Result size limit for query operations on maps.
      * <p/>
@@ -578,6 +758,8 @@ public final class GroupProperty {
      * Valid Values:
      * <ul>
      * <li>RULES - for optimizations based on static rules</li>
+     * <li>COST - applies the static rules, then uses index statistics to choose the driving index
+     * or a full scan</li>
      * <li>NONE - optimization are disabled</li>
      * </ul>
      * <p/>
@@ -586,6 +768,33 @@ public final class GroupProperty {
     public static final HazelcastProperty QUERY_OPTIMIZER_TYPE
             = new HazelcastProperty("hazelcast.query.optimizer.type", QueryOptimizerFactory.Type.RULES.toString());
 
+    /**
+     * Data structure backing ordered indexes.
+     * Valid Values:
+     * <ul>
+     * <li>SKIP_LIST - a concurrent skip list of per-value hash maps</li>
+     * <li>BPLUS_TREE - an array-based B+tree; faster range predicates and less garbage on updates</li>
+     * </ul>
+     * <p/>
+     * Values are case sensitive
+     */
+    public static final HazelcastProperty QUERY_SORTED_INDEX_STORE_TYPE
+            = new HazelcastProperty("hazelcast.query.sorted.index.store.type", SortedIndexStoreType.SKIP_LIST.toString());
+
+    /**
+     * Data structure backing unordered indexes.
+     * Valid Values:
+     * <ul>
+     * <li>HASH - a hash map of per-value hash maps</li>
+     * <li>BITMAP - a compressed bitmap per value; much smaller for attributes with few distinct values, and
+     * AND/OR/NOT combinations of such indexes are evaluated as bitwise operations</li>
+     * </ul>
+     * <p/>
+     * Values are case sensitive
+     */
+    public static final HazelcastProperty QUERY_UNSORTED_INDEX_STORE_TYPE
+            = new HazelcastProperty("hazelcast.query.unsorted.index.store.type", UnsortedIndexStoreType.HASH.toString());
+
 
     /**
      * Forces the JCache provider, which can have values client or server, to force the provider type.
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.getters.MultiResult;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class AggregatorsTest extends HazelcastTestSupport {
+
+    @Test
+    public void testConstructor() {
+        assertUtilityConstructor(Aggregators.class);
+    }
+
+    @Test
+    public void testCount_countsAllEntries() {
+        Aggregator<Object, Long> aggregator = Aggregators.count();
+        aggregator.accumulate(entry(1));
+        aggregator.accumulate(entry(null));
+
+        assertEquals(Long.valueOf(2), aggregator.aggregate());
+    }
+
+    @Test
+    public void testCount_doesNotReadValues() {
+        Map.Entry entry = mock(Map.Entry.class);
+        Aggregator<Object, Long> aggregator = Aggregators.count();
+        aggregator.accumulate(entry);
+
+        verify(entry, never()).getValue();
+        assertEquals(Long.valueOf(1), aggregator.aggregate());
+    }
+
+    @Test
+    public void testLongSum_ignoresNull() {
+        Aggregator<Object, Long> aggregator = Aggregators.longSum();
+        aggregator.accumulate(entry(1));
+        aggregator.accumulate(entry(null));
+        aggregator.accumulate(entry(2L));
+
+        assertEquals(Long.valueOf(3), aggregator.aggregate());
+    }
+
+    @Test
+    public void testNumberAvg_whenNoValues() {
+        Aggregator<Object, Double> aggregator = Aggregators.numberAvg();
+
+        assertNull(aggregator.aggregate());
+    }
+
+    @Test
+    public void testMultiResult_isUnfolded() {
+        Aggregator<Object, Long> aggregator = Aggregators.longSum();
+        aggregator.accumulate(entry(new MultiResult<Integer>(Arrays.asList(1, 2, 3))));
+
+        assertEquals(Long.valueOf(6), aggregator.aggregate());
+    }
+
+    @Test
+    public void testCombine() {
+        Aggregator<Object, Integer> first = Aggregators.comparableMax();
+        first.accumulate(entry(5));
+        Aggregator<Object, Integer> second = Aggregators.comparableMax();
+        second.accumulate(entry(7));
+        Aggregator<Object, Integer> empty = Aggregators.comparableMax();
+
+        first.combine(second);
+        first.combine(empty);
+
+        assertEquals(Integer.valueOf(7), first.aggregate());
+    }
+
+    @Test
+    public void testSerialization() {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        Aggregator<Object, Double> aggregator = Aggregators.numberAvg();
+        aggregator.accumulate(entry(1));
+        aggregator.accumulate(entry(2));
+
+        Aggregator<Object, Double> copy = serializationService.toObject(serializationService.toData(aggregator));
+
+        assertEquals(1.5, copy.aggregate(), 0.0001);
+    }
+
+    private static Map.Entry<Object, Object> entry(Object value) {
+        return new AbstractMap.SimpleEntry<Object, Object>("key", value);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.memory.MemoryStats;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TestRule;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PooledMemoryManagerTest {
+
+    private static final int PAGE_SIZE = 4096;
+    private static final int MIN_BLOCK_SIZE = 16;
+    private static final long MAX_NATIVE = 64 * PAGE_SIZE;
+
+    @Rule
+    public final TestRule ignoreRule = new TestIgnoreRuleAccordingToUnsafeAvailability();
+
+    private PooledMemoryManager memoryManager;
+    private MemoryAllocator allocator;
+    private MemoryAccessor mem;
+    private MemoryStats stats;
+
+    @Before
+    public void setUp() {
+        memoryManager = new PooledMemoryManager(new UnsafeMalloc(), MEM, MAX_NATIVE, MIN_BLOCK_SIZE, PAGE_SIZE, 12.5f);
+        allocator = memoryManager.getAllocator();
+        mem = memoryManager.getAccessor();
+        stats = memoryManager.getMemoryStats();
+    }
+
+    @After
+    public void tearDown() {
+        memoryManager.dispose();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenMinBlockSizeIsNotPowerOfTwo() {
+        new PooledMemoryManager(new UnsafeMalloc(), MEM, MAX_NATIVE, 24, PAGE_SIZE, 12.5f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenPageSizeIsSmallerThanMinBlockSize() {
+        new PooledMemoryManager(new UnsafeMalloc(), MEM, MAX_NATIVE, 64, 32, 12.5f);
+    }
+
+    @Test
+    public void testAllocate_roundsUpToBlockSize() {
+        long address = allocator.allocate(20);
+
+        assertEquals(32, stats.getUsedNative());
+        assertEquals(PAGE_SIZE, stats.getCommittedNative());
+        assertEquals(MAX_NATIVE - 32, stats.getFreeNative());
+        assertEquals(PAGE_SIZE / MIN_BLOCK_SIZE, stats.getUsedMetadata());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(0, mem.getByte(address + i));
+        }
+
+        allocator.free(address, 20);
+        assertEquals(0, stats.getUsedNative());
+        assertEquals(0, stats.getNativeFragmentation(), 0);
+    }
+
+    @Test
+    public void testFree_mergesBuddies() {
+        List<Long> addresses = new ArrayList<Long>();
+        for (int i = 0; i < PAGE_SIZE / MIN_BLOCK_SIZE; i++) {
+            addresses.add(allocator.allocate(MIN_BLOCK_SIZE));
+        }
+        assertEquals(PAGE_SIZE, stats.getCommittedNative());
+        assertEquals(0, stats.getNativeFragmentation(), 0);
+
+        for (long address : addresses) {
+            allocator.free(address, MIN_BLOCK_SIZE);
+        }
+
+        // the whole page is available again for a page sized block
+        long address = allocator.allocate(PAGE_SIZE);
+        assertEquals(PAGE_SIZE, stats.getCommittedNative());
+        allocator.free(address, PAGE_SIZE);
+    }
+
+    @Test
+    public void testFragmentation() {
+        long address1 = allocator.allocate(MIN_BLOCK_SIZE);
+        long address2 = allocator.allocate(PAGE_SIZE / 2);
+        assertTrue(stats.getNativeFragmentation() > 0);
+
+        allocator.free(address1, MIN_BLOCK_SIZE);
+        allocator.free(address2, PAGE_SIZE / 2);
+        assertEquals(0, stats.getNativeFragmentation(), 0);
+    }
+
+    @Test
+    public void testAllocate_largerThanPage() {
+        long address = allocator.allocate(3 * PAGE_SIZE);
+        mem.putLong(address + 2 * PAGE_SIZE, 42L);
+
+        assertEquals(3 * PAGE_SIZE, stats.getCommittedNative());
+        assertEquals(3 * PAGE_SIZE, stats.getUsedNative());
+
+        allocator.free(address, 3 * PAGE_SIZE);
+        assertEquals(0, stats.getCommittedNative());
+        assertEquals(0, stats.getUsedNative());
+    }
+
+    @Test(expected = NativeOutOfMemoryError.class)
+    public void testAllocate_whenLimitExceeded() {
+        for (int i = 0; i <= MAX_NATIVE / PAGE_SIZE; i++) {
+            allocator.allocate(PAGE_SIZE);
+        }
+    }
+
+    @Test
+    public void testReallocate_withinBlockSize() {
+        long address = allocator.allocate(40);
+        mem.putLong(address, 42L);
+
+        long newAddress = allocator.reallocate(address, 40, 64);
+
+        assertEquals(address, newAddress);
+        assertEquals(42L, mem.getLong(newAddress));
+        allocator.free(newAddress, 64);
+        assertEquals(0, stats.getUsedNative());
+    }
+
+    @Test
+    public void testReallocate_toLargerBlockSize() {
+        long address = allocator.allocate(16);
+        mem.putLong(address, 42L);
+        mem.putLong(address + 8, 43L);
+
+        long newAddress = allocator.reallocate(address, 16, 100);
+
+        assertNotEquals(address, newAddress);
+        assertEquals(42L, mem.getLong(newAddress));
+        assertEquals(43L, mem.getLong(newAddress + 8));
+        assertEquals(0L, mem.getLong(newAddress + 16));
+        assertEquals(128, stats.getUsedNative());
+        allocator.free(newAddress, 100);
+    }
+
+    @Test
+    public void testFree_fromAnotherThread() throws Exception {
+        final long address = allocator.allocate(100);
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                allocator.free(address, 100);
+            }
+        };
+        thread.start();
+        thread.join();
+
+        assertEquals(0, stats.getUsedNative());
+        long newAddress = allocator.allocate(100);
+        assertEquals(address, newAddress);
+        allocator.free(newAddress, 100);
+    }
+
+    @Test
+    public void testRandomAllocations_keepContents() {
+        Random random = new Random(42);
+        List<long[]> blocks = new ArrayList<long[]>();
+        for (int i = 0; i < 10000; i++) {
+            if (blocks.isEmpty() || random.nextInt(3) != 0) {
+                int size = 1 + random.nextInt(PAGE_SIZE / 4);
+                long address = allocator.allocate(size);
+                mem.setMemory(address, size, (byte) size);
+                blocks.add(new long[]{address, size});
+            } else {
+                long[] block = blocks.remove(random.nextInt(blocks.size()));
+                assertBlockContent(block);
+                allocator.free(block[0], block[1]);
+            }
+            if (blocks.size() > 100) {
+                long[] block = blocks.remove(0);
+                assertBlockContent(block);
+                allocator.free(block[0], block[1]);
+            }
+        }
+        for (long[] block : blocks) {
+            assertBlockContent(block);
+            allocator.free(block[0], block[1]);
+        }
+
+        assertEquals(0, stats.getUsedNative());
+        assertEquals(0, stats.getNativeFragmentation(), 0);
+    }
+
+    private void assertBlockContent(long[] block) {
+        for (int i = 0; i < block[1]; i++) {
+            assertEquals((byte) block[1], mem.getByte(block[0] + i));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TestRule;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class StandardMemoryManagerTest {
+
+    @Rule
+    public final TestRule ignoreRule = new TestIgnoreRuleAccordingToUnsafeAvailability();
+
+    private StandardMemoryManager memoryManager;
+    private MemoryAllocator allocator;
+
+    @Before
+    public void setUp() {
+        memoryManager = new StandardMemoryManager(1024);
+        allocator = memoryManager.getAllocator();
+    }
+
+    @After
+    public void tearDown() {
+        memoryManager.dispose();
+    }
+
+    @Test
+    public void testAllocate_zeroesMemory() {
+        long address = allocator.allocate(64);
+        for (int i = 0; i < 64; i++) {
+            assertEquals(0, memoryManager.getAccessor().getByte(address + i));
+        }
+        allocator.free(address, 64);
+    }
+
+    @Test
+    public void testUsedMemory() {
+        long address = allocator.allocate(100);
+        assertEquals(100, memoryManager.getUsedMemory());
+
+        address = allocator.reallocate(address, 100, 300);
+        assertEquals(300, memoryManager.getUsedMemory());
+
+        address = allocator.reallocate(address, 300, 50);
+        assertEquals(50, memoryManager.getUsedMemory());
+
+        allocator.free(address, 50);
+        assertEquals(0, memoryManager.getUsedMemory());
+        assertEquals(1024, memoryManager.getMaxMemory());
+    }
+
+    @Test
+    public void testReallocate_keepsContent() {
+        long address = allocator.allocate(8);
+        memoryManager.getAccessor().putLong(address, 42L);
+
+        address = allocator.reallocate(address, 8, 16);
+        assertEquals(42L, memoryManager.getAccessor().getLong(address));
+        assertEquals(0L, memoryManager.getAccessor().getLong(address + 8));
+        allocator.free(address, 16);
+    }
+
+    @Test(expected = NativeOutOfMemoryError.class)
+    public void testAllocate_whenLimitExceeded() {
+        allocator.allocate(1000);
+        allocator.allocate(100);
+    }
+
+    @Test
+    public void testReallocate_whenLimitExceeded_keepsUsedMemory() {
+        long address = allocator.allocate(1000);
+        try {
+            allocator.reallocate(address, 1000, 2000);
+            fail("reallocate should have failed");
+        } catch (NativeOutOfMemoryError expected) {
+            assertEquals(1000, memoryManager.getUsedMemory());
+        }
+        allocator.free(address, 1000);
+    }
+}
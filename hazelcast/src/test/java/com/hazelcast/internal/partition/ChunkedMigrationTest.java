@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.Node;
+import com.hazelcast.internal.partition.operation.ReplicaSyncResponse;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.tcp.FirewallingMockConnectionManager;
+import com.hazelcast.nio.tcp.PacketFilter;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.partition.AntiEntropyCorrectnessTest.setBackupPacketDropFilter;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ChunkedMigrationTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+    private static final int PARTITION_COUNT = 11;
+
+    private TestHazelcastInstanceFactory factory;
+    private Config config;
+
+    @Before
+    public void setUp() {
+        factory = createHazelcastInstanceFactory(4);
+        config = new Config();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT));
+        config.setProperty(GroupProperty.PARTITION_MIGRATION_CHUNKED_ENABLED.getName(), "true");
+        config.setProperty(GroupProperty.PARTITION_MIGRATION_CHUNK_MAX_ENTRIES.getName(), "7");
+        config.getMapConfig("backups").setBackupCount(2);
+    }
+
+    @Test
+    public void testMigration_whenMembersJoin() {
+        HazelcastInstance hz = factory.newHazelcastInstance(config);
+        fillData(hz);
+
+        factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+        waitAllForSafeState(factory.getAllHazelcastInstances());
+
+        for (HazelcastInstance instance : factory.getAllHazelcastInstances()) {
+            assertData(instance);
+        }
+    }
+
+    @Test
+    public void testMigration_whenOwnersTerminated() {
+        HazelcastInstance hz1 = factory.newHazelcastInstance(config);
+        fillData(hz1);
+        HazelcastInstance hz2 = factory.newHazelcastInstance(config);
+        HazelcastInstance hz3 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(hz1, hz2, hz3);
+
+        hz1.getLifecycleService().terminate();
+        HazelcastInstance hz4 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(hz2, hz3, hz4);
+        hz2.getLifecycleService().terminate();
+        waitAllForSafeState(hz3, hz4);
+
+        assertData(hz3);
+        assertData(hz4);
+    }
+
+    @Test
+    public void testReplicaSync_whenBackupsAreDropped() {
+        config.setProperty(GroupProperty.PARTITION_BACKUP_SYNC_INTERVAL.getName(), "1");
+        // dropped sync backups would block the puts until the backup timeout
+        config.getMapConfig("default").setBackupCount(0).setAsyncBackupCount(1);
+        HazelcastInstance hz1 = factory.newHazelcastInstance(config);
+        HazelcastInstance hz2 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(hz1, hz2);
+
+        setBackupPacketDropFilter(hz1, 1);
+        setBackupPacketDropFilter(hz2, 1);
+        IMap<Integer, Integer> map = hz1.getMap("default");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        AtomicInteger syncResponseCount = new AtomicInteger();
+        setSyncResponseCountingFilter(hz1, syncResponseCount);
+        setSyncResponseCountingFilter(hz2, syncResponseCount);
+        waitAllForSafeState(hz1, hz2);
+
+        // every partition is synced in several chunks
+        assertTrue("sync responses: " + syncResponseCount.get(), syncResponseCount.get() > 2 * PARTITION_COUNT);
+        hz1.getLifecycleService().terminate();
+        waitAllForSafeState(hz2);
+        IMap<Integer, Integer> backupMap = hz2.getMap("default");
+        assertEquals(ENTRY_COUNT, backupMap.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) backupMap.get(i));
+        }
+    }
+
+    private static void setSyncResponseCountingFilter(HazelcastInstance instance, AtomicInteger count) {
+        Node node = getNode(instance);
+        FirewallingMockConnectionManager cm = (FirewallingMockConnectionManager) node.getConnectionManager();
+        cm.setPacketFilter(new SyncResponseCountingFilter(node.getSerializationService(), count));
+    }
+
+    private static void fillData(HazelcastInstance hz) {
+        IMap<Integer, Integer> map = hz.getMap("default");
+        IMap<Integer, Integer> backups = hz.getMap("backups");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+            backups.put(i, -i);
+        }
+    }
+
+    private static void assertData(HazelcastInstance hz) {
+        IMap<Integer, Integer> map = hz.getMap("default");
+        IMap<Integer, Integer> backups = hz.getMap("backups");
+        assertEquals(ENTRY_COUNT, map.size());
+        assertEquals(ENTRY_COUNT, backups.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) map.get(i));
+            assertEquals(-i, (int) backups.get(i));
+        }
+    }
+
+    private static class SyncResponseCountingFilter implements PacketFilter {
+
+        private final InternalSerializationService serializationService;
+        private final AtomicInteger count;
+
+        SyncResponseCountingFilter(InternalSerializationService serializationService, AtomicInteger count) {
+            this.serializationService = serializationService;
+            this.count = count;
+        }
+
+        @Override
+        public boolean allow(Packet packet, Address endpoint) {
+            if (packet.isFlagSet(Packet.FLAG_OP) && !packet.isFlagSet(Packet.FLAG_RESPONSE)) {
+                try {
+                    ObjectDataInput input = serializationService.createObjectDataInput(packet);
+                    if (!input.readBoolean() && ReplicaSyncResponse.class.getName().equals(input.readUTF())) {
+                        count.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.nio.tcp.FirewallingMockConnectionManager;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.partition.AntiEntropyCorrectnessTest.setBackupPacketDropFilter;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class DifferentialReplicaSyncTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+    private static final float BACKUP_BLOCK_RATIO = 0.5f;
+
+    private TestHazelcastInstanceFactory factory;
+    private Config config;
+
+    @Before
+    public void setUp() {
+        factory = createHazelcastInstanceFactory(2);
+        config = new Config();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), "23");
+        config.setProperty(GroupProperty.PARTITION_BACKUP_SYNC_INTERVAL.getName(), "1");
+        config.setProperty(GroupProperty.PARTITION_REPLICA_SYNC_DIFFERENTIAL_ENABLED.getName(), "true");
+        // dropped sync backups would block the puts until the backup timeout
+        config.getMapConfig("map").setBackupCount(0).setAsyncBackupCount(1);
+    }
+
+    @Test
+    public void testBackupsAreRepaired_whenBackupsAreDropped() {
+        HazelcastInstance hz1 = factory.newHazelcastInstance(config);
+        HazelcastInstance hz2 = factory.newHazelcastInstance(config);
+        IMap<Integer, Integer> map = hz1.getMap("map");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        waitAllForSafeState(hz1, hz2);
+
+        setBackupPacketDropFilter(hz1, BACKUP_BLOCK_RATIO);
+        setBackupPacketDropFilter(hz2, BACKUP_BLOCK_RATIO);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            if (i % 10 == 0) {
+                map.remove(i);
+            } else {
+                map.put(i, -i);
+            }
+        }
+        removePacketFilter(hz1);
+        removePacketFilter(hz2);
+        waitAllForSafeState(hz1, hz2);
+
+        hz1.getLifecycleService().terminate();
+        waitAllForSafeState(hz2);
+
+        IMap<Integer, Integer> backupMap = hz2.getMap("map");
+        assertEquals(ENTRY_COUNT - ENTRY_COUNT / 10, backupMap.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            if (i % 10 == 0) {
+                assertNull(backupMap.get(i));
+            } else {
+                assertEquals(-i, (int) backupMap.get(i));
+            }
+        }
+    }
+
+    private static void removePacketFilter(HazelcastInstance instance) {
+        FirewallingMockConnectionManager cm = (FirewallingMockConnectionManager) getNode(instance).getConnectionManager();
+        cm.setPacketFilter(null);
+    }
+}
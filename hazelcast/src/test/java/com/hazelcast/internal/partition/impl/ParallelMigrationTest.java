@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.partition.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.ListenerConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.partition.MigrationInfo;
+import com.hazelcast.internal.partition.impl.InternalMigrationListener.MigrationParticipant;
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ParallelMigrationTest extends HazelcastTestSupport {
+
+    private static final int PARALLEL_MIGRATIONS = 4;
+    private static final int ENTRY_COUNT = 1000;
+
+    private TestHazelcastInstanceFactory factory;
+
+    @Before
+    public void setUp() {
+        factory = createHazelcastInstanceFactory(4);
+    }
+
+    @Test
+    public void testMigrationsRunConcurrently() {
+        Config config = newConfig(PARALLEL_MIGRATIONS);
+        ConcurrencyTrackingListener listener = new ConcurrencyTrackingListener();
+        Config masterConfig = newConfig(PARALLEL_MIGRATIONS);
+        masterConfig.addListenerConfig(new ListenerConfig(listener));
+
+        HazelcastInstance hz = factory.newHazelcastInstance(masterConfig);
+        fillData(hz);
+        factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+        waitAllForSafeState(factory.getAllHazelcastInstances());
+
+        assertTrue("Max concurrent migrations: " + listener.maxConcurrent, listener.maxConcurrent.get() > 1);
+        assertTrue("Max concurrent migrations: " + listener.maxConcurrent,
+                listener.maxConcurrent.get() <= PARALLEL_MIGRATIONS);
+        for (HazelcastInstance instance : factory.getAllHazelcastInstances()) {
+            assertData(instance);
+        }
+    }
+
+    @Test
+    public void testMigrationsRunOneByOne_byDefault() {
+        Config config = newConfig(1);
+        ConcurrencyTrackingListener listener = new ConcurrencyTrackingListener();
+        Config masterConfig = newConfig(1);
+        masterConfig.addListenerConfig(new ListenerConfig(listener));
+
+        HazelcastInstance hz = factory.newHazelcastInstance(masterConfig);
+        fillData(hz);
+        factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+        waitAllForSafeState(factory.getAllHazelcastInstances());
+
+        assertEquals(1, listener.maxConcurrent.get());
+        assertData(hz);
+    }
+
+    @Test
+    public void testParallelChunkedMigrations_whenMembersJoinAndLeave() {
+        Config config = newConfig(PARALLEL_MIGRATIONS);
+        config.setProperty(GroupProperty.PARTITION_MIGRATION_CHUNKED_ENABLED.getName(), "true");
+        config.setProperty(GroupProperty.PARTITION_MIGRATION_CHUNK_MAX_ENTRIES.getName(), "5");
+
+        HazelcastInstance hz1 = factory.newHazelcastInstance(config);
+        fillData(hz1);
+        HazelcastInstance hz2 = factory.newHazelcastInstance(config);
+        HazelcastInstance hz3 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(hz1, hz2, hz3);
+
+        hz2.getLifecycleService().terminate();
+        HazelcastInstance hz4 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(hz1, hz3, hz4);
+
+        assertData(hz1);
+        assertData(hz3);
+        assertData(hz4);
+    }
+
+    @Test
+    public void testAddActiveMigration_limitsActiveMigrationsPerMember() throws Exception {
+        HazelcastInstance hz = factory.newHazelcastInstance(newConfig(2));
+        warmUpPartitions(hz);
+        InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) getPartitionService(hz);
+        MigrationManager migrationManager = partitionService.getMigrationManager();
+
+        assertTrue(migrationManager.addActiveMigration(newMigration(0)));
+        assertFalse(migrationManager.addActiveMigration(newMigration(0)));
+        assertTrue(migrationManager.addActiveMigration(newMigration(1)));
+        assertFalse(migrationManager.addActiveMigration(newMigration(2)));
+        assertEquals(2, migrationManager.getActiveMigrations().size());
+    }
+
+    private static MigrationInfo newMigration(int partitionId) throws Exception {
+        Address source = new Address("127.0.0.1", 5701);
+        Address destination = new Address("127.0.0.1", 5702);
+        return new MigrationInfo(partitionId, source, "source", destination, "destination", 0, -1, -1, 0);
+    }
+
+    private static Config newConfig(int parallelMigrations) {
+        Config config = new Config();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), "71");
+        config.setProperty(GroupProperty.PARTITION_MAX_PARALLEL_MIGRATIONS.getName(), String.valueOf(parallelMigrations));
+        return config;
+    }
+
+    private static void fillData(HazelcastInstance hz) {
+        IMap<Integer, Integer> map = hz.getMap("map");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+    }
+
+    private static void assertData(HazelcastInstance hz) {
+        IMap<Integer, Integer> map = hz.getMap("map");
+        assertEquals(ENTRY_COUNT, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+    }
+
+    static class ConcurrencyTrackingListener extends InternalMigrationListener {
+
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        @Override
+        public void onMigrationStart(MigrationParticipant participant, MigrationInfo migrationInfo) {
+            if (participant == MigrationParticipant.MASTER) {
+                int current = concurrent.incrementAndGet();
+                int max = maxConcurrent.get();
+                while (current > max && !maxConcurrent.compareAndSet(max, current)) {
+                    max = maxConcurrent.get();
+                }
+            }
+        }
+
+        @Override
+        public void onMigrationComplete(MigrationParticipant participant, MigrationInfo migrationInfo, boolean success) {
+            if (participant == MigrationParticipant.MASTER) {
+                concurrent.decrementAndGet();
+            }
+        }
+    }
+}
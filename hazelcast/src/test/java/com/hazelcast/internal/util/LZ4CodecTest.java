@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.hazelcast.test.HazelcastTestSupport.assertUtilityConstructor;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class LZ4CodecTest {
+
+    private final Random random = new Random();
+
+    @Test
+    public void testConstructor() {
+        assertUtilityConstructor(LZ4Codec.class);
+    }
+
+    @Test
+    public void roundTrip_whenEmpty() {
+        assertRoundTrip(new byte[0]);
+    }
+
+    @Test
+    public void roundTrip_whenSmallerThanMinimumMatchInput() {
+        for (int length = 1; length <= LZ4Codec.MF_LIMIT + 1; length++) {
+            assertRoundTrip(repeated(length));
+        }
+    }
+
+    @Test
+    public void roundTrip_whenRandom() {
+        for (int length : new int[]{100, 1000, 65536, 200000}) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            assertRoundTrip(bytes);
+        }
+    }
+
+    @Test
+    public void roundTrip_whenCompressible() {
+        byte[] bytes = compressible(100000);
+
+        int compressedLength = assertRoundTrip(bytes);
+
+        assertTrue("compressed length " + compressedLength, compressedLength < bytes.length / 2);
+    }
+
+    @Test
+    public void roundTrip_whenAllZeros() {
+        byte[] bytes = new byte[1000000];
+
+        int compressedLength = assertRoundTrip(bytes);
+
+        assertTrue("compressed length " + compressedLength, compressedLength < bytes.length / 100);
+    }
+
+    @Test
+    public void roundTrip_whenMatchesBeyondMaxDistance() {
+        // a random block repeated with a distance larger than the max distance, separated by compressible content
+        byte[] block = new byte[1000];
+        random.nextBytes(block);
+        byte[] bytes = new byte[LZ4Codec.MAX_DISTANCE * 3];
+        byte[] filler = compressible(bytes.length);
+        System.arraycopy(filler, 0, bytes, 0, bytes.length);
+        System.arraycopy(block, 0, bytes, 0, block.length);
+        System.arraycopy(block, 0, bytes, LZ4Codec.MAX_DISTANCE + 100, block.length);
+        System.arraycopy(block, 0, bytes, bytes.length - block.length, block.length);
+
+        assertRoundTrip(bytes);
+    }
+
+    @Test
+    public void roundTrip_withOffsets() {
+        byte[] content = compressible(10000);
+        byte[] src = new byte[content.length + 20];
+        System.arraycopy(content, 0, src, 10, content.length);
+        byte[] compressed = new byte[5 + LZ4Codec.maxCompressedLength(content.length)];
+
+        int compressedLength = LZ4Codec.compress(src, 10, content.length, compressed, 5);
+        byte[] decompressed = new byte[content.length + 7];
+        LZ4Codec.decompress(compressed, 5, compressedLength, decompressed, 7, content.length);
+
+        assertArrayEquals(content, Arrays.copyOfRange(decompressed, 7, decompressed.length));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decompress_whenTruncated() {
+        byte[] bytes = compressible(10000);
+        byte[] compressed = new byte[LZ4Codec.maxCompressedLength(bytes.length)];
+        int compressedLength = LZ4Codec.compress(bytes, 0, bytes.length, compressed, 0);
+
+        LZ4Codec.decompress(compressed, 0, compressedLength / 2, new byte[bytes.length], 0, bytes.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decompress_whenWrongLength() {
+        byte[] bytes = compressible(10000);
+        byte[] compressed = new byte[LZ4Codec.maxCompressedLength(bytes.length)];
+        int compressedLength = LZ4Codec.compress(bytes, 0, bytes.length, compressed, 0);
+
+        LZ4Codec.decompress(compressed, 0, compressedLength, new byte[bytes.length + 1], 0, bytes.length + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decompress_whenInvalidOffset() {
+        // a token with 0 literals and a match, with an offset pointing before the start of the output
+        byte[] compressed = new byte[]{0x00, 0x10, 0x00};
+
+        LZ4Codec.decompress(compressed, 0, compressed.length, new byte[100], 0, 100);
+    }
+
+    private static int assertRoundTrip(byte[] bytes) {
+        byte[] compressed = new byte[LZ4Codec.maxCompressedLength(bytes.length)];
+        int compressedLength = LZ4Codec.compress(bytes, 0, bytes.length, compressed, 0);
+
+        byte[] decompressed = new byte[bytes.length];
+        LZ4Codec.decompress(compressed, 0, compressedLength, decompressed, 0, bytes.length);
+
+        assertArrayEquals(bytes, decompressed);
+        return compressedLength;
+    }
+
+    private byte[] compressible(int length) {
+        String[] words = {"hazelcast", "partition", "member", "migration", "replica", "value", "key", " ", "-"};
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            byte[] word = words[random.nextInt(words.length)].getBytes();
+            int count = Math.min(word.length, length - offset);
+            System.arraycopy(word, 0, bytes, offset, count);
+            offset += count;
+        }
+        return bytes;
+    }
+
+    private static byte[] repeated(int length) {
+        byte[] bytes = new byte[length];
+        for (int k = 0; k < length; k++) {
+            bytes[k] = (byte) (k % 3);
+        }
+        return bytes;
+    }
+}
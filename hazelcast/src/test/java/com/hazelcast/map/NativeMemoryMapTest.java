@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizeConfig;
+import com.hazelcast.config.NativeMemoryConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.memory.MemoryStats;
+import com.hazelcast.memory.MemoryUnit;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.config.MaxSizeConfig.MaxSizePolicy.PER_NODE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NativeMemoryMapTest extends HazelcastTestSupport {
+
+    private static final String MAP_NAME = "native";
+
+    @Test
+    public void testBasicOperations() {
+        IMap<Integer, String> map = createHazelcastInstance(newConfig()).getMap(MAP_NAME);
+
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "value-" + i);
+        }
+        map.put(1, "a value which is longer than before");
+        map.remove(2);
+        map.replace(3, "v");
+
+        assertEquals(99, map.size());
+        assertEquals("value-0", map.get(0));
+        assertEquals("a value which is longer than before", map.get(1));
+        assertNull(map.get(2));
+        assertFalse(map.containsKey(2));
+        assertEquals("v", map.get(3));
+    }
+
+    @Test
+    public void testEntryProcessor() {
+        IMap<Integer, Integer> map = createHazelcastInstance(newConfig()).getMap(MAP_NAME);
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i);
+        }
+
+        map.executeOnEntries(new AbstractEntryProcessor<Integer, Integer>() {
+            @Override
+            public Object process(Map.Entry<Integer, Integer> entry) {
+                entry.setValue(entry.getValue() * 1000000);
+                return null;
+            }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i * 1000000, (int) map.get(i));
+        }
+    }
+
+    @Test
+    public void testQueryAndAggregation() {
+        IMap<Integer, Integer> map = createHazelcastInstance(newConfig()).getMap(MAP_NAME);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+
+        assertEquals(100, map.values().size());
+        assertEquals(50, map.keySet(Predicates.greaterEqual("this", 50)).size());
+        assertEquals(100L, (long) map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>count()));
+        assertEquals(4950L, (long) map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>longSum("this")));
+    }
+
+    @Test
+    public void testTtl() {
+        final IMap<Integer, Integer> map = createHazelcastInstance(newConfig()).getMap(MAP_NAME);
+        map.put(1, 1, 1, TimeUnit.SECONDS);
+        map.put(2, 2);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertNull(map.get(1));
+            }
+        });
+        assertEquals(2, (int) map.get(2));
+    }
+
+    @Test
+    public void testMigration() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        Config config = newConfig();
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance1.getMap(MAP_NAME);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(instance1, instance2);
+        instance1.shutdown();
+
+        IMap<Integer, Integer> migrated = instance2.getMap(MAP_NAME);
+        assertEquals(1000, migrated.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) migrated.get(i));
+        }
+    }
+
+    @Test
+    public void testEviction() {
+        Config config = newConfig();
+        config.getMapConfig(MAP_NAME)
+                .setEvictionPolicy(EvictionPolicy.LRU)
+                .setMaxSizeConfig(new MaxSizeConfig(1000, PER_NODE));
+        IMap<Integer, Integer> map = createHazelcastInstance(config).getMap(MAP_NAME);
+
+        for (int i = 0; i < 5000; i++) {
+            map.put(i, i);
+        }
+
+        assertTrue("map size: " + map.size(), map.size() <= 1000);
+    }
+
+    @Test
+    public void testMemoryStats() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig());
+        IMap<Integer, Integer> map = instance.getMap(MAP_NAME);
+        MemoryStats memoryStats = getNode(instance).getNodeExtension().getMemoryStats();
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        assertTrue(memoryStats.getUsedNative() > 0);
+        assertTrue(memoryStats.getCommittedNative() >= memoryStats.getUsedNative());
+        assertEquals(32 * 1024 * 1024, memoryStats.getMaxNative());
+
+        map.destroy();
+        assertEquals(0, memoryStats.getUsedNative());
+    }
+
+    private static Config newConfig() {
+        Config config = new Config();
+        config.setNativeMemoryConfig(new NativeMemoryConfig()
+                .setEnabled(true)
+                .setSize(new MemorySize(32, MemoryUnit.MEGABYTES)));
+        config.addMapConfig(new MapConfig(MAP_NAME)
+                .setInMemoryFormat(InMemoryFormat.NATIVE)
+                .setStatisticsEnabled(true));
+        return config;
+    }
+}
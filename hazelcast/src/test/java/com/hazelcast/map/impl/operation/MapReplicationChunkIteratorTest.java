@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.record.RecordReplicationInfo;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapReplicationChunkIteratorTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_ID = 0;
+
+    private MapService mapService;
+    private PartitionContainer container;
+    private IMap<Integer, Integer> map1;
+
+    @Before
+    public void setUp() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), "1");
+        HazelcastInstance instance = createHazelcastInstance(config);
+
+        map1 = instance.getMap("map1");
+        IMap<Integer, Integer> map2 = instance.getMap("map2");
+        for (int i = 0; i < 10; i++) {
+            map1.put(i, i);
+        }
+        for (int i = 0; i < 5; i++) {
+            map2.put(i, i);
+        }
+        instance.getMap("emptyMap").clear();
+
+        mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        container = mapService.getMapServiceContext().getPartitionContainer(PARTITION_ID);
+    }
+
+    @Test
+    public void testChunksAreBounded() {
+        List<Operation> chunks = readChunks(4);
+
+        assertEquals(4, chunks.size());
+        for (Operation chunk : chunks) {
+            assertTrue(countEntries((MapReplicationOperation) chunk) <= 4);
+            assertEquals(PARTITION_ID, chunk.getPartitionId());
+            assertEquals(MapService.SERVICE_NAME, chunk.getServiceName());
+        }
+    }
+
+    @Test
+    public void testChunksContainAllEntries() {
+        List<Operation> chunks = readChunks(3);
+
+        Set<RecordReplicationInfo> records = new HashSet<RecordReplicationInfo>();
+        for (Operation chunk : chunks) {
+            for (Set<RecordReplicationInfo> mapRecords
+                    : ((MapReplicationOperation) chunk).mapReplicationStateHolder.data.values()) {
+                records.addAll(mapRecords);
+            }
+        }
+        assertEquals(15, records.size());
+    }
+
+    @Test
+    public void testEveryMapIsResetOnce() {
+        List<Operation> chunks = readChunks(3);
+
+        Set<String> resetMaps = new HashSet<String>();
+        for (Operation chunk : chunks) {
+            for (String mapName : ((MapReplicationOperation) chunk).mapReplicationStateHolder.loaded.keySet()) {
+                assertTrue("Map is reset twice: " + mapName, resetMaps.add(mapName));
+            }
+        }
+        assertEquals(container.getMaps().keySet(), resetMaps);
+    }
+
+    @Test
+    public void testWhenAllEntriesFit_thenSingleChunk() {
+        List<Operation> chunks = readChunks(100);
+
+        assertEquals(1, chunks.size());
+        assertEquals(15, countEntries((MapReplicationOperation) chunks.get(0)));
+    }
+
+    @Test
+    public void testChunksAreReadWhenRequested() {
+        Iterator<Operation> iterator = new MapReplicationChunkIterator(container, 0, 100, mapService);
+        map1.put(10, 10);
+
+        assertEquals(16, countEntries((MapReplicationOperation) iterator.next()));
+        assertFalse(iterator.hasNext());
+    }
+
+    private List<Operation> readChunks(int maxEntries) {
+        List<Operation> chunks = new ArrayList<Operation>();
+        Iterator<Operation> iterator = new MapReplicationChunkIterator(container, 0, maxEntries, mapService);
+        while (iterator.hasNext()) {
+            chunks.add(iterator.next());
+        }
+        return chunks;
+    }
+
+    private static int countEntries(MapReplicationOperation chunk) {
+        int entries = 0;
+        for (Map.Entry<String, Set<RecordReplicationInfo>> entry : chunk.mapReplicationStateHolder.data.entrySet()) {
+            entries += entry.getValue().size();
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.record.RecordReplicationInfo;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.PartitionReplicationEvent;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapReplicationOperation_DifferentialTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_ID = 0;
+    private static final int ENTRY_COUNT = 1000;
+
+    private MapService mapService;
+    private PartitionContainer container;
+    private SerializationService serializationService;
+
+    @Before
+    public void setUp() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), "1");
+        HazelcastInstance instance = createHazelcastInstance(config);
+
+        IMap<Integer, Integer> map1 = instance.getMap("map1");
+        IMap<Integer, Integer> map2 = instance.getMap("map2");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map1.put(i, i);
+        }
+        for (int i = 0; i < 5; i++) {
+            map2.put(i, i);
+        }
+
+        mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        container = mapService.getMapServiceContext().getPartitionContainer(PARTITION_ID);
+        serializationService = getNodeEngineImpl(instance).getSerializationService();
+    }
+
+    @Test
+    public void testReplication_whenDigestMatches_thenNothingIsReplicated() {
+        MapReplicaDigest digest = createDigest();
+
+        MapReplicationOperation operation = new MapReplicationOperation(container, PARTITION_ID, 1, digest);
+
+        assertTrue(operation.mapReplicationStateHolder.data.isEmpty());
+        assertTrue(operation.mapReplicationStateHolder.loaded.isEmpty());
+        assertArrayEquals(new int[0], operation.mapReplicationStateHolder.segments.get("map1"));
+        assertArrayEquals(new int[0], operation.mapReplicationStateHolder.segments.get("map2"));
+    }
+
+    @Test
+    public void testReplication_whenSegmentDiffers_thenOnlyItsEntriesAreReplicated() {
+        MapReplicaDigest digest = createDigest();
+        Data key = serializationService.toData(42);
+        int segment = MapReplicaDigest.segmentOf(key);
+        digest.getSegmentHashes("map1")[segment]++;
+
+        MapReplicationOperation operation = new MapReplicationOperation(container, PARTITION_ID, 1, digest);
+
+        assertArrayEquals(new int[]{segment}, operation.mapReplicationStateHolder.segments.get("map1"));
+        Set<RecordReplicationInfo> records = operation.mapReplicationStateHolder.data.get("map1");
+        assertTrue(records.size() < ENTRY_COUNT);
+        boolean containsKey = false;
+        for (RecordReplicationInfo record : records) {
+            assertEquals(segment, MapReplicaDigest.segmentOf(record.getKey()));
+            containsKey |= key.equals(record.getKey());
+        }
+        assertTrue(containsKey);
+        assertFalse(operation.mapReplicationStateHolder.data.containsKey("map2"));
+        assertTrue(operation.mapReplicationStateHolder.loaded.isEmpty());
+    }
+
+    @Test
+    public void testReplication_whenMapIsMissingFromDigest_thenItIsReplicatedInFull() {
+        MapReplicaDigest ownerDigest = createDigest();
+        Map<String, long[]> segmentHashes = new HashMap<String, long[]>();
+        segmentHashes.put("map1", ownerDigest.getSegmentHashes("map1"));
+        MapReplicaDigest digest = new MapReplicaDigest(segmentHashes);
+
+        MapReplicationOperation operation = new MapReplicationOperation(container, PARTITION_ID, 1, digest);
+
+        assertEquals(5, operation.mapReplicationStateHolder.data.get("map2").size());
+        assertTrue(operation.mapReplicationStateHolder.loaded.containsKey("map2"));
+        assertFalse(operation.mapReplicationStateHolder.segments.containsKey("map2"));
+        assertFalse(operation.mapReplicationStateHolder.data.containsKey("map1"));
+    }
+
+    private MapReplicaDigest createDigest() {
+        return (MapReplicaDigest) mapService.createReplicaDigest(new PartitionReplicationEvent(PARTITION_ID, 1));
+    }
+}
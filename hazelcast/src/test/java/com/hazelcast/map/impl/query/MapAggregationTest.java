@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SampleObjects.Employee;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapAggregationTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private IMap<Integer, Employee> map;
+
+    @Before
+    public void setup() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        Config config = getConfig();
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+
+        map = instance.getMap(randomName());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenAggregatorNull() {
+        map.aggregate(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenPredicateNull() {
+        map.aggregate(Aggregators.count(), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenPagingPredicate() {
+        map.aggregate(Aggregators.count(), new PagingPredicate(10));
+    }
+
+    @Test
+    public void whenMapEmpty() {
+        assertEquals(Long.valueOf(0), map.aggregate(Aggregators.count()));
+        assertEquals(Long.valueOf(0), map.aggregate(Aggregators.longSum("age")));
+        assertNull(map.aggregate(Aggregators.numberAvg("salary")));
+        assertNull(map.aggregate(Aggregators.comparableMax("age")));
+    }
+
+    @Test
+    public void whenAggregatingAllEntries() {
+        fillMap();
+
+        assertEquals(Long.valueOf(ENTRY_COUNT), map.aggregate(Aggregators.count()));
+        assertEquals(Long.valueOf(expectedAgeSum()), map.aggregate(Aggregators.longSum("age")));
+        assertEquals(expectedAgeSum() * 10.0, map.aggregate(Aggregators.doubleSum("salary")), 0.0001);
+        assertEquals(expectedAgeSum() / (double) ENTRY_COUNT, map.aggregate(Aggregators.numberAvg("age")), 0.0001);
+        assertEquals(Integer.valueOf(0), map.aggregate(Aggregators.<Object, Integer>comparableMin("age")));
+        assertEquals(Integer.valueOf(99), map.aggregate(Aggregators.<Object, Integer>comparableMax("age")));
+    }
+
+    @Test
+    public void whenAggregatingWithPredicate() {
+        fillMap();
+        Predicate predicate = new SqlPredicate("age >= 90");
+
+        assertEquals(Long.valueOf(100), map.aggregate(Aggregators.count(), predicate));
+        assertEquals(Integer.valueOf(90), map.aggregate(Aggregators.<Object, Integer>comparableMin("age"), predicate));
+    }
+
+    @Test
+    public void whenAggregatingWithIndex() {
+        map.addIndex("age", true);
+        fillMap();
+        Predicate predicate = new SqlPredicate("age < 10");
+
+        assertEquals(Long.valueOf(100), map.aggregate(Aggregators.count(), predicate));
+        assertEquals(Long.valueOf(450), map.aggregate(Aggregators.longSum("age"), predicate));
+    }
+
+    @Test
+    public void whenAggregating_thenAggregatorNotModified() {
+        fillMap();
+        com.hazelcast.aggregation.Aggregator<Object, Long> aggregator = Aggregators.count();
+
+        map.aggregate(aggregator);
+
+        assertEquals(Long.valueOf(0), aggregator.aggregate());
+    }
+
+    private void fillMap() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            int age = i % 100;
+            map.put(i, new Employee(i, "name" + i, age, true, age * 10.0));
+        }
+    }
+
+    private static long expectedAgeSum() {
+        return (ENTRY_COUNT / 100) * 4950L;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SampleObjects.Employee;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapProjectionTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+
+    private IMap<Integer, Employee> map;
+
+    @Before
+    public void setup() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        Config config = getConfig();
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+
+        map = instance.getMap(randomName());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenProjectionNull() {
+        map.project(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenPredicateNull() {
+        map.project(Projections.singleAttribute("age"), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenPagingPredicate() {
+        map.project(Projections.singleAttribute("age"), new PagingPredicate(10));
+    }
+
+    @Test
+    public void whenMapEmpty() {
+        Collection<Object> result = map.project(Projections.singleAttribute("age"));
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void whenProjectingSingleAttribute() {
+        fillMap();
+
+        Collection<String> result = map.project(Projections.<Map.Entry<Integer, Employee>, String>singleAttribute("name"));
+
+        assertEquals(ENTRY_COUNT, result.size());
+        Set<String> expected = new HashSet<String>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            expected.add("name" + i);
+        }
+        assertEquals(expected, new HashSet<String>(result));
+    }
+
+    @Test
+    public void whenProjectingKeyAttribute() {
+        fillMap();
+
+        Collection<Integer> result = map.project(Projections.<Map.Entry<Integer, Employee>, Integer>singleAttribute("__key"),
+                new SqlPredicate("age < 10"));
+
+        assertEquals(10, result.size());
+        for (Integer key : result) {
+            assertTrue(key < 10);
+        }
+    }
+
+    @Test
+    public void whenProjectingMultipleAttributes_withPredicate() {
+        fillMap();
+
+        Collection<Object[]> result = map.project(Projections.multiAttribute("name", "age"), new SqlPredicate("age = 42"));
+
+        assertEquals(1, result.size());
+        assertArrayEquals(new Object[]{"name42", 42}, result.iterator().next());
+    }
+
+    @Test
+    public void whenProjectingWithIndex() {
+        map.addIndex("age", true);
+        fillMap();
+        Predicate predicate = new SqlPredicate("age >= 90");
+
+        Collection<Integer> result = map.project(Projections.<Map.Entry<Integer, Employee>, Integer>singleAttribute("age"),
+                predicate);
+
+        assertEquals(10, result.size());
+    }
+
+    @Test
+    public void whenCustomProjection() {
+        fillMap();
+
+        Collection<Long> result = map.project(new IdProjection(), new SqlPredicate("age < 5"));
+
+        assertEquals(new HashSet<Long>(asList(0L, 1L, 2L, 3L, 4L)), new HashSet<Long>(result));
+    }
+
+    private void fillMap() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, new Employee(i, "name" + i, i, true, i * 10.0));
+        }
+    }
+
+    private static class IdProjection extends Projection<Map.Entry<Integer, Employee>, Long> {
+        @Override
+        public Long transform(Map.Entry<Integer, Employee> input) {
+            return input.getValue().getId();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.spi.exception.RetryableHazelcastException;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PartitionScanExecutorTest extends HazelcastTestSupport {
+
+    private static final int PARTITIONS = 271;
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testScan_visitsEveryPartitionOnce() {
+        PartitionScanExecutor executor = new PartitionScanExecutor(executorService, 4);
+        List<Integer> result = new ArrayList<Integer>();
+
+        executor.scan(partitions(), result, new CollectingScan());
+
+        Collections.sort(result);
+        assertEquals(partitions(), result);
+    }
+
+    @Test
+    public void testScan_whenNoHelperPermits_thenCallerScansAlone() throws Exception {
+        final PartitionScanExecutor executor = new PartitionScanExecutor(executorService, 2);
+        final CountDownLatch helperStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        // occupies the only helper permit
+        Thread blocking = new Thread() {
+            @Override
+            public void run() {
+                executor.scan(partitions(), new ArrayList<Integer>(), new CollectingScan() {
+                    @Override
+                    public void scan(int partitionId, List<Integer> result) {
+                        if (Thread.currentThread().getName().equals("blocking")) {
+                            // leaves chunks for the helper
+                            await(helperStarted);
+                        } else {
+                            helperStarted.countDown();
+                            await(release);
+                        }
+                    }
+                });
+            }
+        };
+        blocking.setName("blocking");
+        blocking.start();
+        assertOpenEventually(helperStarted);
+
+        final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+        executor.scan(partitions(), new ArrayList<Integer>(), new CollectingScan() {
+            @Override
+            public void scan(int partitionId, List<Integer> result) {
+                threads.add(Thread.currentThread().getName());
+            }
+        });
+        release.countDown();
+        blocking.join(TimeUnit.SECONDS.toMillis(ASSERT_TRUE_EVENTUALLY_TIMEOUT));
+
+        assertEquals(Collections.singleton(Thread.currentThread().getName()), threads);
+    }
+
+    @Test
+    public void testScan_retryableExceptionRethrownAfterAllPartitions() {
+        PartitionScanExecutor executor = new PartitionScanExecutor(executorService, 4);
+        List<Integer> result = new ArrayList<Integer>();
+        try {
+            executor.scan(partitions(), result, new CollectingScan() {
+                @Override
+                public void scan(int partitionId, List<Integer> result) {
+                    if (partitionId == 7) {
+                        throw new RetryableHazelcastException();
+                    }
+                    super.scan(partitionId, result);
+                }
+            });
+            fail();
+        } catch (RetryableHazelcastException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testQueriesAndAggregations() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.QUERY_SCAN_PARALLELISM.getName(), "4");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Item> map = instance.getMap(randomMapName());
+        for (int i = 0; i < 10000; i++) {
+            map.put(i, new Item(i));
+        }
+        SqlPredicate predicate = new SqlPredicate("price < 1000");
+
+        Set<Integer> keys = map.keySet(predicate);
+        assertEquals(1000, keys.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(keys.contains(i));
+        }
+        assertEquals(1000, map.values(predicate).size());
+        Collection<Integer> prices = map.project(
+                Projections.<Map.Entry<Integer, Item>, Integer>singleAttribute("price"), predicate);
+        assertEquals(1000, new HashSet<Integer>(prices).size());
+        assertEquals(Long.valueOf(499500),
+                map.aggregate(Aggregators.<Map.Entry<Integer, Item>>longSum("price"), predicate));
+        assertEquals(Long.valueOf(10000), map.aggregate(Aggregators.<Map.Entry<Integer, Item>>count()));
+    }
+
+    private static List<Integer> partitions() {
+        List<Integer> partitions = new ArrayList<Integer>(PARTITIONS);
+        for (int i = 0; i < PARTITIONS; i++) {
+            partitions.add(i);
+        }
+        return partitions;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class CollectingScan implements PartitionScanExecutor.PartitionScan<List<Integer>> {
+
+        @Override
+        public List<Integer> newPartialResult() {
+            return new ArrayList<Integer>();
+        }
+
+        @Override
+        public void scan(int partitionId, List<Integer> result) {
+            result.add(partitionId);
+        }
+
+        @Override
+        public void combine(List<Integer> result, List<Integer> partialResult) {
+            result.addAll(partialResult);
+        }
+    }
+
+    public static class Item implements Serializable {
+
+        private int price;
+
+        public Item(int price) {
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.memory.impl.TestIgnoreRuleAccordingToUnsafeAvailability;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.record.NativeRecord;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordFactory;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TestRule;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NativeStorageTest {
+
+    @Rule
+    public final TestRule ignoreRule = new TestIgnoreRuleAccordingToUnsafeAvailability();
+
+    private InternalSerializationService serializationService;
+    private StandardMemoryManager memoryManager;
+    private RecordFactory recordFactory;
+    private NativeStorage storage;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        memoryManager = new StandardMemoryManager(1 << 20);
+        MapConfig mapConfig = new MapConfig("test").setStatisticsEnabled(true);
+        recordFactory = new NativeRecordFactory(mapConfig, serializationService, null);
+        storage = new NativeStorage(recordFactory, memoryManager, serializationService);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy();
+        memoryManager.dispose();
+        serializationService.dispose();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        Data key = toData("key");
+        Record record = newRecord("value");
+        record.setTtl(1000);
+        storage.put(key, record);
+
+        Record stored = storage.get(key);
+        assertEquals(1, storage.size());
+        assertTrue(storage.containsKey(key));
+        assertEquals(key, stored.getKey());
+        assertEquals("value", serializationService.toObject(stored.getValue()));
+        assertEquals(1000, stored.getTtl());
+        assertEquals(stored.getCost(), storage.getSizeEstimator().getSize());
+    }
+
+    @Test
+    public void testGet_whenAbsent() {
+        assertNull(storage.get(toData("key")));
+        assertFalse(storage.containsKey(toData("key")));
+    }
+
+    @Test
+    public void testPut_replacesExistingEntry() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value1"));
+        storage.put(key, newRecord("value2"));
+
+        assertEquals(1, storage.size());
+        assertEquals("value2", serializationService.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void testPut_updatesExistingEntryInPlace() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value1"));
+        NativeRecord record = (NativeRecord) storage.get(key);
+        long address = record.getAddress();
+
+        storage.put(key, newRecord("a much longer value than value1"));
+
+        assertTrue(record.isBound());
+        assertEquals(address, record.getAddress());
+        assertEquals(address, ((NativeRecord) storage.get(key)).getAddress());
+        assertEquals("a much longer value than value1", serializationService.toObject(record.getValue()));
+        assertEquals(record.getCost(), storage.getSizeEstimator().getSize());
+    }
+
+    @Test
+    public void testRecordWritesThrough() {
+        Data key = toData("key");
+        Record record = newRecord("value");
+        storage.put(key, record);
+
+        record.setHits(5);
+        record.getStatistics().setExpirationTime(1234);
+        storage.get(key).onAccess(10);
+
+        Record stored = storage.get(key);
+        assertEquals(6, stored.getHits());
+        assertEquals(10, stored.getLastAccessTime());
+        assertEquals(1234, stored.getStatistics().getExpirationTime());
+    }
+
+    @Test
+    public void testUpdateRecordValue_withDifferentSize() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value"));
+
+        Record record = storage.get(key);
+        long address = ((NativeRecord) record).getAddress();
+        record.setHits(3);
+        storage.updateRecordValue(key, record, "a much longer value than before");
+
+        assertTrue(((NativeRecord) record).isBound());
+        assertEquals(address, ((NativeRecord) record).getAddress());
+        assertEquals("a much longer value than before", serializationService.toObject(record.getValue()));
+        Record stored = storage.get(key);
+        assertEquals("a much longer value than before", serializationService.toObject(stored.getValue()));
+        assertEquals(3, stored.getHits());
+        assertEquals(stored.getCost(), storage.getSizeEstimator().getSize());
+    }
+
+    @Test
+    public void testRemoveRecord_keepsRecordReadable() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value"));
+
+        Record record = storage.get(key);
+        record.setHits(7);
+        storage.removeRecord(record);
+
+        assertEquals(0, storage.size());
+        assertNull(storage.get(key));
+        assertEquals("value", serializationService.toObject(record.getValue()));
+        assertEquals(7, record.getHits());
+        assertEquals(0, storage.getSizeEstimator().getSize());
+    }
+
+    @Test
+    public void testRemoveRecord_otherRecordOfSameKeyReadsAsRemoved() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value"));
+
+        Record record = storage.get(key);
+        record.setHits(7);
+        storage.removeRecord(storage.get(key));
+
+        assertFalse(((NativeRecord) record).isBound());
+        assertNull(record.getValue());
+        assertEquals(0, record.getHits());
+    }
+
+    @Test
+    public void testRemoveRecord_recordOfRemovedEntryStaysRemovedWhenSlotIsReused() {
+        storage.put(toData("key1"), newRecord("value"));
+        NativeRecord record = (NativeRecord) storage.get(toData("key1"));
+        storage.removeRecord(storage.get(toData("key1")));
+
+        storage.put(toData("key2"), newRecord("value"));
+
+        assertFalse(record.isBound());
+        assertNull(record.getValue());
+        assertTrue(((NativeRecord) storage.get(toData("key2"))).isBound());
+    }
+
+    @Test
+    public void testValues_afterResize() {
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+
+        Set<Integer> values = new HashSet<Integer>();
+        for (Record record : storage.values()) {
+            values.add((Integer) serializationService.toObject(record.getValue()));
+        }
+        assertEquals(count, storage.size());
+        assertEquals(count, values.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, serializationService.toObject(storage.get(toData(i)).getValue()));
+        }
+    }
+
+    @Test
+    public void testValues_skipsRecordsRemovedAfterCollected() {
+        for (int i = 0; i < 100; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+
+        Set<Integer> values = new HashSet<Integer>();
+        for (Record record : storage.values()) {
+            Integer value = (Integer) serializationService.toObject(record.getValue());
+            values.add(value);
+            for (Record other : storage.values()) {
+                if (!other.getKey().equals(record.getKey())) {
+                    storage.removeRecord(storage.get(other.getKey()));
+                }
+            }
+        }
+
+        assertEquals(1, values.size());
+        assertEquals(1, storage.size());
+    }
+
+    @Test
+    public void testValues_removeWhileIterating() {
+        for (int i = 0; i < 100; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+
+        Iterator<Record> iterator = storage.values().iterator();
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            if ((Integer) serializationService.toObject(record.getValue()) % 2 == 0) {
+                storage.removeRecord(record);
+                iterator.remove();
+            }
+        }
+
+        assertEquals(50, storage.size());
+        for (Record record : storage.values()) {
+            assertEquals(1, (Integer) serializationService.toObject(record.getValue()) % 2);
+        }
+    }
+
+    @Test
+    public void testGetRandomSamples() {
+        for (int i = 0; i < 100; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+
+        int sampleCount = 0;
+        for (LazyEntryViewFromRecord sample : storage.getRandomSamples(15)) {
+            assertTrue(storage.containsKey(sample.getRecord().getKey()));
+            sampleCount++;
+        }
+        assertEquals(15, sampleCount);
+    }
+
+    @Test
+    public void testFetchKeys() {
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+
+        Set<Data> keys = new HashSet<Data>();
+        List<Data> fetched = new ArrayList<Data>();
+        int tableIndex = Integer.MAX_VALUE;
+        do {
+            fetched.clear();
+            tableIndex = storage.fetchKeys(tableIndex, 10, fetched);
+            assertTrue(tableIndex < 0 || fetched.size() >= 10);
+            keys.addAll(fetched);
+        } while (tableIndex >= 0);
+
+        assertEquals(count, keys.size());
+        for (int i = 0; i < count; i++) {
+            assertTrue(keys.contains(toData(i)));
+        }
+    }
+
+    @Test
+    public void testFetchKeys_whenEmpty() {
+        List<Data> keys = new ArrayList<Data>();
+
+        assertTrue(storage.fetchKeys(Integer.MAX_VALUE, 10, keys) < 0);
+        assertTrue(keys.isEmpty());
+    }
+
+    @Test
+    public void testClear_freesMemory() {
+        for (int i = 0; i < 100; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+        assertTrue(memoryManager.getUsedMemory() > 0);
+
+        storage.clear();
+
+        assertEquals(0, storage.size());
+        assertEquals(0, memoryManager.getUsedMemory());
+        assertEquals(0, storage.getSizeEstimator().getSize());
+    }
+
+    private Record newRecord(Object value) {
+        return recordFactory.newRecord(value);
+    }
+
+    private Data toData(Object object) {
+        return serializationService.toData(object);
+    }
+}
@@ -28,6 +28,7 @@ public class LocalMemoryStatsImplTest {
         localMemoryStats.setCommittedNativeMemory(768);
         localMemoryStats.setUsedNativeMemory(512);
         localMemoryStats.setFreeNativeMemory(256);
+        localMemoryStats.setNativeFragmentation(0.25);
         localMemoryStats.setMaxHeap(3333);
         localMemoryStats.setCommittedHeap(2222);
         localMemoryStats.setUsedHeap(1111);
@@ -43,6 +44,7 @@ public class LocalMemoryStatsImplTest {
         assertEquals(768, localMemoryStats.getCommittedNative());
         assertEquals(512, localMemoryStats.getUsedNative());
         assertEquals(256, localMemoryStats.getFreeNative());
+        assertEquals(0.25, localMemoryStats.getNativeFragmentation(), 0.0);
         assertEquals(3333, localMemoryStats.getMaxHeap());
         assertEquals(2222, localMemoryStats.getCommittedHeap());
         assertEquals(1111, localMemoryStats.getUsedHeap());
@@ -67,6 +69,7 @@ public class LocalMemoryStatsImplTest {
         assertEquals(768, deserialized.getCommittedNative());
         assertEquals(512, deserialized.getUsedNative());
         assertEquals(256, deserialized.getFreeNative());
+        assertEquals(0.25, deserialized.getNativeFragmentation(), 0.0);
         assertEquals(3333, deserialized.getMaxHeap());
         assertEquals(2222, deserialized.getCommittedHeap());
         assertEquals(1111, deserialized.getUsedHeap());
@@ -0,0 +1,204 @@
+package com.hazelcast.nio;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.HazelcastInstanceManager;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+
+import static com.hazelcast.nio.PacketPayloadPool.SLOTS_PER_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.SOCKET_RECEIVE_PAYLOAD_POOL_ENABLED;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class PacketPayloadPoolTest extends HazelcastTestSupport {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    @Before
+    @After
+    public void killAllHazelcastInstances() {
+        HazelcastInstanceManager.terminateAll();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstruction_whenZeroMaxPayloadSize() {
+        new PacketPayloadPool(0, 1024);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstruction_whenNegativeCapacity() {
+        new PacketPayloadPool(1024, -1);
+    }
+
+    @Test
+    public void testTake_whenEmpty() {
+        PacketPayloadPool pool = new PacketPayloadPool(1024, 1024 * 1024);
+
+        byte[] bytes = pool.take(100);
+
+        assertEquals(100, bytes.length);
+        assertEquals(0, pool.retainedBytes());
+    }
+
+    @Test
+    public void testTake_returnsReleasedArray() {
+        PacketPayloadPool pool = new PacketPayloadPool(1024, 1024 * 1024);
+        byte[] bytes = pool.take(100);
+
+        pool.release(bytes);
+        assertEquals(100, pool.retainedBytes());
+
+        assertSame(bytes, pool.take(100));
+        assertEquals(0, pool.retainedBytes());
+        assertNotSame(bytes, pool.take(100));
+    }
+
+    @Test
+    public void testTake_whenOnlyOtherLengthAvailable() {
+        PacketPayloadPool pool = new PacketPayloadPool(1024, 1024 * 1024);
+        pool.release(new byte[99]);
+
+        assertEquals(100, pool.take(100).length);
+        assertEquals(99, pool.retainedBytes());
+    }
+
+    @Test
+    public void testRelease_whenLargerThanMaxPayloadSize() {
+        PacketPayloadPool pool = new PacketPayloadPool(1024, 1024 * 1024);
+        byte[] bytes = new byte[1025];
+
+        pool.release(bytes);
+
+        assertEquals(0, pool.retainedBytes());
+        assertNotSame(bytes, pool.take(1025));
+    }
+
+    @Test
+    public void testRelease_whenAllSlotsTaken() {
+        PacketPayloadPool pool = new PacketPayloadPool(1024, 1024 * 1024);
+        for (int k = 0; k < SLOTS_PER_SIZE + 1; k++) {
+            pool.release(new byte[100]);
+        }
+
+        assertEquals(SLOTS_PER_SIZE * 100, pool.retainedBytes());
+    }
+
+    @Test
+    public void testRelease_whenCapacityExceeded() {
+        PacketPayloadPool pool = new PacketPayloadPool(1024, 150);
+        pool.release(new byte[100]);
+        pool.release(new byte[100]);
+
+        assertEquals(100, pool.retainedBytes());
+    }
+
+    @Test
+    public void testPacket_operationIsPooled() {
+        PacketPayloadPool pool = new PacketPayloadPool(1024, 1024 * 1024);
+        byte[] pooled = pool.take(serializationService.toBytes("foo").length);
+        pool.release(pooled);
+
+        Packet packet = readPacket(pool, Packet.FLAG_OP);
+
+        assertTrue(packet.isPooled());
+        assertSame(pooled, packet.toByteArray());
+        assertEquals("foo", serializationService.toObject(packet));
+
+        packet.retain();
+        packet.release();
+        assertSame(pooled, packet.toByteArray());
+
+        packet.release();
+        assertNull(packet.toByteArray());
+        assertSame(pooled, pool.take(pooled.length));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPacket_releasedTwice() {
+        PacketPayloadPool pool = new PacketPayloadPool(1024, 1024 * 1024);
+        Packet packet = readPacket(pool, Packet.FLAG_OP | Packet.FLAG_RESPONSE);
+
+        packet.release();
+        packet.release();
+    }
+
+    @Test
+    public void testPacket_eventIsNotPooled() {
+        PacketPayloadPool pool = new PacketPayloadPool(1024, 1024 * 1024);
+        Packet packet = readPacket(pool, Packet.FLAG_EVENT);
+
+        assertFalse(packet.isPooled());
+
+        packet.release();
+        assertEquals("foo", serializationService.toObject(packet));
+        assertEquals(0, pool.retainedBytes());
+    }
+
+    @Test
+    public void testPacket_operationControlIsNotPooled() {
+        PacketPayloadPool pool = new PacketPayloadPool(1024, 1024 * 1024);
+        Packet packet = readPacket(pool, Packet.FLAG_OP | Packet.FLAG_OP_CONTROL);
+
+        assertFalse(packet.isPooled());
+    }
+
+    @Test
+    public void testMapOperations() {
+        Config config = new Config();
+        config.getGroupConfig().setName(randomName());
+        config.setProperty(SOCKET_RECEIVE_PAYLOAD_POOL_ENABLED.getName(), "true");
+
+        HazelcastInstance hz1 = Hazelcast.newHazelcastInstance(config);
+        HazelcastInstance hz2 = Hazelcast.newHazelcastInstance(config);
+        assertClusterSizeEventually(2, hz1);
+
+        IMap<Integer, byte[]> map1 = hz1.getMap("map");
+        IMap<Integer, byte[]> map2 = hz2.getMap("map");
+        for (int k = 0; k < 1000; k++) {
+            map1.put(k, value(k));
+        }
+        for (int k = 0; k < 1000; k++) {
+            assertArrayEquals(value(k), map2.get(k));
+        }
+        assertEquals(1000, map2.size());
+    }
+
+    private static byte[] value(int k) {
+        byte[] value = new byte[k % 10];
+        for (int i = 0; i < value.length; i++) {
+            value[i] = (byte) (k + i);
+        }
+        return value;
+    }
+
+    private Packet readPacket(PacketPayloadPool pool, int flags) {
+        Packet original = new Packet(serializationService.toBytes("foo")).setAllFlags(flags);
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        assertTrue(original.writeTo(buffer));
+        buffer.flip();
+
+        Packet packet = new Packet(pool);
+        assertTrue(packet.readFrom(buffer));
+        return packet;
+    }
+}
@@ -0,0 +1,102 @@
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.nio.Packet;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class Compression_TcpIpConnection_BasicTest extends TcpIpConnection_AbstractTest {
+
+    private final List<Packet> received = Collections.synchronizedList(new ArrayList<Packet>());
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        ioServiceA.socketCompression = true;
+        ioServiceA.socketCompressionThreshold = 100;
+        ioServiceB.packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                received.add(packet);
+            }
+        };
+        connManagerA.start();
+        connManagerB.start();
+    }
+
+    @Test
+    public void whenBothEnabled_thenCompressed() {
+        ioServiceB.socketCompression = true;
+
+        TcpIpConnection connection = connect(connManagerA, addressB);
+
+        assertCompressionEnabledEventually(connection);
+        assertTransfer(connection);
+    }
+
+    @Test
+    public void whenOnlyOneEnabled_thenNotCompressed() {
+        TcpIpConnection connection = connect(connManagerA, addressB);
+
+        assertTransfer(connection);
+        assertFalse(connection.isCompressionEnabled());
+    }
+
+    private void assertTransfer(TcpIpConnection connection) {
+        Random random = new Random();
+        final List<byte[]> sent = new ArrayList<byte[]>();
+        for (int k = 0; k < 500; k++) {
+            // a mix of small, compressible and incompressible payloads
+            byte[] payload = new byte[8 + random.nextInt(k % 2 == 0 ? 50 : 20000)];
+            if (k % 3 == 0) {
+                random.nextBytes(payload);
+            } else {
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] = (byte) (i % 7);
+                }
+            }
+            sent.add(payload);
+            assertTrue(connection.write(new Packet(payload, k).setFlag(Packet.FLAG_OP)));
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(sent.size(), received.size());
+            }
+        });
+
+        for (int k = 0; k < sent.size(); k++) {
+            Packet packet = received.get(k);
+            assertEquals(k, packet.getPartitionId());
+            assertEquals(Packet.FLAG_OP, packet.getFlags());
+            assertArrayEquals(sent.get(k), packet.toByteArray());
+        }
+    }
+
+    private void assertCompressionEnabledEventually(final TcpIpConnection connection) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertTrue(connection.isCompressionEnabled());
+            }
+        });
+    }
+}
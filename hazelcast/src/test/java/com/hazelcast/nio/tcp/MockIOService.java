@@ -39,6 +39,13 @@ public class MockIOService implements IOService {
     public final HazelcastThreadGroup hazelcastThreadGroup;
     public final ConcurrentHashMap<Long, DummyPayload> payloads = new ConcurrentHashMap<Long, DummyPayload>();
     public volatile PacketHandler packetHandler;
+    public volatile boolean socketGatheringWrite;
+    public volatile int socketGatheringWriteThreshold = 8192;
+    public volatile boolean socketReadDrain;
+    public volatile int socketMemberConnectionCount = 1;
+    public volatile int partitionCount = 271;
+    public volatile boolean socketCompression;
+    public volatile int socketCompressionThreshold = 1024;
 
     public MockIOService(int port) throws Exception {
         loggingService = new LoggingServiceImpl("somegroup", "log4j", BuildInfoProvider.getBuildInfo());
@@ -185,6 +192,41 @@ public class MockIOService implements IOService {
         return false;
     }
 
+    @Override
+    public boolean isSocketGatheringWrite() {
+        return socketGatheringWrite;
+    }
+
+    @Override
+    public int getSocketGatheringWriteThreshold() {
+        return socketGatheringWriteThreshold;
+    }
+
+    @Override
+    public boolean isSocketReadDrain() {
+        return socketReadDrain;
+    }
+
+    @Override
+    public int getSocketMemberConnectionCount() {
+        return socketMemberConnectionCount;
+    }
+
+    @Override
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    @Override
+    public boolean isSocketCompression() {
+        return socketCompression;
+    }
+
+    @Override
+    public int getSocketCompressionThreshold() {
+        return socketCompressionThreshold;
+    }
+
     @Override
     public int getSocketLingerSeconds() {
         return 0;
@@ -0,0 +1,83 @@
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import static com.hazelcast.test.HazelcastTestSupport.assertUtilityConstructor;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PacketCompressorTest {
+
+    @Test
+    public void testConstructor() {
+        assertUtilityConstructor(PacketCompressor.class);
+    }
+
+    @Test
+    public void compress_whenBelowThreshold() {
+        Packet packet = new Packet(new byte[99]);
+
+        assertSame(packet, PacketCompressor.compress(packet, 100));
+    }
+
+    @Test
+    public void compress_whenBindPacket() {
+        Packet packet = new Packet(new byte[1000]).setFlag(Packet.FLAG_BIND);
+
+        assertSame(packet, PacketCompressor.compress(packet, 100));
+    }
+
+    @Test
+    public void compress_whenIncompressible() {
+        byte[] payload = new byte[1000];
+        new Random().nextBytes(payload);
+        Packet packet = new Packet(payload);
+
+        assertSame(packet, PacketCompressor.compress(packet, 100));
+    }
+
+    @Test
+    public void compress_thenDecompress() {
+        byte[] payload = new byte[10000];
+        payload[5000] = 1;
+        Packet packet = new Packet(payload, 10).setAllFlags(Packet.FLAG_OP | Packet.FLAG_URGENT);
+
+        Packet compressed = PacketCompressor.compress(packet, 100);
+
+        assertTrue(compressed.isFlagSet(Packet.FLAG_COMPRESSED));
+        assertTrue(compressed.totalSize() < payload.length / 10);
+        assertSame(compressed, PacketCompressor.compress(compressed, 100));
+
+        Connection connection = mock(Connection.class);
+        compressed.setConn(connection);
+        Packet decompressed = PacketCompressor.decompress(compressed);
+
+        assertFalse(decompressed.isFlagSet(Packet.FLAG_COMPRESSED));
+        assertEquals(Packet.FLAG_OP | Packet.FLAG_URGENT, decompressed.getFlags());
+        assertEquals(10, decompressed.getPartitionId());
+        assertSame(connection, decompressed.getConn());
+        assertArrayEquals(payload, decompressed.toByteArray());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decompress_whenMalformed() {
+        Packet packet = new Packet(new byte[]{0, 0, 0, 100, 1, 2, 3, 4, 5, 6}).setFlag(Packet.FLAG_COMPRESSED);
+
+        PacketCompressor.decompress(packet);
+    }
+}
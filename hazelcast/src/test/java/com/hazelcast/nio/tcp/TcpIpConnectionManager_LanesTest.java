@@ -0,0 +1,272 @@
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class TcpIpConnectionManager_LanesTest extends TcpIpConnection_AbstractTest {
+
+    private static final int LANE_COUNT = 3;
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        ioServiceA.socketMemberConnectionCount = LANE_COUNT;
+        ioServiceB.socketMemberConnectionCount = LANE_COUNT;
+        connManagerA.start();
+        connManagerB.start();
+    }
+
+    @Test
+    public void testLaneOf() {
+        assertEquals(0, TcpIpConnectionLanes.laneOf(-1, LANE_COUNT));
+        assertEquals(0, TcpIpConnectionLanes.laneOf(0, LANE_COUNT));
+        assertEquals(1, TcpIpConnectionLanes.laneOf(1, LANE_COUNT));
+        assertEquals(2, TcpIpConnectionLanes.laneOf(5, LANE_COUNT));
+    }
+
+    @Test
+    public void whenConnected_thenLanesAreConnected() {
+        TcpIpConnection connection = connect(connManagerA, addressB);
+
+        assertLanesEventually(connManagerA);
+        assertEquals(0, connection.getLane());
+        assertSame(connection, connManagerA.getConnection(addressB));
+        assertEquals(LANE_COUNT, connManagerA.getActiveConnectionCount());
+        assertEquals(1, connManagerA.getConnectionCount());
+    }
+
+    @Test
+    public void write_packetsAreAssignedToLaneByPartition() {
+        final List<Packet> received = Collections.synchronizedList(new ArrayList<Packet>());
+        ioServiceB.packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                received.add(packet);
+            }
+        };
+        TcpIpConnection connection = connect(connManagerA, addressB);
+        assertLanesEventually(connManagerA);
+
+        final int partitionCount = 10;
+        final int packetsPerPartition = 100;
+        for (int k = 0; k < packetsPerPartition; k++) {
+            for (int partitionId = -1; partitionId < partitionCount; partitionId++) {
+                Packet packet = new Packet(serializationService.toBytes(k), partitionId);
+                assertTrue(connManagerA.transmit(packet, connection));
+            }
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals((partitionCount + 1) * packetsPerPartition, received.size());
+            }
+        });
+
+        int[] expected = new int[partitionCount + 1];
+        for (Packet packet : received) {
+            int partitionId = packet.getPartitionId();
+            TcpIpConnection conn = (TcpIpConnection) packet.getConn();
+            assertEquals(TcpIpConnectionLanes.laneOf(partitionId, LANE_COUNT), conn.getLane());
+
+            int value = (Integer) serializationService.toObject(packet);
+            assertEquals("packets of partition " + partitionId + " are out of order", expected[partitionId + 1], value);
+            expected[partitionId + 1]++;
+        }
+    }
+
+    @Test
+    public void write_whileLanesConnect_thenPacketsOfPartitionStayOnOneConnection() throws Exception {
+        final List<Packet> received = Collections.synchronizedList(new ArrayList<Packet>());
+        ioServiceB.packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                received.add(packet);
+            }
+        };
+
+        // the first partitions are written to as soon as the regular connection is there, the later ones
+        // only after the lanes are connected
+        final int earlyPartitionCount = 10;
+        final int partitionCount = 20;
+        final int packetsPerPartition = 100;
+        connManagerA.getOrConnect(addressB);
+        Thread writer = new Thread() {
+            @Override
+            public void run() {
+                Connection connection;
+                while ((connection = connManagerA.getConnection(addressB)) == null) {
+                    Thread.yield();
+                }
+                for (int k = 0; k < packetsPerPartition; k++) {
+                    transmit(connection, k, 0, earlyPartitionCount);
+                }
+            }
+        };
+        writer.start();
+        assertJoinable(writer);
+
+        assertLanesEventually(connManagerA);
+        Connection connection = connManagerA.getConnection(addressB);
+        for (int k = 0; k < packetsPerPartition; k++) {
+            transmit(connection, k, earlyPartitionCount, partitionCount);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(partitionCount * packetsPerPartition, received.size());
+            }
+        });
+
+        int[] expected = new int[partitionCount];
+        Connection[] connections = new Connection[partitionCount];
+        for (Packet packet : received) {
+            int partitionId = packet.getPartitionId();
+            if (connections[partitionId] == null) {
+                connections[partitionId] = packet.getConn();
+            }
+            assertSame("packets of partition " + partitionId + " were received on different connections",
+                    connections[partitionId], packet.getConn());
+
+            int value = (Integer) serializationService.toObject(packet);
+            assertEquals("packets of partition " + partitionId + " are out of order", expected[partitionId], value);
+            expected[partitionId]++;
+        }
+        for (int partitionId = earlyPartitionCount; partitionId < partitionCount; partitionId++) {
+            int lane = TcpIpConnectionLanes.laneOf(partitionId, LANE_COUNT);
+            assertEquals(lane, ((TcpIpConnection) connections[partitionId]).getLane());
+        }
+    }
+
+    @Test
+    public void usesLane_whenPinnedToRegularConnection_thenLaneIsUsedAfterUnpin() {
+        TcpIpConnectionLanes lanes = new TcpIpConnectionLanes(LANE_COUNT, 10);
+        // partition 1 is written to before its lane is connected, partition 2 after
+        assertFalse(lanes.usesLane(1, 1));
+
+        connect(connManagerA, addressB);
+        assertLanesEventually(connManagerA);
+        for (int lane = 1; lane < LANE_COUNT; lane++) {
+            assertTrue(lanes.register(lane, connManagerA.getLanes(addressB).get(lane)));
+        }
+        assertFalse(lanes.usesLane(1, 1));
+        assertTrue(lanes.usesLane(2, 2));
+
+        lanes.unpin(1);
+        lanes.unpin(2);
+
+        assertTrue(lanes.usesLane(1, 1));
+        assertTrue(lanes.usesLane(2, 2));
+    }
+
+    @Test
+    public void write_whenPartitionMigrated_thenPartitionMovesToLane() {
+        final List<Packet> received = Collections.synchronizedList(new ArrayList<Packet>());
+        ioServiceB.packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                received.add(packet);
+            }
+        };
+        TcpIpConnection connection = connect(connManagerA, addressB);
+        assertLanesEventually(connManagerA);
+        // lane 0 is never stored, so partition 1 is pinned as if its lane wasn't connected yet
+        assertFalse(connManagerA.getLanes(addressB).usesLane(1, 0));
+
+        assertTrue(connManagerA.transmit(new Packet(serializationService.toBytes(0), 1), connection));
+        connManagerA.onPartitionMigrate(1);
+        assertTrue(connManagerA.transmit(new Packet(serializationService.toBytes(1), 1), connection));
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(2, received.size());
+            }
+        });
+        for (Packet packet : received) {
+            int value = (Integer) serializationService.toObject(packet);
+            int expectedLane = value == 0 ? 0 : 1;
+            assertEquals(expectedLane, ((TcpIpConnection) packet.getConn()).getLane());
+        }
+    }
+
+    @Test
+    public void whenLaneClosed_thenConnectionIsClosed() {
+        final TcpIpConnection connection = connect(connManagerA, addressB);
+        assertLanesEventually(connManagerA);
+
+        TcpIpConnection lane = connManagerA.getLanes(addressB).get(1);
+        lane.close("test", null);
+
+        assertFalse(connection.isAlive());
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertNotSame(connection, connManagerA.getConnection(addressB));
+            }
+        });
+    }
+
+    @Test
+    public void whenConnectionClosed_thenLanesAreClosed() {
+        TcpIpConnection connection = connect(connManagerA, addressB);
+        assertLanesEventually(connManagerA);
+        TcpIpConnectionLanes lanes = connManagerA.getLanes(addressB);
+        List<TcpIpConnection> laneConnections = new ArrayList<TcpIpConnection>();
+        for (int lane = 1; lane < LANE_COUNT; lane++) {
+            laneConnections.add(lanes.get(lane));
+        }
+
+        connection.close("test", null);
+
+        assertNull(connManagerA.getLanes(addressB));
+        for (Connection laneConnection : laneConnections) {
+            assertFalse(laneConnection.isAlive());
+        }
+    }
+
+    private void transmit(Connection connection, int value, int fromPartition, int toPartition) {
+        for (int partitionId = fromPartition; partitionId < toPartition; partitionId++) {
+            assertTrue(connManagerA.transmit(new Packet(serializationService.toBytes(value), partitionId), connection));
+        }
+    }
+
+    private void assertLanesEventually(final TcpIpConnectionManager connectionManager) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                TcpIpConnectionLanes lanes = connectionManager.getLanes(addressB);
+                assertNotNull(lanes);
+                for (int lane = 1; lane < LANE_COUNT; lane++) {
+                    TcpIpConnection laneConnection = lanes.get(lane);
+                    assertNotNull(laneConnection);
+                    assertTrue(laneConnection.isAlive());
+                    assertEquals(lane, laneConnection.getLane());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.hazelcast.nio.tcp.nonblocking;
+
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.tcp.TcpIpConnection;
+import com.hazelcast.nio.tcp.TcpIpConnection_BaseTest;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class GatheringWrite_TcpIpConnection_BasicTest extends TcpIpConnection_BaseTest {
+
+    @Before
+    public void setup() throws Exception {
+        threadingModelFactory = new Select_NonBlockingIOThreadingModelFactory();
+        super.setup();
+        ioServiceA.socketGatheringWrite = true;
+        ioServiceA.socketGatheringWriteThreshold = 1024;
+    }
+
+    @Test
+    public void write_whenMixedPacketSizes() {
+        final List<Packet> received = Collections.synchronizedList(new ArrayList<Packet>());
+        ioServiceB.packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                received.add(packet);
+            }
+        };
+        TcpIpConnection c = connect(connManagerA, addressB);
+
+        Random random = new Random();
+        final List<byte[]> sent = new ArrayList<byte[]>();
+        for (int k = 0; k < 2000; k++) {
+            // mostly small packets, with now and then one that is written without copying, sometimes larger than the buffer
+            int size = random.nextInt(10) == 0 ? 1024 + random.nextInt(100000) : 8 + random.nextInt(200);
+            byte[] payload = new byte[size];
+            random.nextBytes(payload);
+            sent.add(payload);
+            c.write(new Packet(payload, k));
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(sent.size(), received.size());
+            }
+        });
+
+        for (int k = 0; k < sent.size(); k++) {
+            Packet packet = received.get(k);
+            assertEquals(k, packet.getPartitionId());
+            assertArrayEquals(sent.get(k), packet.toByteArray());
+        }
+    }
+}
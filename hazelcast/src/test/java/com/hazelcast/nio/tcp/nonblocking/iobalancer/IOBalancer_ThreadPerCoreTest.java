@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp.nonblocking.iobalancer;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.HazelcastInstanceManager;
+import com.hazelcast.nio.tcp.TcpIpConnection;
+import com.hazelcast.nio.tcp.TcpIpConnectionManager;
+import com.hazelcast.nio.tcp.nonblocking.NonBlockingIOThread;
+import com.hazelcast.nio.tcp.nonblocking.NonBlockingIOThreadingModel;
+import com.hazelcast.nio.tcp.nonblocking.NonBlockingSocketReader;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.spi.properties.GroupProperty.IO_BALANCER_INTERVAL_SECONDS;
+import static com.hazelcast.spi.properties.GroupProperty.OPERATION_THREAD_PER_CORE;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class IOBalancer_ThreadPerCoreTest extends HazelcastTestSupport {
+
+    private static final String PROP_MONKEY_BALANCER = "hazelcast.io.balancer.monkey";
+
+    private HazelcastInstance hz1;
+    private HazelcastInstance hz2;
+
+    @Before
+    public void setUp() {
+        HazelcastInstanceManager.terminateAll();
+        // the monkey strategy always finds a handler to migrate
+        System.setProperty(PROP_MONKEY_BALANCER, "true");
+
+        Config config = new Config();
+        config.getGroupConfig().setName(randomName());
+        config.setProperty(OPERATION_THREAD_PER_CORE.getName(), "true");
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "2");
+        // the balancer is triggered by the tests
+        config.setProperty(IO_BALANCER_INTERVAL_SECONDS.getName(), "3600");
+
+        hz1 = Hazelcast.newHazelcastInstance(config);
+        hz2 = Hazelcast.newHazelcastInstance(config);
+        assertClusterSizeEventually(2, hz1);
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(PROP_MONKEY_BALANCER);
+        HazelcastInstanceManager.terminateAll();
+    }
+
+    @Test
+    public void whenReadHandlerMigrationRequested_thenHandlerIsNotMigrated() {
+        NonBlockingIOThread[] inputThreads = getThreadingModel(hz1).getInputThreads();
+        Map<NonBlockingSocketReader, NonBlockingIOThread> owners = getReaderOwners(hz1);
+
+        for (NonBlockingSocketReader reader : owners.keySet()) {
+            NonBlockingIOThread owner = reader.getOwner();
+            reader.requestMigration(owner == inputThreads[0] ? inputThreads[1] : inputThreads[0]);
+        }
+        assertMapOperations();
+
+        assertOwnersUnchanged(owners);
+    }
+
+    @Test
+    public void whenReadHandlersChecked_thenHandlersAreNotMigrated() {
+        IOBalancer ioBalancer = getThreadingModel(hz1).getIOBalancer();
+        Map<NonBlockingSocketReader, NonBlockingIOThread> owners = getReaderOwners(hz1);
+
+        for (int k = 0; k < 10; k++) {
+            ioBalancer.checkReadHandlers();
+            assertMapOperations();
+        }
+
+        assertOwnersUnchanged(owners);
+    }
+
+    private void assertMapOperations() {
+        IMap<Integer, Integer> map1 = hz1.getMap("map");
+        IMap<Integer, Integer> map2 = hz2.getMap("map");
+        for (int k = 0; k < 100; k++) {
+            map2.put(k, k);
+        }
+        for (int k = 0; k < 100; k++) {
+            assertEquals(Integer.valueOf(k), map1.get(k));
+        }
+    }
+
+    private static void assertOwnersUnchanged(Map<NonBlockingSocketReader, NonBlockingIOThread> owners) {
+        for (Map.Entry<NonBlockingSocketReader, NonBlockingIOThread> entry : owners.entrySet()) {
+            assertSame(entry.getValue(), entry.getKey().getOwner());
+        }
+    }
+
+    private static NonBlockingIOThreadingModel getThreadingModel(HazelcastInstance hz) {
+        TcpIpConnectionManager connectionManager = (TcpIpConnectionManager) getConnectionManager(hz);
+        NonBlockingIOThreadingModel threadingModel = (NonBlockingIOThreadingModel) connectionManager.getIoThreadingModel();
+        for (NonBlockingIOThread inputThread : threadingModel.getInputThreads()) {
+            assertTrue(inputThread.isHosted());
+        }
+        return threadingModel;
+    }
+
+    private static Map<NonBlockingSocketReader, NonBlockingIOThread> getReaderOwners(HazelcastInstance hz) {
+        TcpIpConnectionManager connectionManager = (TcpIpConnectionManager) getConnectionManager(hz);
+        Map<NonBlockingSocketReader, NonBlockingIOThread> owners = new HashMap<NonBlockingSocketReader, NonBlockingIOThread>();
+        for (TcpIpConnection connection : connectionManager.getActiveConnections()) {
+            NonBlockingSocketReader reader = (NonBlockingSocketReader) connection.getSocketReader();
+            owners.put(reader, reader.getOwner());
+        }
+        assertFalse("no connections", owners.isEmpty());
+        return owners;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.getters.MultiResult;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.ComparisonType.GREATER;
+import static com.hazelcast.query.impl.ComparisonType.GREATER_EQUAL;
+import static com.hazelcast.query.impl.ComparisonType.LESSER;
+import static com.hazelcast.query.impl.ComparisonType.LESSER_EQUAL;
+import static com.hazelcast.query.impl.ComparisonType.NOT_EQUAL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class BPlusTreeIndexStoreTest {
+
+    private static final int SMALL_ORDER = 4;
+    private static final int VALUE_RANGE = 50;
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    private final Map<Integer, QueryableEntry> entries = new HashMap<Integer, QueryableEntry>();
+
+    @Test
+    public void testSubRecords() {
+        BPlusTreeIndexStore store = new BPlusTreeIndexStore();
+        for (int i = 0; i < 10; i++) {
+            store.newIndex(i, entry(i));
+        }
+
+        assertKeys(store.getSubRecords(LESSER, 3), 0, 1, 2);
+        assertKeys(store.getSubRecords(LESSER_EQUAL, 3), 0, 1, 2, 3);
+        assertKeys(store.getSubRecords(GREATER, 7), 8, 9);
+        assertKeys(store.getSubRecords(GREATER_EQUAL, 7), 7, 8, 9);
+        assertKeys(store.getSubRecords(NOT_EQUAL, 5), 0, 1, 2, 3, 4, 6, 7, 8, 9);
+        assertKeys(store.getSubRecordsBetween(2, 4), 2, 3, 4);
+        assertKeys(store.getSubRecordsBetween(20, 30));
+    }
+
+    @Test
+    public void testEqualValues() {
+        BPlusTreeIndexStore store = new BPlusTreeIndexStore(SMALL_ORDER);
+        for (int i = 0; i < 20; i++) {
+            store.newIndex(i % 2, entry(i));
+        }
+
+        assertKeys(store.getRecords(1), 1, 3, 5, 7, 9, 11, 13, 15, 17, 19);
+        assertEquals(10, store.getRecordMap(0).size());
+        assertNull(store.getRecordMap(2));
+        assertKeys(store.getRecords(new HashSet<Comparable>(Arrays.<Comparable>asList(0, 1))),
+                0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19);
+    }
+
+    @Test
+    public void testNullValues() {
+        BPlusTreeIndexStore store = new BPlusTreeIndexStore();
+        store.newIndex(null, entry(1));
+        store.newIndex(5, entry(2));
+
+        assertKeys(store.getRecords(IndexImpl.NULL), 1);
+        assertKeys(store.getSubRecords(GREATER_EQUAL, 0), 2);
+
+        store.removeIndex(null, entry(1).getKeyData());
+        assertKeys(store.getRecords(IndexImpl.NULL));
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        BPlusTreeIndexStore store = new BPlusTreeIndexStore(SMALL_ORDER);
+        for (int i = 0; i < 10; i++) {
+            store.newIndex(i, entry(i));
+        }
+        store.updateIndex(3, 30, entry(3));
+        store.removeIndex(4, entry(4).getKeyData());
+
+        assertKeys(store.getSubRecordsBetween(2, 5), 2, 5);
+        assertKeys(store.getSubRecords(GREATER, 9), 3);
+    }
+
+    @Test
+    public void testMultiResultDuplicatesAreDetected() {
+        BPlusTreeIndexStore store = new BPlusTreeIndexStore();
+        MultiResult<Integer> values = new MultiResult<Integer>();
+        values.add(1);
+        values.add(2);
+        values.add(3);
+        store.newIndex(values, entry(1));
+
+        assertKeys(store.getSubRecordsBetween(0, 10), 1);
+    }
+
+    @Test
+    public void testContains() {
+        BPlusTreeIndexStore store = new BPlusTreeIndexStore();
+        for (int i = 0; i < 10; i++) {
+            store.newIndex(i, entry(i));
+        }
+        Set<QueryableEntry> result = store.getSubRecords(GREATER, 4);
+
+        assertTrue(result.contains(entry(5)));
+        assertFalse(result.contains(entry(4)));
+    }
+
+    @Test
+    public void testClear() {
+        BPlusTreeIndexStore store = new BPlusTreeIndexStore(SMALL_ORDER);
+        for (int i = 0; i < 100; i++) {
+            store.newIndex(i, entry(i));
+        }
+        store.newIndex(null, entry(100));
+        store.clear();
+
+        assertKeys(store.getSubRecords(GREATER_EQUAL, 0));
+        assertKeys(store.getRecords(IndexImpl.NULL));
+    }
+
+    @Test
+    public void testRandomOperations_matchSortedIndexStore() {
+        Random random = new Random(42);
+        BPlusTreeIndexStore store = new BPlusTreeIndexStore(SMALL_ORDER);
+        SortedIndexStore expected = new SortedIndexStore();
+        Map<Integer, Integer> values = new HashMap<Integer, Integer>();
+
+        for (int round = 0; round < 5000; round++) {
+            int key = random.nextInt(500);
+            Integer oldValue = values.get(key);
+            if (oldValue != null && random.nextInt(3) == 0) {
+                store.removeIndex(oldValue, entry(key).getKeyData());
+                expected.removeIndex(oldValue, entry(key).getKeyData());
+                values.remove(key);
+            } else {
+                int newValue = random.nextInt(VALUE_RANGE);
+                if (oldValue == null) {
+                    store.newIndex(newValue, entry(key));
+                    expected.newIndex(newValue, entry(key));
+                } else {
+                    store.updateIndex(oldValue, newValue, entry(key));
+                    expected.updateIndex(oldValue, newValue, entry(key));
+                }
+                values.put(key, newValue);
+            }
+
+            if (round % 100 == 0) {
+                assertSameResults(expected, store, random.nextInt(VALUE_RANGE), random.nextInt(VALUE_RANGE));
+            }
+        }
+        for (Map.Entry<Integer, Integer> entry : values.entrySet()) {
+            store.removeIndex(entry.getValue(), entry(entry.getKey()).getKeyData());
+        }
+        assertKeys(store.getSubRecords(NOT_EQUAL, -1));
+    }
+
+    private void assertSameResults(SortedIndexStore expected, BPlusTreeIndexStore actual, int value, int other) {
+        for (ComparisonType type : new ComparisonType[]{LESSER, LESSER_EQUAL, GREATER, GREATER_EQUAL, NOT_EQUAL}) {
+            assertEquals(type.toString(), keys(expected.getSubRecords(type, value)), keys(actual.getSubRecords(type, value)));
+        }
+        int from = Math.min(value, other);
+        int to = Math.max(value, other);
+        assertEquals(keys(expected.getSubRecordsBetween(from, to)), keys(actual.getSubRecordsBetween(from, to)));
+        assertEquals(keys(expected.getRecords(value)), keys(actual.getRecords(value)));
+    }
+
+    private QueryableEntry entry(int key) {
+        QueryableEntry entry = entries.get(key);
+        if (entry == null) {
+            Data keyData = ss.toData(key);
+            entry = mock(QueryableEntry.class);
+            when(entry.getKeyData()).thenReturn(keyData);
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    private Set<Integer> keys(Set<QueryableEntry> result) {
+        Set<Integer> keys = new HashSet<Integer>();
+        for (QueryableEntry entry : result) {
+            assertTrue("duplicate entry " + entry, keys.add((Integer) ss.toObject(entry.getKeyData())));
+        }
+        return keys;
+    }
+
+    private void assertKeys(Set<QueryableEntry> result, Integer... expected) {
+        assertEquals(new HashSet<Integer>(Arrays.asList(expected)), keys(result));
+        assertEquals(expected.length, result.size());
+    }
+}
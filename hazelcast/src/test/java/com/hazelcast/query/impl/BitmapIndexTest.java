@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapAttributeConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.Node;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.BitmapIndexPredicate;
+import com.hazelcast.query.impl.predicates.RuleBasedQueryOptimizer;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.not;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.Predicates.or;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class BitmapIndexTest extends HazelcastTestSupport {
+
+    private static final int ENTRIES = 2000;
+    private static final String[] REGIONS = {"EU", "US", "APAC"};
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = new Extractors(Collections.<MapAttributeConfig>emptyList());
+
+    @Test
+    public void testQueries() {
+        HazelcastInstance instance = createInstance();
+        IMap<Integer, Order> map = instance.getMap(randomMapName());
+        map.addIndex("region", false);
+        map.addIndex("status", false);
+        map.addIndex("paid", false);
+        for (int i = 0; i < ENTRIES; i++) {
+            map.put(i, newOrder(i));
+        }
+        for (int i = 0; i < ENTRIES; i += 7) {
+            map.remove(i);
+        }
+        for (int i = 1; i < ENTRIES; i += 5) {
+            map.put(i, new Order("EU", null, true, i));
+        }
+
+        assertQuery(map, equal("region", "EU"));
+        assertQuery(map, and(equal("region", "EU"), equal("paid", true)));
+        assertQuery(map, and(equal("region", "US"), not(equal("status", Status.CLOSED))));
+        assertQuery(map, or(equal("region", "APAC"), equal("status", Status.OPEN)));
+        assertQuery(map, and(in("region", "EU", "US"), notEqual("status", Status.OPEN), equal("paid", false)));
+        assertQuery(map, and(equal("region", "EU"), equal("status", null)));
+        assertQuery(map, new SqlPredicate("region = 'EU' and paid = true and amount > 1000"));
+        assertQuery(map, new SqlPredicate("not (region = 'EU' or status = 'OPEN')"));
+        assertQuery(map, new SqlPredicate("region != 'EU'"));
+
+        map.clear();
+        assertQuery(map, equal("region", "EU"));
+    }
+
+    @Test
+    public void testOptimizer_wrapsBitmapPredicates() {
+        HazelcastInstance instance = createInstance();
+        IMap<Integer, Order> map = instance.getMap(randomMapName());
+        map.addIndex("region", false);
+        map.addIndex("paid", false);
+        Indexes indexes = getIndexes(instance, map.getName());
+
+        Predicate optimized = new RuleBasedQueryOptimizer().optimize(
+                and(equal("region", "EU"), equal("paid", true)), indexes);
+
+        assertThat(optimized, instanceOf(BitmapIndexPredicate.class));
+    }
+
+    private HazelcastInstance createInstance() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.QUERY_UNSORTED_INDEX_STORE_TYPE.getName(), UnsortedIndexStoreType.BITMAP.toString());
+        return createHazelcastInstance(config);
+    }
+
+    private static Indexes getIndexes(HazelcastInstance instance, String mapName) {
+        Node node = getNode(instance);
+        MapService service = node.nodeEngine.getService(MapService.SERVICE_NAME);
+        return service.getMapServiceContext().getMapContainer(mapName).getIndexes();
+    }
+
+    private static Order newOrder(int i) {
+        return new Order(REGIONS[i % REGIONS.length], Status.values()[i % Status.values().length], i % 2 == 0, i);
+    }
+
+    /**
+     * Compares the indexed result with a full scan evaluating the predicate on every entry.
+     */
+    @SuppressWarnings("unchecked")
+    private void assertQuery(IMap<Integer, Order> map, Predicate predicate) {
+        Set<Integer> expected = new HashSet<Integer>();
+        for (Map.Entry<Integer, Order> entry : map.entrySet()) {
+            QueryEntry queryEntry = new QueryEntry(serializationService, serializationService.toData(entry.getKey()),
+                    entry.getValue(), extractors);
+            if (predicate.apply(queryEntry)) {
+                expected.add(entry.getKey());
+            }
+        }
+        Collection<Integer> actual = map.keySet(predicate);
+        assertEquals(predicate.toString(), expected, new HashSet<Integer>(actual));
+        assertEquals(predicate.toString(), expected.size(), actual.size());
+    }
+
+    public enum Status {
+        OPEN,
+        SHIPPED,
+        CLOSED
+    }
+
+    public static class Order implements Serializable {
+
+        private String region;
+        private Status status;
+        private Boolean paid;
+        private Integer amount;
+
+        public Order(String region, Status status, Boolean paid, Integer amount) {
+            this.region = region;
+            this.status = status;
+            this.paid = paid;
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapAttributeConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.lessThan;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompositeIndexTest extends HazelcastTestSupport {
+
+    private static final int TENANTS = 10;
+    private static final int ENTRIES = 1000;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = new Extractors(Collections.<MapAttributeConfig>emptyList());
+
+    @Test
+    public void testUnorderedIndex() {
+        IMap<Integer, Ticket> map = createMap("tenantId, status", false, SortedIndexStoreType.SKIP_LIST);
+
+        assertQuery(map, and(equal("tenantId", 3), equal("status", "OPEN")));
+        assertQuery(map, new SqlPredicate("tenantId = 3 and status = 'CLOSED' and priority > 2"));
+        assertQuery(map, and(equal("status", "OPEN"), equal("tenantId", 30)));
+    }
+
+    @Test
+    public void testOrderedIndex() {
+        testOrderedIndex(SortedIndexStoreType.SKIP_LIST);
+    }
+
+    @Test
+    public void testOrderedIndex_withBPlusTreeStore() {
+        testOrderedIndex(SortedIndexStoreType.BPLUS_TREE);
+    }
+
+    private void testOrderedIndex(SortedIndexStoreType storeType) {
+        IMap<Integer, Ticket> map = createMap("tenantId,status,priority", true, storeType);
+
+        assertQuery(map, and(equal("tenantId", 3), equal("status", "OPEN"), equal("priority", 2)));
+        assertQuery(map, and(equal("tenantId", 3), equal("status", "OPEN")));
+        assertQuery(map, and(equal("tenantId", 3), equal("status", "OPEN"), greaterEqual("priority", 2)));
+        assertQuery(map, and(equal("tenantId", 3), equal("status", "OPEN"), lessThan("priority", 2)));
+        assertQuery(map, and(equal("tenantId", 3), equal("status", "OPEN"), between("priority", 1, 3)));
+        assertQuery(map, and(equal("tenantId", 3), lessThan("status", "OPEN")));
+        assertQuery(map, new SqlPredicate("tenantId = 4 and status = 'CLOSED' and priority > 1 and priority < 4"));
+    }
+
+    @Test
+    public void testUpdatesAndNullValues() {
+        IMap<Integer, Ticket> map = createMap("tenantId,status", true, SortedIndexStoreType.BPLUS_TREE);
+        for (int i = 0; i < ENTRIES; i += 7) {
+            map.put(i, new Ticket(i % TENANTS, null, i % 5));
+        }
+        for (int i = 0; i < ENTRIES; i += 11) {
+            map.remove(i);
+        }
+
+        assertQuery(map, and(equal("tenantId", 3), equal("status", null)));
+        assertQuery(map, and(equal("tenantId", 3), equal("status", "OPEN")));
+        assertQuery(map, and(equal("tenantId", 3), greaterEqual("status", "A")));
+    }
+
+    @Test
+    public void testOpenBelowRange_withNullRangeValues() {
+        testOpenBelowRange_withNullRangeValues(SortedIndexStoreType.SKIP_LIST);
+    }
+
+    @Test
+    public void testOpenBelowRange_withNullRangeValues_withBPlusTreeStore() {
+        testOpenBelowRange_withNullRangeValues(SortedIndexStoreType.BPLUS_TREE);
+    }
+
+    private void testOpenBelowRange_withNullRangeValues(SortedIndexStoreType storeType) {
+        IMap<Integer, Ticket> map = createMap("tenantId,status,priority", true, storeType);
+        for (int i = 0; i < ENTRIES; i += 3) {
+            map.put(i, new Ticket(i % TENANTS, i % 2 == 0 ? null : "OPEN", null));
+        }
+
+        assertQuery(map, and(equal("tenantId", 3), equal("status", "OPEN"), lessThan("priority", 2)));
+        assertQuery(map, new SqlPredicate("tenantId = 3 and status = 'OPEN' and priority <= 2"));
+        assertQuery(map, and(equal("tenantId", 4), lessThan("status", "OPEN")));
+        assertQuery(map, new SqlPredicate("tenantId = 4 and status <= 'OPEN'"));
+    }
+
+    private IMap<Integer, Ticket> createMap(String index, boolean ordered, SortedIndexStoreType storeType) {
+        Config config = new Config();
+        config.setProperty(GroupProperty.QUERY_SORTED_INDEX_STORE_TYPE.getName(), storeType.toString());
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Ticket> map = instance.getMap(randomMapName());
+        map.addIndex(index, ordered);
+        for (int i = 0; i < ENTRIES; i++) {
+            map.put(i, new Ticket(i % TENANTS, i % 3 == 0 ? "CLOSED" : "OPEN", i % 5));
+        }
+        return map;
+    }
+
+    /**
+     * Compares the indexed result with a full scan evaluating the predicate on every entry.
+     */
+    @SuppressWarnings("unchecked")
+    private void assertQuery(IMap<Integer, Ticket> map, Predicate predicate) {
+        Set<Integer> expected = new HashSet<Integer>();
+        for (Map.Entry<Integer, Ticket> entry : map.entrySet()) {
+            QueryEntry queryEntry = new QueryEntry(serializationService, serializationService.toData(entry.getKey()),
+                    entry.getValue(), extractors);
+            if (predicate.apply(queryEntry)) {
+                expected.add(entry.getKey());
+            }
+        }
+        Collection<Integer> actual = map.keySet(predicate);
+        assertEquals(predicate.toString(), expected, new HashSet<Integer>(actual));
+        assertEquals(predicate.toString(), expected.size(), actual.size());
+    }
+
+    public static class Ticket implements Serializable {
+
+        private Integer tenantId;
+        private String status;
+        private Integer priority;
+
+        public Ticket(Integer tenantId, String status, Integer priority) {
+            this.tenantId = tenantId;
+            this.status = status;
+            this.priority = priority;
+        }
+    }
+}
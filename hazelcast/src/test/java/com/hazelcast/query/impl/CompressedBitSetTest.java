@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompressedBitSetTest {
+
+    private static final int RANGE = 1 << 18;
+
+    @Test
+    public void testAddRemoveContains() {
+        CompressedBitSet set = new CompressedBitSet();
+
+        assertTrue(set.add(5));
+        assertFalse(set.add(5));
+        assertTrue(set.add(70000));
+        assertTrue(set.contains(5));
+        assertTrue(set.contains(70000));
+        assertFalse(set.contains(6));
+        assertEquals(2, set.cardinality());
+
+        assertTrue(set.remove(5));
+        assertFalse(set.remove(5));
+        assertTrue(set.remove(70000));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testNextSetBit() {
+        CompressedBitSet set = new CompressedBitSet();
+        set.add(3);
+        set.add(65535);
+        set.add(200000);
+
+        assertEquals(3, set.nextSetBit(0));
+        assertEquals(65535, set.nextSetBit(4));
+        assertEquals(200000, set.nextSetBit(65536));
+        assertEquals(-1, set.nextSetBit(200001));
+    }
+
+    @Test
+    public void testDenseChunk_convertsBackAndForth() {
+        CompressedBitSet set = new CompressedBitSet();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 10000; i++) {
+            set.add(i * 3);
+            expected.set(i * 3);
+        }
+        assertSame(expected, set);
+
+        for (int i = 0; i < 10000; i += 2) {
+            set.remove(i * 3);
+            expected.clear(i * 3);
+        }
+        assertSame(expected, set);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            // mix sparse and dense chunks
+            int size1 = random.nextBoolean() ? 100 : 50000;
+            int size2 = random.nextBoolean() ? 100 : 50000;
+            BitSet expected1 = new BitSet();
+            BitSet expected2 = new BitSet();
+            CompressedBitSet set1 = randomSet(random, size1, expected1);
+            CompressedBitSet set2 = randomSet(random, size2, expected2);
+
+            BitSet and = (BitSet) expected1.clone();
+            and.and(expected2);
+            BitSet or = (BitSet) expected1.clone();
+            or.or(expected2);
+            BitSet andNot = (BitSet) expected1.clone();
+            andNot.andNot(expected2);
+
+            assertSame(and, set1.and(set2));
+            assertSame(or, set1.or(set2));
+            assertSame(andNot, set1.andNot(set2));
+            assertSame(expected1, set1.copy());
+            // operands are left untouched
+            assertSame(expected1, set1);
+            assertSame(expected2, set2);
+        }
+    }
+
+    private static CompressedBitSet randomSet(Random random, int size, BitSet expected) {
+        CompressedBitSet set = new CompressedBitSet();
+        for (int i = 0; i < size; i++) {
+            int value = random.nextInt(RANGE);
+            assertEquals(!expected.get(value), set.add(value));
+            expected.set(value);
+        }
+        return set;
+    }
+
+    private static void assertSame(BitSet expected, CompressedBitSet actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        int value = actual.nextSetBit(0);
+        for (int i = expected.nextSetBit(0); i >= 0; i = expected.nextSetBit(i + 1)) {
+            assertEquals(i, value);
+            assertTrue(actual.contains(i));
+            value = actual.nextSetBit(value + 1);
+        }
+        assertEquals(-1, value);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapAttributeConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.QueryException;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CoveringIndexTest extends HazelcastTestSupport {
+
+    private static final int ENTRIES = 1000;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = new Extractors(Collections.<MapAttributeConfig>emptyList());
+
+    @Test
+    public void testCoveredAttribute_isExtractedOnce() {
+        QueryableEntry entry = mock(QueryableEntry.class);
+        when(entry.getAttributeValue("age")).thenReturn(5);
+        when(entry.getAttributeValue("name")).thenReturn("x");
+
+        CoveringQueryEntry coveringEntry = new CoveringQueryEntry(entry, new String[]{"age"});
+        assertEquals(5, coveringEntry.getAttributeValue("age"));
+        assertEquals(5, coveringEntry.getAttributeValue("age"));
+        assertEquals("x", coveringEntry.getAttributeValue("name"));
+
+        verify(entry, times(1)).getAttributeValue("age");
+        verify(entry, times(1)).getAttributeValue("name");
+        assertTrue(coveringEntry.isCovered("age"));
+        assertFalse(coveringEntry.isCovered("name"));
+    }
+
+    @Test
+    public void testFailedExtraction_isLeftToEntry() {
+        QueryableEntry entry = mock(QueryableEntry.class);
+        when(entry.getAttributeValue("age")).thenThrow(new QueryException());
+
+        CoveringQueryEntry coveringEntry = new CoveringQueryEntry(entry, new String[]{"age"});
+
+        assertFalse(coveringEntry.isCovered("age"));
+    }
+
+    @Test
+    public void testIndexes_storeCoveringEntries() {
+        Indexes indexes = new Indexes(serializationService, extractors);
+        indexes.addOrGetIndex("age", false);
+        indexes.addOrGetIndex("name, age", true);
+        indexes.saveEntryIndex(new QueryEntry(serializationService, serializationService.toData(1),
+                new Person(3, "a"), extractors), null);
+
+        Set<QueryableEntry> result = indexes.query(equal("age", 3));
+        CoveringQueryEntry entry = (CoveringQueryEntry) result.iterator().next();
+        assertTrue(entry.isCovered("age"));
+        assertTrue(entry.isCovered("name"));
+    }
+
+    @Test
+    public void testQueries_withObjectFormat() {
+        testQueries(InMemoryFormat.OBJECT);
+    }
+
+    @Test
+    public void testQueries_withBinaryFormat() {
+        testQueries(InMemoryFormat.BINARY);
+    }
+
+    private void testQueries(InMemoryFormat inMemoryFormat) {
+        Config config = new Config();
+        config.getMapConfig("default").setInMemoryFormat(inMemoryFormat);
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Person> map = instance.getMap(randomMapName());
+        map.addIndex("age", true);
+        for (int i = 0; i < ENTRIES; i++) {
+            map.put(i, new Person(i % 50, "name" + i % 7));
+        }
+        // added after the entries, then the updated entries are indexed with both attributes covered
+        map.addIndex("name", false);
+        for (int i = 0; i < ENTRIES; i += 3) {
+            map.put(i, new Person(i % 40, "name" + i % 5));
+        }
+
+        assertQueries(map, greaterThan("age", 30));
+        assertQueries(map, and(equal("name", "name3"), greaterThan("age", 10)));
+        assertQueries(map, new SqlPredicate("name = 'name1' or age = 7"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertQueries(IMap<Integer, Person> map, Predicate predicate) {
+        Set<Integer> expectedKeys = new HashSet<Integer>();
+        List<Integer> expectedAges = new ArrayList<Integer>();
+        for (Map.Entry<Integer, Person> entry : map.entrySet()) {
+            QueryEntry queryEntry = new QueryEntry(serializationService, serializationService.toData(entry.getKey()),
+                    entry.getValue(), extractors);
+            if (predicate.apply(queryEntry)) {
+                expectedKeys.add(entry.getKey());
+                expectedAges.add(entry.getValue().age);
+            }
+        }
+
+        Collection<Integer> keys = map.keySet(predicate);
+        assertEquals(predicate.toString(), expectedKeys, new HashSet<Integer>(keys));
+        assertEquals(predicate.toString(), expectedKeys.size(), keys.size());
+
+        long count = map.aggregate(Aggregators.<Map.Entry<Integer, Person>>count(), predicate);
+        assertEquals(predicate.toString(), expectedKeys.size(), count);
+
+        Collection<Integer> projected = map.project(
+                Projections.<Map.Entry<Integer, Person>, Integer>singleAttribute("age"), predicate);
+        List<Integer> ages = new ArrayList<Integer>(projected);
+        Collections.sort(ages);
+        Collections.sort(expectedAges);
+        assertEquals(predicate.toString(), expectedAges, ages);
+    }
+
+    public static class Person implements Serializable {
+
+        private int age;
+        private String name;
+
+        public Person(int age, String name) {
+            this.age = age;
+            this.name = name;
+        }
+    }
+}
@@ -182,6 +182,34 @@ public class IndexIntegrationTest extends HazelcastTestSupport {
         assertThat(result, hasSize(1));
     }
 
+    @Test
+    public void rangeQuery_withBPlusTreeIndexStore() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.QUERY_SORTED_INDEX_STORE_TYPE.getName(),
+                SortedIndexStoreType.BPLUS_TREE.toString());
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Trade> map = instance.getMap(randomName());
+        map.addIndex("amount", true);
+        for (int i = 0; i < 1000; i++) {
+            Trade trade = new Trade();
+            trade.setCurrency(i % 2 == 0 ? "dollar" : "euro");
+            trade.setAmount((long) i);
+            map.put(i, trade);
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            map.remove(i);
+        }
+
+        Collection<Trade> between = map.values(Predicates.between("amount", 100L, 199L));
+        Collection<Trade> greater = map.values(Predicates.and(Predicates.greaterThan("amount", 900L),
+                Predicates.equal("currency", "dollar")));
+
+        assertThat(between, hasSize(67));
+        assertThat(greater, hasSize(33));
+        Index index = getIndexOfAttributeForMap(instance, map.getName(), "amount");
+        assertThat(index.getSubRecords(ComparisonType.LESSER, 10L), hasSize(6));
+    }
+
     private static Index getIndexOfAttributeForMap(HazelcastInstance instance, String mapName, String attribute) {
         Node node = getNode(instance);
         MapService service = node.nodeEngine.getService(MapService.SERVICE_NAME);
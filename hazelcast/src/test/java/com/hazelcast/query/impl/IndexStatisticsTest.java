@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.query.impl.IndexStatistics.UNKNOWN;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class IndexStatisticsTest {
+
+    private static final double DELTA = 0.1;
+
+    private final IndexStatistics statistics = new IndexStatistics();
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, statistics.getEntryCount());
+        assertEquals(UNKNOWN, statistics.estimateEqual(1), 0);
+        assertEquals(-1, statistics.estimateDistinctValues());
+    }
+
+    @Test
+    public void testUniformValues() {
+        for (int i = 0; i < 10000; i++) {
+            statistics.onInsert(i);
+        }
+
+        assertEquals(10000, statistics.getEntryCount());
+        assertEquals(0.1, statistics.estimateRange(0, true, 1000, false), DELTA);
+        assertEquals(0.5, statistics.estimateRange(5000, true, null, false), DELTA);
+        assertEquals(0, statistics.estimateRange(20000, true, null, false), 0);
+        assertEquals(0, statistics.estimateEqual(5), 1.0 / IndexStatistics.SAMPLE_SIZE);
+    }
+
+    @Test
+    public void testLowCardinalityValues() {
+        for (int i = 0; i < 10000; i++) {
+            statistics.onInsert(i % 4 == 0 ? null : Kind.values()[i % 2]);
+        }
+
+        assertEquals(0.25, statistics.estimateEqual(IndexImpl.NULL), DELTA);
+        assertEquals(0.5, statistics.estimateEqual(Kind.B.name()), DELTA);
+        assertEquals(0.25, statistics.estimateEqual(Kind.A.name()), DELTA);
+        assertEquals(3, statistics.estimateDistinctValues());
+    }
+
+    @Test
+    public void testIncomparableValues() {
+        statistics.onInsert(1);
+        statistics.onInsert("a");
+
+        assertEquals(UNKNOWN, statistics.estimateRange(null, false, 1, true), 0);
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        statistics.onInsert(1);
+        statistics.onInsert(2);
+        statistics.onUpdate(3);
+        statistics.onRemove();
+        assertEquals(1, statistics.getEntryCount());
+
+        statistics.clear();
+        statistics.onRemove();
+        assertEquals(0, statistics.getEntryCount());
+        assertEquals(UNKNOWN, statistics.estimateEqual(1), 0);
+    }
+
+    private enum Kind {
+        A, B
+    }
+}
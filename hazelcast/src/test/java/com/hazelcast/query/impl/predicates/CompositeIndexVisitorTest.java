@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.config.MapAttributeConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.notEqual;
+import static org.hamcrest.Matchers.hasItemInArray;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompositeIndexVisitorTest {
+
+    private CompositeIndexVisitor visitor;
+    private Indexes indexes;
+
+    @Before
+    public void setUp() {
+        visitor = new CompositeIndexVisitor();
+        indexes = new Indexes(mock(InternalSerializationService.class),
+                new Extractors(Collections.<MapAttributeConfig>emptyList()));
+    }
+
+    @Test
+    public void whenAllAttributesMatchedByEquality_thenRewrite() {
+        indexes.addOrGetIndex("a, b", false);
+        Predicate other = notEqual("c", 1);
+        AndPredicate and = (AndPredicate) and(equal("b", 2), other, equal("a", 1));
+
+        AndPredicate result = (AndPredicate) visitor.visit(and, indexes);
+
+        assertEquals(2, result.predicates.length);
+        assertThat(result.predicates, hasItemInArray(other));
+        assertEquals("(a=1 AND b=2) USING a,b", findComposite(result.predicates).toString());
+    }
+
+    @Test
+    public void whenOnlyCompositePredicatesRemain_thenReturnCompositePredicate() {
+        indexes.addOrGetIndex("a,b", false);
+        AndPredicate and = (AndPredicate) and(equal("a", 1), equal("b", 2));
+
+        Predicate result = visitor.visit(and, indexes);
+
+        assertThat(result, instanceOf(CompositeIndexPredicate.class));
+    }
+
+    @Test
+    public void whenPrefixAndRangeMatchOrderedIndex_thenRewrite() {
+        indexes.addOrGetIndex("a,b,c", true);
+        AndPredicate and = (AndPredicate) and(equal("a", 1), greaterThan("b", 2));
+
+        Predicate result = visitor.visit(and, indexes);
+
+        assertThat(result, instanceOf(CompositeIndexPredicate.class));
+    }
+
+    @Test
+    public void whenPrefixMatchesUnorderedIndex_thenDoNotRewrite() {
+        indexes.addOrGetIndex("a,b,c", false);
+        AndPredicate and = (AndPredicate) and(equal("a", 1), equal("b", 2));
+
+        Predicate result = visitor.visit(and, indexes);
+
+        assertSame(and, result);
+    }
+
+    @Test
+    public void whenFirstAttributeNotMatched_thenDoNotRewrite() {
+        indexes.addOrGetIndex("a,b", true);
+        AndPredicate and = (AndPredicate) and(equal("b", 1), between("a", 1, 5));
+
+        Predicate result = visitor.visit(and, indexes);
+
+        assertSame(and, result);
+    }
+
+    @Test
+    public void whenSingleAttributeMatched_thenDoNotRewrite() {
+        indexes.addOrGetIndex("a,b", true);
+        AndPredicate and = (AndPredicate) and(equal("a", 1), equal("c", 2));
+
+        Predicate result = visitor.visit(and, indexes);
+
+        assertSame(and, result);
+    }
+
+    @Test
+    public void whenSeveralIndexesMatch_thenPreferTheOneCoveringMorePredicates() {
+        indexes.addOrGetIndex("a,b", true);
+        indexes.addOrGetIndex("a,b,c", false);
+        AndPredicate and = (AndPredicate) and(equal("a", 1), equal("b", 2), equal("c", 3));
+
+        Predicate result = visitor.visit(and, indexes);
+
+        assertThat(result, instanceOf(CompositeIndexPredicate.class));
+        assertEquals("(a=1 AND b=2 AND c=3) USING a,b,c", result.toString());
+    }
+
+    private static CompositeIndexPredicate findComposite(Predicate[] predicates) {
+        for (Predicate predicate : predicates) {
+            if (predicate instanceof CompositeIndexPredicate) {
+                return (CompositeIndexPredicate) predicate;
+            }
+        }
+        throw new AssertionError("No composite predicate found");
+    }
+}
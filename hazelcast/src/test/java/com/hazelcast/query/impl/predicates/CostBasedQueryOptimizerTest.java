@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapAttributeConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.query.Predicates.like;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CostBasedQueryOptimizerTest extends HazelcastTestSupport {
+
+    private static final int ENTRIES = 1000;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = new Extractors(Collections.<MapAttributeConfig>emptyList());
+
+    private CostBasedQueryOptimizer optimizer;
+    private Indexes indexes;
+
+    @Before
+    public void setUp() {
+        optimizer = new CostBasedQueryOptimizer();
+        indexes = new Indexes(serializationService, extractors);
+    }
+
+    @Test
+    public void whenNoIndex_thenFullScan() {
+        QueryPlan plan = optimizer.explain(equal("age", 5), indexes);
+
+        assertTrue(plan.isFullScan());
+        assertEquals(-1, plan.getEntryCount());
+        assertEquals("FULL SCAN [no index] FOR age=5", plan.toString());
+    }
+
+    @Test
+    public void whenConjunction_thenMostSelectiveIndexDrives() {
+        populate();
+        Predicate age = equal("age", 5);
+        Predicate kind = equal("kind", 1);
+
+        QueryPlan plan = optimizer.explain(and(kind, age), indexes);
+
+        assertFalse(plan.isFullScan());
+        assertEquals(age, plan.getDrivingPredicate());
+        AndPredicate optimized = (AndPredicate) plan.getPredicate();
+        assertThat(optimized.predicates[0], instanceOf(SkipIndexPredicate.class));
+        assertEquals(kind, ((SkipIndexPredicate) optimized.predicates[0]).getPredicate());
+        assertEquals(age, optimized.predicates[1]);
+        assertEquals(1, indexes.query(plan.getPredicate()).size());
+    }
+
+    @Test
+    public void whenIndexMatchesMostEntries_thenFullScan() {
+        populate();
+
+        QueryPlan plan = optimizer.explain(greaterThan("age", 100), indexes);
+
+        assertTrue(plan.isFullScan());
+        assertEquals(ENTRIES, plan.getEntryCount());
+        assertThat(plan.getPredicate(), instanceOf(SkipIndexPredicate.class));
+        assertNull(indexes.query(plan.getPredicate()));
+        assertTrue(plan.toString(), plan.toString().startsWith("FULL SCAN [estimated "));
+    }
+
+    @Test
+    public void whenIndexIsSelective_thenIndexScan() {
+        populate();
+        Predicate predicate = lessThan("age", 100);
+
+        QueryPlan plan = optimizer.explain(predicate, indexes);
+
+        assertFalse(plan.isFullScan());
+        assertEquals(predicate, plan.getPredicate());
+        assertTrue(plan.getEstimatedEntries() < ENTRIES / 2);
+        assertTrue(plan.toString(), plan.toString().startsWith("INDEX SCAN USING age<100 [estimated "));
+    }
+
+    @Test
+    public void whenNotIndexed_thenUnchanged() {
+        populate();
+        Predicate predicate = like("name", "a%");
+
+        QueryPlan plan = optimizer.explain(predicate, indexes);
+
+        assertTrue(plan.isFullScan());
+        assertEquals(predicate, plan.getPredicate());
+    }
+
+    @Test
+    public void testQueries() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.QUERY_OPTIMIZER_TYPE.getName(), QueryOptimizerFactory.Type.COST.toString());
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Person> map = instance.getMap(randomMapName());
+        map.addIndex("age", true);
+        map.addIndex("kind", false);
+        for (int i = 0; i < ENTRIES; i++) {
+            map.put(i, new Person(i, i % 2));
+        }
+
+        assertQuery(map, and(equal("kind", 1), lessThan("age", 10)));
+        assertQuery(map, greaterThan("age", 10));
+        assertQuery(map, new SqlPredicate("kind = 0 or age between 10 and 20"));
+        assertQuery(map, new SqlPredicate("kind = 0 and age > 990"));
+    }
+
+    private void populate() {
+        indexes.addOrGetIndex("age", true);
+        indexes.addOrGetIndex("kind", false);
+        for (int i = 0; i < ENTRIES; i++) {
+            indexes.saveEntryIndex(entry(i, new Person(i, i % 2)), null);
+        }
+    }
+
+    private QueryableEntry entry(int key, Person person) {
+        return new QueryEntry(serializationService, serializationService.toData(key), person, extractors);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertQuery(IMap<Integer, Person> map, Predicate predicate) {
+        Set<Integer> expected = new HashSet<Integer>();
+        for (Map.Entry<Integer, Person> entry : map.entrySet()) {
+            if (predicate.apply(entry(entry.getKey(), entry.getValue()))) {
+                expected.add(entry.getKey());
+            }
+        }
+        Collection<Integer> actual = map.keySet(predicate);
+        assertEquals(predicate.toString(), expected, new HashSet<Integer>(actual));
+    }
+
+    public static class Person implements Serializable {
+
+        private int age;
+        private int kind;
+
+        public Person(int age, int kind) {
+            this.age = age;
+            this.kind = kind;
+        }
+    }
+}
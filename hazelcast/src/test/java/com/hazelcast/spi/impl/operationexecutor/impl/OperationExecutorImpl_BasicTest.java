@@ -12,6 +12,8 @@ import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.spi.Operation.GENERIC_PARTITION_ID;
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.PARTITION_QUEUE_CAPACITY;
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.PARTITION_QUEUE_IDLE_STRATEGY;
 import static com.hazelcast.spi.properties.GroupProperty.GENERIC_OPERATION_THREAD_COUNT;
 import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
 import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_COUNT;
@@ -122,6 +124,29 @@ public class OperationExecutorImpl_BasicTest extends OperationExecutorImpl_Abstr
         awaitBarrier(barrier);
     }
 
+    @Test
+    public void test_runOnAllPartitionThreads_whenRingBufferQueue() throws Exception {
+        config.setProperty(PARTITION_QUEUE_CAPACITY.getName(), "16");
+        config.setProperty(PARTITION_QUEUE_IDLE_STRATEGY.getName(), "backoff");
+        initExecutor();
+
+        int threadCount = executor.getPartitionThreadCount();
+        final CyclicBarrier barrier = new CyclicBarrier(threadCount + 1);
+
+        executor.executeOnPartitionThreads(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    awaitBarrier(barrier);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+
+        awaitBarrier(barrier);
+    }
+
     @Test
     public void test_interruptAllPartitionThreads() throws Exception {
         initExecutor();
@@ -1,7 +1,9 @@
 package com.hazelcast.spi.impl.operationexecutor.impl;
 
+import com.hazelcast.core.HazelcastOverloadException;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
 import com.hazelcast.test.AssertTask;
@@ -11,8 +13,12 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.concurrent.CountDownLatch;
+
 import static com.hazelcast.nio.Packet.FLAG_OP;
 import static com.hazelcast.nio.Packet.FLAG_RESPONSE;
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.PARTITION_QUEUE_CAPACITY;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -92,4 +98,53 @@ public class OperationExecutorImpl_HandlePacketTest extends OperationExecutorImp
             }
         });
     }
+
+    @Test
+    public void test_whenPartitionQueueFull_thenPacketIsRejected() throws Exception {
+        config.setProperty(PARTITION_QUEUE_CAPACITY.getName(), "2");
+        initExecutor();
+
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return 0;
+            }
+
+            @Override
+            public void run() {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertOpenEventually(running);
+
+        // the io thread is never blocked, the packet is rejected right away
+        int handled = 0;
+        boolean rejected = false;
+        while (!rejected) {
+            DummyOperation operation = new DummyOperation(0);
+            try {
+                executor.handle(new Packet(serializationService.toBytes(operation), 0).setFlag(FLAG_OP));
+                handled++;
+            } catch (HazelcastOverloadException expected) {
+                rejected = true;
+            }
+        }
+        release.countDown();
+
+        final int expectedPackets = handled;
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                DummyOperationRunner handler = (DummyOperationRunner) executor.getPartitionOperationRunners()[0];
+                assertEquals(expectedPackets, handler.packets.size());
+            }
+        });
+    }
 }
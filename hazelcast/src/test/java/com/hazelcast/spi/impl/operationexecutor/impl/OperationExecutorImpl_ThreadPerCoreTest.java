@@ -0,0 +1,58 @@
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.HazelcastInstanceManager;
+import com.hazelcast.nio.tcp.nonblocking.NonBlockingIOThreadHost;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.spi.properties.GroupProperty.OPERATION_THREAD_PER_CORE;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class OperationExecutorImpl_ThreadPerCoreTest extends HazelcastTestSupport {
+
+    @Before
+    @After
+    public void killAllHazelcastInstances() {
+        HazelcastInstanceManager.terminateAll();
+    }
+
+    @Test
+    public void testMapOperations() {
+        Config config = new Config();
+        config.getGroupConfig().setName(randomName());
+        config.setProperty(OPERATION_THREAD_PER_CORE.getName(), "true");
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "2");
+
+        HazelcastInstance hz1 = Hazelcast.newHazelcastInstance(config);
+        HazelcastInstance hz2 = Hazelcast.newHazelcastInstance(config);
+        assertClusterSizeEventually(2, hz1);
+
+        OperationServiceImpl operationService = (OperationServiceImpl) getNodeEngineImpl(hz1).getOperationService();
+        NonBlockingIOThreadHost[] hosts = ((OperationExecutorImpl) operationService.getOperationExecutor()).getIOThreadHosts();
+        assertEquals(2, hosts.length);
+
+        IMap<Integer, Integer> map1 = hz1.getMap("map");
+        IMap<Integer, Integer> map2 = hz2.getMap("map");
+        for (int k = 0; k < 1000; k++) {
+            map1.put(k, k);
+        }
+        for (int k = 0; k < 1000; k++) {
+            assertEquals(Integer.valueOf(k), map2.get(k));
+        }
+        assertEquals(1000, map2.size());
+    }
+}
@@ -0,0 +1,197 @@
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.concurrent.BusySpinIdleStrategy;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class RingBufferOperationQueueTest extends HazelcastTestSupport {
+
+    private RingBufferOperationQueue operationQueue = new RingBufferOperationQueue(4, null);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void construct_whenCapacityNotPositive() {
+        new RingBufferOperationQueue(0, null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void add_whenNull() {
+        operationQueue.add(null, false);
+    }
+
+    @Test
+    public void add_whenNormal() {
+        operationQueue.add("task", false);
+
+        assertEquals(1, operationQueue.normalSize());
+        assertEquals(0, operationQueue.prioritySize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void add_whenPriority() {
+        operationQueue.add("task", true);
+
+        assertEquals(0, operationQueue.normalSize());
+        assertEquals(1, operationQueue.prioritySize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void add_whenFull() throws InterruptedException {
+        for (int k = 0; k < 4; k++) {
+            operationQueue.add(k, false);
+        }
+
+        try {
+            operationQueue.add("overflow", false);
+            fail();
+        } catch (HazelcastOverloadException expected) {
+            ignore(expected);
+        }
+
+        // priority tasks are never rejected
+        operationQueue.add("priority", true);
+        assertEquals(5, operationQueue.size());
+
+        // once a slot is freed, normal tasks are accepted again
+        assertSame("priority", operationQueue.take(false));
+        assertEquals(0, operationQueue.take(false));
+        operationQueue.add("task", false);
+        assertEquals(4, operationQueue.normalSize());
+    }
+
+    @Test
+    public void take_whenNormalItemsAvailable_thenFifo() throws InterruptedException {
+        for (int round = 0; round < 3; round++) {
+            operationQueue.add("task1", false);
+            operationQueue.add("task2", false);
+            operationQueue.add("task3", false);
+
+            assertSame("task1", operationQueue.take(false));
+            assertSame("task2", operationQueue.take(false));
+            assertSame("task3", operationQueue.take(false));
+        }
+        assertEquals(0, operationQueue.size());
+    }
+
+    @Test
+    public void take_priorityIsRetrievedFirst() throws InterruptedException {
+        operationQueue.add("normal1", false);
+        operationQueue.add("priority1", true);
+        operationQueue.add("normal2", false);
+        operationQueue.add("priority2", true);
+
+        assertSame("priority1", operationQueue.take(false));
+        assertSame("priority2", operationQueue.take(false));
+        assertSame("normal1", operationQueue.take(false));
+        assertSame("normal2", operationQueue.take(false));
+    }
+
+    @Test
+    public void take_whenPriorityOnly() throws InterruptedException {
+        operationQueue.add("normal", false);
+        operationQueue.add("priority", true);
+
+        assertSame("priority", operationQueue.take(true));
+        assertEquals(1, operationQueue.normalSize());
+    }
+
+    @Test
+    public void take_whenBlocking_thenUnparkedByAdd() throws Exception {
+        assertTakeUnblocked(new RingBufferOperationQueue(4, null), false);
+        assertTakeUnblocked(new RingBufferOperationQueue(4, null), true);
+    }
+
+    @Test
+    public void take_whenBusySpinning_thenItemTaken() throws Exception {
+        assertTakeUnblocked(new RingBufferOperationQueue(4, new BusySpinIdleStrategy()), false);
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void take_whenInterrupted() throws InterruptedException {
+        Thread.currentThread().interrupt();
+        operationQueue.take(false);
+    }
+
+    @Test
+    public void multipleProducers() throws Exception {
+        final RingBufferOperationQueue queue = new RingBufferOperationQueue(1024, null);
+        final int producerCount = 4;
+        final int itemsPerProducer = 10000;
+
+        Future consumer = spawn(new Runnable() {
+            @Override
+            public void run() {
+                int[] lastSeen = new int[producerCount];
+                try {
+                    for (int k = 0; k < producerCount * itemsPerProducer; k++) {
+                        int[] item = (int[]) queue.take(false);
+                        // tasks of a single producer are taken in FIFO order
+                        assertEquals(lastSeen[item[0]] + 1, item[1]);
+                        lastSeen[item[0]] = item[1];
+                    }
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+
+        List<Future> producers = new ArrayList<Future>();
+        for (int p = 0; p < producerCount; p++) {
+            final int producer = p;
+            producers.add(spawn(new Runnable() {
+                @Override
+                public void run() {
+                    for (int k = 1; k <= itemsPerProducer; k++) {
+                        int[] item = {producer, k};
+                        for (; ; ) {
+                            try {
+                                queue.add(item, false);
+                                break;
+                            } catch (HazelcastOverloadException e) {
+                                Thread.yield();
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+
+        for (Future producer : producers) {
+            producer.get();
+        }
+        consumer.get();
+        assertEquals(0, queue.size());
+    }
+
+    private static void assertTakeUnblocked(final RingBufferOperationQueue queue, boolean priority) throws Exception {
+        Future<Object> future = spawn(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return queue.take(false);
+            }
+        });
+
+        sleepMillis(200);
+        queue.add("task", priority);
+
+        assertSame("task", future.get());
+    }
+}
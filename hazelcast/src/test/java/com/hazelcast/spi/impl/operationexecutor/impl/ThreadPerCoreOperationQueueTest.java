@@ -0,0 +1,135 @@
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.nio.tcp.nonblocking.NonBlockingIOThread;
+import com.hazelcast.nio.tcp.nonblocking.NonBlockingIOThreadOutOfMemoryHandler;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ThreadPerCoreOperationQueueTest extends HazelcastTestSupport {
+
+    private final ILogger logger = Logger.getLogger(ThreadPerCoreOperationQueueTest.class);
+    private ThreadPerCoreOperationQueue queue;
+    private NonBlockingIOThread ioThread;
+
+    @Before
+    public void setup() {
+        queue = new ThreadPerCoreOperationQueue();
+        ioThread = new NonBlockingIOThread(null, "in-0", logger, mock(NonBlockingIOThreadOutOfMemoryHandler.class));
+    }
+
+    @After
+    public void tearDown() {
+        ioThread.shutdown();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void add_whenNull() {
+        queue.add(null, false);
+    }
+
+    @Test
+    public void take_priorityIsRetrievedFirst() throws InterruptedException {
+        queue.add("normal", false);
+        queue.add("priority", true);
+
+        assertEquals(1, queue.normalSize());
+        assertEquals(1, queue.prioritySize());
+        assertEquals(2, queue.size());
+        assertSame("priority", queue.take(false));
+        assertSame("normal", queue.take(false));
+    }
+
+    @Test
+    public void take_whenNotHosted_thenUnparkedByAdd() throws Exception {
+        assertTakeUnblocked();
+    }
+
+    @Test
+    public void take_whenHosted_thenSelectorWokenUpByAdd() throws Exception {
+        queue.host(ioThread);
+
+        assertTakeUnblocked();
+    }
+
+    @Test
+    public void take_whenHosted_thenIOTasksRunByConsumer() throws Exception {
+        queue.host(ioThread);
+
+        Future<Object[]> future = spawn(new Callable<Object[]>() {
+            @Override
+            public Object[] call() throws Exception {
+                return new Object[]{Thread.currentThread(), queue.take(false)};
+            }
+        });
+
+        sleepMillis(200);
+        // the io task is executed by the consumer, so the packet is added by the consumer itself
+        ioThread.addTaskAndWakeup(new Runnable() {
+            @Override
+            public void run() {
+                queue.add(Thread.currentThread(), false);
+            }
+        });
+
+        Object[] result = future.get();
+        assertSame(result[0], result[1]);
+    }
+
+    @Test
+    public void take_whenHostRemoved_thenFallsBackToParking() throws Exception {
+        queue.host(ioThread);
+
+        Future<Object> future = spawn(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return queue.take(false);
+            }
+        });
+
+        sleepMillis(200);
+        queue.host(null);
+        sleepMillis(200);
+        queue.add("task", false);
+
+        assertSame("task", future.get());
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void take_whenInterrupted() throws InterruptedException {
+        queue.host(ioThread);
+        Thread.currentThread().interrupt();
+        queue.take(false);
+    }
+
+    private void assertTakeUnblocked() throws Exception {
+        Future<Object> future = spawn(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return queue.take(false);
+            }
+        });
+
+        sleepMillis(200);
+        queue.add("task", false);
+
+        assertSame("task", future.get());
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.IMap;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationservice.InternalOperationService;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.PARTITION_QUEUE_CAPACITY;
+import static com.hazelcast.spi.properties.GroupProperty.OPERATION_BACKUP_TIMEOUT_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests the handling of remote operations when the queue of a partition thread is full.
+ */
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class OperationPacketHandlerTest extends HazelcastTestSupport {
+
+    private HazelcastInstance local;
+    private HazelcastInstance remote;
+    private CountDownLatch release;
+
+    @Before
+    public void setup() {
+        Config config = new Config();
+        config.setProperty(PARTITION_QUEUE_CAPACITY.getName(), "4");
+        // all partitions share a single partition thread, so it is easy to block
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "1");
+        // a lost backup would keep its invocation waiting for the ack
+        config.setProperty(OPERATION_BACKUP_TIMEOUT_MILLIS.getName(), "60000");
+
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        local = instances[0];
+        remote = instances[1];
+        warmUpPartitions(instances);
+        release = new CountDownLatch(1);
+    }
+
+    @Test
+    public void whenPartitionQueueFull_thenInvocationIsRetried() throws Exception {
+        IMap<String, String> map = local.getMap("map");
+        String key = generateKeyOwnedBy(remote);
+        blockAndFillPartitionThread(remote);
+
+        ICompletableFuture<String> future = map.putAsync(key, "value");
+        sleepSeconds(1);
+        assertFalse(future.isDone());
+
+        release.countDown();
+        future.get(30, SECONDS);
+        assertEquals("value", map.get(key));
+    }
+
+    @Test
+    public void whenPartitionQueueFull_thenBackupIsNotLost() throws Exception {
+        IMap<String, String> map = local.getMap("map");
+        String key = generateKeyOwnedBy(local);
+        blockAndFillPartitionThread(remote);
+
+        ICompletableFuture<String> future = map.putAsync(key, "value");
+        release.countDown();
+        future.get(30, SECONDS);
+
+        local.getLifecycleService().terminate();
+        assertEquals("value", remote.getMap("map").get(key));
+    }
+
+    private void blockAndFillPartitionThread(HazelcastInstance hz) {
+        InternalOperationService operationService = getOperationService(hz);
+        final CountDownLatch running = new CountDownLatch(1);
+        operationService.execute(new PartitionRunnable() {
+            @Override
+            public void run() {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertOpenEventually(running);
+
+        try {
+            for (; ; ) {
+                operationService.execute(new PartitionRunnable());
+            }
+        } catch (HazelcastOverloadException expected) {
+            // the queue is full
+            ignore(expected);
+        }
+    }
+
+    private static class PartitionRunnable implements PartitionSpecificRunnable {
+
+        @Override
+        public int getPartitionId() {
+            return 0;
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+}